@@ -0,0 +1,76 @@
+package org.example.searadar.benchmarks;
+
+import org.example.searadar.mr231.convert.Mr231Converter;
+import org.example.searadar.mr231.station.Mr231StationType;
+import org.example.searadar.mr231_3.convert.Mr231_3Converter;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.oogis.searadar.api.convert.SearadarExchangeConverter;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конвертация одного предложения каждого типа конвертерами МР-231 и МР-231-3.
+ * <p>
+ * {@code convertString} - путь {@code convert(String)} с новым списком на каждый вызов,
+ * {@code convertIntoSink} - блочный путь с переиспользуемой коллекцией.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({"MR_231", "MR_231_3"})
+    private String station;
+
+    @Param({"TTM", "VHW", "RSD"})
+    private String sentenceType;
+
+    @Param({"BOXED", "PRIMITIVE", "LAZY"})
+    private MessageRepresentation representation;
+
+    private Mr231Converter mr231;
+    private Mr231_3Converter mr231_3;
+    private SearadarExchangeConverter converter;
+    private String sentence;
+    private final List<SearadarStationMessage> sink = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        if ("MR_231".equals(station)) {
+            converter = mr231 = new Mr231StationType().createConverter(representation);
+        } else {
+            converter = mr231_3 = new Mr231_3StationType().createConverter(representation);
+        }
+        sentence = Sentences.byType(sentenceType);
+    }
+
+    @Benchmark
+    public List<SearadarStationMessage> convertString() {
+        return mr231 != null ? mr231.convert(sentence) : mr231_3.convert(sentence);
+    }
+
+    @Benchmark
+    public List<SearadarStationMessage> convertIntoSink() {
+        sink.clear();
+        converter.convert(sentence, sink);
+        return sink;
+    }
+}
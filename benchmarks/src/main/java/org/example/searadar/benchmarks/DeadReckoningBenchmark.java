@@ -0,0 +1,62 @@
+package org.example.searadar.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.oogis.searadar.api.track.DeadReckoning;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Счисление позиций всех целей на момент между обзорами - запрос, выполняемый на каждом кадре экрана.
+ * Момент запроса сдвигается на каждом вызове, чтобы JIT не свернул расчет.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeadReckoningBenchmark {
+
+    @Param({"1000", "5000"})
+    private int targets;
+
+    private final DeadReckoning reckoning = new DeadReckoning();
+    private int[] numbers;
+    private double[] latitudes;
+    private double[] longitudes;
+    private long time;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(25);
+        GeoTargetBatch fixes = new GeoTargetBatch(targets);
+        for (int i = 0; i < targets; i++) {
+            fixes.add(0L, i, 59.0 + random.nextDouble(), 29.0 + random.nextDouble(), random.nextDouble() * 360,
+                    random.nextDouble() * 30);
+        }
+        reckoning.update(fixes);
+        numbers = new int[targets];
+        latitudes = new double[targets];
+        longitudes = new double[targets];
+    }
+
+    @Benchmark
+    public double[] project() {
+        // Кадр 60 Гц в пределах периода обзора
+        time = (time + 16) % 3000;
+        reckoning.project(time, numbers, latitudes, longitudes);
+        return latitudes;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.searadar.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.hydra.util.TargetMovementElements;
+import ru.oogis.hydra.util.TargetMovementElementsCalculator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Геодезические расчеты по парам позиций цели. Позиции берутся по кругу из заранее сгенерированного
+ * массива, чтобы JIT не свернул вычисление над константами. Пакетные варианты считают все позиции
+ * массива за вызов: сравнение с поштучными - по времени на позицию.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoBenchmark {
+
+    private static final int POSITIONS = 1024;
+
+    private final double[] lat1 = new double[POSITIONS];
+    private final double[] lon1 = new double[POSITIONS];
+    private final double[] lat2 = new double[POSITIONS];
+    private final double[] lon2 = new double[POSITIONS];
+    private final double[] distances = new double[POSITIONS];
+    private final double[] courses = new double[POSITIONS];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(231);
+        for (int i = 0; i < POSITIONS; i++) {
+            lat1[i] = 59.0 + random.nextDouble();
+            lon1[i] = 29.0 + random.nextDouble();
+            // Смещение цели за период обзора - до нескольких сотен метров
+            lat2[i] = lat1[i] + (random.nextDouble() - 0.5) * 0.005;
+            lon2[i] = lon1[i] + (random.nextDouble() - 0.5) * 0.005;
+        }
+    }
+
+    @Benchmark
+    public double calcCourse() {
+        int i = next();
+        return GeoHelper.calcCourse(lat1[i], lon1[i], lat2[i], lon2[i]);
+    }
+
+    @Benchmark
+    public double calcDistanceInMeters() {
+        int i = next();
+        return GeoHelper.calcDistanceInMeters(lat1[i], lon1[i], lat2[i], lon2[i]);
+    }
+
+    @Benchmark
+    public TargetMovementElements calculate() {
+        int i = next();
+        return TargetMovementElementsCalculator.calculate(lat1[i], lon1[i], lat2[i], lon2[i], 3);
+    }
+
+    @Benchmark
+    public double[] calcDistancesFromOrigin() {
+        GeoHelper.calcDistancesInMeters(lat1[0], lon1[0], lat2, lon2, POSITIONS, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] calcDistancesAndCoursesFromOrigin() {
+        GeoHelper.calcDistancesAndCourses(lat1[0], lon1[0], lat2, lon2, POSITIONS, distances, courses);
+        return courses;
+    }
+
+    @Benchmark
+    public double[] calcPairwiseDistances() {
+        GeoHelper.calcDistancesInMeters(lat1, lon1, lat2, lon2, POSITIONS, distances);
+        return distances;
+    }
+
+    private int next() {
+        return index = (index + 1) & (POSITIONS - 1);
+    }
+}
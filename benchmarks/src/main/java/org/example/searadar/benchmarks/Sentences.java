@@ -0,0 +1,39 @@
+package org.example.searadar.benchmarks;
+
+/**
+ * Эталонные предложения МР-231/МР-231-3 с корректной контрольной суммой.
+ */
+final class Sentences {
+
+    static final String TTM = withChecksum("RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,A");
+    static final String VHW = withChecksum("RAVHW,356.7,T,,,50.4,N,,");
+    static final String RSD = withChecksum("RARSD,50.5,309.9,64.8,132.3,,,,,52.6,155.0,48.0,K,N,S");
+
+    private Sentences() {
+    }
+
+    static String byType(String type) {
+        switch (type) {
+            case "TTM":
+                return TTM;
+            case "VHW":
+                return VHW;
+            case "RSD":
+                return RSD;
+            default:
+                throw new IllegalArgumentException("Unknown sentence type: " + type);
+        }
+    }
+
+    /**
+     * @param body предложение без {@code '$'} и суффикса {@code *hh}
+     * @return предложение вида {@code $body*hh}
+     */
+    static String withChecksum(String body) {
+        int crc = 0;
+        for (int i = 0; i < body.length(); i++) {
+            crc ^= body.charAt(i);
+        }
+        return String.format("$%s*%02X", body, crc);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.searadar.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.oogis.hydra.validate.nmea.NMEACRCValidator;
+import ru.oogis.hydra.validate.nmea.NMEAValidator;
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка контрольной суммы валидаторами hydra в сравнении с однопроходным {@link NmeaFieldCursor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final String PATTERN = "^\\$RA(TTM|VHW|RSD),[^*]*\\*[0-9A-F]{2}$";
+
+    @Param({"TTM", "VHW", "RSD"})
+    private String sentenceType;
+
+    private String sentence;
+    private final NMEACRCValidator crcValidator = new NMEACRCValidator();
+    private final NMEAValidator patternValidator = new NMEAValidator(PATTERN);
+    private final NmeaFieldCursor cursor = new NmeaFieldCursor();
+
+    @Setup
+    public void setup() {
+        sentence = Sentences.byType(sentenceType);
+    }
+
+    @Benchmark
+    public boolean crcValidator() {
+        return crcValidator.validate(sentence);
+    }
+
+    @Benchmark
+    public boolean patternValidator() {
+        return patternValidator.validate(sentence);
+    }
+
+    @Benchmark
+    public boolean fieldCursor() {
+        return cursor.reset(sentence).isChecksumValid();
+    }
+}
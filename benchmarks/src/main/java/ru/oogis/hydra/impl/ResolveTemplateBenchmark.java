@@ -0,0 +1,69 @@
+package ru.oogis.hydra.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.oogis.hydra.config.ChannelConfig;
+import ru.oogis.hydra.config.ConfigParameter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подстановка параметров канала в шаблон маршрутов
+ * ({@link AbstractInteractionManager#resolveTemplate}). Лежит в пакете менеджера, так как метод
+ * виден только в пакете.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveTemplateBenchmark {
+
+    @Param({"4", "16"})
+    private int parameterCount;
+
+    private String template;
+    private ChannelConfig channelConfig;
+
+    @Setup
+    public void setup() {
+        List<ConfigParameter> parameters = new ArrayList<>();
+        StringBuilder uri = new StringBuilder("mina2:udp://$${host}:$${port}?sync=false");
+        parameters.add(new ConfigParameter("host", "host", "192.168.1.10", null, null));
+        parameters.add(new ConfigParameter("port", "port", "10110", null, null));
+        for (int i = 2; i < parameterCount; i++) {
+            String name = "param" + i;
+            parameters.add(new ConfigParameter(name, name, "value" + i, null, null));
+            uri.append('&').append(name).append("=$${").append(name).append('}');
+        }
+        channelConfig = new ChannelConfig("mr231-1", "МР-231", null);
+        channelConfig.setParameters(parameters);
+        template = "<routes xmlns=\"http://camel.apache.org/schema/spring\">\n"
+                + "  <route id=\"receive\">\n"
+                + "    <from uri=\"" + uri.toString().replace("&", "&amp;") + "&amp;codec=#mr231\"/>\n"
+                + "    <to uri=\"seda:$${channel_id}-messages\"/>\n"
+                + "  </route>\n"
+                + "  <route id=\"store\">\n"
+                + "    <from uri=\"seda:$${channel_id}-messages\"/>\n"
+                + "    <to uri=\"bean:searadarStore\"/>\n"
+                + "  </route>\n"
+                + "</routes>\n";
+    }
+
+    @Benchmark
+    public String resolveTemplate() {
+        return AbstractInteractionManager.resolveTemplate(template, channelConfig);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.searadar.generator;
+
+/**
+ * Протокол станции, для которой генерируется поток.
+ */
+public enum Dialect {
+
+    /**
+     * МР-231: TTM без времени наблюдения цели.
+     */
+    MR_231,
+
+    /**
+     * МР-231-3: TTM дополнительно содержит время наблюдения (поле 14, hhmmss) и тип захвата (поле 15).
+     */
+    MR_231_3;
+
+    /**
+     * @param name {@code mr231}, {@code mr231-3} или имя константы
+     */
+    public static Dialect parse(String name) {
+        String normalized = name.trim().toUpperCase().replace('-', '_');
+        if ("MR231".equals(normalized)) {
+            return MR_231;
+        }
+        if ("MR231_3".equals(normalized)) {
+            return MR_231_3;
+        }
+        return valueOf(normalized);
+    }
+}
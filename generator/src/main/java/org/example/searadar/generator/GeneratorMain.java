@@ -0,0 +1,115 @@
+package org.example.searadar.generator;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Запуск генератора из командной строки:
+ * <pre>
+ * java -jar generator.jar [--dialect mr231|mr231-3] [--targets 50] [--rate 0.4] [--speedup 1]
+ *                         [--malformed 0.0] [--range 12] [--sweeps 0] [--seed 231] [--out -]
+ * </pre>
+ * {@code --rate} - частота обзора (оборотов антенны в секунду модельного времени), {@code --speedup} -
+ * во сколько раз поток быстрее реального (0 - без ограничения скорости), {@code --sweeps} - количество
+ * оборотов (0 - до остановки процесса), {@code --out} - получатель (см. {@link TrafficSink#open}).
+ * Итоговая статистика выводится в stderr.
+ */
+public final class GeneratorMain {
+
+    private static final String USAGE = "Usage: [--dialect mr231|mr231-3] [--targets N] [--rate Hz] [--speedup X]"
+            + " [--malformed ratio] [--range NM] [--sweeps N] [--seed N] [--out -|file|tcp://host:port|udp://host:port]";
+
+    private GeneratorMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Dialect dialect = Dialect.MR_231;
+        int targets = 50;
+        double rate = 0.4;
+        double speedup = 1.0;
+        double malformed = 0.0;
+        double range = 12.0;
+        long sweeps = 0;
+        long seed = 231;
+        String out = "-";
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if ("--help".equals(name) || "-h".equals(name)) {
+                System.err.println(USAGE);
+                return;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + name + "\n" + USAGE);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--dialect":
+                    dialect = Dialect.parse(value);
+                    break;
+                case "--targets":
+                    targets = Integer.parseInt(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--speedup":
+                    speedup = Double.parseDouble(value);
+                    break;
+                case "--malformed":
+                    malformed = Double.parseDouble(value);
+                    break;
+                case "--range":
+                    range = Double.parseDouble(value);
+                    break;
+                case "--sweeps":
+                    sweeps = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--out":
+                    out = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + name + "\n" + USAGE);
+            }
+        }
+        if (!(rate > 0.0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+
+        TrafficGenerator generator =
+                new TrafficGenerator(dialect, targets, malformed, seed, System.currentTimeMillis(), range);
+        double period = 1.0 / rate;
+        long periodNanos = speedup > 0.0 ? (long) (TimeUnit.SECONDS.toNanos(1) * period / speedup) : 0L;
+        StringBuilder block = new StringBuilder(128 * (targets + 2));
+        long started = System.nanoTime();
+        long deadline = started;
+
+        // Статистика выводится и при остановке процесса по Ctrl+C / SIGTERM
+        Dialect stationDialect = dialect;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            System.err.printf("%s: %d sentences (%d malformed %s) in %.1f s, %.0f sentences/s%n",
+                    stationDialect, generator.getSentenceCount(), generator.getMalformedCount(),
+                    generator.getMalformedCounts(), elapsed, generator.getSentenceCount() / Math.max(elapsed, 1e-9));
+        }));
+
+        try (TrafficSink sink = TrafficSink.open(out)) {
+            for (long sweep = 0; sweeps == 0 || sweep < sweeps; sweep++) {
+                block.setLength(0);
+                generator.sweep(period, block);
+                sink.write(block);
+                if (periodNanos > 0) {
+                    deadline += periodNanos;
+                    long delay;
+                    while ((delay = deadline - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.searadar.generator;
+
+/**
+ * Вид повреждения, внедряемого в предложение. Каждый вид соответствует одной причине отбраковки
+ * конвертером станции.
+ */
+public enum Malformation {
+
+    /**
+     * Контрольная сумма не совпадает с содержимым (помеха в линии).
+     */
+    BAD_CHECKSUM,
+
+    /**
+     * Предложение оборвано до символа {@code '*'}.
+     */
+    TRUNCATED,
+
+    /**
+     * Оставлены только форматтер и первое поле; контрольная сумма пересчитана.
+     */
+    TOO_FEW_FIELDS,
+
+    /**
+     * Первое числовое поле содержит букву; контрольная сумма пересчитана.
+     */
+    BAD_NUMBER,
+
+    /**
+     * Форматтер сокращен до двух символов; контрольная сумма пересчитана.
+     */
+    UNKNOWN_TYPE
+}
@@ -0,0 +1,104 @@
+package org.example.searadar.generator;
+
+/**
+ * Запись NMEA-предложений в общий {@link StringBuilder} без промежуточных строк.
+ * <p>
+ * Предложение начинается вызовом {@link #begin}, поля добавляются методами {@code field}, а {@link #end}
+ * дописывает контрольную сумму и перевод строки. Между {@link #endBody} и {@link #end} тело предложения
+ * можно изменить - так внедряются повреждения.
+ */
+final class NmeaSentenceWriter {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+
+    private final StringBuilder out;
+    private int start;
+
+    NmeaSentenceWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    StringBuilder out() {
+        return out;
+    }
+
+    /**
+     * @return индекс символа {@code '$'} текущего предложения
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * @param header талкер и форматтер, например {@code RATTM}
+     */
+    NmeaSentenceWriter begin(String header) {
+        start = out.length();
+        out.append('$').append(header);
+        return this;
+    }
+
+    NmeaSentenceWriter field() {
+        out.append(',');
+        return this;
+    }
+
+    NmeaSentenceWriter field(char value) {
+        out.append(',').append(value);
+        return this;
+    }
+
+    NmeaSentenceWriter field(long value, int width) {
+        out.append(',');
+        appendPadded(value, width);
+        return this;
+    }
+
+    /**
+     * Добавляет число с фиксированным количеством знаков после точки.
+     *
+     * @param intWidth минимальное количество цифр целой части (дополняется нулями: {@code 024.5})
+     */
+    NmeaSentenceWriter field(double value, int intWidth, int decimals) {
+        out.append(',');
+        long scaled = Math.round(Math.abs(value) * POWERS_OF_TEN[decimals]);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+        appendPadded(scaled / POWERS_OF_TEN[decimals], intWidth);
+        if (decimals > 0) {
+            out.append('.');
+            appendPadded(scaled % POWERS_OF_TEN[decimals], decimals);
+        }
+        return this;
+    }
+
+    /**
+     * @return контрольная сумма тела текущего предложения
+     */
+    int endBody() {
+        int crc = 0;
+        for (int i = start + 1, n = out.length(); i < n; i++) {
+            crc ^= out.charAt(i);
+        }
+        return crc;
+    }
+
+    void end(int checksum) {
+        out.append('*').append(HEX[checksum >> 4 & 0xF]).append(HEX[checksum & 0xF]).append("\r\n");
+    }
+
+    void end() {
+        end(endBody());
+    }
+
+    private void appendPadded(long value, int width) {
+        for (long limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
+    }
+}
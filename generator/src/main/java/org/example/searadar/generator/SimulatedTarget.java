@@ -0,0 +1,86 @@
+package org.example.searadar.generator;
+
+import java.util.Random;
+
+/**
+ * Сопровождаемая цель. Положение хранится относительно собственного судна в морских милях
+ * (x - на восток, y - на север), курс и скорость - абсолютные (относительно грунта).
+ * <p>
+ * Движение моделируется как плавное маневрирование: угловая скорость поворота и ускорение меняются
+ * случайным блужданием с возвратом к нулю, поэтому цель чаще идет прямым курсом и время от времени
+ * выполняет циркуляцию или меняет ход.
+ */
+final class SimulatedTarget {
+
+    private static final double MAX_TURN_RATE = 0.5;
+    private static final double MAX_ACCELERATION = 0.05;
+    private static final double MAX_SPEED = 30.0;
+    private static final char[] IFF = {'b', 'p', 'd'};
+
+    final int number;
+    double x;
+    double y;
+    double course;
+    double speed;
+    char iff;
+    char status;
+    private double turnRate;
+    private double acceleration;
+
+    SimulatedTarget(int number) {
+        this.number = number;
+    }
+
+    /**
+     * Размещает цель в случайной точке зоны обзора с новыми элементами движения.
+     */
+    void spawn(Random random, double maxRange) {
+        double distance = maxRange * (0.1 + 0.8 * Math.sqrt(random.nextDouble()));
+        double bearing = Math.toRadians(random.nextDouble() * 360.0);
+        x = distance * Math.sin(bearing);
+        y = distance * Math.cos(bearing);
+        course = random.nextDouble() * 360.0;
+        speed = random.nextDouble() < 0.1 ? 0.0 : 2.0 + random.nextDouble() * 20.0;
+        turnRate = 0.0;
+        acceleration = 0.0;
+        iff = IFF[random.nextInt(IFF.length)];
+        status = 'Q';
+    }
+
+    /**
+     * Продвигает цель на {@code dt} секунд.
+     *
+     * @param ownVx составляющая скорости собственного судна на восток, узлы
+     * @param ownVy составляющая скорости собственного судна на север, узлы
+     */
+    void advance(double dt, double ownVx, double ownVy, Random random) {
+        turnRate = clamp(0.9 * turnRate + random.nextGaussian() * 0.05, MAX_TURN_RATE);
+        acceleration = clamp(0.9 * acceleration + random.nextGaussian() * 0.005, MAX_ACCELERATION);
+        course = normalize(course + turnRate * dt);
+        speed = Math.max(0.0, Math.min(MAX_SPEED, speed + acceleration * dt));
+        double hours = dt / 3600.0;
+        double heading = Math.toRadians(course);
+        x += (speed * Math.sin(heading) - ownVx) * hours;
+        y += (speed * Math.cos(heading) - ownVy) * hours;
+        if (status == 'Q') {
+            status = 'T';
+        }
+    }
+
+    double distance() {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    double bearing() {
+        return normalize(Math.toDegrees(Math.atan2(x, y)));
+    }
+
+    static double normalize(double angle) {
+        double result = angle % 360.0;
+        return result < 0 ? result + 360.0 : result;
+    }
+
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+}
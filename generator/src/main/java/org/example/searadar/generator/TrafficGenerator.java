@@ -0,0 +1,259 @@
+package org.example.searadar.generator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Генератор синтетического потока радиолокационной станции.
+ * <p>
+ * Каждый вызов {@link #sweep} моделирует один оборот антенны: собственное судно и цели продвигаются
+ * на период обзора, после чего в блок записываются {@code $RAVHW} собственного судна, {@code $RATTM}
+ * по каждой цели и {@code $RARSD} с состоянием индикатора. Все предложения снабжены корректной
+ * контрольной суммой; доля {@code malformedRatio} из них намеренно повреждается ({@link Malformation}).
+ * <p>
+ * Цель, вышедшая за шкалу дальности, один раз выдается со статусом {@code L} (потеряна) и затем
+ * захватывается заново в другой точке под тем же номером. Генерация детерминирована при одинаковом
+ * {@code seed}.
+ */
+public class TrafficGenerator {
+
+    private static final double[] DISTANCE_SCALE = {0.125, 0.25, 0.5, 1.5, 3.0, 6.0, 12.0, 24.0, 48.0, 96.0};
+    private static final Malformation[] MALFORMATIONS = Malformation.values();
+
+    private final Dialect dialect;
+    private final double malformedRatio;
+    private final double maxRange;
+    private final double distanceScale;
+    private final Random random;
+    private final SimulatedTarget[] targets;
+    private final long[] malformedCounts = new long[MALFORMATIONS.length];
+    private long time;
+    private long sentenceCount;
+    private double ownHeading;
+    private double ownSpeed;
+
+    /**
+     * @param dialect        протокол станции
+     * @param targetCount    количество одновременно сопровождаемых целей
+     * @param malformedRatio доля поврежденных предложений, от 0 до 1
+     * @param seed           начальное значение генератора случайных чисел
+     * @param startTime      время первого оборота антенны, мс
+     */
+    public TrafficGenerator(Dialect dialect, int targetCount, double malformedRatio, long seed, long startTime) {
+        this(dialect, targetCount, malformedRatio, seed, startTime, 12.0);
+    }
+
+    /**
+     * @param maxRange шкала дальности, морские мили; цели, вышедшие за нее, теряются
+     */
+    public TrafficGenerator(Dialect dialect, int targetCount, double malformedRatio, long seed, long startTime,
+                            double maxRange) {
+        if (targetCount < 0) {
+            throw new IllegalArgumentException("Target count must not be negative: " + targetCount);
+        }
+        if (!(malformedRatio >= 0.0 && malformedRatio <= 1.0)) {
+            throw new IllegalArgumentException("Malformed ratio must be within [0, 1]: " + malformedRatio);
+        }
+        if (!(maxRange > 0.0)) {
+            throw new IllegalArgumentException("Max range must be positive: " + maxRange);
+        }
+        this.dialect = dialect;
+        this.malformedRatio = malformedRatio;
+        this.maxRange = maxRange;
+        this.distanceScale = scaleFor(maxRange);
+        this.random = new Random(seed);
+        this.time = startTime;
+        this.ownHeading = random.nextDouble() * 360.0;
+        this.ownSpeed = 8.0 + random.nextDouble() * 10.0;
+        this.targets = new SimulatedTarget[targetCount];
+        for (int i = 0; i < targetCount; i++) {
+            targets[i] = new SimulatedTarget(i + 1);
+            targets[i].spawn(random, maxRange);
+        }
+    }
+
+    /**
+     * Моделирует один оборот антенны и дописывает его предложения в блок.
+     *
+     * @param periodSeconds период обзора, с
+     * @param block         блок, в который дописываются предложения, разделенные CR/LF
+     * @return количество записанных предложений
+     */
+    public int sweep(double periodSeconds, StringBuilder block) {
+        time += Math.round(periodSeconds * 1000.0);
+        ownHeading = SimulatedTarget.normalize(ownHeading + random.nextGaussian() * 0.2 * periodSeconds);
+        ownSpeed = Math.max(0.0, Math.min(25.0, ownSpeed + random.nextGaussian() * 0.02 * periodSeconds));
+        double ownVx = ownSpeed * Math.sin(Math.toRadians(ownHeading));
+        double ownVy = ownSpeed * Math.cos(Math.toRadians(ownHeading));
+
+        NmeaSentenceWriter writer = new NmeaSentenceWriter(block);
+        int count = 0;
+
+        writeVhw(writer);
+        count++;
+
+        for (SimulatedTarget target : targets) {
+            if (target.status == 'L') {
+                target.spawn(random, maxRange);
+            }
+            target.advance(periodSeconds, ownVx, ownVy, random);
+            if (target.distance() > maxRange) {
+                target.status = 'L';
+            }
+            writeTtm(writer, target, ownVx, ownVy);
+            count++;
+        }
+
+        writeRsd(writer);
+        count++;
+
+        sentenceCount += count;
+        return count;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public int getTargetCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return время последнего оборота антенны, мс
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return общее количество записанных предложений, включая поврежденные
+     */
+    public long getSentenceCount() {
+        return sentenceCount;
+    }
+
+    public long getMalformedCount() {
+        long total = 0;
+        for (long count : malformedCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getMalformedCount(Malformation malformation) {
+        return malformedCounts[malformation.ordinal()];
+    }
+
+    /**
+     * @return ненулевые счетчики поврежденных предложений по видам
+     */
+    public Map<Malformation, Long> getMalformedCounts() {
+        Map<Malformation, Long> result = new EnumMap<>(Malformation.class);
+        for (Malformation malformation : MALFORMATIONS) {
+            if (malformedCounts[malformation.ordinal()] != 0) {
+                result.put(malformation, malformedCounts[malformation.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    private void writeVhw(NmeaSentenceWriter writer) {
+        writer.begin("RAVHW")
+                .field(ownHeading, 3, 1).field('T')
+                .field().field()
+                .field(ownSpeed, 1, 1).field('N')
+                .field().field();
+        finish(writer);
+    }
+
+    private void writeTtm(NmeaSentenceWriter writer, SimulatedTarget target, double ownVx, double ownVy) {
+        // Точка наибольшего сближения по относительному движению
+        double heading = Math.toRadians(target.course);
+        double relVx = target.speed * Math.sin(heading) - ownVx;
+        double relVy = target.speed * Math.cos(heading) - ownVy;
+        double relSpeed2 = relVx * relVx + relVy * relVy;
+        double tcpaHours = relSpeed2 < 1e-9 ? 0.0 : Math.max(0.0, -(target.x * relVx + target.y * relVy) / relSpeed2);
+        double cpaX = target.x + relVx * tcpaHours;
+        double cpaY = target.y + relVy * tcpaHours;
+
+        writer.begin("RATTM")
+                .field(target.number, 2)
+                .field(target.distance(), 1, 2)
+                .field(target.bearing(), 3, 1).field('T')
+                .field(target.speed, 1, 1)
+                .field(target.course, 3, 1).field('T')
+                .field(Math.sqrt(cpaX * cpaX + cpaY * cpaY), 1, 1)
+                .field(Math.min(tcpaHours * 60.0, 999.9), 1, 1)
+                .field('N')
+                .field(target.iff)
+                .field(target.status)
+                .field();
+        if (dialect == Dialect.MR_231_3) {
+            long secondOfDay = Math.floorMod(time / 1000, 86400L);
+            writer.field(secondOfDay / 3600 * 10000 + secondOfDay / 60 % 60 * 100 + secondOfDay % 60, 6)
+                    .field('A');
+        }
+        finish(writer);
+    }
+
+    private void writeRsd(NmeaSentenceWriter writer) {
+        double vrmBearing = SimulatedTarget.normalize(ownHeading + 45.0);
+        writer.begin("RARSD")
+                .field(distanceScale / 2, 1, 1)
+                .field(vrmBearing, 3, 1)
+                .field(distanceScale / 4, 1, 1)
+                .field(ownHeading, 3, 1)
+                .field().field().field().field()
+                .field(distanceScale / 3, 1, 1)
+                .field(SimulatedTarget.normalize(vrmBearing + 90.0), 3, 1)
+                .field(distanceScale, 1, distanceScale < 1.0 ? 3 : 1)
+                .field('N')
+                .field('N')
+                .field('S');
+        finish(writer);
+    }
+
+    private void finish(NmeaSentenceWriter writer) {
+        if (malformedRatio == 0.0 || random.nextDouble() >= malformedRatio) {
+            writer.end();
+            return;
+        }
+        Malformation malformation = MALFORMATIONS[random.nextInt(MALFORMATIONS.length)];
+        malformedCounts[malformation.ordinal()]++;
+        StringBuilder out = writer.out();
+        int start = writer.start();
+        switch (malformation) {
+            case BAD_CHECKSUM:
+                writer.end(writer.endBody() ^ (1 + random.nextInt(0xFF)));
+                return;
+            case TRUNCATED:
+                // Обрыв в произвольном месте после заголовка $RAxxx
+                out.setLength(start + 6 + random.nextInt(out.length() - start - 6 + 1));
+                out.append("\r\n");
+                return;
+            case TOO_FEW_FIELDS:
+                out.setLength(out.indexOf(",", out.indexOf(",", start) + 1));
+                break;
+            case BAD_NUMBER:
+                out.setCharAt(out.indexOf(",", start) + 1, 'O');
+                break;
+            case UNKNOWN_TYPE:
+                out.deleteCharAt(start + 5);
+                break;
+            default:
+                throw new IllegalStateException(malformation.name());
+        }
+        writer.end();
+    }
+
+    private static double scaleFor(double maxRange) {
+        for (double scale : DISTANCE_SCALE) {
+            if (scale >= maxRange) {
+                return scale;
+            }
+        }
+        return DISTANCE_SCALE[DISTANCE_SCALE.length - 1];
+    }
+}
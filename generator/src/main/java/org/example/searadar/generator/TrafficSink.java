@@ -0,0 +1,144 @@
+package org.example.searadar.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Получатель сгенерированного потока: файл, стандартный вывод или локальный сокет.
+ */
+public abstract class TrafficSink implements Closeable {
+
+    private byte[] buffer = new byte[8192];
+
+    /**
+     * Открывает получателя по описанию:
+     * <ul>
+     * <li>{@code -} - стандартный вывод;</li>
+     * <li>{@code tcp://host:port} - TCP-соединение с приемником (например, каналом hydra);</li>
+     * <li>{@code udp://host:port} - UDP-датаграммы, не более {@value UdpSink#MAX_DATAGRAM} байт каждая;</li>
+     * <li>{@code file:путь} или просто путь - файл (перезаписывается).</li>
+     * </ul>
+     */
+    public static TrafficSink open(String spec) throws IOException {
+        if ("-".equals(spec)) {
+            return new StreamSink(System.out, false);
+        }
+        if (spec.startsWith("tcp://")) {
+            Socket socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(address(spec.substring("tcp://".length())));
+            return new StreamSink(socket.getOutputStream(), true);
+        }
+        if (spec.startsWith("udp://")) {
+            DatagramSocket socket = new DatagramSocket();
+            socket.connect(address(spec.substring("udp://".length())));
+            return new UdpSink(socket);
+        }
+        String path = spec.startsWith("file:") ? spec.substring("file:".length()) : spec;
+        return new StreamSink(new FileOutputStream(path), true);
+    }
+
+    /**
+     * Передает блок предложений, разделенных CR/LF.
+     */
+    public abstract void write(CharSequence block) throws IOException;
+
+    /**
+     * Перекодирует ASCII-блок в байты во внутренний буфер.
+     *
+     * @return буфер, первые {@code block.length()} байт которого заполнены
+     */
+    protected byte[] encode(CharSequence block) {
+        int length = block.length();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[i] = (byte) block.charAt(i);
+        }
+        return buffer;
+    }
+
+    private static InetSocketAddress address(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected host:port, got: " + hostPort);
+        }
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+
+    static final class StreamSink extends TrafficSink {
+
+        private final OutputStream out;
+        private final boolean closeStream;
+
+        StreamSink(OutputStream out, boolean closeStream) {
+            this.out = new BufferedOutputStream(out, 65536);
+            this.closeStream = closeStream;
+        }
+
+        @Override
+        public void write(CharSequence block) throws IOException {
+            out.write(encode(block), 0, block.length());
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Разбивает блок на датаграммы по границам предложений, чтобы приемник не получал оборванных строк.
+     */
+    static final class UdpSink extends TrafficSink {
+
+        static final int MAX_DATAGRAM = 1400;
+
+        private final DatagramSocket socket;
+        private final DatagramPacket packet = new DatagramPacket(new byte[0], 0);
+
+        UdpSink(DatagramSocket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void write(CharSequence block) throws IOException {
+            byte[] bytes = encode(block);
+            int length = block.length();
+            int from = 0;
+            while (from < length) {
+                int to = Math.min(from + MAX_DATAGRAM, length);
+                if (to < length) {
+                    int lineEnd = to;
+                    while (lineEnd > from && bytes[lineEnd - 1] != '\n') {
+                        lineEnd--;
+                    }
+                    // Предложение длиннее датаграммы отправляется частями
+                    if (lineEnd > from) {
+                        to = lineEnd;
+                    }
+                }
+                packet.setData(bytes, from, to - from);
+                socket.send(packet);
+                from = to;
+            }
+        }
+
+        @Override
+        public void close() {
+            socket.close();
+        }
+    }
+}
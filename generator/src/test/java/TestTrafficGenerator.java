@@ -0,0 +1,160 @@
+import org.example.searadar.generator.Dialect;
+import org.example.searadar.generator.Malformation;
+import org.example.searadar.generator.TrafficGenerator;
+import org.example.searadar.mr231.convert.Mr231Converter;
+import org.example.searadar.mr231.station.Mr231StationType;
+import org.example.searadar.mr231_3.convert.Mr231_3Converter;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.convert.InvalidSentenceCounters;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.RadarSystemDataMessage;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+import ru.oogis.searadar.api.types.InvalidReason;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTrafficGenerator {
+
+    // 2024-01-01 09:30:15 UTC
+    private static final long START_TIME = 1704101415000L;
+
+    /**
+     * Проверяет, что поток без повреждений полностью принимается конвертерами обоих протоколов
+     * с проверкой контрольной суммы, а значения полей лежат в допустимых пределах.
+     */
+    @Test
+    void TestValidStream() {
+        for (Dialect dialect : Dialect.values()) {
+            // Setup
+            TrafficGenerator generator = new TrafficGenerator(dialect, 40, 0.0, 231, START_TIME);
+            StringBuilder block = new StringBuilder();
+            List<SearadarStationMessage> sink = new ArrayList<>();
+
+            // Execution
+            for (int i = 0; i < 200; i++) {
+                generator.sweep(2.5, block);
+            }
+            InvalidSentenceCounters counters = convert(dialect, block, sink);
+
+            // Assertion
+            assertEquals(0, counters.getTotal(), dialect + ": " + counters);
+            assertEquals(generator.getSentenceCount(), sink.size());
+            assertEquals(200 * 42, sink.size());
+            int targets = 0;
+            for (SearadarStationMessage message : sink) {
+                assertFalse(message instanceof InvalidMessage, String.valueOf(message));
+                if (message instanceof TrackedTargetMessage) {
+                    TrackedTargetMessage ttm = (TrackedTargetMessage) message;
+                    targets++;
+                    assertTrue(ttm.getTargetNumber() >= 1 && ttm.getTargetNumber() <= 40);
+                    assertTrue(ttm.getBearing() >= 0 && ttm.getBearing() <= 360, String.valueOf(ttm));
+                    assertTrue(ttm.getSpeed() >= 0 && ttm.getSpeed() <= 30, String.valueOf(ttm));
+                    // Потерянная цель выдается один раз, сразу после выхода за шкалу 12 миль
+                    assertTrue(ttm.getDistance() < 12.5, String.valueOf(ttm));
+                } else {
+                    assertTrue(message instanceof WaterSpeedHeadingMessage
+                            || message instanceof RadarSystemDataMessage, String.valueOf(message));
+                }
+            }
+            assertEquals(200 * 40, targets);
+        }
+    }
+
+    /**
+     * Проверяет время наблюдения цели в TTM МР-231-3: hhmmss модельного времени оборота антенны.
+     */
+    @Test
+    void TestMr231_3TargetTime() {
+        // Setup
+        TrafficGenerator generator = new TrafficGenerator(Dialect.MR_231_3, 1, 0.0, 7, START_TIME);
+        StringBuilder block = new StringBuilder();
+        List<SearadarStationMessage> sink = new ArrayList<>();
+
+        // Execution
+        generator.sweep(5.0, block);
+        convert(Dialect.MR_231_3, block, sink);
+
+        // Assertion
+        TrackedTargetMessage ttm = (TrackedTargetMessage) sink.get(1);
+        assertEquals(93020L, (long) ttm.getMsgTime());
+        assertEquals(START_TIME + 5000, generator.getTime());
+    }
+
+    /**
+     * Проверяет, что каждое внедренное повреждение отбраковывается конвертером с соответствующей причиной,
+     * а доля поврежденных предложений близка к заданной.
+     */
+    @Test
+    void TestMalformedInjection() {
+        for (Dialect dialect : Dialect.values()) {
+            // Setup
+            TrafficGenerator generator = new TrafficGenerator(dialect, 20, 0.1, 42, START_TIME);
+            StringBuilder block = new StringBuilder();
+            List<SearadarStationMessage> sink = new ArrayList<>();
+
+            // Execution
+            for (int i = 0; i < 500; i++) {
+                generator.sweep(2.5, block);
+            }
+            InvalidSentenceCounters counters = convert(dialect, block, sink);
+
+            // Assertion
+            for (Malformation malformation : Malformation.values()) {
+                long injected = generator.getMalformedCount(malformation);
+                assertTrue(injected > 0, malformation.name());
+                assertEquals(injected, counters.get(InvalidReason.valueOf(malformation.name())),
+                        dialect + " " + malformation);
+            }
+            assertEquals(generator.getMalformedCount(), counters.getTotal());
+            double ratio = (double) generator.getMalformedCount() / generator.getSentenceCount();
+            assertTrue(ratio > 0.08 && ratio < 0.12, "Доля поврежденных предложений: " + ratio);
+        }
+    }
+
+    /**
+     * Проверяет воспроизводимость потока при одинаковом начальном значении.
+     */
+    @Test
+    void TestDeterministic() {
+        // Setup
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        StringBuilder other = new StringBuilder();
+        TrafficGenerator a = new TrafficGenerator(Dialect.MR_231, 10, 0.05, 1, START_TIME);
+        TrafficGenerator b = new TrafficGenerator(Dialect.MR_231, 10, 0.05, 1, START_TIME);
+        TrafficGenerator c = new TrafficGenerator(Dialect.MR_231, 10, 0.05, 2, START_TIME);
+
+        // Execution
+        for (int i = 0; i < 50; i++) {
+            a.sweep(2.5, first);
+            b.sweep(2.5, second);
+            c.sweep(2.5, other);
+        }
+
+        // Assertion
+        assertEquals(first.toString(), second.toString());
+        assertNotEquals(first.toString(), other.toString());
+    }
+
+    private static InvalidSentenceCounters convert(Dialect dialect, CharSequence block,
+                                                   List<SearadarStationMessage> sink) {
+        if (dialect == Dialect.MR_231) {
+            Mr231Converter converter = new Mr231StationType().createConverter(MessageRepresentation.BOXED, true);
+            converter.convert(block, sink);
+            return converter.getInvalidCounters();
+        }
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter(MessageRepresentation.BOXED, true);
+        converter.convert(block, sink);
+        return converter.getInvalidCounters();
+    }
+}
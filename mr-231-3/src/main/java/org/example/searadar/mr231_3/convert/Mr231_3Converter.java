@@ -1,37 +1,121 @@
 package org.example.searadar.mr231_3.convert;
 
 import org.apache.camel.Exchange;
+import ru.oogis.searadar.api.convert.InvalidSentenceCounters;
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
 import ru.oogis.searadar.api.convert.SearadarExchangeConverter;
-import ru.oogis.searadar.api.message.*;
-import ru.oogis.searadar.api.types.IFF;
-import ru.oogis.searadar.api.types.TargetStatus;
-import ru.oogis.searadar.api.types.TargetType;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.convert.SentenceParserRegistry;
+import ru.oogis.searadar.api.convert.TrackedTargetSentenceParser;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.types.InvalidReason;
 
-import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Конвертер для сообщений станции Mr231_3.
  */
 public class Mr231_3Converter implements SearadarExchangeConverter {
 
-    private static final Double[] DISTANCE_SCALE = {0.125, 0.25, 0.5, 1.5, 3.0, 6.0, 12.0, 24.0, 48.0, 96.0};
+    /**
+     * Курсоры разбора по потокам: состояние разбора не хранится в конвертере,
+     * поэтому один экземпляр может обслуживать несколько потребителей одновременно.
+     */
+    private static final ThreadLocal<NmeaFieldCursor> CURSORS = ThreadLocal.withInitial(NmeaFieldCursor::new);
+
+    /**
+     * Разборщики предложений, зарегистрированные станцией.
+     */
+    private final SentenceParserRegistry parsers;
+
+    /**
+     * Представление создаваемых сообщений.
+     */
+    private final MessageRepresentation representation;
+
+    /**
+     * Признак проверки контрольной суммы предложений.
+     */
+    private final boolean validateChecksum;
 
-    private String[] fields;
-    private String msgType;
+    /**
+     * Счетчики отбракованных предложений по причинам.
+     */
+    private final InvalidSentenceCounters invalidCounters = new InvalidSentenceCounters();
+
+    /**
+     * Создает конвертер, выдающий сообщения с упакованными полями.
+     *
+     * @param parsers реестр разборщиков предложений по их форматтерам
+     */
+    public Mr231_3Converter(SentenceParserRegistry parsers) {
+        this(parsers, MessageRepresentation.BOXED);
+    }
+
+    /**
+     * @param parsers        реестр разборщиков предложений по их форматтерам
+     * @param representation представление создаваемых сообщений
+     */
+    public Mr231_3Converter(SentenceParserRegistry parsers, MessageRepresentation representation) {
+        this(parsers, representation, false);
+    }
+
+    /**
+     * @param parsers          реестр разборщиков предложений по их форматтерам
+     * @param representation   представление создаваемых сообщений
+     * @param validateChecksum проверять ли контрольную сумму; предложения с неверной суммой не разбираются,
+     *                         вместо них выдается {@link InvalidMessage}
+     */
+    public Mr231_3Converter(SentenceParserRegistry parsers, MessageRepresentation representation,
+                            boolean validateChecksum) {
+        this.parsers = parsers;
+        this.representation = representation;
+        this.validateChecksum = validateChecksum;
+    }
+
+    /**
+     * @return представление создаваемых сообщений
+     */
+    public MessageRepresentation getRepresentation() {
+        return representation;
+    }
+
+    /**
+     * @return {@code true}, если контрольная сумма предложений проверяется
+     */
+    public boolean isValidateChecksum() {
+        return validateChecksum;
+    }
+
+    /**
+     * @return счетчики отбракованных предложений по причинам
+     */
+    public InvalidSentenceCounters getInvalidCounters() {
+        return invalidCounters;
+    }
 
     /**
      * Конвертирует входное сообщение обмена в список объектов {@link SearadarStationMessage}.
      *
-     * @param exchange обмен, содержащий строковое сообщение
+     * @param exchange обмен, содержащий одно или несколько строковых сообщений либо сообщение,
+     *                 уже декодированное кодеком станции
      * @return список объектов типа {@link SearadarStationMessage}, созданных на основе входного сообщения
      */
     @Override
     public List<SearadarStationMessage> convert(Exchange exchange) {
-        return convert(exchange.getIn().getBody(String.class));
+        List<SearadarStationMessage> msgList = new ArrayList<>();
+        Object body = exchange.getIn().getBody();
+        if (body instanceof SearadarStationMessage) {
+            msgList.add((SearadarStationMessage) body);
+        } else {
+            convert(exchange.getIn().getBody(String.class), msgList);
+        }
+        return msgList;
     }
 
     /**
@@ -42,157 +126,167 @@ public class Mr231_3Converter implements SearadarExchangeConverter {
      */
     public List<SearadarStationMessage> convert(String message) {
 
-        List<SearadarStationMessage> msgList = new ArrayList<>();
-
+        List<SearadarStationMessage> msgList = new ArrayList<>(1);
 
-        readFields(message);
-
-
-        switch (msgType) {
-            case "TTM":
-
-                msgList.add(getTTM());
-                break;
-            case "VHW":
-
-                msgList.add(getVHW());
-                break;
-            case "RSD":
-
-                RadarSystemDataMessage rsd = getRSD();
-
-                InvalidMessage invalidMessage = checkRSD(rsd);
-
-
-                if (invalidMessage != null) {
-                    msgList.add(invalidMessage);
-                } else {
-
-                    msgList.add(rsd);
-                }
-                break;
+        // Начальные пробелы и переводы строк пропускаются, как и в блоке предложений
+        int start = 0;
+        while (start < message.length() && message.charAt(start) <= ' ') {
+            start++;
         }
 
+        NmeaFieldCursor cursor = CURSORS.get();
+        cursor.tryReset(message, start, message.length());
+        convert(cursor, System.currentTimeMillis(), null, msgList);
 
         return msgList;
     }
 
     /**
-     * Читает поля из входного сообщения и определяет тип сообщения.
+     * Конвертирует блок предложений, разделенных символами CR/LF. Время получения определяется
+     * один раз на весь блок.
      *
-     * @param msg строковое сообщение для обработки
+     * @param block блок предложений
+     * @param sink  коллекция, в которую добавляются сообщения
+     * @return количество добавленных сообщений
      */
-    private void readFields(String msg) {
-        String temp = msg.substring(3, msg.indexOf("*")).trim();
-        fields = temp.split(Pattern.quote(","));
-        msgType = fields[0];
+    @Override
+    public int convert(CharSequence block, Collection<? super SearadarStationMessage> sink) {
+        return convert(block, null, sink);
     }
 
     /**
-     * Создает и возвращает сообщение типа TTM на основе ранее прочитанных полей.
+     * Конвертирует блок предложений, разделенных символами CR/LF, записывая цели непосредственно в пакет.
+     * Время получения определяется один раз на весь блок.
      *
-     * @return сообщение типа {@link TrackedTargetMessage}
+     * @param block   блок предложений
+     * @param targets пакет, в который добавляются цели, или {@code null}, чтобы все сообщения шли в коллекцию
+     * @param sink    коллекция, в которую добавляются остальные сообщения
+     * @return количество добавленных строк и сообщений
      */
-    private TrackedTargetMessage getTTM() {
-        TrackedTargetMessage ttm = new TrackedTargetMessage();
+    @Override
+    public int convert(CharSequence block, TrackedTargetBatch targets, Collection<? super SearadarStationMessage> sink) {
 
-        TargetStatus status = TargetStatus.UNRELIABLE_DATA;
-        IFF iff = IFF.UNKNOWN;
-        TargetType type = TargetType.UNKNOWN;
+        NmeaFieldCursor cursor = CURSORS.get();
+        long msgRecTime = System.currentTimeMillis();
+        int count = 0;
+        int length = block.length();
+        int lineStart = 0;
 
-        switch (fields[12]) {
-            case "L":
-                status = TargetStatus.LOST;
-                break;
-            case "Q":
-                status = TargetStatus.UNRELIABLE_DATA;
-                break;
-            case "T":
-                status = TargetStatus.TRACKED;
-                break;
-        }
+        while (true) {
 
-        switch (fields[11]) {
-            case "b":
-                iff = IFF.FRIEND;
-                break;
-            case "p":
-                iff = IFF.FOE;
-                break;
-            case "d":iff = IFF.UNKNOWN;
+            while (lineStart < length && block.charAt(lineStart) <= ' ') {
+                lineStart++;
+            }
+            if (lineStart >= length) {
                 break;
+            }
+
+            int lineEnd = lineStart;
+            while (lineEnd < length && block.charAt(lineEnd) != '\n' && block.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+
+            cursor.tryReset(block, lineStart, lineEnd);
+            count += convert(cursor, msgRecTime, targets, sink);
+            lineStart = lineEnd;
         }
 
-        ttm.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        ttm.setTargetNumber(Integer.parseInt(fields[1]));
-        ttm.setDistance(Double.parseDouble(fields[2]));
-        ttm.setBearing(Double.parseDouble(fields[3]));
-        ttm.setSpeed(Double.parseDouble(fields[5]));
-        ttm.setCourse(Double.parseDouble(fields[6]));
-        ttm.setStatus(status);
-        ttm.setIff(iff);
-        ttm.setMsgTime(Long.valueOf(fields[14]));
-        ttm.setType(type);
-
-        return ttm;
+        return count;
     }
 
     /**
-     * Создает и возвращает сообщение типа VHW на основе ранее прочитанных полей.
+     * Конвертирует список предложений. Время получения определяется один раз на весь список.
      *
-     * @return сообщение типа {@link WaterSpeedHeadingMessage}
+     * @param sentences предложения, по одному в элементе
+     * @param sink      коллекция, в которую добавляются сообщения
+     * @return количество добавленных сообщений
      */
-    private WaterSpeedHeadingMessage getVHW() {
-        WaterSpeedHeadingMessage vhw = new WaterSpeedHeadingMessage();
+    @Override
+    public int convert(List<? extends CharSequence> sentences, Collection<? super SearadarStationMessage> sink) {
 
-        vhw.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        vhw.setCourse(Double.parseDouble(fields[1]));
-        vhw.setCourseAttr(fields[2]);
-        vhw.setSpeed(Double.parseDouble(fields[5]));
-        vhw.setSpeedUnit(fields[6]);
+        NmeaFieldCursor cursor = CURSORS.get();
+        long msgRecTime = System.currentTimeMillis();
+        int count = 0;
 
-        return vhw;
-    }
+        for (int i = 0, n = sentences.size(); i < n; i++) {
+            CharSequence sentence = sentences.get(i);
+            cursor.tryReset(sentence, 0, sentence.length());
+            count += convert(cursor, msgRecTime, null, sink);
+        }
 
-    /**
-     * Создает и возвращает сообщение типа RSD на основе ранее прочитанных полей.
-     *
-     * @return сообщение типа {@link RadarSystemDataMessage}
-     */
-    private RadarSystemDataMessage getRSD() {
-        RadarSystemDataMessage rsd = new RadarSystemDataMessage();
-
-        rsd.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        rsd.setInitialDistance(Double.parseDouble(fields[1]));
-        rsd.setInitialBearing(Double.parseDouble(fields[2]));
-        rsd.setMovingCircleOfDistance(Double.parseDouble(fields[3]));
-        rsd.setBearing(Double.parseDouble(fields[4]));
-        rsd.setDistanceFromShip(Double.parseDouble(fields[9]));
-        rsd.setBearing2(Double.parseDouble(fields[10]));
-        rsd.setDistanceScale(Double.parseDouble(fields[11]));
-        rsd.setDistanceUnit(fields[12]);
-        rsd.setDisplayOrientation(fields[13]);
-        rsd.setWorkingMode(fields[14]);
-
-        return rsd;
+        return count;
     }
 
     /**
-     * Проверяет сообщение типа RSD на корректность и возвращает {@link InvalidMessage} в случае ошибки.
+     * Конвертирует предложение, на которое установлен курсор, и добавляет результат в коллекцию.
+     * Разборщик выбирается по форматтеру предложения из реестра станции. Поврежденное предложение
+     * не приводит к исключению: вместо сообщения добавляется {@link InvalidMessage} с причиной отбраковки.
      *
-     * @param rsd сообщение типа {@link RadarSystemDataMessage} для проверки
-     * @return объект типа {@link InvalidMessage}, если сообщение некорректное, иначе {@code null}
+     * @param cursor     курсор, установленный на разбираемое предложение
+     * @param msgRecTime время получения сообщения
+     * @param targets    пакет для целей или {@code null}
+     * @param sink       коллекция, в которую добавляется сообщение
+     * @return количество добавленных строк и сообщений: 1 или 0 для незарегистрированного типа предложения
      */
-    private InvalidMessage checkRSD(RadarSystemDataMessage rsd) {
-        InvalidMessage invalidMessage = new InvalidMessage();
-        String infoMsg = "";
+    private int convert(NmeaFieldCursor cursor, long msgRecTime, TrackedTargetBatch targets,
+                        Collection<? super SearadarStationMessage> sink) {
+
+        if (cursor.hasError()) {
+            return reject(cursor.getError(), cursor, msgRecTime, sink);
+        }
+
+        int key = cursor.formatterKey();
+        SentenceParser parser = parsers.find(key);
+        if (parser == null) {
+            // Нераспознаваемый форматтер - повреждение, корректный, но не зарегистрированный - только учитывается
+            if (key == SentenceParserRegistry.NO_KEY) {
+                return reject(InvalidReason.UNKNOWN_TYPE, cursor, msgRecTime, sink);
+            }
+            invalidCounters.increment(InvalidReason.UNKNOWN_TYPE);
+            return 0;
+        }
+
+        // Сумма вычислена курсором на том же проходе, что и границы полей
+        if (validateChecksum && !cursor.isChecksumValid()) {
+            return reject(InvalidReason.BAD_CHECKSUM, cursor, msgRecTime, sink);
+        }
 
-        if (!Arrays.asList(DISTANCE_SCALE).contains(rsd.getDistanceScale())) {
-            infoMsg = "RSD message. Wrong distance scale value: " + rsd.getDistanceScale();
-            invalidMessage.setInfoMsg(infoMsg);
-            return invalidMessage;
+        if (targets != null && parser instanceof TrackedTargetSentenceParser) {
+            boolean added = ((TrackedTargetSentenceParser) parser).parse(cursor, msgRecTime, targets);
+            if (cursor.hasError()) {
+                return reject(cursor.getError(), cursor, msgRecTime, sink);
+            }
+            return added ? 1 : 0;
         }
 
-        return null;
+        SearadarStationMessage message = parser.parse(cursor, msgRecTime, representation);
+        if (cursor.hasError()) {
+            return reject(cursor.getError(), cursor, msgRecTime, sink);
+        }
+        if (message == null) {
+            return 0;
+        }
+
+        if (message instanceof InvalidMessage && ((InvalidMessage) message).getReason() != null) {
+            invalidCounters.increment(((InvalidMessage) message).getReason());
+        }
+
+        sink.add(message);
+        return 1;
+    }
+
+    /**
+     * Учитывает отбракованное предложение и добавляет сообщение о нем в коллекцию.
+     *
+     * @param reason     причина отбраковки
+     * @param cursor     курсор, установленный на разбираемое предложение
+     * @param msgRecTime время получения сообщения
+     * @param sink       коллекция, в которую добавляется сообщение
+     * @return 1
+     */
+    private int reject(InvalidReason reason, NmeaFieldCursor cursor, long msgRecTime,
+                       Collection<? super SearadarStationMessage> sink) {
+        sink.add(invalidCounters.reject(reason, cursor, msgRecTime));
+        return 1;
     }
-}
\ No newline at end of file
+}
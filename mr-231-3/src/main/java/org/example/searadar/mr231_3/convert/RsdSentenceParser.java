@@ -0,0 +1,114 @@
+package org.example.searadar.mr231_3.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.LazyRadarSystemDataMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.RadarSystemDataMessage;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.types.InvalidReason;
+
+/**
+ * Разборщик предложений RSD станции Mr231_3.
+ */
+public class RsdSentenceParser implements SentenceParser {
+
+    /**
+     * Количество полей предложения, включая форматтер.
+     */
+    private static final int FIELD_COUNT = 15;
+    private static final double[] DISTANCE_SCALE = {0.125, 0.25, 0.5, 1.5, 3.0, 6.0, 12.0, 24.0, 48.0, 96.0};
+
+    /**
+     * Создает сообщение типа RSD по полям предложения и проверяет шкалу дальности. В представлении
+     * {@link MessageRepresentation#LAZY} проверяется количество полей и разбирается только поле шкалы;
+     * ошибки разбора отмечаются в курсоре.
+     *
+     * @param cursor         курсор, установленный на разбираемое предложение
+     * @param msgRecTime     время получения сообщения
+     * @param representation представление создаваемого сообщения
+     * @return сообщение типа {@link RadarSystemDataMessage}, {@link InvalidMessage}, если шкала некорректна,
+     * или {@code null}, если предложение не разобрано
+     */
+    @Override
+    public SearadarStationMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+        RadarSystemDataMessage rsd = representation.isLazy()
+                ? getLazyRSD(cursor, msgRecTime)
+                : getRSD(cursor, msgRecTime, representation);
+
+        if (cursor.hasError()) {
+            return null;
+        }
+
+        InvalidMessage invalidMessage = checkRSD(rsd);
+
+        return invalidMessage != null ? invalidMessage : rsd;
+    }
+
+    /**
+     * Создает и возвращает сообщение типа RSD по полям предложения.
+     *
+     * @param cursor         курсор, установленный на разбираемое предложение
+     * @param msgRecTime     время получения сообщения
+     * @param representation представление создаваемого сообщения
+     * @return сообщение типа {@link RadarSystemDataMessage}
+     */
+    private RadarSystemDataMessage getRSD(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+        RadarSystemDataMessage rsd = representation.newRadarSystemDataMessage();
+
+        rsd.setMsgRecTime(msgRecTime);
+        rsd.setInitialDistance(cursor.field(1).doubleValue());
+        rsd.setInitialBearing(cursor.field(2).doubleValue());
+        rsd.setMovingCircleOfDistance(cursor.field(3).doubleValue());
+        rsd.setBearing(cursor.field(4).doubleValue());
+        rsd.setDistanceFromShip(cursor.field(9).doubleValue());
+        rsd.setBearing2(cursor.field(10).doubleValue());
+        rsd.setDistanceScale(cursor.field(11).doubleValue());
+        rsd.setDistanceUnit(cursor.field(12).stringValue());
+        rsd.setDisplayOrientation(cursor.field(13).stringValue());
+        rsd.setWorkingMode(cursor.field(14).stringValue());
+
+        return rsd;
+    }
+
+    /**
+     * Создает сообщение типа RSD с отложенным разбором полей. Шкала дальности разбирается сразу, так как
+     * нужна для проверки сообщения.
+     *
+     * @param cursor     курсор, установленный на разбираемое предложение
+     * @param msgRecTime время получения сообщения
+     * @return сообщение типа {@link LazyRadarSystemDataMessage} или {@code null}, если полей меньше, чем требуется
+     */
+    private RadarSystemDataMessage getLazyRSD(NmeaFieldCursor cursor, long msgRecTime) {
+        if (!cursor.requireFields(FIELD_COUNT)) {
+            return null;
+        }
+
+        RadarSystemDataMessage rsd = new LazyRadarSystemDataMessage(cursor.index(), msgRecTime);
+        rsd.setDistanceScale(cursor.field(11).doubleValue());
+
+        return rsd;
+    }
+
+    /**
+     * Проверяет сообщение типа RSD на корректность и возвращает {@link InvalidMessage} в случае ошибки.
+     *
+     * @param rsd сообщение типа {@link RadarSystemDataMessage} для проверки
+     * @return объект типа {@link InvalidMessage}, если сообщение некорректное, иначе {@code null}
+     */
+    private InvalidMessage checkRSD(RadarSystemDataMessage rsd) {
+        double distanceScale = rsd.getDistanceScaleValue();
+
+        for (double scale : DISTANCE_SCALE) {
+            if (scale == distanceScale) {
+                return null;
+            }
+        }
+
+        InvalidMessage invalidMessage = new InvalidMessage();
+        invalidMessage.setReason(InvalidReason.INVALID_VALUE);
+        invalidMessage.setInfoMsg("RSD message. Wrong distance scale value: " + rsd.getDistanceScale());
+        return invalidMessage;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.searadar.mr231_3.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.TrackedTargetSentenceParser;
+import ru.oogis.searadar.api.message.LazyTrackedTargetMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+/**
+ * Разборщик предложений TTM станции Mr231_3.
+ */
+public class TtmSentenceParser implements TrackedTargetSentenceParser {
+
+    /**
+     * Количество полей предложения, включая форматтер; последнее разбираемое поле - время сообщения.
+     */
+    private static final int FIELD_COUNT = 15;
+
+    /**
+     * Создает и возвращает сообщение типа TTM по полям предложения.
+     *
+     * @param cursor         курсор, установленный на разбираемое предложение
+     * @param msgRecTime     время получения сообщения
+     * @param representation представление создаваемого сообщения
+     * @return сообщение типа {@link TrackedTargetMessage}; в представлении {@link MessageRepresentation#LAZY}
+     * поля разбираются при первом обращении, поэтому заранее проверяется только количество полей;
+     * {@code null}, если полей меньше, чем требуется (ошибка отмечается в курсоре)
+     */
+    @Override
+    public TrackedTargetMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+        if (representation.isLazy()) {
+            return cursor.requireFields(FIELD_COUNT)
+                    ? new LazyTrackedTargetMessage(cursor.index(), msgRecTime, FIELD_COUNT - 1)
+                    : null;
+        }
+
+        TrackedTargetMessage ttm = representation.newTrackedTargetMessage();
+
+        ttm.setMsgRecTime(msgRecTime);
+        ttm.setTargetNumber(cursor.field(1).intValue());
+        ttm.setDistance(cursor.field(2).doubleValue());
+        ttm.setBearing(cursor.field(3).doubleValue());
+        ttm.setSpeed(cursor.field(5).doubleValue());
+        ttm.setCourse(cursor.field(6).doubleValue());
+        ttm.setIff(IFF.fromNmea(cursor.field(11).charValue()));
+        ttm.setStatus(TargetStatus.fromNmea(cursor.field(12).charValue()));
+        ttm.setMsgTime(cursor.field(14).longValue());
+        ttm.setType(TargetType.UNKNOWN);
+
+        return ttm;
+    }
+
+    /**
+     * Добавляет цель из предложения TTM строкой пакета без создания сообщения.
+     *
+     * @param cursor     курсор, установленный на разбираемое предложение
+     * @param msgRecTime время получения сообщения
+     * @param batch      пакет, в который добавляется строка
+     * @return {@code true}, если строка добавлена; при ошибке разбора строка не добавляется
+     */
+    @Override
+    public boolean parse(NmeaFieldCursor cursor, long msgRecTime, TrackedTargetBatch batch) {
+        int targetNumber = cursor.field(1).intValue();
+        double distance = cursor.field(2).doubleValue();
+        double bearing = cursor.field(3).doubleValue();
+        double speed = cursor.field(5).doubleValue();
+        double course = cursor.field(6).doubleValue();
+        IFF iff = IFF.fromNmea(cursor.field(11).charValue());
+        TargetStatus status = TargetStatus.fromNmea(cursor.field(12).charValue());
+        long msgTime = cursor.field(14).longValue();
+
+        if (cursor.hasError()) {
+            return false;
+        }
+
+        batch.add(msgRecTime, msgTime, targetNumber, distance, bearing, speed, course, TargetType.UNKNOWN, status, iff);
+        return true;
+    }
+}
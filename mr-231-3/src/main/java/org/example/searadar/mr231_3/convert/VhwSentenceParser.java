@@ -0,0 +1,33 @@
+package org.example.searadar.mr231_3.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+
+/**
+ * Разборщик предложений VHW станции Mr231_3.
+ */
+public class VhwSentenceParser implements SentenceParser {
+
+    /**
+     * Создает и возвращает сообщение типа VHW по полям предложения.
+     *
+     * @param cursor         курсор, установленный на разбираемое предложение
+     * @param msgRecTime     время получения сообщения
+     * @param representation представление создаваемого сообщения
+     * @return сообщение типа {@link WaterSpeedHeadingMessage}
+     */
+    @Override
+    public WaterSpeedHeadingMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+        WaterSpeedHeadingMessage vhw = representation.newWaterSpeedHeadingMessage();
+
+        vhw.setMsgRecTime(msgRecTime);
+        vhw.setCourse(cursor.field(1).doubleValue());
+        vhw.setCourseAttr(cursor.field(2).stringValue());
+        vhw.setSpeed(cursor.field(5).doubleValue());
+        vhw.setSpeedUnit(cursor.field(6).stringValue());
+
+        return vhw;
+    }
+}
@@ -0,0 +1,214 @@
+package ru.oogis.hydra.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Построчное чтение записи обмена из файла, отображенного в память.
+ * <p>
+ * Строки выделяются непосредственно в отображенном буфере, без потоков и промежуточных копий.
+ * Файл отображается окнами, поэтому размер записи не ограничен 2 ГБ. Строка записи имеет вид
+ * {@code [время<пробел|табуляция>]предложение}, где время - миллисекунды эпохи получения предложения;
+ * предложение NMEA начинается с {@code '$'} или {@code '!'}, поэтому цифра в начале строки однозначно
+ * обозначает метку времени. Пустые строки пропускаются.
+ */
+public class MappedLineReader implements Closeable
+{
+	/**
+	 * Значение {@link #getTime()} для строки без метки времени.
+	 */
+	public static final long NO_TIME = Long.MIN_VALUE;
+
+	private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	private MappedByteBuffer window;
+	private long windowStart;
+	private long position;
+	private int lineStart;
+	private int lineEnd;
+	private long time;
+	private byte[] chars = new byte[256];
+
+	public MappedLineReader(File p_file) throws IOException
+	{
+		this(p_file, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param p_windowSize размер окна отображения; строка записи не может быть длиннее окна
+	 */
+	public MappedLineReader(File p_file, long p_windowSize) throws IOException
+	{
+		super();
+		file = new RandomAccessFile(p_file, "r");
+		channel = file.getChannel();
+		size = channel.size();
+		windowSize = Math.min(p_windowSize, Integer.MAX_VALUE);
+		map(0);
+	}
+
+	/**
+	 * Переходит к следующей непустой строке.
+	 *
+	 * @return {@code false}, если строк больше нет
+	 */
+	public boolean next() throws IOException
+	{
+		while (position < size)
+		{
+			int a_start = (int) (position - windowStart);
+			int a_limit = window.limit();
+			int a_end = a_start;
+			while (a_end < a_limit && window.get(a_end) != '\n')
+			{
+				a_end++;
+			}
+			if (a_end == a_limit && windowStart + a_limit < size)
+			{
+				// Строка пересекает границу окна - окно сдвигается на ее начало
+				if (a_start == 0)
+				{
+					throw new IOException("Line at " + position + " is longer than mapping window " + windowSize);
+				}
+				map(position);
+				continue;
+			}
+			position = windowStart + a_end + 1;
+			if (frame(a_start, a_end))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return метка времени текущей строки или {@link #NO_TIME}
+	 */
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * @return длина предложения текущей строки (без метки времени и перевода строки)
+	 */
+	public int length()
+	{
+		return lineEnd - lineStart;
+	}
+
+	/**
+	 * @return предложение текущей строки
+	 */
+	public String text()
+	{
+		int a_length = length();
+		if (chars.length < a_length)
+		{
+			chars = new byte[a_length * 2];
+		}
+		for (int i = 0; i < a_length; i++)
+		{
+			chars[i] = window.get(lineStart + i);
+		}
+		return new String(chars, 0, a_length, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Дописывает предложение текущей строки в блок.
+	 */
+	public void appendTo(StringBuilder p_builder)
+	{
+		for (int i = lineStart; i < lineEnd; i++)
+		{
+			p_builder.append((char) (window.get(i) & 0xFF));
+		}
+	}
+
+	/**
+	 * Возвращает чтение к началу записи.
+	 */
+	public void rewind() throws IOException
+	{
+		if (windowStart != 0)
+		{
+			map(0);
+		}
+		position = 0;
+	}
+
+	public long getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * @return смещение в файле начала следующей строки
+	 */
+	public long getPosition()
+	{
+		return position;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		window = null;
+		file.close();
+	}
+
+	private boolean frame(int p_start, int p_end)
+	{
+		while (p_end > p_start && (window.get(p_end - 1) & 0xFF) <= ' ')
+		{
+			p_end--;
+		}
+		while (p_start < p_end && (window.get(p_start) & 0xFF) <= ' ')
+		{
+			p_start++;
+		}
+		if (p_start == p_end)
+		{
+			return false;
+		}
+		time = NO_TIME;
+		byte a_first = window.get(p_start);
+		if (a_first >= '0' && a_first <= '9')
+		{
+			long a_time = 0;
+			while (p_start < p_end && window.get(p_start) >= '0' && window.get(p_start) <= '9')
+			{
+				a_time = a_time * 10 + window.get(p_start++) - '0';
+			}
+			while (p_start < p_end && (window.get(p_start) & 0xFF) <= ' ')
+			{
+				p_start++;
+			}
+			time = a_time;
+			if (p_start == p_end)
+			{
+				return false;
+			}
+		}
+		lineStart = p_start;
+		lineEnd = p_end;
+		return true;
+	}
+
+	private void map(long p_start) throws IOException
+	{
+		long a_length = Math.min(windowSize, size - p_start);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, p_start, a_length);
+		windowStart = p_start;
+	}
+}
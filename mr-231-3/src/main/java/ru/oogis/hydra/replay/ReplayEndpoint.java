@@ -0,0 +1,100 @@
+package ru.oogis.hydra.replay;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.impl.DefaultEndpoint;
+
+/**
+ * Точка воспроизведения записи обмена.
+ * <p>
+ * Параметры:
+ * <ul>
+ * <li>{@code speed} - множитель скорости относительно меток времени записи: 1 - исходный темп,
+ * N - в N раз быстрее, 0 - без пауз (с максимальной скоростью);</li>
+ * <li>{@code loop} - повторять запись по достижении конца; запись без строк не повторяется;</li>
+ * <li>{@code linesPerExchange} - наибольшее количество строк в одном сообщении обмена; строки объединяются
+ * через CR/LF, если к моменту отправки они уже должны быть выданы.</li>
+ * </ul>
+ */
+public class ReplayEndpoint extends DefaultEndpoint
+{
+	/**
+	 * Заголовок с меткой времени первой строки сообщения (мс), если она есть в записи.
+	 */
+	public static final String REPLAY_TIME = "replay_time";
+
+	private final String fileName;
+	private double speed = 1.0;
+	private boolean loop;
+	private int linesPerExchange = 1;
+
+	public ReplayEndpoint(String p_uri, ReplayComponent p_component, String p_fileName)
+	{
+		super(p_uri, p_component);
+		fileName = p_fileName;
+	}
+
+	@Override
+	public Producer createProducer() throws Exception
+	{
+		throw new UnsupportedOperationException("Replay endpoint " + getEndpointUri() + " is consumer only");
+	}
+
+	@Override
+	public Consumer createConsumer(Processor p_processor) throws Exception
+	{
+		ReplayConsumer a_consumer = new ReplayConsumer(this, p_processor);
+		configureConsumer(a_consumer);
+		return a_consumer;
+	}
+
+	@Override
+	public boolean isSingleton()
+	{
+		return true;
+	}
+
+	public String getFileName()
+	{
+		return fileName;
+	}
+
+	public double getSpeed()
+	{
+		return speed;
+	}
+
+	public void setSpeed(double p_speed)
+	{
+		if (p_speed < 0 || Double.isNaN(p_speed))
+		{
+			throw new IllegalArgumentException("Replay speed must not be negative: " + p_speed);
+		}
+		speed = p_speed;
+	}
+
+	public boolean isLoop()
+	{
+		return loop;
+	}
+
+	public void setLoop(boolean p_loop)
+	{
+		loop = p_loop;
+	}
+
+	public int getLinesPerExchange()
+	{
+		return linesPerExchange;
+	}
+
+	public void setLinesPerExchange(int p_linesPerExchange)
+	{
+		if (p_linesPerExchange < 1)
+		{
+			throw new IllegalArgumentException("Lines per exchange must be positive: " + p_linesPerExchange);
+		}
+		linesPerExchange = p_linesPerExchange;
+	}
+}
@@ -0,0 +1,82 @@
+package ru.oogis.hydra.util;
+
+/**
+ * Касательная плоскость, привязанная к позиции своего судна и переносимая только при ее заметном смещении.
+ * <p>
+ * Пока судно остается в пределах {@code reanchorDistance} от начала плоскости, возвращается прежний
+ * неизменяемый {@link LocalTangentPlane}, так что тригонометрия начала не пересчитывается на каждом обзоре.
+ * Оценки ошибки {@link LocalTangentPlane} относятся к расстоянию от начала, то есть к дальности целей плюс
+ * {@code reanchorDistance}. Чтение потокобезопасно; обновление позиции выполняет один поток.
+ */
+public class LocalProjectionCache
+{
+	/**
+	 * Смещение судна по умолчанию, после которого плоскость переносится, в метрах (1 миля).
+	 */
+	public static final double DEFAULT_REANCHOR_DISTANCE = 1852.0;
+
+	private final double reanchorDistance;
+	private volatile LocalTangentPlane plane;
+	private long reanchorCount;
+
+	public LocalProjectionCache()
+	{
+		this(DEFAULT_REANCHOR_DISTANCE);
+	}
+
+	/**
+	 * @param p_reanchorDistance смещение судна в метрах, после которого плоскость переносится
+	 */
+	public LocalProjectionCache(double p_reanchorDistance)
+	{
+		if (!(p_reanchorDistance > 0))
+		{
+			throw new IllegalArgumentException("Reanchor distance must be positive: "
+					+ p_reanchorDistance);
+		}
+		reanchorDistance = p_reanchorDistance;
+	}
+
+	/**
+	 * Сообщает позицию судна и возвращает плоскость, действующую для нее.
+	 */
+	public LocalTangentPlane update(double p_lat, double p_lon)
+	{
+		LocalTangentPlane a_plane = plane;
+		if (a_plane == null || Double.isNaN(a_plane.getLatitude()) || isFar(a_plane, p_lat, p_lon))
+		{
+			a_plane = new LocalTangentPlane(p_lat, p_lon);
+			plane = a_plane;
+			reanchorCount++;
+		}
+		return a_plane;
+	}
+
+	/**
+	 * @return текущая плоскость или {@code null}, если позиция судна еще не сообщалась
+	 */
+	public LocalTangentPlane getPlane()
+	{
+		return plane;
+	}
+
+	public double getReanchorDistance()
+	{
+		return reanchorDistance;
+	}
+
+	/**
+	 * @return количество созданных плоскостей
+	 */
+	public long getReanchorCount()
+	{
+		return reanchorCount;
+	}
+
+	private boolean isFar(LocalTangentPlane p_plane, double p_lat, double p_lon)
+	{
+		double a_east = p_plane.east(p_lat, p_lon);
+		double a_north = p_plane.north(p_lat, p_lon);
+		return a_east * a_east + a_north * a_north > reanchorDistance * reanchorDistance;
+	}
+}
@@ -0,0 +1,162 @@
+package ru.oogis.hydra.util;
+
+import static ru.oogis.hydra.util.GeoHelper.KNOT_PMS;
+import static ru.oogis.hydra.util.GeoHelper.WGS84_RADIUS;
+
+/**
+ * Локальная касательная плоскость (восток-север) с началом в точке привязки, обычно в позиции своего судна.
+ * <p>
+ * Для точек в пределах нескольких десятков миль от начала расстояние и пеленг вычисляются на плоскости
+ * без сферической тригонометрии (только {@code atan2} для пеленга): долгота масштабируется косинусом средней широты пары,
+ * который вместе с синусом берется из разложения около широты привязки, а пеленг исправляется на
+ * схождение меридианов. Относительно {@link GeoHelper#calcDistanceInMeters(double, double, double, double)}
+ * и {@link GeoHelper#calcCourse(double, double, double, double)} для обеих точек пары в радиусе R от
+ * начала при широте привязки до 70°:
+ * <ul>
+ * <li>R = 24 мили - ошибка расстояния не более 5 м (6e-5 от расстояния), пеленга - не более 0.003°;</li>
+ * <li>R = 48 миль - не более 40 м (2.5e-4), пеленга - не более 0.015°.</li>
+ * </ul>
+ * Ошибка растет примерно как R<sup>3</sup> и с широтой (до 0.03° и 150 м при 80° и 48 милях). Сами
+ * сферические формулы на расстояниях короче метра теряют точность в {@code acos} (около 0.1 м).
+ * <p>
+ * Координаты {@link #east(double, double)}/{@link #north(double, double)} - равнопромежуточная проекция с
+ * масштабом широты привязки; евклидово расстояние между ними искажено на долю порядка
+ * {@code |Δφ|·tg φ0} (около 1% при 60° и 30 милях), поэтому оно годится для индексов и отсечения,
+ * а точные значения дают {@link #distance} и {@link #bearing}. Экземпляр неизменяем.
+ */
+public class LocalTangentPlane
+{
+	static final double METERS_PER_DEGREE = Math.PI / 180 * WGS84_RADIUS;
+
+	private final double latitude;
+	private final double longitude;
+	private final double latRad;
+	private final double sinLat;
+	private final double cosLat;
+	private final double metersPerDegreeLon;
+
+	public LocalTangentPlane(double p_latitude, double p_longitude)
+	{
+		latitude = p_latitude;
+		longitude = p_longitude;
+		latRad = Math.toRadians(p_latitude);
+		sinLat = Math.sin(latRad);
+		cosLat = Math.cos(latRad);
+		metersPerDegreeLon = METERS_PER_DEGREE * cosLat;
+	}
+
+	public double getLatitude()
+	{
+		return latitude;
+	}
+
+	public double getLongitude()
+	{
+		return longitude;
+	}
+
+	/**
+	 * @return смещение точки на восток от начала в метрах
+	 */
+	public double east(double p_lat, double p_lon)
+	{
+		return lonDelta(p_lon, longitude) * metersPerDegreeLon;
+	}
+
+	/**
+	 * @return смещение точки на север от начала в метрах
+	 */
+	public double north(double p_lat, double p_lon)
+	{
+		return (p_lat - latitude) * METERS_PER_DEGREE;
+	}
+
+	public double toLatitude(double p_east, double p_north)
+	{
+		return latitude + p_north / METERS_PER_DEGREE;
+	}
+
+	public double toLongitude(double p_east, double p_north)
+	{
+		return lonDelta(longitude + p_east / metersPerDegreeLon, 0.0);
+	}
+
+	/**
+	 * Проецирует {@code p_count} точек на плоскость.
+	 */
+	public void project(double[] p_lats, double[] p_lons, int p_count,
+			double[] p_east, double[] p_north)
+	{
+		for (int i = 0; i < p_count; i++)
+		{
+			p_east[i] = lonDelta(p_lons[i], longitude) * metersPerDegreeLon;
+			p_north[i] = (p_lats[i] - latitude) * METERS_PER_DEGREE;
+		}
+	}
+
+	/**
+	 * @return расстояние между точками в метрах
+	 */
+	public double distance(double p_lat1, double p_lon1, double p_lat2,
+			double p_lon2)
+	{
+		double a_east = lonDelta(p_lon2, p_lon1) * METERS_PER_DEGREE
+				* cosMid(p_lat1, p_lat2);
+		double a_north = (p_lat2 - p_lat1) * METERS_PER_DEGREE;
+		return Math.sqrt(a_east * a_east + a_north * a_north);
+	}
+
+	/**
+	 * @return пеленг (начальный курс) из первой точки на вторую в градусах [0, 360)
+	 */
+	public double bearing(double p_lat1, double p_lon1, double p_lat2,
+			double p_lon2)
+	{
+		double a_lonDelta = lonDelta(p_lon2, p_lon1);
+		double a_mid = Math.toRadians((p_lat1 + p_lat2) * 0.5) - latRad;
+		double a_east = a_lonDelta * cosMid(p_lat1, p_lat2);
+		double a_north = p_lat2 - p_lat1;
+		// Поправка на схождение меридианов: половина угла между меридианами точек
+		double a_result = Math.toDegrees(Math.atan2(a_east, a_north))
+				- a_lonDelta * 0.5 * (sinLat + cosLat * a_mid);
+		return a_result < 0 ? a_result + 360.0 : a_result >= 360.0 ? a_result - 360.0 : a_result;
+	}
+
+	/**
+	 * Элементы движения цели по двум позициям, как
+	 * {@link TargetMovementElementsCalculator#calculate(double, double, double, double, long)}.
+	 * @param p_deltaTime время в секундах между позициями
+	 */
+	public TargetMovementElements calculate(double p_lat1, double p_lon1,
+			double p_lat2, double p_lon2, long p_deltaTime)
+	{
+		TargetMovementElements a_result = new TargetMovementElements();
+		a_result.distance = distance(p_lat1, p_lon1, p_lat2, p_lon2);
+		a_result.course = bearing(p_lat1, p_lon1, p_lat2, p_lon2);
+		a_result.speed = (a_result.distance / p_deltaTime) / KNOT_PMS;
+		return a_result;
+	}
+
+	/**
+	 * Косинус средней широты пары из разложения второго порядка около широты привязки.
+	 */
+	private double cosMid(double p_lat1, double p_lat2)
+	{
+		double a_delta = Math.toRadians((p_lat1 + p_lat2) * 0.5) - latRad;
+		return cosLat - sinLat * a_delta - cosLat * a_delta * a_delta * 0.5;
+	}
+
+	private static double lonDelta(double p_lon2, double p_lon1)
+	{
+		double a_delta = p_lon2 - p_lon1;
+		if (a_delta > 180.0)
+		{
+			a_delta -= 360.0;
+		}
+		else if (a_delta < -180.0)
+		{
+			a_delta += 360.0;
+		}
+		return a_delta;
+	}
+}
@@ -0,0 +1,96 @@
+package ru.oogis.searadar.api.codec;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.CumulativeProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
+import ru.oogis.searadar.api.convert.AsciiCharSequence;
+import ru.oogis.searadar.api.convert.SearadarExchangeConverter;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Декодер NMEA-потока станции, работающий непосредственно с байтами {@link IoBuffer}.
+ * <p>
+ * Все завершенные строки, накопленные к моменту чтения, передаются конвертеру одним блоком без
+ * преобразования в {@link String}; на выход декодера подаются готовые {@link SearadarStationMessage}.
+ * Для потоковых транспортов незавершенный хвост остается в буфере сессии до следующего чтения,
+ * датаграмма декодируется целиком.
+ */
+public class NmeaProtocolDecoder extends CumulativeProtocolDecoder {
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 1024;
+
+    private static final ThreadLocal<DecodeContext> CONTEXTS = ThreadLocal.withInitial(DecodeContext::new);
+
+    private final SearadarExchangeConverter converter;
+    private final int maxLineLength;
+
+    public NmeaProtocolDecoder(SearadarExchangeConverter converter) {
+        this(converter, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    public NmeaProtocolDecoder(SearadarExchangeConverter converter, int maxLineLength) {
+        this.converter = converter;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    protected boolean doDecode(IoSession session, IoBuffer in, ProtocolDecoderOutput out) throws Exception {
+
+        int start = in.position();
+        int limit = in.limit();
+        int blockEnd = limit - 1;
+
+        if (session.getTransportMetadata().hasFragmentation()) {
+
+            while (blockEnd >= start && in.get(blockEnd) != '\n' && in.get(blockEnd) != '\r') blockEnd--;
+
+            if (blockEnd < start) {
+                // Строка без терминатора длиннее допустимого - это мусор в канале, а не незавершенное предложение
+                if (limit - start > maxLineLength) in.position(limit);
+                return false;
+            }
+        } else {
+            // Датаграмма всегда содержит целые предложения, последнее может быть без CR/LF
+            blockEnd = limit;
+        }
+
+        DecodeContext context = CONTEXTS.get();
+        int length = blockEnd - start;
+
+        if (in.hasArray()) {
+            context.block.wrap(in.array(), in.arrayOffset() + start, length);
+        } else {
+            in.get(context.bytes(length), 0, length);
+            context.block.wrap(context.bytes, 0, length);
+        }
+        in.position(Math.min(blockEnd + 1, limit));
+
+        List<SearadarStationMessage> messages = context.messages;
+        try {
+            converter.convert(context.block, messages);
+            for (int i = 0, n = messages.size(); i < n; i++) {
+                out.write(messages.get(i));
+            }
+        } finally {
+            messages.clear();
+        }
+
+        return false;
+    }
+
+    private static final class DecodeContext {
+
+        private final AsciiCharSequence block = new AsciiCharSequence();
+        private final List<SearadarStationMessage> messages = new ArrayList<>();
+        private byte[] bytes = new byte[DEFAULT_MAX_LINE_LENGTH];
+
+        private byte[] bytes(int length) {
+            if (bytes.length < length) bytes = new byte[Math.max(length, bytes.length * 2)];
+            return bytes;
+        }
+    }
+}
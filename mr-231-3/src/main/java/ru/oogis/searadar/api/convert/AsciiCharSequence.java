@@ -0,0 +1,65 @@
+package ru.oogis.searadar.api.convert;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Представление фрагмента байтового массива в виде {@link CharSequence} без декодирования кодировки.
+ * <p>
+ * NMEA-предложения состоят из ASCII-символов, поэтому каждый байт отображается в символ напрямую.
+ * Экземпляр переиспользуется вызовом {@link #wrap}: массив не копируется.
+ */
+public final class AsciiCharSequence implements CharSequence {
+
+    private byte[] bytes;
+    private int offset;
+    private int length;
+
+    public AsciiCharSequence() {
+        this(new byte[0], 0, 0);
+    }
+
+    public AsciiCharSequence(byte[] bytes, int offset, int length) {
+        wrap(bytes, offset, length);
+    }
+
+    /**
+     * Переключает последовательность на новый фрагмент.
+     *
+     * @return эта же последовательность
+     */
+    public AsciiCharSequence wrap(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length + ", size=" + bytes.length);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length);
+        }
+        return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.oogis.searadar.api.convert;
+
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.types.InvalidReason;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики отбракованных предложений по причинам. Конвертер может использоваться из нескольких потоков,
+ * поэтому счетчики основаны на {@link LongAdder}: учет ошибки стоит не дороже разбора корректного предложения.
+ */
+public final class InvalidSentenceCounters {
+
+    private static final InvalidReason[] REASONS = InvalidReason.values();
+
+    private final LongAdder[] counters = new LongAdder[REASONS.length];
+
+    public InvalidSentenceCounters() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void increment(InvalidReason reason) {
+        counters[reason.ordinal()].increment();
+    }
+
+    /**
+     * Учитывает отбракованное предложение и создает сообщение о нем.
+     *
+     * @param reason     причина
+     * @param cursor     курсор, установленный на отбракованное предложение
+     * @param msgRecTime время получения предложения, мс
+     */
+    public InvalidMessage reject(InvalidReason reason, NmeaFieldCursor cursor, long msgRecTime) {
+        increment(reason);
+        InvalidMessage invalidMessage = new InvalidMessage(reason, describe(reason, cursor));
+        invalidMessage.setMsgRecTime(msgRecTime);
+        return invalidMessage;
+    }
+
+    public long get(InvalidReason reason) {
+        return counters[reason.ordinal()].sum();
+    }
+
+    public long getTotal() {
+        long result = 0;
+        for (LongAdder counter : counters) {
+            result += counter.sum();
+        }
+        return result;
+    }
+
+    /**
+     * @return текущие значения ненулевых счетчиков
+     */
+    public Map<InvalidReason, Long> snapshot() {
+        Map<InvalidReason, Long> result = new EnumMap<>(InvalidReason.class);
+        for (InvalidReason reason : REASONS) {
+            long value = get(reason);
+            if (value != 0) result.put(reason, value);
+        }
+        return result;
+    }
+
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    private static String describe(InvalidReason reason, NmeaFieldCursor cursor) {
+        int errorField = cursor.getErrorField();
+        String formatter = cursor.field(0).toString();
+        switch (reason) {
+            case TRUNCATED:
+                return reason.getDescription();
+            case BAD_CHECKSUM:
+                int expected = cursor.getExpectedChecksum();
+                return String.format("%s message. %s: %02X, expected: %s", formatter, reason.getDescription(),
+                        cursor.getChecksum(), expected < 0 ? "none" : String.format("%02X", expected));
+            case UNKNOWN_TYPE:
+                return reason.getDescription() + ": " + formatter;
+            default:
+                return formatter + " message. " + reason.getDescription() + (errorField < 0 ? "" : ", field " + errorField);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,164 @@
+package ru.oogis.searadar.api.convert;
+
+/**
+ * Разбор числовых полей NMEA непосредственно из буфера предложения.
+ * <p>
+ * Числовые поля NMEA - короткие десятичные значения с фиксированной точкой ({@code 28.71}, {@code 024.5},
+ * {@code 457362}). Такие значения разбираются за один проход без создания подстрок: цифры накапливаются
+ * в целой мантиссе, которая затем делится на точную степень десяти. Пока мантисса не превышает 2^53,
+ * а число знаков после точки не больше 22, оба операнда деления представимы в double точно, поэтому
+ * результат округляется один раз и совпадает с {@link Double#parseDouble}. Записи вне этого диапазона
+ * (экспонента, более 15 значащих цифр и т.п.) передаются стандартному разборщику.
+ * <p>
+ * Методы {@code tryParseXxx} не создают исключений: некорректный фрагмент обозначается особым значением,
+ * поэтому поврежденные предложения обходятся не дороже корректных.
+ */
+public final class NmeaNumberParser {
+
+    private static final int MAX_FAST_LONG_DIGITS = 18;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private NmeaNumberParser() {
+    }
+
+    /**
+     * Значение {@link #tryParseLong}, означающее, что фрагмент не является числом.
+     */
+    public static final long INVALID_LONG = Long.MIN_VALUE;
+
+    /**
+     * Разбирает десятичное значение вида {@code [+-]ddd[.ddd]}.
+     *
+     * @throws NumberFormatException если фрагмент не является числом
+     */
+    public static double parseDouble(CharSequence s, int from, int to) {
+        double result = tryParseDouble(s, from, to);
+        // Исключение и прочие формы записи (NaN, 1.5d ...) - на усмотрение стандартного разборщика
+        return result == result ? result : Double.parseDouble(s.subSequence(from, to).toString());
+    }
+
+    /**
+     * Разбирает значение вида {@code [+-]ddd[.ddd][e[+-]ddd]} без исключений.
+     *
+     * @return значение или {@code NaN}, если фрагмент не является числом
+     */
+    public static double tryParseDouble(CharSequence s, int from, int to) {
+        int pos = from;
+        boolean negative = false;
+        if (pos < to) {
+            char sign = s.charAt(pos);
+            if (sign == '-' || sign == '+') {
+                negative = sign == '-';
+                pos++;
+            }
+        }
+        int digitsStart = pos;
+        long mantissa = 0;
+        while (pos < to) {
+            int digit = s.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) break;
+            mantissa = mantissa * 10 + digit;
+            pos++;
+        }
+        int integerDigits = pos - digitsStart;
+        int scale = 0;
+        if (pos < to && s.charAt(pos) == '.') {
+            pos++;
+            int fractionStart = pos;
+            while (pos < to) {
+                int digit = s.charAt(pos) - '0';
+                if (digit < 0 || digit > 9) break;
+                mantissa = mantissa * 10 + digit;
+                pos++;
+            }
+            scale = pos - fractionStart;
+        }
+        if (integerDigits + scale == 0 || pos != to && !isExponent(s, pos, to)) {
+            return Double.NaN;
+        }
+        // 18 цифр гарантированно помещаются в long, дальше переполнение уже не отличить от значения
+        if (pos != to || integerDigits + scale > MAX_FAST_LONG_DIGITS
+                || mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(s.subSequence(from, to).toString());
+        }
+        double result = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -result : result;
+    }
+
+    /**
+     * Разбирает целое значение вида {@code [+-]ddd}.
+     *
+     * @throws NumberFormatException если фрагмент не является числом типа int
+     */
+    public static int parseInt(CharSequence s, int from, int to) {
+        long result = tryParseLong(s, from, to);
+        if (result == INVALID_LONG || result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            return Integer.parseInt(s.subSequence(from, to).toString());
+        }
+        return (int) result;
+    }
+
+    /**
+     * Разбирает целое значение вида {@code [+-]ddd}.
+     *
+     * @throws NumberFormatException если фрагмент не является числом типа long
+     */
+    public static long parseLong(CharSequence s, int from, int to) {
+        long result = tryParseLong(s, from, to);
+        return result != INVALID_LONG ? result : Long.parseLong(s.subSequence(from, to).toString());
+    }
+
+    /**
+     * Разбирает целое значение вида {@code [+-]ddd} длиной до 18 цифр без исключений.
+     *
+     * @return значение или {@link #INVALID_LONG}, если фрагмент не является таким числом
+     */
+    public static long tryParseLong(CharSequence s, int from, int to) {
+        int pos = signEnd(s, from, to);
+        int digits = to - pos;
+        if (digits == 0 || digits > MAX_FAST_LONG_DIGITS) {
+            return INVALID_LONG;
+        }
+        long result = 0;
+        for (; pos < to; pos++) {
+            int digit = s.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_LONG;
+            }
+            result = result * 10 + digit;
+        }
+        return s.charAt(from) == '-' ? -result : result;
+    }
+
+    private static boolean isExponent(CharSequence s, int from, int to) {
+        char c = s.charAt(from);
+        if (c != 'e' && c != 'E') {
+            return false;
+        }
+        int pos = signEnd(s, from + 1, to);
+        if (pos == to) {
+            return false;
+        }
+        for (; pos < to; pos++) {
+            char digit = s.charAt(pos);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int signEnd(CharSequence s, int from, int to) {
+        if (from < to) {
+            char c = s.charAt(from);
+            if (c == '-' || c == '+') {
+                return from + 1;
+            }
+        }
+        return from;
+    }
+}
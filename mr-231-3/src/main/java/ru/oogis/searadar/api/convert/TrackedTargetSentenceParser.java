@@ -0,0 +1,19 @@
+package ru.oogis.searadar.api.convert;
+
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+
+/**
+ * Разборщик предложения о цели, умеющий записывать ее непосредственно в строку {@link TrackedTargetBatch}
+ * без создания сообщения.
+ */
+public interface TrackedTargetSentenceParser extends SentenceParser {
+
+    /**
+     * @param cursor     курсор, установленный на нулевое поле (форматтер) предложения
+     * @param msgRecTime время получения предложения, мс
+     * @param batch      пакет, в который добавляется строка
+     * @return {@code true}, если строка добавлена
+     */
+    boolean parse(NmeaFieldCursor cursor, long msgRecTime, TrackedTargetBatch batch);
+
+}
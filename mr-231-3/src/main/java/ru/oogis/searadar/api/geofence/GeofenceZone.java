@@ -0,0 +1,117 @@
+package ru.oogis.searadar.api.geofence;
+
+import java.util.Arrays;
+
+/**
+ * Зона - простой многоугольник в географических координатах (градусы).
+ * <p>
+ * Принадлежность точки проверяется по правилу четности пересечений в плоскости «долгота-широта»; для зон
+ * размером в десятки миль отличие от сферических границ пренебрежимо. Зона не должна пересекать
+ * антимеридиан - такую зону следует разбить на две. Экземпляр неизменяем.
+ */
+public final class GeofenceZone {
+
+    private final String id;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    /**
+     * @param id         идентификатор зоны в событиях
+     * @param latitudes  широты вершин по порядку обхода
+     * @param longitudes долготы вершин; последняя вершина не повторяет первую
+     */
+    public GeofenceZone(String id, double[] latitudes, double[] longitudes) {
+        if (id == null) throw new IllegalArgumentException("Zone id is null");
+        if (latitudes.length != longitudes.length || latitudes.length < 3) {
+            throw new IllegalArgumentException("Zone " + id + " needs at least 3 vertices with both coordinates");
+        }
+        this.id = id;
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < latitudes.length; i++) {
+            double lat = latitudes[i];
+            double lon = longitudes[i];
+            if (Double.isNaN(lat) || Double.isNaN(lon) || Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+                throw new IllegalArgumentException("Zone " + id + " has invalid vertex " + i + ": " + lat + ", " + lon);
+            }
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLon = Math.min(minLon, lon);
+            maxLon = Math.max(maxLon, lon);
+        }
+        minLatitude = minLat;
+        maxLatitude = maxLat;
+        minLongitude = minLon;
+        maxLongitude = maxLon;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getVertexCount() {
+        return latitudes.length;
+    }
+
+    public double getLatitude(int vertex) {
+        return latitudes[vertex];
+    }
+
+    public double getLongitude(int vertex) {
+        return longitudes[vertex];
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    /**
+     * @return {@code true}, если точка внутри зоны; точки на границе могут отнестись к любой стороне
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude
+                || longitude < minLongitude || longitude > maxLongitude) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            double latI = latitudes[i];
+            double latJ = latitudes[j];
+            if ((latI > latitude) != (latJ > latitude)) {
+                double crossing = longitudes[i] + (latitude - latI) * (longitudes[j] - longitudes[i]) / (latJ - latI);
+                if (longitude < crossing) inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public String toString() {
+        return "GeofenceZone{" +
+                "id='" + id + '\'' +
+                ", vertices=" + latitudes.length +
+                ", latitudes=" + Arrays.toString(new double[]{minLatitude, maxLatitude}) +
+                ", longitudes=" + Arrays.toString(new double[]{minLongitude, maxLongitude}) +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package ru.oogis.searadar.api.ingest;
+
+import java.util.Locale;
+
+/**
+ * Транспорт приема потока станции.
+ */
+public enum IngestProtocol {
+
+    TCP,
+    UDP;
+
+    /**
+     * @param remaining часть URI после схемы, например {@code tcp://0.0.0.0:10110}
+     */
+    static IngestProtocol parse(String remaining) {
+        int separator = remaining.indexOf("://");
+        if (separator < 0) {
+            throw new IllegalArgumentException("Protocol is missing in ingest address " + remaining);
+        }
+        String name = remaining.substring(0, separator).toUpperCase(Locale.ROOT);
+        for (IngestProtocol protocol : values()) {
+            if (protocol.name().equals(name)) return protocol;
+        }
+        throw new IllegalArgumentException("Unsupported ingest protocol " + remaining.substring(0, separator));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.oogis.searadar.api.ingest;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.impl.DefaultConsumer;
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.service.IoAcceptor;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolCodecFilter;
+import org.apache.mina.transport.socket.DatagramSessionConfig;
+import org.apache.mina.transport.socket.SocketSessionConfig;
+import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
+import org.apache.mina.transport.socket.nio.NioSocketAcceptor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Потребитель, слушающий порт станции NIO-акцептором MINA.
+ * <p>
+ * Предложения декодируются фильтром кодека в потоке ввода-вывода сессии, и в том же потоке каждое сообщение
+ * проходит маршрут. Пул потоков между сокетом и маршрутом не используется, поэтому одна JVM обслуживает
+ * множество подключений станций фиксированным числом потоков {@code ioThreads}.
+ */
+public class NmeaIngestConsumer extends DefaultConsumer {
+
+    private static final String REMOTE_ADDRESS_ATTRIBUTE = NmeaIngestConsumer.class.getName() + ".remoteAddress";
+
+    private final NmeaIngestEndpoint endpoint;
+    private IoAcceptor acceptor;
+
+    public NmeaIngestConsumer(NmeaIngestEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return адрес, на котором акцептор принимает данные, или {@code null}, если потребитель остановлен
+     */
+    public InetSocketAddress getLocalAddress() {
+        IoAcceptor current = acceptor;
+        return current == null ? null : (InetSocketAddress) current.getLocalAddress();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (endpoint.isDirectBuffers()) IoBuffer.setUseDirectBuffer(true);
+
+        IoAcceptor created = endpoint.getProtocol() == IngestProtocol.TCP ? createSocketAcceptor() : createDatagramAcceptor();
+        created.getFilterChain().addLast("codec", new ProtocolCodecFilter(endpoint.getComponent().getCodecFactory()));
+        created.setHandler(new IngestHandler());
+        try {
+            created.bind(endpoint.getAddress());
+        } catch (IOException e) {
+            created.dispose();
+            throw e;
+        }
+        acceptor = created;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        IoAcceptor current = acceptor;
+        acceptor = null;
+        if (current != null) {
+            current.unbind();
+            current.dispose(true);
+        }
+        super.doStop();
+    }
+
+    private IoAcceptor createSocketAcceptor() {
+        NioSocketAcceptor socketAcceptor = new NioSocketAcceptor(endpoint.getIoThreads());
+        socketAcceptor.setReuseAddress(true);
+        SocketSessionConfig config = socketAcceptor.getSessionConfig();
+        config.setTcpNoDelay(true);
+        config.setReadBufferSize(endpoint.getReadBufferSize());
+        config.setMaxReadBufferSize(Math.max(endpoint.getReadBufferSize(), endpoint.getMaxReadBufferSize()));
+        if (endpoint.getReceiveBufferSize() > 0) config.setReceiveBufferSize(endpoint.getReceiveBufferSize());
+        return socketAcceptor;
+    }
+
+    private IoAcceptor createDatagramAcceptor() {
+        NioDatagramAcceptor datagramAcceptor = new NioDatagramAcceptor();
+        DatagramSessionConfig config = datagramAcceptor.getSessionConfig();
+        config.setReuseAddress(true);
+        config.setReadBufferSize(endpoint.getReadBufferSize());
+        if (endpoint.getReceiveBufferSize() > 0) config.setReceiveBufferSize(endpoint.getReceiveBufferSize());
+        return datagramAcceptor;
+    }
+
+    private static String remoteAddress(IoSession session) {
+        String result = (String) session.getAttribute(REMOTE_ADDRESS_ATTRIBUTE);
+        if (result == null) {
+            SocketAddress address = session.getRemoteAddress();
+            if (address instanceof InetSocketAddress) {
+                InetSocketAddress inet = (InetSocketAddress) address;
+                result = inet.getHostString() + ":" + inet.getPort();
+            } else {
+                result = String.valueOf(address);
+            }
+            session.setAttribute(REMOTE_ADDRESS_ATTRIBUTE, result);
+        }
+        return result;
+    }
+
+    private final class IngestHandler extends IoHandlerAdapter {
+
+        @Override
+        public void messageReceived(IoSession session, Object message) throws Exception {
+            Exchange exchange = endpoint.createExchange();
+            exchange.getIn().setBody(message);
+            exchange.getIn().setHeader(NmeaIngestEndpoint.REMOTE_ADDRESS, remoteAddress(session));
+            try {
+                getProcessor().process(exchange);
+            } finally {
+                if (exchange.getException() != null) {
+                    getExceptionHandler().handleException("Error processing ingested message", exchange,
+                            exchange.getException());
+                }
+            }
+        }
+
+        @Override
+        public void exceptionCaught(IoSession session, Throwable cause) throws Exception {
+            getExceptionHandler().handleException("Ingest session " + remoteAddress(session) + " failed", cause);
+            if (cause instanceof IOException) session.close(true);
+        }
+    }
+}
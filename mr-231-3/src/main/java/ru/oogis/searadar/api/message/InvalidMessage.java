@@ -1,9 +1,27 @@
 package ru.oogis.searadar.api.message;
 
+import ru.oogis.searadar.api.types.InvalidReason;
+
 public class InvalidMessage extends SearadarStationMessage{
 
+    private InvalidReason reason;
     private String infoMsg;
 
+    public InvalidMessage() {}
+
+    public InvalidMessage(InvalidReason reason, String infoMsg) {
+        this.reason = reason;
+        this.infoMsg = infoMsg;
+    }
+
+    public InvalidReason getReason() {
+        return reason;
+    }
+
+    public void setReason(InvalidReason reason) {
+        this.reason = reason;
+    }
+
     public String getInfoMsg() {
         return infoMsg;
     }
@@ -11,4 +29,13 @@ public class InvalidMessage extends SearadarStationMessage{
     public void setInfoMsg(String infoMsg) {
         this.infoMsg = infoMsg;
     }
+
+    @Override
+    public String toString() {
+        return "InvalidMessage{" +
+                "msgRecTime=" + getMsgRecTime() +
+                ", reason=" + reason +
+                ", infoMsg=" + infoMsg +
+                '}';
+    }
 }
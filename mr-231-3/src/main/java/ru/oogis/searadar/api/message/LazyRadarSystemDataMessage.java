@@ -0,0 +1,246 @@
+package ru.oogis.searadar.api.message;
+
+import ru.oogis.searadar.api.convert.NmeaFieldIndex;
+
+/**
+ * {@link RadarSystemDataMessage}, разбирающий поля исходного предложения RSD при первом обращении к ним,
+ * см. {@link LazyTrackedTargetMessage}.
+ */
+public class LazyRadarSystemDataMessage extends PrimitiveRadarSystemDataMessage {
+
+    private static final int INITIAL_DISTANCE = 1;
+    private static final int INITIAL_BEARING = 2;
+    private static final int MOVING_CIRCLE_OF_DISTANCE = 3;
+    private static final int BEARING = 4;
+    private static final int DISTANCE_FROM_SHIP = 9;
+    private static final int BEARING2 = 10;
+    private static final int DISTANCE_SCALE = 11;
+    private static final int DISTANCE_UNIT = 12;
+    private static final int DISPLAY_ORIENTATION = 13;
+    private static final int WORKING_MODE = 14;
+
+    private final NmeaFieldIndex fields;
+    private int decoded;
+
+
+    /**
+     * @param fields     поля предложения RSD
+     * @param msgRecTime время получения, мс
+     */
+    public LazyRadarSystemDataMessage(NmeaFieldIndex fields, long msgRecTime) {
+        this.fields = fields;
+        setMsgRecTime(msgRecTime);
+    }
+
+    public String getSentence() {
+        return fields.getSentence();
+    }
+
+    @Override
+    public Double getInitialDistance() {
+        if (undecoded(INITIAL_DISTANCE)) setInitialDistance(fields.tryDoubleValue(INITIAL_DISTANCE));
+        return super.getInitialDistance();
+    }
+
+    @Override
+    public double getInitialDistanceValue() {
+        if (undecoded(INITIAL_DISTANCE)) setInitialDistance(fields.tryDoubleValue(INITIAL_DISTANCE));
+        return super.getInitialDistanceValue();
+    }
+
+    @Override
+    public void setInitialDistance(double initialDistance) {
+        decoded |= 1 << INITIAL_DISTANCE;
+        super.setInitialDistance(initialDistance);
+    }
+
+    @Override
+    public void setInitialDistance(Double initialDistance) {
+        decoded |= 1 << INITIAL_DISTANCE;
+        super.setInitialDistance(initialDistance);
+    }
+
+    @Override
+    public Double getInitialBearing() {
+        if (undecoded(INITIAL_BEARING)) setInitialBearing(fields.tryDoubleValue(INITIAL_BEARING));
+        return super.getInitialBearing();
+    }
+
+    @Override
+    public double getInitialBearingValue() {
+        if (undecoded(INITIAL_BEARING)) setInitialBearing(fields.tryDoubleValue(INITIAL_BEARING));
+        return super.getInitialBearingValue();
+    }
+
+    @Override
+    public void setInitialBearing(double initialBearing) {
+        decoded |= 1 << INITIAL_BEARING;
+        super.setInitialBearing(initialBearing);
+    }
+
+    @Override
+    public void setInitialBearing(Double initialBearing) {
+        decoded |= 1 << INITIAL_BEARING;
+        super.setInitialBearing(initialBearing);
+    }
+
+    @Override
+    public Double getMovingCircleOfDistance() {
+        if (undecoded(MOVING_CIRCLE_OF_DISTANCE)) setMovingCircleOfDistance(fields.tryDoubleValue(MOVING_CIRCLE_OF_DISTANCE));
+        return super.getMovingCircleOfDistance();
+    }
+
+    @Override
+    public double getMovingCircleOfDistanceValue() {
+        if (undecoded(MOVING_CIRCLE_OF_DISTANCE)) setMovingCircleOfDistance(fields.tryDoubleValue(MOVING_CIRCLE_OF_DISTANCE));
+        return super.getMovingCircleOfDistanceValue();
+    }
+
+    @Override
+    public void setMovingCircleOfDistance(double movingCircleOfDistance) {
+        decoded |= 1 << MOVING_CIRCLE_OF_DISTANCE;
+        super.setMovingCircleOfDistance(movingCircleOfDistance);
+    }
+
+    @Override
+    public void setMovingCircleOfDistance(Double movingCircleOfDistance) {
+        decoded |= 1 << MOVING_CIRCLE_OF_DISTANCE;
+        super.setMovingCircleOfDistance(movingCircleOfDistance);
+    }
+
+    @Override
+    public Double getBearing() {
+        if (undecoded(BEARING)) setBearing(fields.tryDoubleValue(BEARING));
+        return super.getBearing();
+    }
+
+    @Override
+    public double getBearingValue() {
+        if (undecoded(BEARING)) setBearing(fields.tryDoubleValue(BEARING));
+        return super.getBearingValue();
+    }
+
+    @Override
+    public void setBearing(double bearing) {
+        decoded |= 1 << BEARING;
+        super.setBearing(bearing);
+    }
+
+    @Override
+    public void setBearing(Double bearing) {
+        decoded |= 1 << BEARING;
+        super.setBearing(bearing);
+    }
+
+    @Override
+    public Double getDistanceFromShip() {
+        if (undecoded(DISTANCE_FROM_SHIP)) setDistanceFromShip(fields.tryDoubleValue(DISTANCE_FROM_SHIP));
+        return super.getDistanceFromShip();
+    }
+
+    @Override
+    public double getDistanceFromShipValue() {
+        if (undecoded(DISTANCE_FROM_SHIP)) setDistanceFromShip(fields.tryDoubleValue(DISTANCE_FROM_SHIP));
+        return super.getDistanceFromShipValue();
+    }
+
+    @Override
+    public void setDistanceFromShip(double distanceFromShip) {
+        decoded |= 1 << DISTANCE_FROM_SHIP;
+        super.setDistanceFromShip(distanceFromShip);
+    }
+
+    @Override
+    public void setDistanceFromShip(Double distanceFromShip) {
+        decoded |= 1 << DISTANCE_FROM_SHIP;
+        super.setDistanceFromShip(distanceFromShip);
+    }
+
+    @Override
+    public Double getBearing2() {
+        if (undecoded(BEARING2)) setBearing2(fields.tryDoubleValue(BEARING2));
+        return super.getBearing2();
+    }
+
+    @Override
+    public double getBearing2Value() {
+        if (undecoded(BEARING2)) setBearing2(fields.tryDoubleValue(BEARING2));
+        return super.getBearing2Value();
+    }
+
+    @Override
+    public void setBearing2(double bearing2) {
+        decoded |= 1 << BEARING2;
+        super.setBearing2(bearing2);
+    }
+
+    @Override
+    public void setBearing2(Double bearing2) {
+        decoded |= 1 << BEARING2;
+        super.setBearing2(bearing2);
+    }
+
+    @Override
+    public Double getDistanceScale() {
+        if (undecoded(DISTANCE_SCALE)) setDistanceScale(fields.tryDoubleValue(DISTANCE_SCALE));
+        return super.getDistanceScale();
+    }
+
+    @Override
+    public double getDistanceScaleValue() {
+        if (undecoded(DISTANCE_SCALE)) setDistanceScale(fields.tryDoubleValue(DISTANCE_SCALE));
+        return super.getDistanceScaleValue();
+    }
+
+    @Override
+    public void setDistanceScale(double distanceScale) {
+        decoded |= 1 << DISTANCE_SCALE;
+        super.setDistanceScale(distanceScale);
+    }
+
+    @Override
+    public void setDistanceScale(Double distanceScale) {
+        decoded |= 1 << DISTANCE_SCALE;
+        super.setDistanceScale(distanceScale);
+    }
+
+    @Override
+    public String getDistanceUnit() {
+        if (undecoded(DISTANCE_UNIT)) setDistanceUnit(fields.stringValue(DISTANCE_UNIT));
+        return super.getDistanceUnit();
+    }
+
+    @Override
+    public void setDistanceUnit(String distanceUnit) {
+        decoded |= 1 << DISTANCE_UNIT;
+        super.setDistanceUnit(distanceUnit);
+    }
+
+    @Override
+    public String getDisplayOrientation() {
+        if (undecoded(DISPLAY_ORIENTATION)) setDisplayOrientation(fields.stringValue(DISPLAY_ORIENTATION));
+        return super.getDisplayOrientation();
+    }
+
+    @Override
+    public void setDisplayOrientation(String displayOrientation) {
+        decoded |= 1 << DISPLAY_ORIENTATION;
+        super.setDisplayOrientation(displayOrientation);
+    }
+
+    @Override
+    public String getWorkingMode() {
+        if (undecoded(WORKING_MODE)) setWorkingMode(fields.stringValue(WORKING_MODE));
+        return super.getWorkingMode();
+    }
+
+    @Override
+    public void setWorkingMode(String workingMode) {
+        decoded |= 1 << WORKING_MODE;
+        super.setWorkingMode(workingMode);
+    }
+
+    private boolean undecoded(int field) {
+        return (decoded & 1 << field) == 0;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.oogis.searadar.api.message;
+
+import java.sql.Timestamp;
+
+import static ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage.box;
+import static ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage.unbox;
+
+/**
+ * {@link WaterSpeedHeadingMessage} с полями примитивных типов, см. {@link PrimitiveTrackedTargetMessage}.
+ */
+public class PrimitiveWaterSpeedHeadingMessage extends WaterSpeedHeadingMessage {
+
+    private long msgRecTimeMillis = Long.MIN_VALUE;
+    private transient Timestamp msgRecTimestamp;
+    private double course = Double.NaN;
+    private double speed = Double.NaN;
+
+
+    @Override
+    public Timestamp getMsgRecTime() {
+        if (msgRecTimestamp == null && msgRecTimeMillis != Long.MIN_VALUE) {
+            msgRecTimestamp = new Timestamp(msgRecTimeMillis);
+        }
+        return msgRecTimestamp;
+    }
+
+    @Override
+    public void setMsgRecTime(Timestamp msgRecTime) {
+        msgRecTimeMillis = msgRecTime == null ? Long.MIN_VALUE : msgRecTime.getTime();
+        msgRecTimestamp = msgRecTime;
+    }
+
+    @Override
+    public void setMsgRecTime(long msgRecTime) {
+        msgRecTimeMillis = msgRecTime;
+        msgRecTimestamp = null;
+    }
+
+    @Override
+    public long getMsgRecTimeMillis() {
+        return msgRecTimeMillis == Long.MIN_VALUE ? 0L : msgRecTimeMillis;
+    }
+
+    @Override
+    public Double getCourse() {
+        return box(course);
+    }
+
+    @Override
+    public void setCourse(Double course) {
+        this.course = unbox(course);
+    }
+
+    @Override
+    public void setCourse(double course) {
+        this.course = course;
+    }
+
+    @Override
+    public double getCourseValue() {
+        return course;
+    }
+
+    @Override
+    public Double getSpeed() {
+        return box(speed);
+    }
+
+    @Override
+    public void setSpeed(Double speed) {
+        this.speed = unbox(speed);
+    }
+
+    @Override
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    @Override
+    public double getSpeedValue() {
+        return speed;
+    }
+}
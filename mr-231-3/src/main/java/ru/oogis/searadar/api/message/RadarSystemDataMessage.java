@@ -42,6 +42,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.initialDistance = initialDistance;
     }
 
+    public void setInitialDistance(double initialDistance) {
+        setInitialDistance(Double.valueOf(initialDistance));
+    }
+
+    public double getInitialDistanceValue() {
+        Double value = getInitialDistance();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getInitialBearing() {
         return initialBearing;
     }
@@ -50,6 +59,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.initialBearing = initialBearing;
     }
 
+    public void setInitialBearing(double initialBearing) {
+        setInitialBearing(Double.valueOf(initialBearing));
+    }
+
+    public double getInitialBearingValue() {
+        Double value = getInitialBearing();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getMovingCircleOfDistance() {
         return movingCircleOfDistance;
     }
@@ -58,6 +76,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.movingCircleOfDistance = movingCircleOfDistance;
     }
 
+    public void setMovingCircleOfDistance(double movingCircleOfDistance) {
+        setMovingCircleOfDistance(Double.valueOf(movingCircleOfDistance));
+    }
+
+    public double getMovingCircleOfDistanceValue() {
+        Double value = getMovingCircleOfDistance();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getBearing() {
         return bearing;
     }
@@ -66,6 +93,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.bearing = bearing;
     }
 
+    public void setBearing(double bearing) {
+        setBearing(Double.valueOf(bearing));
+    }
+
+    public double getBearingValue() {
+        Double value = getBearing();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getDistanceFromShip() {
         return distanceFromShip;
     }
@@ -74,6 +110,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.distanceFromShip = distanceFromShip;
     }
 
+    public void setDistanceFromShip(double distanceFromShip) {
+        setDistanceFromShip(Double.valueOf(distanceFromShip));
+    }
+
+    public double getDistanceFromShipValue() {
+        Double value = getDistanceFromShip();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getBearing2() {
         return bearing2;
     }
@@ -82,6 +127,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.bearing2 = bearing2;
     }
 
+    public void setBearing2(double bearing2) {
+        setBearing2(Double.valueOf(bearing2));
+    }
+
+    public double getBearing2Value() {
+        Double value = getBearing2();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getDistanceScale() {
         return distanceScale;
     }
@@ -90,6 +144,15 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
         this.distanceScale = distanceScale;
     }
 
+    public void setDistanceScale(double distanceScale) {
+        setDistanceScale(Double.valueOf(distanceScale));
+    }
+
+    public double getDistanceScaleValue() {
+        Double value = getDistanceScale();
+        return value == null ? Double.NaN : value;
+    }
+
     public String getDistanceUnit() {
         return distanceUnit;
     }
@@ -118,16 +181,16 @@ public class RadarSystemDataMessage extends SearadarStationMessage{
     public String toString() {
         return "RadarSystemData{" +
                 "msgRecTime=" +
-                ", initialDistance=" + initialDistance +
-                ", initialBearing=" + initialBearing +
-                ", movingCircleOfDistance=" + movingCircleOfDistance +
-                ", bearing=" + bearing +
-                ", distanceFromShip=" + distanceFromShip +
-                ", bearing2=" + bearing2 +
-                ", distanceScale=" + distanceScale +
-                ", distanceUnit=" + distanceUnit +
-                ", displayOrientation=" + displayOrientation +
-                ", workingMode=" + workingMode +
+                ", initialDistance=" + getInitialDistance() +
+                ", initialBearing=" + getInitialBearing() +
+                ", movingCircleOfDistance=" + getMovingCircleOfDistance() +
+                ", bearing=" + getBearing() +
+                ", distanceFromShip=" + getDistanceFromShip() +
+                ", bearing2=" + getBearing2() +
+                ", distanceScale=" + getDistanceScale() +
+                ", distanceUnit=" + getDistanceUnit() +
+                ", displayOrientation=" + getDisplayOrientation() +
+                ", workingMode=" + getWorkingMode() +
                 '}';
     }
 }
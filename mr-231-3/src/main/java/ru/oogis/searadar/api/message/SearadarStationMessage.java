@@ -19,4 +19,16 @@ public class SearadarStationMessage implements Serializable {
         this.msgRecTime = msgRecTime;
     }
 
+    public void setMsgRecTime(long msgRecTime) {
+        setMsgRecTime(new Timestamp(msgRecTime));
+    }
+
+    /**
+     * @return время получения в миллисекундах эпохи или 0, если время не задано
+     */
+    public long getMsgRecTimeMillis() {
+        Timestamp result = getMsgRecTime();
+        return result == null ? 0L : result.getTime();
+    }
+
 }
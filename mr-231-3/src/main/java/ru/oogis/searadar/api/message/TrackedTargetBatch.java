@@ -0,0 +1,269 @@
+package ru.oogis.searadar.api.message;
+
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Данные TTM одного обзора в виде параллельных массивов примитивов (по столбцу на поле).
+ * <p>
+ * Строка {@code i} описывает одну цель. Массивы, возвращаемые методами {@code xxxColumn()}, - внутренние:
+ * в них действительны первые {@link #size()} элементов, и они заменяются при росте пакета. Пакет переиспользуется
+ * вызовом {@link #clear()}. Для кода, работающего с {@link TrackedTargetMessage}, пакет можно обойти как
+ * {@link Iterable}: каждая строка выдается отдельным {@link PrimitiveTrackedTargetMessage}.
+ * Экземпляр не потокобезопасен.
+ */
+public class TrackedTargetBatch implements Iterable<TrackedTargetMessage> {
+
+    private static final TargetType[] TYPES = TargetType.values();
+    private static final TargetStatus[] STATUSES = TargetStatus.values();
+    private static final IFF[] IFFS = IFF.values();
+
+    private int size;
+    private long[] msgRecTime;
+    private long[] msgTime;
+    private int[] targetNumber;
+    private double[] distance;
+    private double[] bearing;
+    private double[] speed;
+    private double[] course;
+    private byte[] type;
+    private byte[] status;
+    private byte[] iff;
+
+
+    public TrackedTargetBatch() {
+        this(64);
+    }
+
+    public TrackedTargetBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        msgRecTime = new long[capacity];
+        msgTime = new long[capacity];
+        targetNumber = new int[capacity];
+        distance = new double[capacity];
+        bearing = new double[capacity];
+        speed = new double[capacity];
+        course = new double[capacity];
+        type = new byte[capacity];
+        status = new byte[capacity];
+        iff = new byte[capacity];
+    }
+
+    /**
+     * Добавляет строку.
+     *
+     * @return номер добавленной строки
+     */
+    public int add(long msgRecTime, long msgTime, int targetNumber, double distance, double bearing,
+                   double speed, double course, TargetType type, TargetStatus status, IFF iff) {
+        if (size == this.targetNumber.length) {
+            grow();
+        }
+        int row = size++;
+        this.msgRecTime[row] = msgRecTime;
+        this.msgTime[row] = msgTime;
+        this.targetNumber[row] = targetNumber;
+        this.distance[row] = distance;
+        this.bearing[row] = bearing;
+        this.speed[row] = speed;
+        this.course[row] = course;
+        this.type[row] = (byte) type.ordinal();
+        this.status[row] = (byte) status.ordinal();
+        this.iff[row] = (byte) iff.ordinal();
+        return row;
+    }
+
+    /**
+     * Добавляет строку по сообщению; незаданные значения сохраняются как {@code NaN} или {@code MIN_VALUE}.
+     *
+     * @return номер добавленной строки
+     */
+    public int add(TrackedTargetMessage message) {
+        return add(message.getMsgRecTimeMillis(), message.getMsgTimeValue(), message.getTargetNumberValue(),
+                message.getDistanceValue(), message.getBearingValue(), message.getSpeedValue(),
+                message.getCourseValue(), orUnknown(message.getType()), orUnreliable(message.getStatus()),
+                orUnknown(message.getIff()));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Очищает пакет, сохраняя выделенные массивы.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public long getMsgRecTime(int row) {
+        return msgRecTime[checkRow(row)];
+    }
+
+    public long getMsgTime(int row) {
+        return msgTime[checkRow(row)];
+    }
+
+    public int getTargetNumber(int row) {
+        return targetNumber[checkRow(row)];
+    }
+
+    public double getDistance(int row) {
+        return distance[checkRow(row)];
+    }
+
+    public double getBearing(int row) {
+        return bearing[checkRow(row)];
+    }
+
+    public double getSpeed(int row) {
+        return speed[checkRow(row)];
+    }
+
+    public double getCourse(int row) {
+        return course[checkRow(row)];
+    }
+
+    public TargetType getType(int row) {
+        return TYPES[type[checkRow(row)]];
+    }
+
+    public TargetStatus getStatus(int row) {
+        return STATUSES[status[checkRow(row)]];
+    }
+
+    public IFF getIff(int row) {
+        return IFFS[iff[checkRow(row)]];
+    }
+
+    public long[] msgRecTimeColumn() {
+        return msgRecTime;
+    }
+
+    public long[] msgTimeColumn() {
+        return msgTime;
+    }
+
+    public int[] targetNumberColumn() {
+        return targetNumber;
+    }
+
+    public double[] distanceColumn() {
+        return distance;
+    }
+
+    public double[] bearingColumn() {
+        return bearing;
+    }
+
+    public double[] speedColumn() {
+        return speed;
+    }
+
+    public double[] courseColumn() {
+        return course;
+    }
+
+    /**
+     * @return порядковые номера {@link TargetType}
+     */
+    public byte[] typeColumn() {
+        return type;
+    }
+
+    /**
+     * @return порядковые номера {@link TargetStatus}
+     */
+    public byte[] statusColumn() {
+        return status;
+    }
+
+    /**
+     * @return порядковые номера {@link IFF}
+     */
+    public byte[] iffColumn() {
+        return iff;
+    }
+
+    /**
+     * @return новое сообщение с данными строки
+     */
+    public TrackedTargetMessage toMessage(int row) {
+        checkRow(row);
+        PrimitiveTrackedTargetMessage message = new PrimitiveTrackedTargetMessage();
+        message.setMsgRecTime(msgRecTime[row]);
+        message.setMsgTime(msgTime[row]);
+        message.setTargetNumber(targetNumber[row]);
+        message.setDistance(distance[row]);
+        message.setBearing(bearing[row]);
+        message.setSpeed(speed[row]);
+        message.setCourse(course[row]);
+        message.setType(TYPES[type[row]]);
+        message.setStatus(STATUSES[status[row]]);
+        message.setIff(IFFS[iff[row]]);
+        return message;
+    }
+
+    @Override
+    public Iterator<TrackedTargetMessage> iterator() {
+        return new Iterator<TrackedTargetMessage>() {
+
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public TrackedTargetMessage next() {
+                if (row >= size) {
+                    throw new NoSuchElementException();
+                }
+                return toMessage(row++);
+            }
+        };
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+
+    private void grow() {
+        int capacity = targetNumber.length * 2;
+        msgRecTime = Arrays.copyOf(msgRecTime, capacity);
+        msgTime = Arrays.copyOf(msgTime, capacity);
+        targetNumber = Arrays.copyOf(targetNumber, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        bearing = Arrays.copyOf(bearing, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        course = Arrays.copyOf(course, capacity);
+        type = Arrays.copyOf(type, capacity);
+        status = Arrays.copyOf(status, capacity);
+        iff = Arrays.copyOf(iff, capacity);
+    }
+
+    private static TargetType orUnknown(TargetType type) {
+        return type == null ? TargetType.UNKNOWN : type;
+    }
+
+    private static IFF orUnknown(IFF iff) {
+        return iff == null ? IFF.UNKNOWN : iff;
+    }
+
+    private static TargetStatus orUnreliable(TargetStatus status) {
+        return status == null ? TargetStatus.UNRELIABLE_DATA : status;
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Map;
 public abstract class AbstractStationType implements SearadarStationType{
 
     private final String typeName;
-    private SearadarExchangeConverter converter;
+    private volatile SearadarExchangeConverter converter;
     protected final Map<String, Object> beansForRegistration = new HashMap<>();
 
 
@@ -34,8 +34,14 @@ public abstract class AbstractStationType implements SearadarStationType{
 
     @Override
     public SearadarExchangeConverter getConverter() {
-        if (converter == null) converter = createConverter();
-        return converter;
+        SearadarExchangeConverter result = converter;
+        if (result == null) {
+            synchronized (this) {
+                result = converter;
+                if (result == null) converter = result = createConverter();
+            }
+        }
+        return result;
     }
 
     @Override
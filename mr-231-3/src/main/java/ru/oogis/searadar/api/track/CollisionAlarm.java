@@ -0,0 +1,89 @@
+package ru.oogis.searadar.api.track;
+
+import java.io.Serializable;
+
+/**
+ * Событие опасного сближения: цель (или пара целей) вошла в пределы порогов CPA/TCPA или вышла из них.
+ */
+public class CollisionAlarm implements Serializable {
+
+    public enum State {
+        /** Пороги CPA и TCPA нарушены впервые. */
+        RAISED,
+        /** Сближение больше не опасно или цель потеряна. */
+        CLEARED
+    }
+
+    /**
+     * Номер «цели» для своего судна.
+     */
+    public static final int OWN_SHIP = -1;
+
+    private final State state;
+    private final long time;
+    private final int targetNumber;
+    private final int otherTargetNumber;
+    private final double cpa;
+    private final double tcpa;
+
+    public CollisionAlarm(State state, long time, int targetNumber, int otherTargetNumber, double cpa, double tcpa) {
+        this.state = state;
+        this.time = time;
+        this.targetNumber = targetNumber;
+        this.otherTargetNumber = otherTargetNumber;
+        this.cpa = cpa;
+        this.tcpa = tcpa;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return время получения обзора в миллисекундах эпохи
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getTargetNumber() {
+        return targetNumber;
+    }
+
+    /**
+     * @return номер второй цели пары или {@link #OWN_SHIP}
+     */
+    public int getOtherTargetNumber() {
+        return otherTargetNumber;
+    }
+
+    public boolean isOwnShip() {
+        return otherTargetNumber == OWN_SHIP;
+    }
+
+    /**
+     * @return дистанция кратчайшего сближения в морских милях (для {@link State#CLEARED} - последняя рассчитанная)
+     */
+    public double getCpa() {
+        return cpa;
+    }
+
+    /**
+     * @return время до кратчайшего сближения в минутах
+     */
+    public double getTcpa() {
+        return tcpa;
+    }
+
+    @Override
+    public String toString() {
+        return "CollisionAlarm{" +
+                "state=" + state +
+                ", time=" + time +
+                ", targetNumber=" + targetNumber +
+                ", otherTargetNumber=" + otherTargetNumber +
+                ", cpa=" + cpa +
+                ", tcpa=" + tcpa +
+                '}';
+    }
+}
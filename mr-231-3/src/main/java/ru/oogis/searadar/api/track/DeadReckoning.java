@@ -0,0 +1,339 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Счисление позиций целей на произвольный момент между обзорами.
+ * <p>
+ * Для каждой цели хранится последняя отметка: позиция, истинные курс и скорость и время получения. Позиция на
+ * момент {@code t} - точка на ортодромии из позиции отметки по ее курсу на расстоянии
+ * {@code speed * (t - time)}; формула та же, что в {@link GeoHelper#calcDestinations}. Синусы и косинусы широты
+ * отметки и курса считаются один раз при обновлении цели. Между обзорами цель проходит сотни метров, поэтому при
+ * пройденном угле до {@value #SERIES_ANGLE} рад позиция считается по разложению формулы до второго порядка без
+ * тригонометрии: отличие от точного расчета - меньше миллиметра до широты 85°. Запрос обходит массивы примитивов
+ * без создания объектов и подходит для вызова с частотой обновления экрана для тысяч целей. Цель без скорости
+ * или курса остается на месте отметки.
+ * <p>
+ * Как процессор маршрута сервис стоит после {@link GeoReferenceStage}: берет отметки из заголовка
+ * {@link GeoReferenceStage#GEO_TARGETS} и удаляет потерянные цели тела ({@link TargetStatus#LOST}).
+ * Обновления и запросы можно выполнять из разных потоков.
+ */
+public class DeadReckoning implements Processor {
+
+    /**
+     * Наибольший пройденный угол (около 640 м), при котором позиция считается по разложению второго порядка.
+     */
+    static final double SERIES_ANGLE = 1e-4;
+    // Ближе к полюсу разложение по долготе теряет точность
+    private static final double SERIES_MIN_COS_LATITUDE = 0.05;
+
+    private final StampedLock lock = new StampedLock();
+    private final TargetSlots targets = new TargetSlots();
+    private final LostTargets lost = new LostTargets();
+
+    private long[] time;
+    private double[] latitude;
+    private double[] longitude;
+    private double[] course;
+    private double[] speed;
+    private double[] sinLatitude;
+    private double[] cosLatitude;
+    private double[] sinCourse;
+    private double[] cosCourse;
+    // Угловая скорость по ортодромии, радиан в миллисекунду
+    private double[] rate;
+    // Коэффициенты разложения приращений широты и долготы (радианы) по пройденному углу до второго порядка
+    private double[] latitude1;
+    private double[] latitude2;
+    private double[] longitude1;
+    private double[] longitude2;
+
+    public DeadReckoning() {
+        allocate(8);
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return targets.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean contains(int targetNumber) {
+        long stamp = lock.readLock();
+        try {
+            return targets.find(targetNumber) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Записывает последнюю отметку цели; отметка без позиции и отметка старше записанной пропускаются.
+     *
+     * @param time   время отметки в миллисекундах эпохи
+     * @param course истинный курс в градусах
+     * @param speed  скорость в узлах
+     * @return {@code true}, если отметка записана
+     */
+    public boolean update(int targetNumber, long time, double latitude, double longitude, double course,
+                          double speed) {
+        long stamp = lock.writeLock();
+        try {
+            return put(targetNumber, time, latitude, longitude, course, speed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Записывает все отметки пакета под одной блокировкой.
+     *
+     * @return количество записанных отметок
+     */
+    public int update(GeoTargetBatch batch) {
+        long stamp = lock.writeLock();
+        try {
+            return put(batch, null);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(int targetNumber) {
+        long stamp = lock.writeLock();
+        try {
+            return targets.remove(targetNumber) >= 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет цели, последняя отметка которых старше заданного момента.
+     *
+     * @return количество удаленных целей
+     */
+    public int removeStale(long updatedBefore) {
+        long stamp = lock.writeLock();
+        try {
+            int removed = 0;
+            for (int slot = 0, top = targets.top(); slot < top; slot++) {
+                int number = targets.numberAt(slot);
+                if (number != TargetSlots.NO_TARGET && time[slot] < updatedBefore) {
+                    targets.remove(number);
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            targets.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Записывает позиции целей на момент {@code time} в массивы; записывается не больше целей, чем длина
+     * самого короткого массива.
+     *
+     * @return количество записанных целей
+     */
+    public int project(long time, int[] numbers, double[] latitudes, double[] longitudes) {
+        int limit = Math.min(numbers.length, Math.min(latitudes.length, longitudes.length));
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int slot = 0, top = targets.top(); slot < top && count < limit; slot++) {
+                int number = targets.numberAt(slot);
+                if (number == TargetSlots.NO_TARGET) continue;
+                numbers[count] = number;
+                project(slot, time, latitudes, longitudes, count);
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Заменяет содержимое пакета позициями всех целей на момент {@code time} с курсом и скоростью последних
+     * отметок.
+     *
+     * @return количество целей
+     */
+    public int project(long time, GeoTargetBatch into) {
+        into.clear();
+        long stamp = lock.readLock();
+        try {
+            int row = into.extend(targets.size());
+            int[] numbers = into.targetNumberColumn();
+            long[] times = into.timeColumn();
+            double[] latitudes = into.latitudeColumn();
+            double[] longitudes = into.longitudeColumn();
+            double[] courses = into.courseColumn();
+            double[] speeds = into.speedColumn();
+            for (int slot = 0, top = targets.top(); slot < top; slot++) {
+                int number = targets.numberAt(slot);
+                if (number == TargetSlots.NO_TARGET) continue;
+                numbers[row] = number;
+                times[row] = time;
+                courses[row] = course[slot];
+                speeds[row] = speed[slot];
+                project(slot, time, latitudes, longitudes, row);
+                row++;
+            }
+            return row;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Удаляет потерянные цели тела обмена и записывает отметки заголовка {@link GeoReferenceStage#GEO_TARGETS}
+     * (или тела - {@link GeoTargetBatch}).
+     */
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        Object body = in.getBody();
+        GeoTargetBatch batch = in.getHeader(GeoReferenceStage.GEO_TARGETS, GeoTargetBatch.class);
+        if (batch == null && body instanceof GeoTargetBatch) batch = (GeoTargetBatch) body;
+        long stamp = lock.writeLock();
+        try {
+            // Буфер потерянных целей общий, поэтому заполняется под блокировкой записи
+            for (int i = 0, n = lost.collect(body); i < n; i++) {
+                targets.remove(lost.get(i));
+            }
+            if (batch != null) put(batch, lost);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int put(GeoTargetBatch batch, LostTargets skip) {
+        long[] times = batch.timeColumn();
+        int[] numbers = batch.targetNumberColumn();
+        double[] latitudes = batch.latitudeColumn();
+        double[] longitudes = batch.longitudeColumn();
+        double[] courses = batch.courseColumn();
+        double[] speeds = batch.speedColumn();
+        int updated = 0;
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            if (skip != null && skip.contains(numbers[row])) continue;
+            if (put(numbers[row], times[row], latitudes[row], longitudes[row], courses[row], speeds[row])) updated++;
+        }
+        return updated;
+    }
+
+    private boolean put(int targetNumber, long when, double lat, double lon, double targetCourse,
+                        double targetSpeed) {
+        if (targetNumber == TargetSlots.NO_TARGET || Double.isNaN(lat) || Double.isNaN(lon)) return false;
+        int slot = targets.find(targetNumber);
+        if (slot < 0) {
+            slot = targets.add(targetNumber);
+            if (slot == time.length) {
+                grow(slot * 2);
+            }
+        } else if (when < time[slot]) {
+            return false;
+        }
+        time[slot] = when;
+        latitude[slot] = lat;
+        longitude[slot] = lon;
+        course[slot] = targetCourse;
+        speed[slot] = targetSpeed;
+        double latRadians = Math.toRadians(lat);
+        double courseRadians = Math.toRadians(targetCourse);
+        sinLatitude[slot] = Math.sin(latRadians);
+        cosLatitude[slot] = Math.cos(latRadians);
+        sinCourse[slot] = Math.sin(courseRadians);
+        cosCourse[slot] = Math.cos(courseRadians);
+        boolean moving = targetSpeed > 0 && !Double.isNaN(targetCourse) && !Double.isInfinite(targetSpeed);
+        rate[slot] = moving ? targetSpeed * GeoHelper.KNOT_PMS / 1000.0 / GeoHelper.WGS84_RADIUS : 0.0;
+        double tan = sinLatitude[slot] / cosLatitude[slot];
+        latitude1[slot] = cosCourse[slot];
+        latitude2[slot] = -0.5 * sinCourse[slot] * sinCourse[slot] * tan;
+        longitude1[slot] = sinCourse[slot] / cosLatitude[slot];
+        longitude2[slot] = sinCourse[slot] * cosCourse[slot] * tan / cosLatitude[slot];
+        return true;
+    }
+
+    private void project(int slot, long when, double[] latitudes, double[] longitudes, int index) {
+        double angle = rate[slot] * (when - time[slot]);
+        if (angle == 0) {
+            latitudes[index] = latitude[slot];
+            longitudes[index] = longitude[slot];
+            return;
+        }
+        if (Math.abs(angle) <= SERIES_ANGLE && cosLatitude[slot] >= SERIES_MIN_COS_LATITUDE) {
+            double angle2 = angle * angle;
+            latitudes[index] = latitude[slot] + Math.toDegrees(latitude1[slot] * angle + latitude2[slot] * angle2);
+            double lon = longitude[slot] + Math.toDegrees(longitude1[slot] * angle + longitude2[slot] * angle2);
+            if (lon >= 180) lon -= 360;
+            else if (lon < -180) lon += 360;
+            longitudes[index] = lon;
+            return;
+        }
+        double sinAngle = Math.sin(angle);
+        double cosAngle = Math.cos(angle);
+        double sinLat0 = sinLatitude[slot];
+        double cosLat0 = cosLatitude[slot];
+        double sinLat = sinLat0 * cosAngle + cosLat0 * sinAngle * cosCourse[slot];
+        double lon = Math.toRadians(longitude[slot])
+                + Math.atan2(sinCourse[slot] * sinAngle * cosLat0, cosAngle - sinLat0 * sinLat);
+        latitudes[index] = Math.toDegrees(Math.asin(sinLat));
+        longitudes[index] = (Math.toDegrees(lon) + 540.0) % 360.0 - 180.0;
+    }
+
+    private void grow(int capacity) {
+        time = Arrays.copyOf(time, capacity);
+        latitude = Arrays.copyOf(latitude, capacity);
+        longitude = Arrays.copyOf(longitude, capacity);
+        course = Arrays.copyOf(course, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        sinLatitude = Arrays.copyOf(sinLatitude, capacity);
+        cosLatitude = Arrays.copyOf(cosLatitude, capacity);
+        sinCourse = Arrays.copyOf(sinCourse, capacity);
+        cosCourse = Arrays.copyOf(cosCourse, capacity);
+        rate = Arrays.copyOf(rate, capacity);
+        latitude1 = Arrays.copyOf(latitude1, capacity);
+        latitude2 = Arrays.copyOf(latitude2, capacity);
+        longitude1 = Arrays.copyOf(longitude1, capacity);
+        longitude2 = Arrays.copyOf(longitude2, capacity);
+    }
+
+    private void allocate(int capacity) {
+        time = new long[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        course = new double[capacity];
+        speed = new double[capacity];
+        sinLatitude = new double[capacity];
+        cosLatitude = new double[capacity];
+        sinCourse = new double[capacity];
+        cosCourse = new double[capacity];
+        rate = new double[capacity];
+        latitude1 = new double[capacity];
+        latitude2 = new double[capacity];
+        longitude1 = new double[capacity];
+        longitude2 = new double[capacity];
+    }
+}
@@ -0,0 +1,211 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+
+import java.util.Collection;
+
+/**
+ * Перевод целей TTM из полярных координат относительно своего судна в абсолютные координаты и истинное движение.
+ * <p>
+ * Стадия хранит последнее состояние своего судна: позицию задает вызывающий ({@link #setOwnShipPosition}),
+ * курс и скорость берутся из VHW ({@link #accept(SearadarStationMessage)}). Дистанция TTM - в морских милях,
+ * пеленг и курс - в градусах, скорость - в узлах. По умолчанию пеленг и движение цели считаются истинными
+ * (признак {@code T} в TTM); для станций, выдающих относительные значения, служат
+ * {@link #setRelativeBearing(boolean)} и {@link #setRelativeMotion(boolean)}.
+ * <p>
+ * Обзор переводится целиком: тригонометрия позиции судна вычисляется один раз на пакет, промежуточные массивы
+ * переиспользуются, объекты на цель не создаются. Экземпляр обслуживает одну станцию; методы, кроме
+ * {@link #process(Exchange)}, не потокобезопасны.
+ */
+public class GeoReferenceStage implements Processor {
+
+    /**
+     * Заголовок с {@link GeoTargetBatch} целей обмена.
+     */
+    public static final String GEO_TARGETS = "geo_targets";
+
+    static final double NAUTICAL_MILE = 1852.0;
+
+    private double ownLatitude = Double.NaN;
+    private double ownLongitude = Double.NaN;
+    private final OwnShipMotion ownMotion = new OwnShipMotion();
+    private boolean relativeBearing;
+    private boolean relativeMotion;
+
+    private final TrackedTargetBatch sweep = new TrackedTargetBatch();
+    private final int[] oneNumber = new int[1];
+    private final long[] oneTime = new long[1];
+    private final double[] oneDistance = new double[1];
+    private final double[] oneBearing = new double[1];
+    private final double[] oneSpeed = new double[1];
+    private final double[] oneCourse = new double[1];
+    private double[] meters = new double[64];
+    private double[] bearings = new double[64];
+    private double[] latitudes = new double[64];
+    private double[] longitudes = new double[64];
+
+    public void setOwnShipPosition(double latitude, double longitude) {
+        ownLatitude = latitude;
+        ownLongitude = longitude;
+    }
+
+    /**
+     * @param heading истинный курс своего судна в градусах
+     * @param speed   скорость своего судна в узлах
+     */
+    public void setOwnShipMotion(double heading, double speed) {
+        ownMotion.heading = heading;
+        ownMotion.speed = speed;
+    }
+
+    public double getOwnLatitude() {
+        return ownLatitude;
+    }
+
+    public double getOwnLongitude() {
+        return ownLongitude;
+    }
+
+    public double getOwnHeading() {
+        return ownMotion.heading;
+    }
+
+    public double getOwnSpeed() {
+        return ownMotion.speed;
+    }
+
+    public boolean isRelativeBearing() {
+        return relativeBearing;
+    }
+
+    /**
+     * @param relativeBearing пеленг TTM отсчитывается от курса своего судна
+     */
+    public void setRelativeBearing(boolean relativeBearing) {
+        this.relativeBearing = relativeBearing;
+    }
+
+    public boolean isRelativeMotion() {
+        return relativeMotion;
+    }
+
+    /**
+     * @param relativeMotion скорость и курс TTM - относительное движение, к которому прибавляется движение судна;
+     *                       пока курс или скорость судна неизвестны, истинные курс и скорость равны {@code NaN}
+     */
+    public void setRelativeMotion(boolean relativeMotion) {
+        this.relativeMotion = relativeMotion;
+    }
+
+    /**
+     * Обновляет курс и скорость своего судна по VHW; сообщения других типов пропускаются.
+     *
+     * @return {@code true}, если состояние судна обновлено
+     */
+    public boolean accept(SearadarStationMessage message) {
+        return ownMotion.accept(message);
+    }
+
+    /**
+     * Добавляет в {@code out} все цели пакета.
+     *
+     * @return количество добавленных строк
+     */
+    public int convert(TrackedTargetBatch batch, GeoTargetBatch out) {
+        return convert(batch.size(), batch.targetNumberColumn(), batch.msgRecTimeColumn(), batch.distanceColumn(),
+                batch.bearingColumn(), batch.speedColumn(), batch.courseColumn(), out);
+    }
+
+    /**
+     * Добавляет в {@code out} цель сообщения.
+     */
+    public void convert(TrackedTargetMessage message, GeoTargetBatch out) {
+        oneNumber[0] = message.getTargetNumberValue();
+        oneTime[0] = message.getMsgRecTimeMillis();
+        oneDistance[0] = message.getDistanceValue();
+        oneBearing[0] = message.getBearingValue();
+        oneSpeed[0] = message.getSpeedValue();
+        oneCourse[0] = message.getCourseValue();
+        convert(1, oneNumber, oneTime, oneDistance, oneBearing, oneSpeed, oneCourse, out);
+    }
+
+    /**
+     * Обновляет состояние судна по VHW тела обмена и записывает цели тела в заголовок {@link #GEO_TARGETS}.
+     * Тело - сообщение, коллекция сообщений или {@link TrackedTargetBatch}; само тело не изменяется.
+     */
+    @Override
+    public synchronized void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        Object body = in.getBody();
+        GeoTargetBatch targets = new GeoTargetBatch();
+        if (body instanceof TrackedTargetBatch) {
+            convert((TrackedTargetBatch) body, targets);
+        } else if (body instanceof SearadarStationMessage) {
+            accept((SearadarStationMessage) body);
+            if (body instanceof TrackedTargetMessage) convert((TrackedTargetMessage) body, targets);
+        } else if (body instanceof Collection) {
+            // Цели обзора собираются в пакет и переводятся одним вызовом, поэтому курс и скорость судна из VHW
+            // обзора применяются ко всем его целям независимо от порядка предложений
+            sweep.clear();
+            for (Object message : (Collection<?>) body) {
+                if (message instanceof WaterSpeedHeadingMessage) accept((WaterSpeedHeadingMessage) message);
+                else if (message instanceof TrackedTargetMessage) sweep.add((TrackedTargetMessage) message);
+            }
+            convert(sweep, targets);
+        }
+        if (!targets.isEmpty()) in.setHeader(GEO_TARGETS, targets);
+    }
+
+    private int convert(int count, int[] numbers, long[] times, double[] distances, double[] targetBearings,
+                        double[] speeds, double[] courses, GeoTargetBatch out) {
+        if (count == 0) return 0;
+        ensureScratch(count);
+        double bearingOffset = relativeBearing ? ownMotion.heading : 0.0;
+        for (int i = 0; i < count; i++) {
+            meters[i] = distances[i] * NAUTICAL_MILE;
+            bearings[i] = targetBearings[i] + bearingOffset;
+        }
+        GeoHelper.calcDestinations(ownLatitude, ownLongitude, meters, bearings, count, latitudes, longitudes);
+
+        int first = out.extend(count);
+        System.arraycopy(numbers, 0, out.targetNumberColumn(), first, count);
+        System.arraycopy(times, 0, out.timeColumn(), first, count);
+        System.arraycopy(latitudes, 0, out.latitudeColumn(), first, count);
+        System.arraycopy(longitudes, 0, out.longitudeColumn(), first, count);
+        double[] outCourses = out.courseColumn();
+        double[] outSpeeds = out.speedColumn();
+        if (!relativeMotion) {
+            System.arraycopy(courses, 0, outCourses, first, count);
+            System.arraycopy(speeds, 0, outSpeeds, first, count);
+            return count;
+        }
+        double ownEast = ownMotion.east();
+        double ownNorth = ownMotion.north();
+        for (int i = 0; i < count; i++) {
+            double course = Math.toRadians(courses[i]);
+            double east = speeds[i] * Math.sin(course) + ownEast;
+            double north = speeds[i] * Math.cos(course) + ownNorth;
+            outSpeeds[first + i] = Math.sqrt(east * east + north * north);
+            double trueCourse = Math.toDegrees(Math.atan2(east, north));
+            outCourses[first + i] = trueCourse < 0 ? trueCourse + 360.0 : trueCourse;
+        }
+        return count;
+    }
+
+    private void ensureScratch(int count) {
+        if (count > meters.length) {
+            int capacity = Math.max(count, meters.length * 2);
+            meters = new double[capacity];
+            bearings = new double[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.oogis.searadar.api.track;
+
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Номера потерянных целей ({@link TargetStatus#LOST}) тела обмена; буфер используется повторно.
+ * Экземпляр не потокобезопасен.
+ */
+final class LostTargets {
+
+    private static final byte LOST = (byte) TargetStatus.LOST.ordinal();
+
+    private int size;
+    private int[] numbers = new int[16];
+
+    /**
+     * Собирает потерянные цели тела - {@link TrackedTargetMessage}, {@link TrackedTargetBatch} или коллекции
+     * сообщений.
+     *
+     * @return количество потерянных целей
+     */
+    int collect(Object body) {
+        size = 0;
+        if (body instanceof TrackedTargetMessage) {
+            add((TrackedTargetMessage) body);
+        } else if (body instanceof TrackedTargetBatch) {
+            TrackedTargetBatch batch = (TrackedTargetBatch) body;
+            byte[] statuses = batch.statusColumn();
+            int[] targetNumbers = batch.targetNumberColumn();
+            for (int row = 0, n = batch.size(); row < n; row++) {
+                if (statuses[row] == LOST) add(targetNumbers[row]);
+            }
+        } else if (body instanceof Collection) {
+            for (Object message : (Collection<?>) body) {
+                if (message instanceof TrackedTargetMessage) add((TrackedTargetMessage) message);
+            }
+        }
+        return size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return numbers[index];
+    }
+
+    boolean contains(int targetNumber) {
+        for (int i = 0; i < size; i++) {
+            if (numbers[i] == targetNumber) return true;
+        }
+        return false;
+    }
+
+    private void add(TrackedTargetMessage message) {
+        if (message.getStatus() == TargetStatus.LOST) add(message.getTargetNumberValue());
+    }
+
+    private void add(int targetNumber) {
+        if (size == numbers.length) numbers = Arrays.copyOf(numbers, size * 2);
+        numbers[size++] = targetNumber;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.oogis.searadar.api.track;
+
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+
+/**
+ * Курс и скорость своего судна, обновляемые по VHW. Неизвестные значения равны {@code NaN}.
+ */
+final class OwnShipMotion {
+
+    double heading = Double.NaN;
+    double speed = Double.NaN;
+
+    /**
+     * @return {@code true}, если сообщение - VHW и курс или скорость обновлены
+     */
+    boolean accept(SearadarStationMessage message) {
+        if (!(message instanceof WaterSpeedHeadingMessage)) return false;
+        WaterSpeedHeadingMessage vhw = (WaterSpeedHeadingMessage) message;
+        boolean updated = false;
+        double course = vhw.getCourseValue();
+        // Магнитный курс без склонения не переводится в истинный
+        if (!Double.isNaN(course) && !"M".equals(vhw.getCourseAttr())) {
+            heading = course;
+            updated = true;
+        }
+        double value = vhw.getSpeedValue();
+        if (!Double.isNaN(value)) {
+            speed = "K".equals(vhw.getSpeedUnit()) ? value / 3.6 / GeoHelper.KNOT_PMS : value;
+            updated = true;
+        }
+        return updated;
+    }
+
+    /**
+     * @return составляющая скорости на восток в узлах или {@code NaN}, если скорость или курс неизвестны;
+     * при нулевой скорости курс не нужен
+     */
+    double east() {
+        return speed == 0 ? 0.0 : speed * Math.sin(Math.toRadians(heading));
+    }
+
+    /**
+     * @return составляющая скорости на север в узлах или {@code NaN}, см. {@link #east()}
+     */
+    double north() {
+        return speed == 0 ? 0.0 : speed * Math.cos(Math.toRadians(heading));
+    }
+}
@@ -0,0 +1,353 @@
+package ru.oogis.searadar.api.track;
+
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Последнее известное состояние целей одной станции по номеру цели.
+ * <p>
+ * Таблица разделена на {@value #STRIPES} полос по хешу номера цели; каждая полоса - открытая адресация над
+ * массивами примитивов со своей блокировкой, поэтому обновления разных целей из нескольких потоков
+ * почти не конкурируют и не создают объектов. Потерянные цели ({@link TargetStatus#LOST}) остаются в таблице
+ * до явного удаления ({@link #remove(int)}, {@link #removeLost(long)}).
+ * <p>
+ * {@link #snapshot(TrackedTargetBatch)} захватывает все полосы на время копирования, поэтому снимок соответствует
+ * одному моменту: в нем нет ни частично записанных строк, ни обновлений, выполненных после начала снимка.
+ */
+public class StationTargets {
+
+    static final int STRIPES = 16;
+    private static final int STRIPE_SHIFT = 32 - Integer.numberOfTrailingZeros(STRIPES);
+    private static final int NO_TARGET = Integer.MIN_VALUE;
+
+    private static final TargetType[] TYPES = TargetType.values();
+    private static final TargetStatus[] STATUSES = TargetStatus.values();
+    private static final IFF[] IFFS = IFF.values();
+
+    private final String station;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public StationTargets(String station) {
+        this.station = station;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    /**
+     * Записывает состояние цели; сообщение без номера цели пропускается.
+     *
+     * @return {@code true}, если состояние записано
+     */
+    public boolean update(TrackedTargetMessage message) {
+        int targetNumber = message.getTargetNumberValue();
+        if (targetNumber == NO_TARGET) return false;
+        stripe(targetNumber).put(targetNumber, message.getMsgRecTimeMillis(), message.getMsgTimeValue(),
+                message.getDistanceValue(), message.getBearingValue(), message.getSpeedValue(),
+                message.getCourseValue(), ordinal(message.getType(), TargetType.UNKNOWN),
+                ordinal(message.getStatus(), TargetStatus.UNRELIABLE_DATA), ordinal(message.getIff(), IFF.UNKNOWN));
+        return true;
+    }
+
+    /**
+     * Записывает состояние всех целей пакета (например, одного обзора).
+     *
+     * @return количество записанных целей
+     */
+    public int update(TrackedTargetBatch batch) {
+        int[] targetNumbers = batch.targetNumberColumn();
+        long[] msgRecTimes = batch.msgRecTimeColumn();
+        long[] msgTimes = batch.msgTimeColumn();
+        double[] distances = batch.distanceColumn();
+        double[] bearings = batch.bearingColumn();
+        double[] speeds = batch.speedColumn();
+        double[] courses = batch.courseColumn();
+        byte[] types = batch.typeColumn();
+        byte[] statuses = batch.statusColumn();
+        byte[] iffs = batch.iffColumn();
+        int updated = 0;
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            int targetNumber = targetNumbers[row];
+            if (targetNumber == NO_TARGET) continue;
+            stripe(targetNumber).put(targetNumber, msgRecTimes[row], msgTimes[row], distances[row], bearings[row],
+                    speeds[row], courses[row], types[row], statuses[row], iffs[row]);
+            updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Добавляет в пакет строку с состоянием цели.
+     *
+     * @return {@code false}, если цели нет в таблице
+     */
+    public boolean get(int targetNumber, TrackedTargetBatch into) {
+        Stripe stripe = stripe(targetNumber);
+        long stamp = stripe.lock.readLock();
+        try {
+            int slot = stripe.find(targetNumber);
+            if (slot < 0) return false;
+            stripe.copy(slot, into);
+            return true;
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return статус цели или {@code null}, если цели нет в таблице
+     */
+    public TargetStatus getStatus(int targetNumber) {
+        Stripe stripe = stripe(targetNumber);
+        long stamp = stripe.lock.readLock();
+        try {
+            int slot = stripe.find(targetNumber);
+            return slot < 0 ? null : STATUSES[stripe.status[slot]];
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Заменяет содержимое пакета согласованным снимком всех целей станции.
+     *
+     * @return количество целей в снимке
+     */
+    public int snapshot(TrackedTargetBatch into) {
+        into.clear();
+        long[] stamps = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                int[] keys = stripe.keys;
+                for (int slot = 0; slot < keys.length; slot++) {
+                    if (keys[slot] != NO_TARGET) stripe.copy(slot, into);
+                }
+            }
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+        return into.size();
+    }
+
+    public int size() {
+        int result = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                result += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code true}, если цель была в таблице
+     */
+    public boolean remove(int targetNumber) {
+        Stripe stripe = stripe(targetNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            int slot = stripe.find(targetNumber);
+            if (slot < 0) return false;
+            stripe.delete(slot);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет потерянные цели, последнее сообщение о которых получено раньше заданного момента.
+     *
+     * @param receivedBefore время получения в миллисекундах эпохи
+     * @return количество удаленных целей
+     */
+    public int removeLost(long receivedBefore) {
+        byte lost = (byte) TargetStatus.LOST.ordinal();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                int slot = 0;
+                while (slot < stripe.keys.length) {
+                    // После удаления в слот могла сдвинуться следующая запись - слот проверяется повторно
+                    if (stripe.keys[slot] != NO_TARGET && stripe.status[slot] == lost
+                            && stripe.msgRecTime[slot] < receivedBefore) {
+                        stripe.delete(slot);
+                        removed++;
+                    } else {
+                        slot++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                Arrays.fill(stripe.keys, NO_TARGET);
+                stripe.size = 0;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private Stripe stripe(int targetNumber) {
+        return stripes[(targetNumber * 0x9E3779B9) >>> STRIPE_SHIFT];
+    }
+
+    private static byte ordinal(Enum<?> value, Enum<?> fallback) {
+        return (byte) (value == null ? fallback : value).ordinal();
+    }
+
+    private static int home(int targetNumber, int mask) {
+        int hash = targetNumber * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Полоса таблицы: линейное пробирование, удаление сдвигом без пометок удаленных слотов.
+     */
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private int size;
+        private int[] keys;
+        private long[] msgRecTime;
+        private long[] msgTime;
+        private double[] distance;
+        private double[] bearing;
+        private double[] speed;
+        private double[] course;
+        private byte[] type;
+        private byte[] status;
+        private byte[] iff;
+
+        private Stripe() {
+            allocate(8);
+        }
+
+        private int find(int targetNumber) {
+            int mask = keys.length - 1;
+            for (int slot = home(targetNumber, mask); ; slot = (slot + 1) & mask) {
+                int key = keys[slot];
+                if (key == targetNumber) return slot;
+                if (key == NO_TARGET) return -1 - slot;
+            }
+        }
+
+        private void put(int targetNumber, long msgRecTime, long msgTime, double distance, double bearing,
+                         double speed, double course, byte type, byte status, byte iff) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(targetNumber);
+                if (slot < 0) {
+                    if ((size + 1) * 4 > keys.length * 3) {
+                        resize(keys.length * 2);
+                        slot = find(targetNumber);
+                    }
+                    slot = -1 - slot;
+                    keys[slot] = targetNumber;
+                    size++;
+                }
+                set(slot, msgRecTime, msgTime, distance, bearing, speed, course, type, status, iff);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void set(int slot, long msgRecTime, long msgTime, double distance, double bearing,
+                         double speed, double course, byte type, byte status, byte iff) {
+            this.msgRecTime[slot] = msgRecTime;
+            this.msgTime[slot] = msgTime;
+            this.distance[slot] = distance;
+            this.bearing[slot] = bearing;
+            this.speed[slot] = speed;
+            this.course[slot] = course;
+            this.type[slot] = type;
+            this.status[slot] = status;
+            this.iff[slot] = iff;
+        }
+
+        private void copy(int slot, TrackedTargetBatch into) {
+            into.add(msgRecTime[slot], msgTime[slot], keys[slot], distance[slot], bearing[slot], speed[slot],
+                    course[slot], TYPES[type[slot]], STATUSES[status[slot]], IFFS[iff[slot]]);
+        }
+
+        private void delete(int slot) {
+            int mask = keys.length - 1;
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != NO_TARGET; next = (next + 1) & mask) {
+                int home = home(keys[next], mask);
+                // Запись переносится в пропуск, если ее исходный слот не лежит в циклическом интервале (gap, next]
+                boolean reachable = gap <= next ? home > gap && home <= next : home > gap || home <= next;
+                if (!reachable) {
+                    keys[gap] = keys[next];
+                    set(gap, msgRecTime[next], msgTime[next], distance[next], bearing[next], speed[next],
+                            course[next], type[next], status[next], iff[next]);
+                    gap = next;
+                }
+            }
+            keys[gap] = NO_TARGET;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            long[] oldMsgRecTime = msgRecTime;
+            long[] oldMsgTime = msgTime;
+            double[] oldDistance = distance;
+            double[] oldBearing = bearing;
+            double[] oldSpeed = speed;
+            double[] oldCourse = course;
+            byte[] oldType = type;
+            byte[] oldStatus = status;
+            byte[] oldIff = iff;
+            allocate(capacity);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] == NO_TARGET) continue;
+                int target = -1 - find(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                set(target, oldMsgRecTime[slot], oldMsgTime[slot], oldDistance[slot], oldBearing[slot],
+                        oldSpeed[slot], oldCourse[slot], oldType[slot], oldStatus[slot], oldIff[slot]);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            Arrays.fill(keys, NO_TARGET);
+            msgRecTime = new long[capacity];
+            msgTime = new long[capacity];
+            distance = new double[capacity];
+            bearing = new double[capacity];
+            speed = new double[capacity];
+            course = new double[capacity];
+            type = new byte[capacity];
+            status = new byte[capacity];
+            iff = new byte[capacity];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.oogis.searadar.api.track;
+
+import java.util.Arrays;
+
+/**
+ * Отметки трассы одной цели в виде параллельных массивов примитивов, от старой к новой.
+ * <p>
+ * Заполняется методами чтения {@link TrackHistory}. Массивы, возвращаемые методами {@code xxxColumn()}, -
+ * внутренние: в них действительны первые {@link #size()} элементов, и они заменяются только при росте, поэтому
+ * повторно используемый экземпляр не создает объектов при чтении. Экземпляр не потокобезопасен.
+ */
+public class TrackPoints {
+
+    private int size;
+    private long[] time;
+    private double[] distance;
+    private double[] bearing;
+    private double[] speed;
+    private double[] course;
+
+    public TrackPoints() {
+        this(64);
+    }
+
+    public TrackPoints(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return время получения отметки в миллисекундах эпохи
+     */
+    public long getTime(int index) {
+        return time[checkIndex(index)];
+    }
+
+    public double getDistance(int index) {
+        return distance[checkIndex(index)];
+    }
+
+    public double getBearing(int index) {
+        return bearing[checkIndex(index)];
+    }
+
+    public double getSpeed(int index) {
+        return speed[checkIndex(index)];
+    }
+
+    public double getCourse(int index) {
+        return course[checkIndex(index)];
+    }
+
+    public long[] timeColumn() {
+        return time;
+    }
+
+    public double[] distanceColumn() {
+        return distance;
+    }
+
+    public double[] bearingColumn() {
+        return bearing;
+    }
+
+    public double[] speedColumn() {
+        return speed;
+    }
+
+    public double[] courseColumn() {
+        return course;
+    }
+
+    void add(long time, double distance, double bearing, double speed, double course) {
+        if (size == this.time.length) {
+            grow(size * 2);
+        }
+        int index = size++;
+        this.time[index] = time;
+        this.distance[index] = distance;
+        this.bearing[index] = bearing;
+        this.speed[index] = speed;
+        this.course[index] = course;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > time.length) {
+            grow(capacity);
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return index;
+    }
+
+    private void grow(int capacity) {
+        time = Arrays.copyOf(time, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        bearing = Arrays.copyOf(bearing, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        course = Arrays.copyOf(course, capacity);
+    }
+
+    private void allocate(int capacity) {
+        time = new long[capacity];
+        distance = new double[capacity];
+        bearing = new double[capacity];
+        speed = new double[capacity];
+        course = new double[capacity];
+    }
+}
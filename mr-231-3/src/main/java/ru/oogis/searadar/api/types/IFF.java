@@ -1,5 +1,16 @@
 package ru.oogis.searadar.api.types;
 
 public enum IFF {
-    FRIEND, FOE, UNKNOWN
+    FRIEND, FOE, UNKNOWN;
+
+    /**
+     * @param value значение поля принадлежности TTM: b - свой, p - чужой, d и прочие - не определен
+     */
+    public static IFF fromNmea(char value) {
+        switch (value) {
+            case 'b': return FRIEND;
+            case 'p': return FOE;
+            default: return UNKNOWN;
+        }
+    }
 }
@@ -1,5 +1,16 @@
 package ru.oogis.searadar.api.types;
 
 public enum TargetStatus {
-    TRACKED, LOST, UNRELIABLE_DATA
+    TRACKED, LOST, UNRELIABLE_DATA;
+
+    /**
+     * @param value значение поля статуса TTM: L - потеряна, T - сопровождается, Q и прочие - недостоверные данные
+     */
+    public static TargetStatus fromNmea(char value) {
+        switch (value) {
+            case 'L': return LOST;
+            case 'T': return TRACKED;
+            default: return UNRELIABLE_DATA;
+        }
+    }
 }
@@ -0,0 +1,168 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.track.CollisionAlarm;
+import ru.oogis.searadar.api.track.CollisionRiskEngine;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestCollisionRiskEngine {
+
+    /**
+     * Проверяет сближение со своим судном: встречная цель поднимает тревогу, после отворота тревога снимается,
+     * повторный безопасный обзор событий не дает.
+     */
+    @Test
+    void TestOwnShipAlarm() {
+        // Setup
+        CollisionRiskEngine engine = new CollisionRiskEngine();
+        engine.setOwnShipMotion(0.0, 10.0);
+        TrackedTargetBatch headOn = new TrackedTargetBatch();
+        add(headOn, 1000L, 5, 2.0, 0.0, 10.0, 180.0, TargetStatus.TRACKED);
+        TrackedTargetBatch turned = new TrackedTargetBatch();
+        add(turned, 2000L, 5, 2.0, 0.0, 10.0, 90.0, TargetStatus.TRACKED);
+
+        // Execution
+        List<CollisionAlarm> raised = engine.evaluate(headOn);
+        double cpa = engine.getCpa(0);
+        double tcpa = engine.getTcpa(0);
+        List<CollisionAlarm> cleared = engine.evaluate(turned);
+        List<CollisionAlarm> quiet = engine.evaluate(turned);
+
+        // Assertion
+        assertEquals(0.0, cpa, 1e-9);
+        assertEquals(6.0, tcpa, 1e-9);
+        assertEquals(1, raised.size());
+        assertEquals(CollisionAlarm.State.RAISED, raised.get(0).getState());
+        assertEquals(5, raised.get(0).getTargetNumber());
+        assertTrue(raised.get(0).isOwnShip());
+        assertEquals(1, cleared.size());
+        assertEquals(CollisionAlarm.State.CLEARED, cleared.get(0).getState());
+        assertEquals(2000L, cleared.get(0).getTime());
+        assertEquals(Math.sqrt(2.0), engine.getCpa(0), 1e-9);
+        assertTrue(quiet.isEmpty());
+        assertTrue(engine.getActiveAlarms().isEmpty());
+    }
+
+    /**
+     * Проверяет сближение целей между собой: пары дальше {@code pairRange} не оцениваются, потерянная цель
+     * снимает тревогу своей пары.
+     */
+    @Test
+    void TestPairAlarms() {
+        // Setup
+        CollisionRiskEngine engine = new CollisionRiskEngine();
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        addXY(sweep, 1, 5.0, 0.0, 10.0, 0.0, TargetStatus.TRACKED);
+        addXY(sweep, 2, 5.0, 2.0, 10.0, 180.0, TargetStatus.TRACKED);
+        addXY(sweep, 4, 5.0, -6.0, 50.0, 0.0, TargetStatus.TRACKED);
+        addXY(sweep, 3, -8.0, 0.0, 10.0, 90.0, TargetStatus.TRACKED);
+        TrackedTargetBatch lost = new TrackedTargetBatch();
+        addXY(lost, 1, 5.0, 0.0, 10.0, 0.0, TargetStatus.TRACKED);
+        addXY(lost, 2, 5.0, 2.0, 10.0, 180.0, TargetStatus.LOST);
+        addXY(lost, 4, 5.0, -6.0, 50.0, 0.0, TargetStatus.TRACKED);
+
+        // Execution
+        Set<Long> near = pairs(engine.evaluate(sweep), CollisionAlarm.State.RAISED);
+        engine.setPairRange(10.0);
+        Set<Long> wide = pairs(engine.evaluate(sweep), CollisionAlarm.State.RAISED);
+        List<CollisionAlarm> afterLost = engine.evaluate(lost);
+
+        // Assertion
+        assertEquals(setOf(key(1, 2)), near);
+        assertEquals(setOf(key(1, 4), key(2, 4)), wide);
+        assertEquals(setOf(key(1, 2), key(2, 4)), pairs(afterLost, CollisionAlarm.State.CLEARED));
+        assertEquals(2, engine.size());
+        assertEquals(1, engine.getActiveAlarms().size());
+    }
+
+    /**
+     * Проверяет параллельную оценку большого обзора по полному перебору пар.
+     */
+    @Test
+    void TestParallelSweep() {
+        // Setup
+        Random random = new Random(21);
+        int count = 3000;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] speed = new double[count];
+        double[] course = new double[count];
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        for (int i = 0; i < count; i++) {
+            x[i] = (random.nextDouble() * 2 - 1) * 20;
+            y[i] = (random.nextDouble() * 2 - 1) * 20;
+            speed[i] = random.nextDouble() * 25;
+            course[i] = random.nextDouble() * 360;
+            addXY(sweep, i, x[i], y[i], speed[i], course[i], TargetStatus.TRACKED);
+        }
+        CollisionRiskEngine engine = new CollisionRiskEngine();
+        engine.setPairRange(1.0);
+        engine.setCpaLimit(0.2);
+
+        // Execution
+        Set<Long> found = pairs(engine.evaluate(sweep), CollisionAlarm.State.RAISED);
+
+        // Assertion
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            double vxi = speed[i] * Math.sin(Math.toRadians(course[i]));
+            double vyi = speed[i] * Math.cos(Math.toRadians(course[i]));
+            if (dangerous(x[i], y[i], vxi, vyi, 0.2, 12.0)) expected.add(key(i, CollisionAlarm.OWN_SHIP));
+            for (int j = i + 1; j < count; j++) {
+                double px = x[j] - x[i];
+                double py = y[j] - y[i];
+                if (px * px + py * py > 1.0) continue;
+                double vx = speed[j] * Math.sin(Math.toRadians(course[j])) - vxi;
+                double vy = speed[j] * Math.cos(Math.toRadians(course[j])) - vyi;
+                if (dangerous(px, py, vx, vy, 0.2, 12.0)) expected.add(key(i, j));
+            }
+        }
+        assertTrue(expected.size() > 10);
+        assertEquals(expected, found);
+    }
+
+    private static boolean dangerous(double px, double py, double vx, double vy, double cpaLimit, double tcpaLimit) {
+        double v2 = vx * vx + vy * vy;
+        double t = v2 > 0 ? -(px * vx + py * vy) / v2 : 0.0;
+        double cpa = Math.hypot(px + vx * t, py + vy * t);
+        return cpa <= cpaLimit && t * 60 >= 0 && t * 60 <= tcpaLimit;
+    }
+
+    private static Set<Long> pairs(List<CollisionAlarm> alarms, CollisionAlarm.State state) {
+        Set<Long> result = new HashSet<>();
+        for (CollisionAlarm alarm : alarms) {
+            if (alarm.getState() == state) result.add(key(alarm.getTargetNumber(), alarm.getOtherTargetNumber()));
+        }
+        return result;
+    }
+
+    private static Set<Long> setOf(Long... keys) {
+        Set<Long> result = new HashSet<>();
+        for (Long key : keys) result.add(key);
+        return result;
+    }
+
+    private static long key(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    private static void addXY(TrackedTargetBatch batch, int number, double x, double y, double speed, double course,
+                              TargetStatus status) {
+        double bearing = Math.toDegrees(Math.atan2(x, y));
+        add(batch, 1000L, number, Math.hypot(x, y), bearing < 0 ? bearing + 360 : bearing, speed, course, status);
+    }
+
+    private static void add(TrackedTargetBatch batch, long time, int number, double distance, double bearing,
+                            double speed, double course, TargetStatus status) {
+        batch.add(time, time, number, distance, bearing, speed, course, TargetType.SURFACE, status, IFF.UNKNOWN);
+    }
+}
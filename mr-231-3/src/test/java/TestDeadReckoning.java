@@ -0,0 +1,135 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
+import ru.oogis.searadar.api.track.DeadReckoning;
+import ru.oogis.searadar.api.track.GeoReferenceStage;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestDeadReckoning {
+
+    /**
+     * Проверяет счисление тысяч целей по расчету {@link GeoHelper#calcDestinations} от позиции каждой отметки:
+     * между обзорами (разложение второго порядка) и через 10 минут (точная формула).
+     */
+    @Test
+    void TestMatchesGeoHelper() {
+        // Setup
+        Random random = new Random(25);
+        int count = 3000;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        double[] courses = new double[count];
+        double[] speeds = new double[count];
+        long[] times = new long[count];
+        GeoTargetBatch fixes = new GeoTargetBatch();
+        for (int i = 0; i < count; i++) {
+            lats[i] = (random.nextDouble() * 2 - 1) * 80;
+            lons[i] = (random.nextDouble() * 2 - 1) * 180;
+            courses[i] = random.nextDouble() * 360;
+            speeds[i] = random.nextDouble() * 40;
+            times[i] = 100000L - random.nextInt(3000);
+            fixes.add(times[i], i, lats[i], lons[i], courses[i], speeds[i]);
+        }
+        DeadReckoning reckoning = new DeadReckoning();
+        reckoning.update(fixes);
+        int[] numbers = new int[count];
+        double[] projectedLats = new double[count];
+        double[] projectedLons = new double[count];
+
+        // Execution
+        int projected = reckoning.project(102500L, numbers, projectedLats, projectedLons);
+        GeoTargetBatch batch = new GeoTargetBatch();
+        reckoning.project(102500L, batch);
+        int[] laterNumbers = new int[count];
+        double[] laterLats = new double[count];
+        double[] laterLons = new double[count];
+        reckoning.project(700000L, laterNumbers, laterLats, laterLons);
+
+        // Assertion
+        assertEquals(count, projected);
+        assertEquals(count, batch.size());
+        double[] lat = new double[1];
+        double[] lon = new double[1];
+        for (int i = 0; i < count; i++) {
+            int n = numbers[i];
+            double distance = speeds[n] * GeoHelper.KNOT_PMS * (102500L - times[n]) / 1000.0;
+            GeoHelper.calcDestinations(lats[n], lons[n], new double[]{distance}, new double[]{courses[n]}, 1, lat, lon);
+            assertTrue(error(lat[0], lon[0], projectedLats[i], projectedLons[i]) < 1e-3);
+            assertEquals(n, batch.getTargetNumber(i));
+            assertEquals(projectedLats[i], batch.getLatitude(i), 0.0);
+            assertEquals(courses[n], batch.getCourse(i), 0.0);
+            assertEquals(102500L, batch.getTime(i));
+
+            n = laterNumbers[i];
+            distance = speeds[n] * GeoHelper.KNOT_PMS * (700000L - times[n]) / 1000.0;
+            GeoHelper.calcDestinations(lats[n], lons[n], new double[]{distance}, new double[]{courses[n]}, 1, lat, lon);
+            assertTrue(error(lat[0], lon[0], laterLats[i], laterLons[i]) < 1e-3);
+        }
+    }
+
+    /**
+     * Проверяет неподвижную цель, пропуск устаревшей отметки, ограничение по длине массивов,
+     * удаление потерянной цели в маршруте и удаление по возрасту.
+     */
+    @Test
+    void TestUpdatesAndRemoval() throws Exception {
+        // Setup
+        DeadReckoning reckoning = new DeadReckoning();
+        GeoTargetBatch fixes = new GeoTargetBatch();
+        fixes.add(1000L, 1, 59.9, 30.2, Double.NaN, 12.0);
+        fixes.add(1000L, 2, 60.0, 30.0, 90.0, 10.0);
+        fixes.add(5000L, 3, 60.1, 30.1, 180.0, 10.0);
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(Collections.emptyList());
+        exchange.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, fixes);
+        PrimitiveTrackedTargetMessage lost = new PrimitiveTrackedTargetMessage();
+        lost.setTargetNumber(2);
+        lost.setStatus(TargetStatus.LOST);
+        Exchange lostExchange = new DefaultExchange(new DefaultCamelContext());
+        lostExchange.getIn().setBody(Collections.singletonList(lost));
+        lostExchange.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, fixes);
+
+        // Execution
+        reckoning.process(exchange);
+        boolean late = reckoning.update(3, 4000L, 0.0, 0.0, 0.0, 0.0);
+        int[] numbers = new int[2];
+        double[] lats = new double[2];
+        double[] lons = new double[2];
+        int limited = reckoning.project(61000L, numbers, lats, lons);
+        reckoning.process(lostExchange);
+        boolean hasLost = reckoning.contains(2);
+        int stale = reckoning.removeStale(2000L);
+
+        // Assertion
+        assertFalse(late);
+        assertEquals(2, limited);
+        assertEquals(1, numbers[0]);
+        assertEquals(59.9, lats[0], 0.0);
+        assertEquals(30.2, lons[0], 0.0);
+        assertEquals(60.0, lats[1], 1e-3);
+        assertTrue(lons[1] > 30.0);
+        assertFalse(hasLost);
+        assertEquals(1, stale);
+        assertEquals(1, reckoning.size());
+        assertTrue(reckoning.contains(3));
+    }
+
+    /** Расхождение позиций в метрах на касательной плоскости; годится для малых расхождений. */
+    private static double error(double lat1, double lon1, double lat2, double lon2) {
+        double north = Math.toRadians(lat2 - lat1) * GeoHelper.WGS84_RADIUS;
+        double east = Math.toRadians((lon2 - lon1 + 540) % 360 - 180) * GeoHelper.WGS84_RADIUS
+                * Math.cos(Math.toRadians(lat1));
+        return Math.hypot(north, east);
+    }
+}
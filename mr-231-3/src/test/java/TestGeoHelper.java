@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.util.GeoHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestGeoHelper {
+
+    /**
+     * Проверяет, что пакетные расчеты от одной точки и по парам точек совпадают с поштучными,
+     * а расстояние вычисляется без вывода в консоль.
+     */
+    @Test
+    void TestBatchMatchesScalar() {
+        // Setup
+        int count = 100;
+        double[] lats = new double[count + 5];
+        double[] lons = new double[count + 5];
+        double[] originLats = new double[count];
+        double[] originLons = new double[count];
+        fill(new Random(18), lats, lons, originLats, originLons, count);
+        double[] distances = new double[count];
+        double[] courses = new double[count];
+        double[] pairDistances = new double[count];
+        double[] pairCourses = new double[count];
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+
+        // Execution
+        System.setOut(new PrintStream(printed));
+        try {
+            GeoHelper.calcDistancesAndCourses(59.9, 30.2, lats, lons, count, distances, courses);
+            GeoHelper.calcDistancesInMeters(originLats, originLons, lats, lons, count, pairDistances);
+            GeoHelper.calcCourses(originLats, originLons, lats, lons, count, pairCourses);
+            GeoHelper.calcDistanceInMeters(59.9, 30.2, 60.0, 30.3);
+        } finally {
+            System.setOut(out);
+        }
+
+        // Assertion
+        for (int i = 0; i < count; i++) {
+            assertEquals(GeoHelper.calcDistanceInMeters(59.9, 30.2, lats[i], lons[i]), distances[i], 0.0);
+            assertEquals(GeoHelper.calcCourse(59.9, 30.2, lats[i], lons[i]), courses[i], 0.0);
+            assertEquals(GeoHelper.calcDistanceInMeters(originLats[i], originLons[i], lats[i], lons[i]),
+                    pairDistances[i], 0.0);
+            assertEquals(GeoHelper.calcCourse(originLats[i], originLons[i], lats[i], lons[i]), pairCourses[i], 0.0);
+        }
+        assertEquals(0, printed.size());
+    }
+
+    /**
+     * Проверяет параллельный расчет большого массива и отказ для массивов короче заданного количества.
+     */
+    @Test
+    void TestParallel() {
+        // Setup
+        int count = GeoHelper.PARALLEL_THRESHOLD * 2 + 3;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        fill(new Random(81), lats, lons, new double[count], new double[count], count);
+        double[] courses = new double[count];
+
+        // Execution
+        GeoHelper.calcCourses(59.9, 30.2, lats, lons, count, courses);
+
+        // Assertion
+        for (int i = 0; i < count; i++) {
+            assertEquals(GeoHelper.calcCourse(59.9, 30.2, lats[i], lons[i]), courses[i], 0.0);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> GeoHelper.calcDistancesInMeters(59.9, 30.2, lats, lons, count, new double[count - 1]));
+    }
+
+    private static void fill(Random random, double[] lats, double[] lons, double[] originLats,
+                             double[] originLons, int count) {
+        for (int i = 0; i < count; i++) {
+            lats[i] = 59.5 + random.nextDouble();
+            lons[i] = 29.5 + random.nextDouble() * 1.5;
+            originLats[i] = lats[i] + (random.nextDouble() - 0.5) * 0.01;
+            originLons[i] = lons[i] + (random.nextDouble() - 0.5) * 0.01;
+        }
+    }
+}
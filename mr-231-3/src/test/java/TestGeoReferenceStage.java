@@ -0,0 +1,177 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.track.GeoReferenceStage;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestGeoReferenceStage {
+
+    /**
+     * Проверяет перевод пакета целей: обратная задача по {@link GeoHelper} возвращает дистанцию и пеленг TTM,
+     * истинное движение при признаке T копируется без изменений.
+     */
+    @Test
+    void TestBatchConversion() {
+        // Setup
+        GeoReferenceStage stage = new GeoReferenceStage();
+        stage.setOwnShipPosition(59.9, 30.2);
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        for (int i = 0; i < 36; i++) {
+            sweep.add(1000L, 1000L, i, 0.5 + i, i * 10.0, 12.0, 90.0, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.UNKNOWN);
+        }
+        GeoTargetBatch out = new GeoTargetBatch(4);
+
+        // Execution
+        int converted = stage.convert(sweep, out);
+
+        // Assertion
+        assertEquals(36, converted);
+        for (int i = 0; i < 36; i++) {
+            double lat = out.getLatitude(i);
+            double lon = out.getLongitude(i);
+            assertEquals((0.5 + i) * 1852.0, GeoHelper.calcDistanceInMeters(59.9, 30.2, lat, lon), 1e-3);
+            if (i > 0) assertEquals(i * 10.0, GeoHelper.calcCourse(59.9, 30.2, lat, lon), 1e-6);
+            assertEquals(i, out.getTargetNumber(i));
+            assertEquals(12.0, out.getSpeed(i), 0.0);
+            assertEquals(90.0, out.getCourse(i), 0.0);
+        }
+    }
+
+    /**
+     * Проверяет относительные пеленг и движение: курс и скорость судна берутся из VHW обзора, обработанного
+     * как процессор маршрута, независимо от порядка предложений.
+     */
+    @Test
+    void TestRelativeMotionFromExchange() throws Exception {
+        // Setup
+        GeoReferenceStage stage = new GeoReferenceStage();
+        stage.setOwnShipPosition(0.0, 0.0);
+        stage.setRelativeBearing(true);
+        stage.setRelativeMotion(true);
+        List<SearadarStationMessage> sweep = new ArrayList<>();
+        new Mr231_3StationType().createConverter().convert(
+                "$RATTM,05,1.0,045.0,R,10.0,090.0,R,,,N,b,T,,120000,A*75\r\n"
+                        + "$RAVHW,045.0,T,,,10.0,N,,*70", sweep);
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(sweep);
+
+        // Execution
+        stage.process(exchange);
+
+        // Assertion
+        GeoTargetBatch targets = exchange.getIn().getHeader(GeoReferenceStage.GEO_TARGETS, GeoTargetBatch.class);
+        assertEquals(1, targets.size());
+        assertEquals(90.0, GeoHelper.calcCourse(0.0, 0.0, targets.getLatitude(0), targets.getLongitude(0)), 1e-6);
+        // Относительное движение 10 уз на восток плюс 10 уз своего судна курсом 45
+        double east = 10.0 + 10.0 * Math.sqrt(0.5);
+        double north = 10.0 * Math.sqrt(0.5);
+        assertEquals(Math.hypot(east, north), targets.getSpeed(0), 1e-9);
+        assertEquals(Math.toDegrees(Math.atan2(east, north)), targets.getCourse(0), 1e-9);
+        assertEquals(45.0, stage.getOwnHeading(), 0.0);
+    }
+
+    /**
+     * Проверяет, что обзор из коллекции сообщений переводится так же, как тот же обзор в пакете.
+     */
+    @Test
+    void TestCollectionBody() throws Exception {
+        // Setup
+        GeoReferenceStage stage = new GeoReferenceStage();
+        stage.setOwnShipPosition(59.9, 30.2);
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        List<SearadarStationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sweep.add(1000L, 1000L, i, 0.1 + i * 0.2, i * 3.6, 12.0, 90.0, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.UNKNOWN);
+            messages.add(sweep.toMessage(i));
+        }
+        GeoTargetBatch expected = new GeoTargetBatch();
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(messages);
+
+        // Execution
+        stage.convert(sweep, expected);
+        stage.process(exchange);
+
+        // Assertion
+        GeoTargetBatch targets = exchange.getIn().getHeader(GeoReferenceStage.GEO_TARGETS, GeoTargetBatch.class);
+        assertEquals(100, targets.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected.getTargetNumber(i), targets.getTargetNumber(i));
+            assertEquals(expected.getTime(i), targets.getTime(i));
+            assertEquals(expected.getLatitude(i), targets.getLatitude(i), 0.0);
+            assertEquals(expected.getLongitude(i), targets.getLongitude(i), 0.0);
+        }
+    }
+
+    /**
+     * Проверяет, что до получения позиции судна координаты не вычисляются, а обмен без целей не получает заголовок.
+     */
+    @Test
+    void TestUnknownOwnShip() throws Exception {
+        // Setup
+        GeoReferenceStage stage = new GeoReferenceStage();
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        sweep.add(1000L, 1000L, 1, 2.0, 30.0, 5.0, 10.0, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.UNKNOWN);
+        GeoTargetBatch out = new GeoTargetBatch();
+        Exchange empty = new DefaultExchange(new DefaultCamelContext());
+        empty.getIn().setBody(new TrackedTargetBatch());
+
+        // Execution
+        stage.convert(sweep, out);
+        stage.process(empty);
+
+        // Assertion
+        assertTrue(Double.isNaN(out.getLatitude(0)));
+        assertTrue(Double.isNaN(out.getLongitude(0)));
+        assertNull(empty.getIn().getHeader(GeoReferenceStage.GEO_TARGETS));
+    }
+
+    /**
+     * Проверяет, что при относительном движении и неизвестных курсе или скорости судна истинные курс и скорость
+     * цели не вычисляются, а не подменяются относительными.
+     */
+    @Test
+    void TestRelativeMotionUnknownOwnShip() {
+        // Setup
+        GeoReferenceStage stage = new GeoReferenceStage();
+        stage.setOwnShipPosition(59.9, 30.2);
+        stage.setRelativeMotion(true);
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+        sweep.add(1000L, 1000L, 1, 2.0, 30.0, 5.0, 10.0, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.UNKNOWN);
+        GeoTargetBatch unknown = new GeoTargetBatch();
+        GeoTargetBatch unknownHeading = new GeoTargetBatch();
+        GeoTargetBatch stopped = new GeoTargetBatch();
+
+        // Execution
+        stage.convert(sweep, unknown);
+        stage.setOwnShipMotion(Double.NaN, 8.0);
+        stage.convert(sweep, unknownHeading);
+        stage.setOwnShipMotion(Double.NaN, 0.0);
+        stage.convert(sweep, stopped);
+
+        // Assertion
+        assertTrue(Double.isNaN(unknown.getSpeed(0)));
+        assertTrue(Double.isNaN(unknown.getCourse(0)));
+        assertTrue(Double.isNaN(unknownHeading.getSpeed(0)));
+        assertTrue(Double.isNaN(unknownHeading.getCourse(0)));
+        assertFalse(Double.isNaN(unknown.getLatitude(0)));
+        assertEquals(5.0, stopped.getSpeed(0), 1e-9);
+        assertEquals(10.0, stopped.getCourse(0), 1e-9);
+    }
+}
@@ -0,0 +1,173 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.geofence.GeofenceEngine;
+import ru.oogis.searadar.api.geofence.GeofenceEvent;
+import ru.oogis.searadar.api.geofence.GeofenceZone;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
+import ru.oogis.searadar.api.track.GeoReferenceStage;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestGeofenceEngine {
+
+    /**
+     * Проверяет вход и выход цели: повторная отметка на том же месте и движение внутри зоны событий не дают,
+     * замена зоны с тем же идентификатором не выводит цель, удаление зоны - выводит.
+     */
+    @Test
+    void TestEnterAndExit() {
+        // Setup
+        GeofenceEngine engine = new GeofenceEngine();
+        engine.addZone(square("port", 60.0, 30.0, 0.1));
+
+        // Execution
+        List<GeofenceEvent> outside = engine.evaluate(batch(1000L, 7, 59.95, 30.05));
+        List<GeofenceEvent> entered = engine.evaluate(batch(2000L, 7, 60.05, 30.05));
+        List<GeofenceEvent> same = engine.evaluate(batch(3000L, 7, 60.05, 30.05));
+        List<GeofenceEvent> within = engine.evaluate(batch(4000L, 7, 60.06, 30.07));
+        engine.addZone(square("port", 60.0, 30.0, 0.2));
+        List<GeofenceEvent> replaced = engine.evaluate(batch(5000L, 7, 60.06, 30.07));
+        List<String> zones = engine.getZoneIds(7);
+        engine.removeZone("port");
+        List<GeofenceEvent> removed = engine.evaluate(batch(6000L, 7, 60.06, 30.07));
+
+        // Assertion
+        assertTrue(outside.isEmpty());
+        assertEquals(1, entered.size());
+        assertEquals(GeofenceEvent.Type.ENTER, entered.get(0).getType());
+        assertEquals("port", entered.get(0).getZoneId());
+        assertEquals(2000L, entered.get(0).getTime());
+        assertTrue(same.isEmpty());
+        assertTrue(within.isEmpty());
+        assertTrue(replaced.isEmpty());
+        assertEquals(Collections.singletonList("port"), zones);
+        assertEquals(1, removed.size());
+        assertEquals(GeofenceEvent.Type.EXIT, removed.get(0).getType());
+        assertTrue(engine.getZoneIds(7).isEmpty());
+    }
+
+    /**
+     * Проверяет принадлежность целей сотням зон, включая невыпуклые и крупные, по полному перебору.
+     */
+    @Test
+    void TestMembershipMatchesLinearScan() {
+        // Setup
+        Random random = new Random(23);
+        List<GeofenceZone> zones = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            double lat = 59.5 + random.nextDouble();
+            double lon = 29.5 + random.nextDouble();
+            double size = 0.01 + random.nextDouble() * 0.1;
+            zones.add(i % 3 == 0 ? notch("z" + i, lat, lon, size) : square("z" + i, lat, lon, size));
+        }
+        zones.add(square("gulf", 59.0, 29.0, 2.0));
+        GeofenceEngine engine = new GeofenceEngine(0.02);
+        engine.setZones(zones);
+        int count = 200;
+        List<Set<String>> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++) expected.add(new HashSet<String>());
+        List<Set<String>> actual = new ArrayList<>();
+        for (int i = 0; i < count; i++) actual.add(new HashSet<String>());
+
+        // Execution
+        for (int sweep = 0; sweep < 5; sweep++) {
+            GeoTargetBatch batch = new GeoTargetBatch();
+            for (int i = 0; i < count; i++) {
+                double lat = 59.5 + random.nextDouble() * 1.2;
+                double lon = 29.5 + random.nextDouble() * 1.2;
+                batch.add(sweep * 1000L, i, lat, lon, 0.0, 0.0);
+                expected.get(i).clear();
+                for (GeofenceZone zone : zones) {
+                    if (zone.contains(lat, lon)) expected.get(i).add(zone.getId());
+                }
+            }
+            for (GeofenceEvent event : engine.evaluate(batch)) {
+                Set<String> members = actual.get(event.getTargetNumber());
+                if (event.getType() == GeofenceEvent.Type.ENTER) {
+                    assertTrue(members.add(event.getZoneId()));
+                } else {
+                    assertTrue(members.remove(event.getZoneId()));
+                }
+            }
+        }
+
+        // Assertion
+        assertEquals(expected, actual);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.get(i), new HashSet<>(engine.getZoneIds(i)));
+        }
+        assertTrue(notch("n", 0, 0, 1).contains(0.25, 0.5));
+        assertFalse(notch("n", 0, 0, 1).contains(0.9, 0.5));
+    }
+
+    /**
+     * Проверяет работу в маршруте: события попадают в заголовок, потерянная цель выводится из зоны.
+     */
+    @Test
+    void TestProcessLostTarget() throws Exception {
+        // Setup
+        GeofenceEngine engine = new GeofenceEngine();
+        engine.addZone(square("anchorage", 60.0, 30.0, 0.1));
+        Exchange first = new DefaultExchange(new DefaultCamelContext());
+        first.getIn().setBody(Collections.singletonList(target(3, 1000L, TargetStatus.TRACKED)));
+        first.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, batch(1000L, 3, 60.05, 30.05));
+        Exchange second = new DefaultExchange(new DefaultCamelContext());
+        second.getIn().setBody(Collections.singletonList(target(3, 2000L, TargetStatus.LOST)));
+        second.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, batch(2000L, 3, 60.05, 30.05));
+
+        // Execution
+        engine.process(first);
+        engine.process(second);
+
+        // Assertion
+        List<?> entered = first.getIn().getHeader(GeofenceEngine.GEOFENCE_EVENTS, List.class);
+        List<?> exited = second.getIn().getHeader(GeofenceEngine.GEOFENCE_EVENTS, List.class);
+        assertEquals(1, entered.size());
+        assertEquals(GeofenceEvent.Type.ENTER, ((GeofenceEvent) entered.get(0)).getType());
+        assertEquals(1, exited.size());
+        GeofenceEvent exit = (GeofenceEvent) exited.get(0);
+        assertEquals(GeofenceEvent.Type.EXIT, exit.getType());
+        assertEquals(2000L, exit.getTime());
+        assertTrue(engine.getZoneIds(3).isEmpty());
+    }
+
+    private static GeoTargetBatch batch(long time, int number, double lat, double lon) {
+        GeoTargetBatch batch = new GeoTargetBatch();
+        batch.add(time, number, lat, lon, 0.0, 0.0);
+        return batch;
+    }
+
+    private static PrimitiveTrackedTargetMessage target(int number, long recTime, TargetStatus status) {
+        PrimitiveTrackedTargetMessage message = new PrimitiveTrackedTargetMessage();
+        message.setMsgRecTime(recTime);
+        message.setTargetNumber(number);
+        message.setStatus(status);
+        return message;
+    }
+
+    private static GeofenceZone square(String id, double lat, double lon, double size) {
+        return new GeofenceZone(id, new double[]{lat, lat + size, lat + size, lat},
+                new double[]{lon, lon, lon + size, lon + size});
+    }
+
+    /**
+     * Квадрат с треугольным вырезом сверху до центра.
+     */
+    private static GeofenceZone notch(String id, double lat, double lon, double size) {
+        return new GeofenceZone(id, new double[]{lat, lat + size, lat + size / 2, lat + size, lat},
+                new double[]{lon, lon, lon + size / 2, lon + size, lon + size});
+    }
+}
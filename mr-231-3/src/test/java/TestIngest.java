@@ -0,0 +1,128 @@
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.SimpleRegistry;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.ingest.NmeaIngestConsumer;
+import ru.oogis.searadar.api.ingest.NmeaIngestEndpoint;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestIngest {
+
+    private static final String TTM = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,A*6F";
+    private static final String VHW = "$RAVHW,356.7,T,,,50.4,N,,*76";
+
+    /**
+     * Проверяет прием по TCP через компонент, зарегистрированный типом станции: предложения, разрезанные
+     * между отправками, собираются, а сообщения нескольких подключений приходят с адресами источников.
+     */
+    @Test
+    void TestTcpIngest() throws Exception {
+        // Setup
+        List<SearadarStationMessage> messages = Collections.synchronizedList(new ArrayList<>());
+        Set<String> sources = Collections.synchronizedSet(new HashSet<>());
+        CountDownLatch done = new CountDownLatch(4);
+        DefaultCamelContext context = createContext("mr231-3-ingest:tcp://127.0.0.1:0?ioThreads=2&readBufferSize=64",
+                messages, sources, done);
+
+        // Execution
+        context.start();
+        try {
+            InetSocketAddress address = localAddress(context);
+            try (Socket first = new Socket(address.getAddress(), address.getPort());
+                 Socket second = new Socket(address.getAddress(), address.getPort())) {
+                OutputStream out = first.getOutputStream();
+                String stream = TTM + "\r\n" + VHW + "\r\n";
+                out.write(stream.substring(0, 20).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                Thread.sleep(50);
+                out.write(stream.substring(20).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                second.getOutputStream().write(stream.getBytes(StandardCharsets.US_ASCII));
+                second.getOutputStream().flush();
+                assertTrue(done.await(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            context.stop();
+        }
+
+        // Assertion
+        assertEquals(4, messages.size());
+        assertEquals(2, messages.stream().filter(m -> m instanceof TrackedTargetMessage).count());
+        assertEquals(2, messages.stream().filter(m -> m instanceof WaterSpeedHeadingMessage).count());
+        assertEquals(2, sources.size());
+    }
+
+    /**
+     * Проверяет прием по UDP: датаграмма декодируется целиком, последнее предложение может быть без CR/LF.
+     */
+    @Test
+    void TestUdpIngest() throws Exception {
+        // Setup
+        List<SearadarStationMessage> messages = Collections.synchronizedList(new ArrayList<>());
+        Set<String> sources = Collections.synchronizedSet(new HashSet<>());
+        CountDownLatch done = new CountDownLatch(3);
+        DefaultCamelContext context = createContext("mr231-3-ingest:udp://127.0.0.1:0?directBuffers=true",
+                messages, sources, done);
+
+        // Execution
+        context.start();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            InetSocketAddress address = localAddress(context);
+            byte[] first = (TTM + "\r\n" + VHW).getBytes(StandardCharsets.US_ASCII);
+            byte[] second = TTM.getBytes(StandardCharsets.US_ASCII);
+            socket.send(new DatagramPacket(first, first.length, address));
+            socket.send(new DatagramPacket(second, second.length, address));
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            context.stop();
+        }
+
+        // Assertion
+        assertEquals(3, messages.size());
+        assertTrue(messages.get(0) instanceof TrackedTargetMessage);
+        assertEquals(66, (int) ((TrackedTargetMessage) messages.get(0)).getTargetNumber());
+        assertEquals(1, sources.size());
+    }
+
+    private static DefaultCamelContext createContext(String uri, List<SearadarStationMessage> messages,
+                                                     Set<String> sources, CountDownLatch done) throws Exception {
+        SimpleRegistry registry = new SimpleRegistry();
+        registry.putAll(new Mr231_3StationType().getBeansForRegistration());
+        DefaultCamelContext context = new DefaultCamelContext(registry);
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from(uri).routeId("ingest").process(exchange -> {
+                    messages.add(exchange.getIn().getBody(SearadarStationMessage.class));
+                    sources.add(exchange.getIn().getHeader(NmeaIngestEndpoint.REMOTE_ADDRESS, String.class));
+                    done.countDown();
+                });
+            }
+        });
+        return context;
+    }
+
+    private static InetSocketAddress localAddress(DefaultCamelContext context) {
+        return ((NmeaIngestConsumer) context.getRoute("ingest").getConsumer()).getLocalAddress();
+    }
+}
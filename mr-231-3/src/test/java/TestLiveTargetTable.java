@@ -0,0 +1,149 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.api.InteractionManager;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.track.LiveTargetTable;
+import ru.oogis.searadar.api.track.StationTargets;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestLiveTargetTable {
+
+    /**
+     * Проверяет заполнение таблицы из маршрута: цели разделяются по заголовку канала, повторное сообщение
+     * заменяет состояние цели, потерянная цель остается в таблице до удаления по возрасту.
+     */
+    @Test
+    void TestUpdateFromExchange() throws Exception {
+        // Setup
+        LiveTargetTable table = new LiveTargetTable();
+        List<Object> sweep = new ArrayList<>(new Mr231_3StationType().createConverter().convert(
+                "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,T,,457362,A*77\r\n"
+                        + "$RAVHW,356.7,T,,,50.4,N,,*76"));
+        PrimitiveTrackedTargetMessage lost = target(67, 1000L, 5.0);
+        lost.setStatus(TargetStatus.LOST);
+        sweep.add(lost);
+
+        // Execution
+        table.process(exchange("radar-1", sweep));
+        table.process(exchange("radar-2", target(66, 2000L, 1.0)));
+        table.process(exchange("radar-2", target(66, 3000L, 2.0)));
+
+        // Assertion
+        TrackedTargetBatch snapshot = new TrackedTargetBatch();
+        assertEquals(2, table.snapshot("radar-1", snapshot));
+        assertEquals(TargetStatus.LOST, table.station("radar-1").getStatus(67));
+        assertEquals(TargetStatus.TRACKED, table.station("radar-1").getStatus(66));
+        assertEquals(1, table.snapshot("radar-2", snapshot));
+        assertEquals(2.0, snapshot.getDistance(0), 0.0);
+        assertEquals(3000L, snapshot.getMsgRecTime(0));
+
+        assertEquals(0, table.removeLost(1000L));
+        assertEquals(1, table.removeLost(1001L));
+        assertNull(table.station("radar-1").getStatus(67));
+        assertEquals(1, table.station("radar-1").size());
+    }
+
+    /**
+     * Проверяет вставку, рост и удаление большого количества целей одной полосы открытой адресации.
+     */
+    @Test
+    void TestInsertRemove() {
+        // Setup
+        StationTargets targets = new StationTargets("radar");
+
+        // Execution
+        for (int i = 0; i < 1000; i++) {
+            targets.update(target(i, i, i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(targets.remove(i));
+        }
+
+        // Assertion
+        assertEquals(500, targets.size());
+        TrackedTargetBatch row = new TrackedTargetBatch();
+        for (int i = 0; i < 1000; i++) {
+            row.clear();
+            assertEquals(i % 2 == 1, targets.get(i, row));
+            if (i % 2 == 1) assertEquals(i, row.getDistance(0), 0.0);
+        }
+        assertFalse(targets.remove(0));
+    }
+
+    /**
+     * Проверяет, что снимок, снятый во время записи из нескольких потоков, не содержит частично записанных строк.
+     */
+    @Test
+    void TestConcurrentSnapshot() throws Exception {
+        // Setup
+        StationTargets targets = new StationTargets("radar");
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int first = w * 100;
+            writers[w] = new Thread(() -> {
+                TrackedTargetBatch batch = new TrackedTargetBatch();
+                for (long sweep = 1; running.get(); sweep++) {
+                    batch.clear();
+                    for (int i = first; i < first + 100; i++) {
+                        batch.add(sweep, sweep, i, sweep, sweep, sweep, sweep, TargetType.UNKNOWN,
+                                TargetStatus.TRACKED, IFF.UNKNOWN);
+                    }
+                    targets.update(batch);
+                }
+            });
+            writers[w].start();
+        }
+
+        // Execution
+        TrackedTargetBatch snapshot = new TrackedTargetBatch();
+        boolean torn = false;
+        for (int i = 0; i < 2000; i++) {
+            targets.snapshot(snapshot);
+            for (int row = 0; row < snapshot.size(); row++) {
+                double value = snapshot.getMsgTime(row);
+                torn |= snapshot.getDistance(row) != value || snapshot.getBearing(row) != value
+                        || snapshot.getSpeed(row) != value || snapshot.getCourse(row) != value;
+            }
+        }
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Assertion
+        assertFalse(torn);
+        assertEquals(400, targets.snapshot(snapshot));
+    }
+
+    private static PrimitiveTrackedTargetMessage target(int number, long recTime, double distance) {
+        PrimitiveTrackedTargetMessage message = new PrimitiveTrackedTargetMessage();
+        message.setMsgRecTime(recTime);
+        message.setTargetNumber(number);
+        message.setDistance(distance);
+        message.setStatus(TargetStatus.TRACKED);
+        return message;
+    }
+
+    private static Exchange exchange(String channel, Object body) {
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setHeader(InteractionManager.CHANNEL_ID, channel);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.hydra.util.LocalProjectionCache;
+import ru.oogis.hydra.util.LocalTangentPlane;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestLocalTangentPlane {
+
+    private static final double MILE = 1852.0;
+
+    /**
+     * Проверяет заявленную границу ошибки: для пар точек в радиусе 24 миль от начала при широте до 70°
+     * расстояние отличается от сферического не более чем на 5 м, пеленг - не более чем на 0.003°.
+     */
+    @Test
+    void TestErrorBound() {
+        // Setup
+        Random random = new Random(20);
+        double worstDistance = 0;
+        double worstBearing = 0;
+
+        // Execution
+        for (int i = 0; i < 20000; i++) {
+            double lat0 = (random.nextDouble() * 2 - 1) * 70;
+            double lon0 = (random.nextDouble() * 2 - 1) * 180;
+            LocalTangentPlane plane = new LocalTangentPlane(lat0, lon0);
+            double[] first = destination(lat0, lon0, random.nextDouble() * 24 * MILE, random.nextDouble() * 360);
+            double[] second = destination(lat0, lon0, random.nextDouble() * 24 * MILE, random.nextDouble() * 360);
+            double exact = GeoHelper.calcDistanceInMeters(first[0], first[1], second[0], second[1]);
+            worstDistance = Math.max(worstDistance,
+                    Math.abs(plane.distance(first[0], first[1], second[0], second[1]) - exact));
+            if (exact > 100) {
+                double difference = plane.bearing(first[0], first[1], second[0], second[1])
+                        - GeoHelper.calcCourse(first[0], first[1], second[0], second[1]);
+                worstBearing = Math.max(worstBearing, Math.abs((difference + 540) % 360 - 180));
+            }
+        }
+
+        // Assertion
+        assertTrue(worstDistance <= 5.0, "Ошибка расстояния " + worstDistance + " м");
+        assertTrue(worstBearing <= 0.003, "Ошибка пеленга " + worstBearing + "°");
+    }
+
+    /**
+     * Проверяет проекцию и обратный переход, в том числе через антимеридиан.
+     */
+    @Test
+    void TestProjectRoundTrip() {
+        // Setup
+        LocalTangentPlane plane = new LocalTangentPlane(-40.0, 179.9);
+        double[] lats = {-40.1, -39.95, -40.0};
+        double[] lons = {-179.95, 179.8, 179.9};
+        double[] east = new double[3];
+        double[] north = new double[3];
+
+        // Execution
+        plane.project(lats, lons, 3, east, north);
+
+        // Assertion
+        assertTrue(east[0] > 0 && east[1] < 0);
+        assertEquals(0.0, east[2], 0.0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(lats[i], plane.toLatitude(east[i], north[i]), 1e-9);
+            assertEquals(lons[i], plane.toLongitude(east[i], north[i]), 1e-9);
+        }
+    }
+
+    /**
+     * Проверяет, что плоскость переносится только после смещения судна больше заданного.
+     */
+    @Test
+    void TestReanchor() {
+        // Setup
+        LocalProjectionCache cache = new LocalProjectionCache(MILE);
+
+        // Execution
+        LocalTangentPlane first = cache.update(59.9, 30.2);
+        double[] near = destination(59.9, 30.2, 0.9 * MILE, 75);
+        LocalTangentPlane afterNear = cache.update(near[0], near[1]);
+        double[] far = destination(59.9, 30.2, 1.1 * MILE, 75);
+        LocalTangentPlane afterFar = cache.update(far[0], far[1]);
+
+        // Assertion
+        assertSame(first, afterNear);
+        assertEquals(far[0], afterFar.getLatitude(), 0.0);
+        assertSame(afterFar, cache.getPlane());
+        assertEquals(2, cache.getReanchorCount());
+    }
+
+    private static double[] destination(double lat, double lon, double distance, double bearing) {
+        double[] lats = new double[1];
+        double[] lons = new double[1];
+        GeoHelper.calcDestinations(lat, lon, new double[]{distance}, new double[]{bearing}, 1, lats, lons);
+        return new double[]{lats[0], lons[0]};
+    }
+}
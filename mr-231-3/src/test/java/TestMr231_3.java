@@ -1,17 +1,53 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
 import org.example.searadar.mr231_3.convert.Mr231_3Converter;
 import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.filterchain.IoFilter;
+import org.apache.mina.core.session.DummySession;
+import org.apache.mina.core.service.DefaultTransportMetadata;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.session.IoSessionConfig;
+import org.apache.mina.filter.codec.AbstractProtocolDecoderOutput;
+import org.apache.mina.filter.codec.ProtocolCodecFactory;
+import org.apache.mina.filter.codec.ProtocolDecoder;
 import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.validate.nmea.NMEACRCValidator;
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.LazyTrackedTargetMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
 import ru.oogis.searadar.api.message.RadarSystemDataMessage;
 import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
 import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
 import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.InvalidReason;
 import ru.oogis.searadar.api.types.TargetStatus;
 import ru.oogis.searadar.api.types.TargetType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestMr231_3 {
@@ -98,4 +134,387 @@ public class TestMr231_3 {
         assertEquals(rsd.getDisplayOrientation(), resultMessage.getDisplayOrientation());
         assertEquals(rsd.getWorkingMode(), resultMessage.getWorkingMode());
     }
-}
\ No newline at end of file
+
+    /**
+     * Тестирует конвертацию блока предложений в переиспользуемый список.
+     */
+    @Test
+    void TestBatchConvert() {
+        // Setup
+        String block = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42\r\n"
+                + "$RAVHW,356.7,T,,,50.4,N,,*76\r\n"
+                + "\r\n"
+                + "$RARSD,50.5,309.9,64.8,132.3,,,,,52.6,155.0,48.0,K,N,S*28\r\n";
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter();
+        List<SearadarStationMessage> sink = new ArrayList<>();
+
+        // Execution
+        int count = converter.convert(block, sink);
+
+        // Assertion
+        assertEquals(3, count);
+        assertEquals(3, sink.size());
+        assertEquals(457362L, ((TrackedTargetMessage) sink.get(0)).getMsgTime().longValue());
+        assertEquals(50.4, ((WaterSpeedHeadingMessage) sink.get(1)).getSpeed());
+        assertEquals(48.0, ((RadarSystemDataMessage) sink.get(2)).getDistanceScale());
+        assertEquals(sink.get(0).getMsgRecTime(), sink.get(2).getMsgRecTime());
+
+        sink.clear();
+        assertEquals(2, converter.convert(Arrays.asList(
+                "$RAVHW,356.7,T,,,50.4,N,,*76",
+                "$RARSD,50.5,309.9,64.8,132.3,,,,,52.6,155.0,48.0,K,N,S*28"), sink));
+        assertEquals(2, sink.size());
+    }
+
+    /**
+     * Тестирует декодирование байтового потока кодеком станции, включая предложение, разорванное между чтениями.
+     */
+    @Test
+    void TestCodecDecode() throws Exception {
+        // Setup
+        Mr231_3StationType mr231_3 = new Mr231_3StationType();
+        ProtocolCodecFactory codecFactory = (ProtocolCodecFactory) mr231_3.getBeansForRegistration().get("mr231-3");
+        DummySession session = new DummySession();
+        session.setTransportMetadata(new DefaultTransportMetadata("mina", "dummy", false, true,
+                SocketAddress.class, IoSessionConfig.class, Object.class));
+        ProtocolDecoder decoder = codecFactory.getDecoder(session);
+        AbstractProtocolDecoderOutput out = new AbstractProtocolDecoderOutput() {
+            @Override
+            public void flush(IoFilter.NextFilter nextFilter, IoSession session) {
+            }
+        };
+        byte[] stream = ("$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42\r\n"
+                + "$RAVHW,356.7,T,,,50.4,N,,*76\r\n"
+                + "$RARSD,50.5,309.9,64.8,132.3,,,,,52.6,155.0,48.0,K,N,S*28\r\n").getBytes(StandardCharsets.UTF_8);
+        int split = 80;
+
+        // Execution
+        decoder.decode(session, IoBuffer.wrap(stream, 0, split), out);
+        int afterFirstRead = out.getMessageQueue().size();
+        decoder.decode(session, IoBuffer.wrap(stream, split, stream.length - split), out);
+
+        // Assertion
+        assertEquals(1, afterFirstRead);
+        assertEquals(3, out.getMessageQueue().size());
+        TrackedTargetMessage ttm = (TrackedTargetMessage) out.getMessageQueue().poll();
+        assertEquals(66, ttm.getTargetNumber().intValue());
+        assertEquals(457362L, ttm.getMsgTime().longValue());
+        WaterSpeedHeadingMessage vhw = (WaterSpeedHeadingMessage) out.getMessageQueue().poll();
+        assertEquals(356.7, vhw.getCourse());
+        RadarSystemDataMessage rsd = (RadarSystemDataMessage) out.getMessageQueue().poll();
+        assertEquals("S", rsd.getWorkingMode());
+    }
+
+    /**
+     * Проверяет, что один экземпляр конвертера станции можно использовать из нескольких потоков одновременно.
+     */
+    @Test
+    void TestConcurrentConvert() throws Exception {
+        // Setup
+        Mr231_3StationType mr231_3 = new Mr231_3StationType();
+        final Mr231_3Converter converter = (Mr231_3Converter) mr231_3.getConverter();
+        final int threads = 8;
+        final int iterations = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            tasks.add(() -> {
+                int errors = 0;
+                for (int i = 0; i < iterations; i++) {
+                    int targetNumber = thread * iterations + i;
+                    String ttm = "$RATTM," + targetNumber + ",28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,," + i + ",А*42";
+                    TrackedTargetMessage result = (TrackedTargetMessage) converter.convert(ttm).get(0);
+                    if (result.getTargetNumber() != targetNumber || result.getMsgTime() != i) errors++;
+
+                    String rsd = "$RARSD,50.5,309.9,64.8,132.3,,,,,52.6," + thread + ".0,48.0,K,N,S*28";
+                    RadarSystemDataMessage resultRsd = (RadarSystemDataMessage) converter.convert(rsd).get(0);
+                    if (resultRsd.getBearing2() != thread) errors++;
+                }
+                return errors;
+            });
+        }
+
+        // Execution
+        List<Future<Integer>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        // Assertion
+        assertSame(converter, mr231_3.getConverter());
+        for (Future<Integer> result : results) {
+            assertEquals(0, result.get().intValue());
+        }
+    }
+
+    /**
+     * Проверяет выбор разборщика по форматтеру: незарегистрированные предложения пропускаются,
+     * а зарегистрированный в станции разборщик сразу используется конвертером.
+     */
+    @Test
+    void TestSentenceParserRegistry() {
+        // Setup
+        Mr231_3StationType mr231_3 = new Mr231_3StationType();
+        Mr231_3Converter converter = mr231_3.createConverter();
+        String block = "$RAZDA,201530.00,14,03,2023,,*7F\r\n$RAVHW,115.6,T,,,46.0,N,,*71\r\n";
+        List<SearadarStationMessage> before = new ArrayList<>();
+        List<SearadarStationMessage> after = new ArrayList<>();
+
+        // Execution
+        converter.convert(block, before);
+        mr231_3.getParsers().register("ZDA", (cursor, msgRecTime, representation) -> {
+            InvalidMessage message = new InvalidMessage();
+            message.setInfoMsg(cursor.field(1).stringValue());
+            return message;
+        });
+        converter.convert(block, after);
+
+        // Assertion
+        assertNull(mr231_3.getParsers().find("GGA"));
+        assertEquals(1, before.size());
+        assertTrue(before.get(0) instanceof WaterSpeedHeadingMessage);
+        assertEquals(2, after.size());
+        assertEquals("201530.00", ((InvalidMessage) after.get(0)).getInfoMsg());
+    }
+
+    /**
+     * Проверяет, что сообщения с полями примитивных типов читаются так же, как обычные.
+     */
+    @Test
+    void TestPrimitiveRepresentation() {
+        // Setup
+        Mr231_3StationType mr231_3 = new Mr231_3StationType();
+        Mr231_3Converter boxed = mr231_3.createConverter();
+        Mr231_3Converter primitive = mr231_3.createConverter(MessageRepresentation.PRIMITIVE);
+        String ttm = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        String vhw = "$RAVHW,115.6,T,,,46.0,N,,*71";
+        String rsd = "$RARSD,36.5,331.4,8.4,320.6,,,,,11.6,185.3,96.0,N,N,S*33";
+
+        // Execution
+        TrackedTargetMessage boxedTtm = (TrackedTargetMessage) boxed.convert(ttm).get(0);
+        TrackedTargetMessage primitiveTtm = (TrackedTargetMessage) primitive.convert(ttm).get(0);
+        WaterSpeedHeadingMessage primitiveVhw = (WaterSpeedHeadingMessage) primitive.convert(vhw).get(0);
+        RadarSystemDataMessage primitiveRsd = (RadarSystemDataMessage) primitive.convert(rsd).get(0);
+
+        // Assertion
+        assertTrue(primitiveTtm instanceof PrimitiveTrackedTargetMessage);
+        assertEquals(boxedTtm.getMsgTime(), primitiveTtm.getMsgTime());
+        assertEquals(boxedTtm.getTargetNumber(), primitiveTtm.getTargetNumber());
+        assertEquals(boxedTtm.getDistance(), primitiveTtm.getDistance());
+        assertEquals(boxedTtm.getCourse(), primitiveTtm.getCourse());
+        assertEquals(boxedTtm.getStatus(), primitiveTtm.getStatus());
+        assertEquals(boxedTtm.getIff(), primitiveTtm.getIff());
+        assertEquals(boxedTtm.getType(), primitiveTtm.getType());
+        assertEquals(primitiveTtm.getMsgRecTimeMillis(), primitiveTtm.getMsgRecTime().getTime());
+        assertEquals(341.1, primitiveTtm.getBearingValue());
+        assertEquals(46.0, primitiveVhw.getSpeedValue());
+        assertEquals("N", primitiveVhw.getSpeedUnit());
+        assertEquals(96.0, primitiveRsd.getDistanceScale());
+        assertNull(new PrimitiveTrackedTargetMessage().getDistance());
+    }
+
+    /**
+     * Проверяет запись целей из блока предложений непосредственно в пакет и обход пакета как сообщений.
+     */
+    @Test
+    void TestTrackedTargetBatch() {
+        // Setup
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter();
+        String block = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42\r\n"
+                + "$RAVHW,115.6,T,,,46.0,N,,*71\r\n"
+                + "$RATTM,67,12.5,10.0,T,3.5,180.0,T,0.4,4.1,N,p,T,,457363,А*42\r\n";
+        TrackedTargetBatch batch = new TrackedTargetBatch(1);
+        List<SearadarStationMessage> sink = new ArrayList<>();
+
+        // Execution
+        int count = converter.convert(block, batch, sink);
+
+        // Assertion
+        assertEquals(3, count);
+        assertEquals(2, batch.size());
+        assertEquals(1, sink.size());
+        assertEquals(66, batch.targetNumberColumn()[0]);
+        assertEquals(12.5, batch.distanceColumn()[1]);
+        assertEquals(457363L, batch.getMsgTime(1));
+        assertEquals(IFF.FOE, batch.getIff(1));
+        assertEquals(TargetStatus.TRACKED, batch.getStatus(1));
+
+        List<TrackedTargetMessage> messages = new ArrayList<>();
+        for (TrackedTargetMessage message : batch) {
+            messages.add(message);
+        }
+        assertEquals(2, messages.size());
+        assertEquals(Integer.valueOf(66), messages.get(0).getTargetNumber());
+        assertEquals(341.1, messages.get(0).getBearing());
+        assertEquals(TargetStatus.LOST, messages.get(0).getStatus());
+    }
+
+    /**
+     * Проверяет, что сообщения с отложенным разбором возвращают те же значения, что и обычные,
+     * а поля, к которым не обращались, не разбираются.
+     */
+    @Test
+    void TestLazyRepresentation() {
+        // Setup
+        Mr231_3StationType mr231_3 = new Mr231_3StationType();
+        Mr231_3Converter lazy = mr231_3.createConverter(MessageRepresentation.LAZY);
+        String ttm = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        String brokenTtm = "$RATTM,67,xx.x,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        String rsd = "$RARSD,36.5,331.4,8.4,320.6,,,,,11.6,185.3,96.0,N,N,S*33";
+
+        // Execution
+        TrackedTargetMessage expected = (TrackedTargetMessage) mr231_3.createConverter().convert(ttm).get(0);
+        TrackedTargetMessage lazyTtm = (TrackedTargetMessage) lazy.convert(ttm).get(0);
+        TrackedTargetMessage lazyBrokenTtm = (TrackedTargetMessage) lazy.convert(brokenTtm).get(0);
+        RadarSystemDataMessage lazyRsd = (RadarSystemDataMessage) lazy.convert(rsd).get(0);
+
+        // Assertion
+        assertTrue(lazyTtm instanceof LazyTrackedTargetMessage);
+        assertEquals(ttm, ((LazyTrackedTargetMessage) lazyTtm).getSentence());
+        assertEquals(expected.toString().replaceAll("msgRecTime=[^,]*", ""),
+                lazyTtm.toString().replaceAll("msgRecTime=[^,]*", ""));
+        assertEquals(Integer.valueOf(67), lazyBrokenTtm.getTargetNumber());
+        assertTrue(Double.isNaN(lazyBrokenTtm.getDistanceValue()));
+        lazyBrokenTtm.setDistance(1.5);
+        assertEquals(1.5, lazyBrokenTtm.getDistance());
+        assertEquals(185.3, lazyRsd.getBearing2());
+        assertEquals("S", lazyRsd.getWorkingMode());
+    }
+
+    /**
+     * Проверяет вычисление контрольной суммы на проходе разбора и отбраковку предложений с неверной суммой.
+     */
+    @Test
+    void TestChecksumValidation() {
+        // Setup
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter(MessageRepresentation.BOXED, true);
+        String valid = "$RAVHW,115.6,T,,,46.0,N,,*71";
+        String corrupted = "$RAVHW,115.6,T,,,47.0,N,,*71";
+        NmeaFieldCursor cursor = new NmeaFieldCursor();
+
+        // Execution
+        List<SearadarStationMessage> validResult = converter.convert(valid);
+        List<SearadarStationMessage> corruptedResult = converter.convert(corrupted);
+
+        // Assertion
+        assertTrue(new NMEACRCValidator().validate(valid));
+        assertTrue(cursor.reset(valid).isChecksumValid());
+        assertEquals(0x71, cursor.getExpectedChecksum());
+        assertEquals(46.0, cursor.field(5).doubleValue());
+        assertEquals("T", cursor.field(2).stringValue());
+        assertFalse(cursor.reset(corrupted).isChecksumValid());
+        assertFalse(cursor.reset("$RAVHW,115.6,T,,,46.0,N,,*").isChecksumValid());
+        assertTrue(validResult.get(0) instanceof WaterSpeedHeadingMessage);
+        assertEquals("VHW message. Wrong checksum: 70, expected: 71",
+                ((InvalidMessage) corruptedResult.get(0)).getInfoMsg());
+    }
+
+    /**
+     * Проверяет, что поврежденные предложения преобразуются в {@link InvalidMessage} с причиной без исключений
+     * в обоих представлениях, а причины учитываются счетчиками конвертера.
+     */
+    @Test
+    void TestMalformedSentences() {
+        // Setup
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter(MessageRepresentation.BOXED, true);
+        String block = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А\r\n"
+                + "$RAVHW,115.6,T,,,46.0,N,,*72\r\n"
+                + "$RATTM,66,28.71,341.1,T,57.6,024.5,T*4E\r\n"
+                + "$RAVHW,11x.6,T,,,46.0,N,,*3C\r\n"
+                + "$RAGGA,,,,*52\r\n"
+                + "$RA??,1*0E\r\n";
+        List<SearadarStationMessage> sink = new ArrayList<>();
+        Mr231_3Converter lazy = new Mr231_3StationType().createConverter(MessageRepresentation.LAZY, true);
+        String lazyBlock = "$RATTM,66,28.71*7C\r\n"
+                + "$RARSD,36.5,331.4*63\r\n"
+                + "$RARSD,36.5,331.4,8.4,320.6,,,,,11.6,185.3,9x.0,N,N,S*5D\r\n"
+                + "$RATTM,67,xx.x,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,A*1A\r\n";
+        List<SearadarStationMessage> lazySink = new ArrayList<>();
+
+        // Execution
+        int count = converter.convert(block, sink);
+        int lazyCount = lazy.convert(lazyBlock, lazySink);
+        SearadarStationMessage lazyTtm = lazy.convert("$RATTM,66,28.71*7C").get(0);
+
+        // Assertion
+        assertEquals(5, count);
+        assertEquals(InvalidReason.TRUNCATED, ((InvalidMessage) sink.get(0)).getReason());
+        assertEquals(InvalidReason.BAD_CHECKSUM, ((InvalidMessage) sink.get(1)).getReason());
+        assertEquals(InvalidReason.TOO_FEW_FIELDS, ((InvalidMessage) sink.get(2)).getReason());
+        assertEquals(InvalidReason.BAD_NUMBER, ((InvalidMessage) sink.get(3)).getReason());
+        assertEquals("VHW message. Wrong number format, field 1", ((InvalidMessage) sink.get(3)).getInfoMsg());
+        assertEquals(InvalidReason.UNKNOWN_TYPE, ((InvalidMessage) sink.get(4)).getReason());
+        assertEquals(1, converter.getInvalidCounters().get(InvalidReason.BAD_NUMBER));
+        assertEquals(2, converter.getInvalidCounters().get(InvalidReason.UNKNOWN_TYPE));
+        assertEquals(6, converter.getInvalidCounters().getTotal());
+        assertEquals(4, lazyCount);
+        assertEquals(InvalidReason.TOO_FEW_FIELDS, ((InvalidMessage) lazySink.get(0)).getReason());
+        assertEquals(InvalidReason.TOO_FEW_FIELDS, ((InvalidMessage) lazySink.get(1)).getReason());
+        assertEquals(InvalidReason.BAD_NUMBER, ((InvalidMessage) lazySink.get(2)).getReason());
+        TrackedTargetMessage brokenTtm = (TrackedTargetMessage) lazySink.get(3);
+        assertEquals(Integer.valueOf(67), brokenTtm.getTargetNumber());
+        assertTrue(Double.isNaN(brokenTtm.getDistanceValue()));
+        assertEquals(TargetStatus.LOST, brokenTtm.getStatus());
+        assertEquals(InvalidReason.TOO_FEW_FIELDS, ((InvalidMessage) lazyTtm).getReason());
+        assertEquals(4, lazy.getInvalidCounters().getTotal());
+    }
+
+    /**
+     * Проверяет сериализацию сообщений с отложенным разбором, в том числе с еще не разобранными полями.
+     */
+    @Test
+    void TestLazySerialization() throws Exception {
+        // Setup
+        Mr231_3Converter lazy = new Mr231_3StationType().createConverter(MessageRepresentation.LAZY);
+        String ttm = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        String rsd = "$RARSD,36.5,331.4,8.4,320.6,,,,,11.6,185.3,96.0,N,N,S*33";
+        SearadarStationMessage lazyTtm = lazy.convert(ttm).get(0);
+        SearadarStationMessage lazyRsd = lazy.convert(rsd).get(0);
+
+        // Execution
+        SearadarStationMessage restoredTtm = roundTrip(lazyTtm);
+        SearadarStationMessage restoredRsd = roundTrip(lazyRsd);
+
+        // Assertion
+        assertTrue(restoredTtm instanceof LazyTrackedTargetMessage);
+        assertEquals(ttm, ((LazyTrackedTargetMessage) restoredTtm).getSentence());
+        assertEquals(lazyTtm.toString(), restoredTtm.toString());
+        assertEquals(lazyRsd.toString(), restoredRsd.toString());
+        assertEquals(96.0, ((RadarSystemDataMessage) restoredRsd).getDistanceScale());
+    }
+
+    /**
+     * Проверяет, что предложение с начальными пробелами одинаково разбирается из строки, блока и обмена.
+     */
+    @Test
+    void TestLeadingWhitespace() {
+        // Setup
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter();
+        String ttm = "  \t$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(ttm);
+        List<SearadarStationMessage> block = new ArrayList<>();
+
+        // Execution
+        List<SearadarStationMessage> single = converter.convert(ttm);
+        converter.convert((CharSequence) ttm, block);
+        List<SearadarStationMessage> fromExchange = converter.convert(exchange);
+
+        // Assertion
+        assertTrue(single.get(0) instanceof TrackedTargetMessage);
+        assertEquals(Integer.valueOf(66), ((TrackedTargetMessage) single.get(0)).getTargetNumber());
+        assertEquals(block.get(0).toString().replaceAll("msgRecTime=[^,]*", ""),
+                single.get(0).toString().replaceAll("msgRecTime=[^,]*", ""));
+        assertEquals(fromExchange.get(0).toString().replaceAll("msgRecTime=[^,]*", ""),
+                single.get(0).toString().replaceAll("msgRecTime=[^,]*", ""));
+    }
+
+    private static SearadarStationMessage roundTrip(SearadarStationMessage message) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (SearadarStationMessage) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.convert.NmeaNumberParser;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestNmeaNumberParser {
+
+    /**
+     * Проверяет совпадение с {@link Double#parseDouble} для всех форматов числовых полей протокола:
+     * x.x, xx.xx, xxx.x, x.xxx и их вариантов с ведущими нулями (024.5, 004.1) до значения 999.999.
+     */
+    @Test
+    void TestProtocolFieldFormats() {
+        for (int intPart = 0; intPart < 1000; intPart++) {
+            for (int fractionDigits = 0; fractionDigits <= 3; fractionDigits++) {
+                int fractionLimit = (int) Math.pow(10, fractionDigits);
+                for (int fraction = 0; fraction < fractionLimit; fraction += fractionDigits == 3 ? 7 : 1) {
+                    String value = intPart + (fractionDigits == 0 ? "" : "." + pad(fraction, fractionDigits));
+                    assertSame(value);
+                    assertSame(pad(intPart, 3) + (fractionDigits == 0 ? "" : "." + pad(fraction, fractionDigits)));
+                    assertSame("-" + value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет совпадение с {@link Double#parseDouble} на случайных значениях с числом цифр до 17,
+     * включая значения за пределами быстрого пути.
+     */
+    @Test
+    void TestRandomValues() {
+        Random random = new Random(231);
+        for (int i = 0; i < 200000; i++) {
+            int digits = 1 + random.nextInt(17);
+            StringBuilder value = new StringBuilder();
+            for (int d = 0; d < digits; d++) {
+                value.append((char) ('0' + random.nextInt(10)));
+            }
+            value.insert(random.nextInt(digits + 1), '.');
+            assertSame(value.toString());
+        }
+    }
+
+    /**
+     * Проверяет граничные записи, разбор фрагмента внутри предложения и разбор без исключений.
+     */
+    @Test
+    void TestEdgeCases() {
+        for (String value : new String[]{"0", "-0", "0.0", ".5", "5.", "+1.5", "9007199254740993", "1e3",
+                "0.0000000000000000000001", "0.00000000000000000000001", "123456789012345678.5"}) {
+            assertSame(value);
+        }
+
+        String sentence = "$RATTM,66,28.71,341.1,T";
+        assertEquals(66, NmeaNumberParser.parseInt(sentence, 7, 9));
+        assertEquals(28.71, NmeaNumberParser.parseDouble(sentence, 10, 15));
+        assertEquals(457362L, NmeaNumberParser.parseLong("457362", 0, 6));
+        assertEquals(-12, NmeaNumberParser.parseInt("-12", 0, 3));
+
+        assertThrows(NumberFormatException.class, () -> NmeaNumberParser.parseDouble("", 0, 0));
+        assertThrows(NumberFormatException.class, () -> NmeaNumberParser.parseDouble(".", 0, 1));
+        assertThrows(NumberFormatException.class, () -> NmeaNumberParser.parseDouble("1.2.3", 0, 5));
+        assertThrows(NumberFormatException.class, () -> NmeaNumberParser.parseInt("T", 0, 1));
+        assertThrows(NumberFormatException.class, () -> NmeaNumberParser.parseInt("", 0, 0));
+
+        assertTrue(Double.isNaN(NmeaNumberParser.tryParseDouble("1.2.3", 0, 5)));
+        assertTrue(Double.isNaN(NmeaNumberParser.tryParseDouble("1e", 0, 2)));
+        assertTrue(Double.isNaN(NmeaNumberParser.tryParseDouble("", 0, 0)));
+        assertEquals(1000.0, NmeaNumberParser.tryParseDouble("1e3", 0, 3));
+        assertEquals(NmeaNumberParser.INVALID_LONG, NmeaNumberParser.tryParseLong("T", 0, 1));
+        assertEquals(NmeaNumberParser.INVALID_LONG, NmeaNumberParser.tryParseLong("-", 0, 1));
+    }
+
+    private static void assertSame(String value) {
+        long expected = Double.doubleToRawLongBits(Double.parseDouble(value));
+        long actual = Double.doubleToRawLongBits(NmeaNumberParser.parseDouble(value, 0, value.length()));
+        assertEquals(expected, actual, value);
+    }
+
+    private static String pad(int value, int width) {
+        StringBuilder result = new StringBuilder(Integer.toString(value));
+        while (result.length() < width) {
+            result.insert(0, '0');
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,209 @@
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.example.searadar.mr231_3.convert.Mr231_3Converter;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.replay.MappedLineReader;
+import ru.oogis.hydra.replay.ReplayEndpoint;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestReplay {
+
+    private static final String TTM = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,A*6F";
+    private static final String VHW = "$RAVHW,356.7,T,,,50.4,N,,*76";
+
+    /**
+     * Проверяет выделение строк из отображенного файла: метки времени, пустые строки, CR/LF,
+     * последнюю строку без перевода строки и сдвиг окна отображения на строках, пересекающих его границу.
+     */
+    @Test
+    void TestMappedLineReader() throws IOException {
+        // Setup
+        File capture = write("1000 " + TTM + "\r\n\r\n"
+                + VHW + "\n"
+                + "1250\t" + TTM + "\r\n"
+                + "  \n"
+                + VHW);
+
+        // Execution
+        List<String> lines = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        try (MappedLineReader reader = new MappedLineReader(capture, 96)) {
+            for (int pass = 0; pass < 2; pass++) {
+                while (reader.next()) {
+                    lines.add(reader.text());
+                    times.add(reader.getTime());
+                }
+                reader.rewind();
+            }
+        }
+
+        // Assertion
+        List<String> expected = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) {
+            Collections.addAll(expected, TTM, VHW, TTM, VHW);
+        }
+        assertEquals(expected, lines);
+        assertEquals(1000L, (long) times.get(0));
+        assertEquals(MappedLineReader.NO_TIME, (long) times.get(1));
+        assertEquals(1250L, (long) times.get(2));
+        assertEquals(MappedLineReader.NO_TIME, (long) times.get(3));
+    }
+
+    /**
+     * Проверяет воспроизведение записи через маршрут Camel без пауз: строки объединяются
+     * по {@code linesPerExchange} и конвертируются конвертером станции.
+     */
+    @Test
+    void TestReplayRoute() throws Exception {
+        // Setup
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            content.append(1000 + i * 100).append(' ').append(i % 2 == 0 ? TTM : VHW).append("\r\n");
+        }
+        File capture = write(content.toString());
+        Mr231_3Converter converter = new Mr231_3StationType().createConverter();
+        List<SearadarStationMessage> messages = Collections.synchronizedList(new ArrayList<>());
+        List<Long> replayTimes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        DefaultCamelContext context = new DefaultCamelContext();
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("replay:" + capture.getAbsolutePath() + "?speed=0&linesPerExchange=4")
+                        .process(exchange -> {
+                            replayTimes.add(exchange.getIn().getHeader(ReplayEndpoint.REPLAY_TIME, Long.class));
+                            messages.addAll(converter.convert(exchange));
+                            done.countDown();
+                        });
+            }
+        });
+
+        // Execution
+        context.start();
+        try {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            context.stop();
+        }
+
+        // Assertion
+        assertEquals(10, messages.size());
+        assertTrue(messages.get(0) instanceof TrackedTargetMessage);
+        assertEquals(66, (int) ((TrackedTargetMessage) messages.get(0)).getTargetNumber());
+        assertEquals(3, replayTimes.size());
+        assertEquals(1000L, (long) replayTimes.get(0));
+        assertEquals(1400L, (long) replayTimes.get(1));
+        assertEquals(1800L, (long) replayTimes.get(2));
+    }
+
+    /**
+     * Проверяет соблюдение темпа записи: 400 мс записи при двукратном ускорении воспроизводятся
+     * не быстрее чем за 200 мс, а строки с разными метками времени не объединяются.
+     */
+    @Test
+    void TestReplayTiming() throws Exception {
+        // Setup
+        File capture = write("5000 " + VHW + "\n5200 " + VHW + "\n5400 " + VHW + "\n");
+        CountDownLatch done = new CountDownLatch(3);
+        List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        DefaultCamelContext context = new DefaultCamelContext();
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("replay:" + capture.getAbsolutePath() + "?speed=2&linesPerExchange=10")
+                        .process(exchange -> {
+                            bodies.add(exchange.getIn().getBody(String.class));
+                            done.countDown();
+                        });
+            }
+        });
+
+        // Execution
+        long started = System.nanoTime();
+        context.start();
+        try {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            context.stop();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Assertion
+        assertTrue(elapsedMillis >= 190, "Воспроизведение заняло " + elapsedMillis + " мс");
+        assertEquals(3, bodies.size());
+        for (String body : bodies) {
+            assertEquals(VHW, body);
+            assertFalse(body.contains("\n"));
+        }
+    }
+
+    /**
+     * Проверяет, что повторение пустой записи останавливается, а не занимает поток без пауз.
+     */
+    @Test
+    void TestEmptyLoop() throws Exception {
+        // Setup
+        File capture = write("");
+        List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        DefaultCamelContext context = new DefaultCamelContext();
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("replay:" + capture.getAbsolutePath() + "?loop=true")
+                        .process(exchange -> bodies.add(exchange.getIn().getBody(String.class)));
+            }
+        });
+
+        // Execution
+        context.start();
+        boolean idle;
+        try {
+            idle = awaitIdle("Replay " + capture.getName(), 5000);
+        } finally {
+            context.stop();
+        }
+
+        // Assertion
+        assertTrue(idle);
+        assertTrue(bodies.isEmpty());
+    }
+
+    /**
+     * Ждет, пока поток с указанной частью имени не станет ожидать новую задачу.
+     */
+    private static boolean awaitIdle(String threadName, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().contains(threadName) && thread.getState() == Thread.State.WAITING) {
+                    return true;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private static File write(String content) throws IOException {
+        File file = File.createTempFile("capture", ".nmea");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+}
@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.track.TargetGrid;
+import ru.oogis.searadar.api.track.TargetHits;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTargetGrid {
+
+    /**
+     * Проверяет запросы по радиусу, сектору и ближайшим целям по полному перебору после перемещений
+     * и удаления потерянных целей.
+     */
+    @Test
+    void TestQueriesMatchLinearScan() {
+        // Setup
+        Random random = new Random(22);
+        int count = 2000;
+        double[] distance = new double[count];
+        double[] bearing = new double[count];
+        boolean[] lost = new boolean[count];
+        TargetGrid grid = new TargetGrid(2.0);
+        TargetHits hits = new TargetHits();
+
+        // Execution
+        for (int sweep = 0; sweep < 3; sweep++) {
+            TrackedTargetBatch batch = new TrackedTargetBatch();
+            for (int i = 0; i < count; i++) {
+                if (sweep > 0 && random.nextInt(3) != 0) continue;
+                distance[i] = random.nextDouble() * 24;
+                bearing[i] = random.nextDouble() * 360;
+                lost[i] = sweep > 0 && random.nextInt(4) == 0;
+                add(batch, i, distance[i], bearing[i], lost[i] ? TargetStatus.LOST : TargetStatus.TRACKED);
+            }
+            grid.update(batch);
+        }
+
+        // Assertion
+        int alive = 0;
+        for (boolean l : lost) if (!l) alive++;
+        assertEquals(alive, grid.size());
+        for (int query = 0; query < 50; query++) {
+            double qx = (random.nextDouble() * 2 - 1) * 20;
+            double qy = (random.nextDouble() * 2 - 1) * 20;
+            double radius = random.nextDouble() * 5;
+            grid.range(qx, qy, radius, hits);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                if (!lost[i] && Math.hypot(x(distance[i], bearing[i]) - qx, y(distance[i], bearing[i]) - qy) <= radius) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, numbers(hits));
+
+            double from = random.nextDouble() * 360;
+            double to = from + random.nextDouble() * 40;
+            double maxDistance = random.nextDouble() * 12;
+            grid.sector(from, to % 360, maxDistance, hits);
+            expected.clear();
+            for (int i = 0; i < count; i++) {
+                double offset = (bearing[i] - from + 360) % 360;
+                if (!lost[i] && distance[i] <= maxDistance && offset <= to - from) expected.add(i);
+            }
+            assertEquals(expected, numbers(hits));
+
+            int k = 1 + random.nextInt(8);
+            grid.nearest(qx, qy, k, hits);
+            double[] all = new double[alive];
+            for (int i = 0, n = 0; i < count; i++) {
+                if (!lost[i]) all[n++] = Math.hypot(x(distance[i], bearing[i]) - qx, y(distance[i], bearing[i]) - qy);
+            }
+            Arrays.sort(all);
+            assertEquals(k, hits.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(all[i], hits.getDistance(i), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Проверяет перемещение цели между ячейками, удаление по LOST и поиск ближайших целей при малом индексе.
+     */
+    @Test
+    void TestMoveAndRemove() {
+        // Setup
+        TargetGrid grid = new TargetGrid(1.0);
+        TargetHits hits = new TargetHits();
+        TrackedTargetBatch first = new TrackedTargetBatch();
+        add(first, 1, 0.5, 0.0, TargetStatus.TRACKED);
+        add(first, 2, 3.0, 90.0, TargetStatus.TRACKED);
+        add(first, 3, 50.0, 180.0, TargetStatus.TRACKED);
+        TrackedTargetBatch second = new TrackedTargetBatch();
+        add(second, 1, 10.0, 270.0, TargetStatus.TRACKED);
+        add(second, 2, 3.0, 90.0, TargetStatus.LOST);
+
+        // Execution
+        grid.update(first);
+        int beforeMove = grid.range(0.0, 0.0, 1.0, hits);
+        grid.update(second);
+        int afterMove = grid.range(0.0, 0.0, 1.0, hits);
+        int west = grid.range(-10.0, 0.0, 0.5, hits);
+        grid.nearest(0.0, 0.0, 5, hits);
+
+        // Assertion
+        assertEquals(1, beforeMove);
+        assertEquals(0, afterMove);
+        assertEquals(1, west);
+        assertFalse(grid.contains(2));
+        assertTrue(grid.contains(3));
+        assertEquals(2, hits.size());
+        assertEquals(1, hits.getTargetNumber(0));
+        assertEquals(3, hits.getTargetNumber(1));
+        assertEquals(50.0, hits.getDistance(1), 1e-9);
+    }
+
+    private static Set<Integer> numbers(TargetHits hits) {
+        Set<Integer> result = new HashSet<>();
+        for (int i = 0; i < hits.size(); i++) result.add(hits.getTargetNumber(i));
+        return result;
+    }
+
+    private static double x(double distance, double bearing) {
+        return distance * Math.sin(Math.toRadians(bearing));
+    }
+
+    private static double y(double distance, double bearing) {
+        return distance * Math.cos(Math.toRadians(bearing));
+    }
+
+    private static void add(TrackedTargetBatch batch, int number, double distance, double bearing,
+                            TargetStatus status) {
+        batch.add(1000L, 1000L, number, distance, bearing, 10.0, 0.0, TargetType.SURFACE, status, IFF.UNKNOWN);
+    }
+}
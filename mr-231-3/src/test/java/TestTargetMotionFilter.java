@@ -0,0 +1,142 @@
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.hydra.util.TargetMovementElements;
+import ru.oogis.hydra.util.TargetMovementElementsCalculator;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
+import ru.oogis.searadar.api.track.GeoReferenceStage;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+import ru.oogis.searadar.api.track.TargetMotionFilter;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTargetMotionFilter {
+
+    private static final double LAT = 59.9;
+    private static final double LON = 30.2;
+
+    /**
+     * Проверяет сглаживание зашумленных отметок цели, идущей постоянным курсом: скорость и курс фильтра
+     * точнее расчета по двум соседним позициям, экстраполяция попадает в истинную позицию.
+     */
+    @Test
+    void TestSmoothing() {
+        // Setup
+        Random random = new Random(24);
+        TargetMotionFilter filter = new TargetMotionFilter(30.0, 0.05);
+        double speed = 12.0;
+        double course = 60.0;
+        double worstPairSpeed = 0;
+        double[] previous = null;
+
+        // Execution
+        for (int i = 0; i <= 100; i++) {
+            double[] fix = noisy(position(speed, course, i * 3.0), 30.0, random);
+            filter.update(5, i * 3000L, fix[0], fix[1]);
+            if (previous != null) {
+                TargetMovementElements pair =
+                        TargetMovementElementsCalculator.calculate(previous[0], previous[1], fix[0], fix[1], 3);
+                worstPairSpeed = Math.max(worstPairSpeed, Math.abs(pair.getSpeed() - speed));
+            }
+            previous = fix;
+        }
+        GeoTargetBatch now = new GeoTargetBatch();
+        filter.get(5, 300000L, now);
+        GeoTargetBatch ahead = new GeoTargetBatch();
+        filter.snapshot(360000L, ahead);
+
+        // Assertion
+        assertEquals(101, filter.getUpdateCount(5));
+        assertEquals(speed, now.getSpeed(0), 1.0);
+        assertEquals(course, now.getCourse(0), 5.0);
+        assertTrue(worstPairSpeed > 10 * Math.abs(now.getSpeed(0) - speed));
+        double[] expected = position(speed, course, 360.0);
+        assertEquals(1, ahead.size());
+        assertEquals(360000L, ahead.getTime(0));
+        assertTrue(GeoHelper.calcDistanceInMeters(expected[0], expected[1], ahead.getLatitude(0),
+                ahead.getLongitude(0)) < 60.0);
+    }
+
+    /**
+     * Проверяет длинный галс с переносом опорной точки и пропуск отметки старше последней учтенной.
+     */
+    @Test
+    void TestLongTrack() {
+        // Setup
+        TargetMotionFilter filter = new TargetMotionFilter();
+        double speed = 30.0;
+        double course = 200.0;
+
+        // Execution
+        for (int i = 0; i <= 300; i++) {
+            double[] fix = position(speed, course, i * 10.0);
+            filter.update(9, i * 10000L, fix[0], fix[1]);
+        }
+        boolean late = filter.update(9, 5000L, LAT, LON);
+        GeoTargetBatch state = new GeoTargetBatch();
+        filter.get(9, 3000000L, state);
+
+        // Assertion
+        assertFalse(late);
+        double[] expected = position(speed, course, 3000.0);
+        assertTrue(GeoHelper.calcDistanceInMeters(expected[0], expected[1], state.getLatitude(0),
+                state.getLongitude(0)) < 30.0);
+        assertEquals(speed, state.getSpeed(0), 0.1);
+        assertEquals(course, state.getCourse(0), 0.5);
+    }
+
+    /**
+     * Проверяет работу в маршруте: отметки берутся из заголовка, потерянная цель забывается.
+     */
+    @Test
+    void TestProcessLostTarget() throws Exception {
+        // Setup
+        TargetMotionFilter filter = new TargetMotionFilter();
+        GeoTargetBatch fixes = new GeoTargetBatch();
+        fixes.add(1000L, 1, LAT, LON, 0.0, 0.0);
+        fixes.add(1000L, 2, LAT + 0.01, LON, 0.0, 0.0);
+        Exchange first = new DefaultExchange(new DefaultCamelContext());
+        first.getIn().setBody(Collections.emptyList());
+        first.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, fixes);
+        PrimitiveTrackedTargetMessage lost = new PrimitiveTrackedTargetMessage();
+        lost.setTargetNumber(2);
+        lost.setStatus(TargetStatus.LOST);
+        Exchange second = new DefaultExchange(new DefaultCamelContext());
+        second.getIn().setBody(Collections.singletonList(lost));
+        second.getIn().setHeader(GeoReferenceStage.GEO_TARGETS, fixes);
+
+        // Execution
+        filter.process(first);
+        int before = filter.size();
+        filter.process(second);
+
+        // Assertion
+        assertEquals(2, before);
+        assertEquals(1, filter.size());
+        assertTrue(filter.contains(1));
+        assertFalse(filter.contains(2));
+    }
+
+    private static double[] position(double speed, double course, double seconds) {
+        double[] lat = new double[1];
+        double[] lon = new double[1];
+        GeoHelper.calcDestinations(LAT, LON, new double[]{speed * GeoHelper.KNOT_PMS * seconds},
+                new double[]{course}, 1, lat, lon);
+        return new double[]{lat[0], lon[0]};
+    }
+
+    private static double[] noisy(double[] position, double sigma, Random random) {
+        double north = random.nextGaussian() * sigma;
+        double east = random.nextGaussian() * sigma;
+        return new double[]{position[0] + Math.toDegrees(north / GeoHelper.WGS84_RADIUS),
+                position[1] + Math.toDegrees(east / (GeoHelper.WGS84_RADIUS * Math.cos(Math.toRadians(position[0]))))};
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.track.TrackHistory;
+import ru.oogis.searadar.api.track.TrackPoints;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TestTrackHistory {
+
+    /**
+     * Проверяет кольцевую запись: после переполнения хранятся последние отметки, чтение выдает их
+     * от старой к новой, трассы разных целей не пересекаются.
+     */
+    @Test
+    void TestRingOverflow() {
+        // Setup
+        TrackHistory history = new TrackHistory(100, 8);
+        TrackedTargetBatch sweep = new TrackedTargetBatch();
+
+        // Execution
+        for (int i = 0; i < 20; i++) {
+            sweep.clear();
+            sweep.add(1000L * i, i, 7, i, 10 + i, 20 + i, 30 + i, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.FRIEND);
+            sweep.add(1000L * i, i, 8, -i, 0, 0, 0, TargetType.UNKNOWN, TargetStatus.TRACKED, IFF.FRIEND);
+            history.append(sweep);
+        }
+        TrackPoints points = new TrackPoints(2);
+        int latest = history.readLatest(7, 3, points);
+
+        // Assertion
+        assertEquals(8, history.size(7));
+        assertEquals(3, latest);
+        assertEquals(17000L, points.getTime(0));
+        assertEquals(19000L, points.getTime(2));
+        assertEquals(19.0, points.getDistance(2), 0.0);
+        assertEquals(29.0, points.getBearing(2), 0.0);
+        assertEquals(39.0, points.getSpeed(2), 0.0);
+        assertEquals(49.0, points.getCourse(2), 0.0);
+        assertEquals(8, history.readLatest(8, 100, points));
+        assertEquals(-12.0, points.getDistance(0), 0.0);
+        assertEquals(-19.0, points.getDistance(7), 0.0);
+    }
+
+    /**
+     * Проверяет чтение по интервалу времени, удаление трассы и отказ для номеров вне диапазона истории.
+     */
+    @Test
+    void TestRangeAndClear() {
+        // Setup
+        TrackHistory history = new TrackHistory(10, 16);
+        for (int i = 0; i < 10; i++) {
+            PrimitiveTrackedTargetMessage message = new PrimitiveTrackedTargetMessage();
+            message.setMsgRecTime(100L * i);
+            message.setTargetNumber(3);
+            message.setDistance(i);
+            history.append(message);
+        }
+
+        // Execution
+        TrackPoints points = new TrackPoints();
+        int inRange = history.read(3, 250, 500, points);
+
+        // Assertion
+        assertEquals(3, inRange);
+        assertEquals(300L, points.getTime(0));
+        assertEquals(5.0, points.getDistance(2), 0.0);
+        assertEquals(10 * (8 + 16 * 40), history.getMemorySize());
+        assertFalse(history.append(10, 0, 0, 0, 0, 0));
+        assertFalse(history.append(-1, 0, 0, 0, 0, 0));
+        assertEquals(0, history.read(42, Long.MIN_VALUE, Long.MAX_VALUE, points));
+
+        history.clear(3);
+        assertEquals(0, history.size(3));
+        assertEquals(0, history.readLatest(3, 5, points));
+    }
+}
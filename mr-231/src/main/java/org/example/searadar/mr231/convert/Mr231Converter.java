@@ -1,160 +1,168 @@
 package org.example.searadar.mr231.convert;
 
 import org.apache.camel.Exchange;
+import ru.oogis.searadar.api.convert.InvalidSentenceCounters;
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
 import ru.oogis.searadar.api.convert.SearadarExchangeConverter;
-import ru.oogis.searadar.api.message.*;
-import ru.oogis.searadar.api.types.IFF;
-import ru.oogis.searadar.api.types.TargetStatus;
-import ru.oogis.searadar.api.types.TargetType;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.convert.SentenceParserRegistry;
+import ru.oogis.searadar.api.convert.TrackedTargetSentenceParser;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.types.InvalidReason;
 
-import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class Mr231Converter implements SearadarExchangeConverter {
 
-    private static final Double[] DISTANCE_SCALE = {0.125, 0.25, 0.5, 1.5, 3.0, 6.0, 12.0, 24.0, 48.0, 96.0};
+    private static final ThreadLocal<NmeaFieldCursor> CURSORS = ThreadLocal.withInitial(NmeaFieldCursor::new);
 
-    private String[] fields;
-    private String msgType;
+    private final SentenceParserRegistry parsers;
+    private final MessageRepresentation representation;
+    private final boolean validateChecksum;
+    private final InvalidSentenceCounters invalidCounters = new InvalidSentenceCounters();
 
-    @Override
-    public List<SearadarStationMessage> convert(Exchange exchange) {
-        return convert(exchange.getIn().getBody(String.class));
+    public Mr231Converter(SentenceParserRegistry parsers) {
+        this(parsers, MessageRepresentation.BOXED);
     }
 
-    public List<SearadarStationMessage> convert(String message) {
-
-        List<SearadarStationMessage> msgList = new ArrayList<>();
-
-        readFields(message);
+    public Mr231Converter(SentenceParserRegistry parsers, MessageRepresentation representation) {
+        this(parsers, representation, false);
+    }
 
-        switch (msgType) {
+    public Mr231Converter(SentenceParserRegistry parsers, MessageRepresentation representation, boolean validateChecksum) {
+        this.parsers = parsers;
+        this.representation = representation;
+        this.validateChecksum = validateChecksum;
+    }
 
-            case "TTM" : msgList.add(getTTM());
-                break;
+    public MessageRepresentation getRepresentation() {
+        return representation;
+    }
 
-            case "VHW" : msgList.add(getVHW());
-                break;
+    public boolean isValidateChecksum() {
+        return validateChecksum;
+    }
 
-            case "RSD" : {
+    public InvalidSentenceCounters getInvalidCounters() {
+        return invalidCounters;
+    }
 
-                RadarSystemDataMessage rsd = getRSD();
-                InvalidMessage invalidMessage = checkRSD(rsd);
+    @Override
+    public List<SearadarStationMessage> convert(Exchange exchange) {
 
-                if (invalidMessage != null)  msgList.add(invalidMessage);
-                else msgList.add(rsd);
-                break;
-            }
+        List<SearadarStationMessage> msgList = new ArrayList<>();
+        Object body = exchange.getIn().getBody();
 
-        }
+        if (body instanceof SearadarStationMessage) msgList.add((SearadarStationMessage) body);
+        else convert(exchange.getIn().getBody(String.class), msgList);
 
         return msgList;
     }
 
+    public List<SearadarStationMessage> convert(String message) {
+
+        List<SearadarStationMessage> msgList = new ArrayList<>(1);
 
-    private void readFields(String msg) {
+        int start = 0;
+        while (start < message.length() && message.charAt(start) <= ' ') start++;
 
-        String temp = msg.substring( 3, msg.indexOf("*") ).trim();
+        NmeaFieldCursor cursor = CURSORS.get();
+        cursor.tryReset(message, start, message.length());
+        convert(cursor, System.currentTimeMillis(), null, msgList);
 
-        fields = temp.split(Pattern.quote(","));
-        msgType = fields[0];
+        return msgList;
+    }
 
+    @Override
+    public int convert(CharSequence block, Collection<? super SearadarStationMessage> sink) {
+        return convert(block, null, sink);
     }
 
-    private TrackedTargetMessage getTTM() {
+    @Override
+    public int convert(CharSequence block, TrackedTargetBatch targets, Collection<? super SearadarStationMessage> sink) {
 
-        TrackedTargetMessage ttm = new TrackedTargetMessage();
-        Long msgRecTimeMillis = System.currentTimeMillis();
+        NmeaFieldCursor cursor = CURSORS.get();
+        long msgRecTime = System.currentTimeMillis();
+        int count = 0;
+        int length = block.length();
+        int lineStart = 0;
 
-        ttm.setMsgTime(msgRecTimeMillis);
-        TargetStatus status = TargetStatus.UNRELIABLE_DATA;
-        IFF iff = IFF.UNKNOWN;
-        TargetType type = TargetType.UNKNOWN;
+        while (true) {
 
-        switch (fields[12]) {
-            case "L" : status = TargetStatus.LOST;
-                break;
+            while (lineStart < length && block.charAt(lineStart) <= ' ') lineStart++;
+            if (lineStart >= length) break;
 
-            case "Q" : status = TargetStatus.UNRELIABLE_DATA;
-                break;
+            int lineEnd = lineStart;
+            while (lineEnd < length && block.charAt(lineEnd) != '\n' && block.charAt(lineEnd) != '\r') lineEnd++;
 
-            case "T" : status = TargetStatus.TRACKED;
-                break;
+            cursor.tryReset(block, lineStart, lineEnd);
+            count += convert(cursor, msgRecTime, targets, sink);
+            lineStart = lineEnd;
         }
 
-        switch (fields[11]) {
-            case "b" : iff = IFF.FRIEND;
-                break;
-
-            case "p" : iff = IFF.FOE;
-                break;
+        return count;
+    }
 
-            case "d" : iff = IFF.UNKNOWN;
-                break;
-        }
+    @Override
+    public int convert(List<? extends CharSequence> sentences, Collection<? super SearadarStationMessage> sink) {
 
-        ttm.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        ttm.setTargetNumber(Integer.parseInt(fields[1]));
-        ttm.setDistance(Double.parseDouble(fields[2]));
-        ttm.setBearing(Double.parseDouble(fields[3]));
-        ttm.setCourse(Double.parseDouble(fields[6]));
-        ttm.setSpeed(Double.parseDouble(fields[5]));
-        ttm.setStatus(status);
-        ttm.setIff(iff);
+        NmeaFieldCursor cursor = CURSORS.get();
+        long msgRecTime = System.currentTimeMillis();
+        int count = 0;
 
-        ttm.setType(type);
+        for (int i = 0, n = sentences.size(); i < n; i++) {
+            CharSequence sentence = sentences.get(i);
+            cursor.tryReset(sentence, 0, sentence.length());
+            count += convert(cursor, msgRecTime, null, sink);
+        }
 
-        return ttm;
+        return count;
     }
 
-    private WaterSpeedHeadingMessage getVHW() {
+    private int convert(NmeaFieldCursor cursor, long msgRecTime, TrackedTargetBatch targets,
+                        Collection<? super SearadarStationMessage> sink) {
 
-        WaterSpeedHeadingMessage vhw = new WaterSpeedHeadingMessage();
+        if (cursor.hasError()) return reject(cursor.getError(), cursor, msgRecTime, sink);
 
-        vhw.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        vhw.setCourse(Double.parseDouble(fields[1]));
-        vhw.setCourseAttr(fields[2]);
-        vhw.setSpeed(Double.parseDouble(fields[5]));
-        vhw.setSpeedUnit(fields[6]);
+        int key = cursor.formatterKey();
+        SentenceParser parser = parsers.find(key);
+        if (parser == null) {
+            // Нераспознаваемый форматтер - повреждение, корректный, но не зарегистрированный - только учитывается
+            if (key == SentenceParserRegistry.NO_KEY) return reject(InvalidReason.UNKNOWN_TYPE, cursor, msgRecTime, sink);
+            invalidCounters.increment(InvalidReason.UNKNOWN_TYPE);
+            return 0;
+        }
 
-        return vhw;
-    }
+        if (validateChecksum && !cursor.isChecksumValid()) return reject(InvalidReason.BAD_CHECKSUM, cursor, msgRecTime, sink);
 
-    private RadarSystemDataMessage getRSD() {
+        if (targets != null && parser instanceof TrackedTargetSentenceParser) {
+            boolean added = ((TrackedTargetSentenceParser) parser).parse(cursor, msgRecTime, targets);
+            if (cursor.hasError()) return reject(cursor.getError(), cursor, msgRecTime, sink);
+            return added ? 1 : 0;
+        }
 
-        RadarSystemDataMessage rsd = new RadarSystemDataMessage();
+        SearadarStationMessage message = parser.parse(cursor, msgRecTime, representation);
+        if (cursor.hasError()) return reject(cursor.getError(), cursor, msgRecTime, sink);
+        if (message == null) return 0;
 
-        rsd.setMsgRecTime(new Timestamp(System.currentTimeMillis()));
-        rsd.setInitialDistance(Double.parseDouble(fields[1]));
-        rsd.setInitialBearing(Double.parseDouble(fields[2]));
-        rsd.setMovingCircleOfDistance(Double.parseDouble(fields[3]));
-        rsd.setBearing(Double.parseDouble(fields[4]));
-        rsd.setDistanceFromShip(Double.parseDouble(fields[9]));
-        rsd.setBearing2(Double.parseDouble(fields[10]));
-        rsd.setDistanceScale(Double.parseDouble(fields[11]));
-        rsd.setDistanceUnit(fields[12]);
-        rsd.setDisplayOrientation(fields[13]);
-        rsd.setWorkingMode(fields[14]);
+        if (message instanceof InvalidMessage && ((InvalidMessage) message).getReason() != null) {
+            invalidCounters.increment(((InvalidMessage) message).getReason());
+        }
 
-        return rsd;
+        sink.add(message);
+        return 1;
     }
 
-    private InvalidMessage checkRSD(RadarSystemDataMessage rsd) {
-
-        InvalidMessage invalidMessage = new InvalidMessage();
-        String infoMsg = "";
-
-        if (!Arrays.asList(DISTANCE_SCALE).contains(rsd.getDistanceScale())) {
-
-            infoMsg = "RSD message. Wrong distance scale value: " + rsd.getDistanceScale();
-            invalidMessage.setInfoMsg(infoMsg);
-            return invalidMessage;
-        }
+    private int reject(InvalidReason reason, NmeaFieldCursor cursor, long msgRecTime,
+                       Collection<? super SearadarStationMessage> sink) {
 
-        return null;
+        sink.add(invalidCounters.reject(reason, cursor, msgRecTime));
+        return 1;
     }
 
 }
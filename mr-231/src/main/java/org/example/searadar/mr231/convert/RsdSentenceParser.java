@@ -0,0 +1,72 @@
+package org.example.searadar.mr231.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.message.InvalidMessage;
+import ru.oogis.searadar.api.message.LazyRadarSystemDataMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.RadarSystemDataMessage;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.types.InvalidReason;
+
+public class RsdSentenceParser implements SentenceParser {
+
+    private static final int FIELD_COUNT = 15;
+    private static final double[] DISTANCE_SCALE = {0.125, 0.25, 0.5, 1.5, 3.0, 6.0, 12.0, 24.0, 48.0, 96.0};
+
+    @Override
+    public SearadarStationMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+
+        RadarSystemDataMessage rsd = representation.isLazy()
+                ? getLazyRSD(cursor, msgRecTime)
+                : getRSD(cursor, msgRecTime, representation);
+        if (cursor.hasError()) return null;
+
+        InvalidMessage invalidMessage = checkRSD(rsd);
+
+        return invalidMessage != null ? invalidMessage : rsd;
+    }
+
+    private RadarSystemDataMessage getRSD(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+
+        RadarSystemDataMessage rsd = representation.newRadarSystemDataMessage();
+
+        rsd.setMsgRecTime(msgRecTime);
+        rsd.setInitialDistance(cursor.field(1).doubleValue());
+        rsd.setInitialBearing(cursor.field(2).doubleValue());
+        rsd.setMovingCircleOfDistance(cursor.field(3).doubleValue());
+        rsd.setBearing(cursor.field(4).doubleValue());
+        rsd.setDistanceFromShip(cursor.field(9).doubleValue());
+        rsd.setBearing2(cursor.field(10).doubleValue());
+        rsd.setDistanceScale(cursor.field(11).doubleValue());
+        rsd.setDistanceUnit(cursor.field(12).stringValue());
+        rsd.setDisplayOrientation(cursor.field(13).stringValue());
+        rsd.setWorkingMode(cursor.field(14).stringValue());
+
+        return rsd;
+    }
+
+    private RadarSystemDataMessage getLazyRSD(NmeaFieldCursor cursor, long msgRecTime) {
+
+        if (!cursor.requireFields(FIELD_COUNT)) return null;
+
+        RadarSystemDataMessage rsd = new LazyRadarSystemDataMessage(cursor.index(), msgRecTime);
+        rsd.setDistanceScale(cursor.field(11).doubleValue());
+
+        return rsd;
+    }
+
+    private InvalidMessage checkRSD(RadarSystemDataMessage rsd) {
+
+        double distanceScale = rsd.getDistanceScaleValue();
+
+        for (double scale : DISTANCE_SCALE) {
+            if (scale == distanceScale) return null;
+        }
+
+        InvalidMessage invalidMessage = new InvalidMessage();
+        invalidMessage.setReason(InvalidReason.INVALID_VALUE);
+        invalidMessage.setInfoMsg("RSD message. Wrong distance scale value: " + rsd.getDistanceScale());
+        return invalidMessage;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.searadar.mr231.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.TrackedTargetSentenceParser;
+import ru.oogis.searadar.api.message.LazyTrackedTargetMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+public class TtmSentenceParser implements TrackedTargetSentenceParser {
+
+    private static final int FIELD_COUNT = 13;
+
+    @Override
+    public TrackedTargetMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+
+        if (representation.isLazy()) {
+            return cursor.requireFields(FIELD_COUNT) ? new LazyTrackedTargetMessage(cursor.index(), msgRecTime, -1) : null;
+        }
+
+        TrackedTargetMessage ttm = representation.newTrackedTargetMessage();
+
+        ttm.setMsgTime(msgRecTime);
+        ttm.setMsgRecTime(msgRecTime);
+        ttm.setTargetNumber(cursor.field(1).intValue());
+        ttm.setDistance(cursor.field(2).doubleValue());
+        ttm.setBearing(cursor.field(3).doubleValue());
+        ttm.setSpeed(cursor.field(5).doubleValue());
+        ttm.setCourse(cursor.field(6).doubleValue());
+        ttm.setIff(IFF.fromNmea(cursor.field(11).charValue()));
+        ttm.setStatus(TargetStatus.fromNmea(cursor.field(12).charValue()));
+        ttm.setType(TargetType.UNKNOWN);
+
+        return ttm;
+    }
+
+    @Override
+    public boolean parse(NmeaFieldCursor cursor, long msgRecTime, TrackedTargetBatch batch) {
+
+        int targetNumber = cursor.field(1).intValue();
+        double distance = cursor.field(2).doubleValue();
+        double bearing = cursor.field(3).doubleValue();
+        double speed = cursor.field(5).doubleValue();
+        double course = cursor.field(6).doubleValue();
+        IFF iff = IFF.fromNmea(cursor.field(11).charValue());
+        TargetStatus status = TargetStatus.fromNmea(cursor.field(12).charValue());
+
+        if (cursor.hasError()) return false;
+
+        batch.add(msgRecTime, msgRecTime, targetNumber, distance, bearing, speed, course, TargetType.UNKNOWN, status, iff);
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.searadar.mr231.convert;
+
+import ru.oogis.searadar.api.convert.NmeaFieldCursor;
+import ru.oogis.searadar.api.convert.SentenceParser;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.WaterSpeedHeadingMessage;
+
+public class VhwSentenceParser implements SentenceParser {
+
+    @Override
+    public WaterSpeedHeadingMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation) {
+
+        WaterSpeedHeadingMessage vhw = representation.newWaterSpeedHeadingMessage();
+
+        vhw.setMsgRecTime(msgRecTime);
+        vhw.setCourse(cursor.field(1).doubleValue());
+        vhw.setCourseAttr(cursor.field(2).stringValue());
+        vhw.setSpeed(cursor.field(5).doubleValue());
+        vhw.setSpeedUnit(cursor.field(6).stringValue());
+
+        return vhw;
+    }
+}
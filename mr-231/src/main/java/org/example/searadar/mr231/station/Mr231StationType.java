@@ -1,29 +1,55 @@
 package org.example.searadar.mr231.station;
 
-import org.apache.mina.filter.codec.textline.LineDelimiter;
-import org.apache.mina.filter.codec.textline.TextLineCodecFactory;
-
 import org.example.searadar.mr231.convert.Mr231Converter;
+import org.example.searadar.mr231.convert.RsdSentenceParser;
+import org.example.searadar.mr231.convert.TtmSentenceParser;
+import org.example.searadar.mr231.convert.VhwSentenceParser;
 
-import java.nio.charset.Charset;
+import ru.oogis.searadar.api.codec.NmeaCodecFactory;
+import ru.oogis.searadar.api.convert.SentenceParserRegistry;
+import ru.oogis.searadar.api.ingest.NmeaIngestComponent;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.station.AbstractStationType;
 
-public class Mr231StationType {
+public class Mr231StationType extends AbstractStationType {
 
     private static final String STATION_TYPE = "МР-231";
     private static final String CODEC_NAME = "mr231";
+    // Схема компонента приема: from("mr231-ingest:tcp://0.0.0.0:10110") или udp://
+    private static final String INGEST_NAME = "mr231-ingest";
 
+    // Заполняется из doInitialize(), вызываемого конструктором суперкласса, поэтому без инициализатора
+    private SentenceParserRegistry parsers;
 
-    protected void doInitialize() {
-        TextLineCodecFactory textLineCodecFactory = new TextLineCodecFactory(
-                Charset.defaultCharset(),
-                LineDelimiter.UNIX,
-                LineDelimiter.CRLF
-        );
+    public Mr231StationType() {
+        super(STATION_TYPE);
+    }
 
+    @Override
+    protected void doInitialize() {
+        parsers = new SentenceParserRegistry()
+                .register("TTM", new TtmSentenceParser())
+                .register("VHW", new VhwSentenceParser())
+                .register("RSD", new RsdSentenceParser());
+        NmeaCodecFactory codecFactory = new NmeaCodecFactory(getConverter());
+        beansForRegistration.put(CODEC_NAME, codecFactory);
+        beansForRegistration.put(INGEST_NAME, new NmeaIngestComponent(codecFactory));
     }
 
+    public SentenceParserRegistry getParsers() {
+        return parsers;
+    }
 
+    @Override
     public Mr231Converter createConverter() {
-        return new Mr231Converter();
+        return new Mr231Converter(parsers);
+    }
+
+    public Mr231Converter createConverter(MessageRepresentation representation) {
+        return new Mr231Converter(parsers, representation);
+    }
+
+    public Mr231Converter createConverter(MessageRepresentation representation, boolean validateChecksum) {
+        return new Mr231Converter(parsers, representation, validateChecksum);
     }
 }
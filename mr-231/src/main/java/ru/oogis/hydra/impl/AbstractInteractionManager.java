@@ -49,6 +49,7 @@ public abstract class AbstractInteractionManager implements InteractionManager {
   private static final String PATH_TO_RESOURCE = "{0}/{1}.xml"; //$NON-NLS-1$
   private static final String PATH_TO_RESOURCES = "/hydra/{0}/"; //$NON-NLS-1$
   private static final String PATH_TO_ROUTES = PATH_TO_RESOURCES + "routes"; //$NON-NLS-1$
+  private static final String PATH_TO_SHARED_ROUTES = "/hydra/routes"; //$NON-NLS-1$
   private static final String ROUTE_ID_DELIMITER = "."; //$NON-NLS-1$
   private static final String ROUTE_ID_PREFIX = "route id=\""; //$NON-NLS-1$
   private static final String XML_EXT = ".xml"; //$NON-NLS-1$
@@ -453,15 +454,19 @@ public abstract class AbstractInteractionManager implements InteractionManager {
     String a_resFolder = format(PATH_TO_ROUTES, getId());
     for (ChannelConfig a_channelConfig : channelTemplates) {
       String a_name = a_channelConfig.getResourceName();
-      byte[] a_context =
-        readContextFromResources(getClass(),
-          format(PATH_TO_RESOURCE, a_resFolder, a_name));
+      String a_path = format(PATH_TO_RESOURCE, a_resFolder, a_name);
+      // Общие шаблоны (например, replay) доступны любому менеджеру, если он не переопределил их
+      if (getClass().getResource(a_path) == null) {
+        a_path = format(PATH_TO_RESOURCE, PATH_TO_SHARED_ROUTES, a_name);
+      }
+      byte[] a_context = readContextFromResources(getClass(), a_path);
       String a_routeTemplate = new String(a_context);
       routeTemplates.put(a_name, a_routeTemplate);
     }
   }
 
-  private String resolveTemplate(String p_routesTemplate,
+  // Статический и видимый в пакете, чтобы подстановку можно было измерять отдельно от контекста Camel
+  static String resolveTemplate(String p_routesTemplate,
     ChannelConfig p_channelConfig) {
     Properties a_properties = p_channelConfig.getParametersAsProperties();
     String a_result = p_routesTemplate;
@@ -0,0 +1,25 @@
+package ru.oogis.hydra.replay;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.impl.DefaultComponent;
+
+import java.util.Map;
+
+/**
+ * Компонент Camel для воспроизведения записи обмена: {@code replay:путь?speed=1&loop=false&linesPerExchange=1}.
+ *
+ * @see ReplayEndpoint
+ */
+public class ReplayComponent extends DefaultComponent
+{
+	public static final String SCHEME = "replay";
+
+	@Override
+	protected Endpoint createEndpoint(String p_uri, String p_remaining, Map<String, Object> p_parameters)
+			throws Exception
+	{
+		ReplayEndpoint a_endpoint = new ReplayEndpoint(p_uri, this, p_remaining);
+		setProperties(a_endpoint, p_parameters);
+		return a_endpoint;
+	}
+}
@@ -0,0 +1,172 @@
+package ru.oogis.hydra.replay;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.impl.DefaultConsumer;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Потребитель, выдающий строки записи в маршрут из отдельного потока.
+ * <p>
+ * Темп задается метками времени строк: строка выдается, когда с начала прохода записи прошло
+ * {@code (время строки - время первой строки) / speed}. Строки без метки времени наследуют метку
+ * предыдущей строки, поэтому запись без меток выдается без пауз.
+ */
+public class ReplayConsumer extends DefaultConsumer implements Runnable
+{
+	private final ReplayEndpoint endpoint;
+	private ExecutorService executor;
+	private volatile boolean running;
+
+	public ReplayConsumer(ReplayEndpoint p_endpoint, Processor p_processor)
+	{
+		super(p_endpoint, p_processor);
+		endpoint = p_endpoint;
+	}
+
+	@Override
+	public void run()
+	{
+		try (MappedLineReader a_reader = new MappedLineReader(new File(endpoint.getFileName())))
+		{
+			StringBuilder a_block = new StringBuilder();
+			do
+			{
+				// Проход без строк повторялся бы без пауз
+				if (replay(a_reader, a_block) == 0)
+				{
+					if (endpoint.isLoop())
+					{
+						log.warn("Replay file {} has no lines, loop stopped", endpoint.getFileName());
+					}
+					break;
+				}
+				a_reader.rewind();
+			}
+			while (running && endpoint.isLoop());
+		}
+		catch (Exception p_ex)
+		{
+			getExceptionHandler().handleException("Replay of " + endpoint.getFileName() + " failed", p_ex);
+		}
+	}
+
+	@Override
+	protected void doStart() throws Exception
+	{
+		super.doStart();
+		File a_file = new File(endpoint.getFileName());
+		if (!a_file.isFile())
+		{
+			throw new IllegalArgumentException("Replay file not found: " + a_file.getAbsolutePath());
+		}
+		running = true;
+		executor = endpoint.getCamelContext().getExecutorServiceManager()
+				.newSingleThreadExecutor(this, "Replay " + a_file.getName());
+		executor.execute(this);
+	}
+
+	@Override
+	protected void doStop() throws Exception
+	{
+		running = false;
+		if (executor != null)
+		{
+			endpoint.getCamelContext().getExecutorServiceManager().shutdownNow(executor);
+			executor = null;
+		}
+		super.doStop();
+	}
+
+	/**
+	 * @return количество выданных строк
+	 */
+	private int replay(MappedLineReader p_reader, StringBuilder p_block) throws Exception
+	{
+		int a_total = 0;
+		double a_speed = endpoint.getSpeed();
+		int a_maxLines = endpoint.getLinesPerExchange();
+		long a_startNanos = System.nanoTime();
+		long a_firstTime = MappedLineReader.NO_TIME;
+		long a_lineTime = MappedLineReader.NO_TIME;
+		boolean a_pending = p_reader.next();
+		while (running && a_pending)
+		{
+			// Первая строка сообщения - выдержка до ее момента
+			if (p_reader.getTime() != MappedLineReader.NO_TIME)
+			{
+				a_lineTime = p_reader.getTime();
+				if (a_firstTime == MappedLineReader.NO_TIME)
+				{
+					a_firstTime = a_lineTime;
+				}
+			}
+			if (a_speed > 0 && a_firstTime != MappedLineReader.NO_TIME)
+			{
+				long a_due = a_startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(a_lineTime - a_firstTime) / a_speed);
+				long a_delay;
+				while (running && (a_delay = a_due - System.nanoTime()) > 0)
+				{
+					LockSupport.parkNanos(a_delay);
+				}
+			}
+			long a_exchangeTime = a_lineTime;
+			p_block.setLength(0);
+			p_reader.appendTo(p_block);
+			int a_lines = 1;
+			a_pending = p_reader.next();
+			// Следующие строки присоединяются, если их момент уже наступил
+			while (a_pending && a_lines < a_maxLines && isDue(p_reader, a_speed, a_startNanos, a_firstTime))
+			{
+				if (p_reader.getTime() != MappedLineReader.NO_TIME)
+				{
+					a_lineTime = p_reader.getTime();
+				}
+				p_block.append("\r\n");
+				p_reader.appendTo(p_block);
+				a_lines++;
+				a_pending = p_reader.next();
+			}
+			send(p_block.toString(), a_exchangeTime);
+			a_total += a_lines;
+		}
+		return a_total;
+	}
+
+	private static boolean isDue(MappedLineReader p_reader, double p_speed, long p_startNanos, long p_firstTime)
+	{
+		long a_time = p_reader.getTime();
+		if (p_speed == 0 || a_time == MappedLineReader.NO_TIME || p_firstTime == MappedLineReader.NO_TIME)
+		{
+			return true;
+		}
+		return p_startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(a_time - p_firstTime) / p_speed)
+				- System.nanoTime() <= 0;
+	}
+
+	private void send(String p_body, long p_time) throws Exception
+	{
+		Exchange a_exchange = endpoint.createExchange();
+		a_exchange.getIn().setBody(p_body);
+		if (p_time != MappedLineReader.NO_TIME)
+		{
+			a_exchange.getIn().setHeader(ReplayEndpoint.REPLAY_TIME, p_time);
+		}
+		try
+		{
+			getProcessor().process(a_exchange);
+		}
+		finally
+		{
+			if (a_exchange.getException() != null)
+			{
+				getExceptionHandler().handleException("Error processing replayed exchange", a_exchange,
+						a_exchange.getException());
+			}
+		}
+	}
+}
@@ -1,9 +1,17 @@
 package ru.oogis.hydra.util;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class GeoHelper
 {
-	static final int WGS84_RADIUS = 6378137;
-	static final double KNOT_PMS = 0.514444444;
+	public static final int WGS84_RADIUS = 6378137;
+	public static final double KNOT_PMS = 0.514444444;
+	/**
+	 * Количество точек, начиная с которого пакетные расчеты выполняются в общем пуле fork-join.
+	 */
+	public static final int PARALLEL_THRESHOLD = 16384;
+	static final int PARALLEL_CHUNK = 4096;
 
 	public static double calcCourse(double p_lat1, double p_lon1, double p_lat2,
 			double p_lon2)
@@ -22,17 +30,7 @@ public class GeoHelper
 		double a_x =
 				(a_cosLat1 * a_sinLat2) - (a_sinLat1 * a_cosLat2 * a_cosLonDelta);
 		double a_y = a_sinLonDelta * a_cosLat2;
-		double a_z = Math.toDegrees(Math.atan(-a_y / a_x));
-		if (a_x < 0)
-		{
-			a_z += 180.0;
-		}
-		double a_z2 = (a_z + 180.0) % 360.0 - 180.0;
-		a_z2 = -Math.toRadians(a_z2);
-		double a_angleInRad2 =
-				a_z2 - ((2 * Math.PI) * Math.floor((a_z2 / (2 * Math.PI))));
-		double a_result = Math.toDegrees(a_angleInRad2);
-		return a_result;
+		return toCourse(a_x, a_y);
 	}
 
 	public static double calcDistanceInMeters(double p_lat1, double p_lon1,
@@ -62,10 +60,102 @@ public class GeoHelper
 				Math.acos(Math.sin(a_lat1) * Math.sin(a_lat2) + Math.cos(a_lat1)
 						* Math.cos(a_lat2) * Math.cos(a_lon2 - a_lon1))
 						* WGS84_RADIUS;
-		System.out.println(a_result);
 		return a_result;
 	}
 
+	/**
+	 * Расстояния в метрах от одной точки до {@code p_count} точек. Тригонометрия исходной точки вычисляется
+	 * один раз; при {@code p_count >= PARALLEL_THRESHOLD} расчет распределяется по общему пулу fork-join.
+	 * Результат совпадает с {@link #calcDistanceInMeters(double, double, double, double)}.
+	 * @param p_result массив для результата, не короче {@code p_count}
+	 */
+	public static void calcDistancesInMeters(double p_lat0, double p_lon0,
+			double[] p_lats, double[] p_lons, int p_count, double[] p_result)
+	{
+		checkLength(p_count, p_lats, p_lons, p_result);
+		run(new OriginTask(p_lat0, p_lon0, p_lats, p_lons, p_result, null, 0, p_count));
+	}
+
+	/**
+	 * Курсы (в градусах) от одной точки на {@code p_count} точек, аналогично
+	 * {@link #calcCourse(double, double, double, double)}.
+	 * @param p_result массив для результата, не короче {@code p_count}
+	 */
+	public static void calcCourses(double p_lat0, double p_lon0, double[] p_lats,
+			double[] p_lons, int p_count, double[] p_result)
+	{
+		checkLength(p_count, p_lats, p_lons, p_result);
+		run(new OriginTask(p_lat0, p_lon0, p_lats, p_lons, null, p_result, 0, p_count));
+	}
+
+	/**
+	 * Расстояния и курсы от одной точки на {@code p_count} точек за один проход: общая для обеих величин
+	 * тригонометрия точки вычисляется один раз.
+	 */
+	public static void calcDistancesAndCourses(double p_lat0, double p_lon0,
+			double[] p_lats, double[] p_lons, int p_count, double[] p_distances,
+			double[] p_courses)
+	{
+		checkLength(p_count, p_lats, p_lons, p_distances, p_courses);
+		run(new OriginTask(p_lat0, p_lon0, p_lats, p_lons, p_distances,
+				p_courses, 0, p_count));
+	}
+
+	/**
+	 * Координаты {@code p_count} точек по расстояниям и пеленгам от одной точки (прямая задача на сфере
+	 * радиуса {@link #WGS84_RADIUS}, согласованная с {@link #calcDistanceInMeters(double, double, double, double)}
+	 * и {@link #calcCourse(double, double, double, double)}). Тригонометрия исходной точки вычисляется один раз.
+	 * @param p_distances расстояния в метрах
+	 * @param p_bearings пеленги в градусах от истинного севера
+	 * @param p_lats массив для широт результата
+	 * @param p_lons массив для долгот результата, в диапазоне [-180, 180]
+	 */
+	public static void calcDestinations(double p_lat0, double p_lon0,
+			double[] p_distances, double[] p_bearings, int p_count, double[] p_lats,
+			double[] p_lons)
+	{
+		checkLength(p_count, p_distances, p_bearings, p_lats, p_lons);
+		double a_lat0 = Math.toRadians(p_lat0);
+		double a_lon0 = Math.toRadians(p_lon0);
+		double a_sinLat0 = Math.sin(a_lat0);
+		double a_cosLat0 = Math.cos(a_lat0);
+		for (int i = 0; i < p_count; i++)
+		{
+			double a_angle = p_distances[i] / WGS84_RADIUS;
+			double a_sinAngle = Math.sin(a_angle);
+			double a_cosAngle = Math.cos(a_angle);
+			double a_bearing = Math.toRadians(p_bearings[i]);
+			double a_sinLat =
+					a_sinLat0 * a_cosAngle + a_cosLat0 * a_sinAngle * Math.cos(a_bearing);
+			double a_lon = a_lon0 + Math.atan2(Math.sin(a_bearing) * a_sinAngle
+					* a_cosLat0, a_cosAngle - a_sinLat0 * a_sinLat);
+			p_lats[i] = Math.toDegrees(Math.asin(a_sinLat));
+			p_lons[i] = (Math.toDegrees(a_lon) + 540.0) % 360.0 - 180.0;
+		}
+	}
+
+	/**
+	 * Расстояния в метрах между парами точек {@code (p_lats1[i], p_lons1[i]) - (p_lats2[i], p_lons2[i])}.
+	 */
+	public static void calcDistancesInMeters(double[] p_lats1, double[] p_lons1,
+			double[] p_lats2, double[] p_lons2, int p_count, double[] p_result)
+	{
+		checkLength(p_count, p_lats1, p_lons1, p_lats2, p_lons2, p_result);
+		run(new PairTask(p_lats1, p_lons1, p_lats2, p_lons2, p_result, null, 0,
+				p_count));
+	}
+
+	/**
+	 * Курсы между парами точек {@code (p_lats1[i], p_lons1[i]) - (p_lats2[i], p_lons2[i])}.
+	 */
+	public static void calcCourses(double[] p_lats1, double[] p_lons1,
+			double[] p_lats2, double[] p_lons2, int p_count, double[] p_result)
+	{
+		checkLength(p_count, p_lats1, p_lons1, p_lats2, p_lons2, p_result);
+		run(new PairTask(p_lats1, p_lons1, p_lats2, p_lons2, null, p_result, 0,
+				p_count));
+	}
+
 	public static String convertAngleToDMS(double p_value, String p_rumb)
 	{
 		StringBuilder a_builder = new StringBuilder();
@@ -165,4 +255,185 @@ public class GeoHelper
 	{
 		return p_distanceInRadian * (Math.PI / 180) * WGS84_RADIUS;
 	}
+
+	static double toCourse(double p_x, double p_y)
+	{
+		double a_z = Math.toDegrees(Math.atan(-p_y / p_x));
+		if (p_x < 0)
+		{
+			a_z += 180.0;
+		}
+		double a_z2 = (a_z + 180.0) % 360.0 - 180.0;
+		a_z2 = -Math.toRadians(a_z2);
+		double a_angleInRad2 =
+				a_z2 - ((2 * Math.PI) * Math.floor((a_z2 / (2 * Math.PI))));
+		return Math.toDegrees(a_angleInRad2);
+	}
+
+	private static void checkLength(int p_count, double[]... p_arrays)
+	{
+		for (double[] a_array : p_arrays)
+		{
+			if (a_array != null && a_array.length < p_count)
+			{
+				throw new IllegalArgumentException("Array of length " + a_array.length
+						+ " is shorter than count " + p_count);
+			}
+		}
+	}
+
+	private static void run(RangeTask p_task)
+	{
+		if (p_task.to - p_task.from >= PARALLEL_THRESHOLD)
+		{
+			ForkJoinPool.commonPool().invoke(p_task);
+		}
+		else
+		{
+			p_task.compute();
+		}
+	}
+
+	/**
+	 * Расчет над диапазоном индексов; диапазон длиннее {@link GeoHelper#PARALLEL_CHUNK} делится пополам.
+	 */
+	private static abstract class RangeTask extends RecursiveAction
+	{
+		final int from;
+		final int to;
+
+		RangeTask(int p_from, int p_to)
+		{
+			from = p_from;
+			to = p_to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from <= PARALLEL_CHUNK || getPool() == null)
+			{
+				computeRange(from, to);
+			}
+			else
+			{
+				int a_middle = (from + to) >>> 1;
+				invokeAll(split(from, a_middle), split(a_middle, to));
+			}
+		}
+
+		abstract RangeTask split(int p_from, int p_to);
+
+		abstract void computeRange(int p_from, int p_to);
+	}
+
+	private static final class OriginTask extends RangeTask
+	{
+		private final double lon0;
+		private final double sinLat0;
+		private final double cosLat0;
+		private final double[] lats;
+		private final double[] lons;
+		private final double[] distances;
+		private final double[] courses;
+
+		OriginTask(double p_lat0, double p_lon0, double[] p_lats, double[] p_lons,
+				double[] p_distances, double[] p_courses, int p_from, int p_to)
+		{
+			this(Math.toRadians(p_lon0), Math.sin(Math.toRadians(p_lat0)),
+					Math.cos(Math.toRadians(p_lat0)), p_lats, p_lons, p_distances,
+					p_courses, p_from, p_to);
+		}
+
+		private OriginTask(double p_lon0Rad, double p_sinLat0,
+				double p_cosLat0, double[] p_lats, double[] p_lons,
+				double[] p_distances, double[] p_courses, int p_from, int p_to)
+		{
+			super(p_from, p_to);
+			lon0 = p_lon0Rad;
+			sinLat0 = p_sinLat0;
+			cosLat0 = p_cosLat0;
+			lats = p_lats;
+			lons = p_lons;
+			distances = p_distances;
+			courses = p_courses;
+		}
+
+		@Override
+		RangeTask split(int p_from, int p_to)
+		{
+			return new OriginTask(lon0, sinLat0, cosLat0, lats,
+					lons, distances, courses, p_from, p_to);
+		}
+
+		@Override
+		void computeRange(int p_from, int p_to)
+		{
+			for (int i = p_from; i < p_to; i++)
+			{
+				double a_lat = Math.toRadians(lats[i]);
+				double a_sinLat = Math.sin(a_lat);
+				double a_cosLat = Math.cos(a_lat);
+				double a_lonDelta = Math.toRadians(lons[i]) - lon0;
+				double a_cosLonDelta = Math.cos(a_lonDelta);
+				if (distances != null)
+				{
+					distances[i] = Math.acos(sinLat0 * a_sinLat + cosLat0 * a_cosLat
+							* a_cosLonDelta) * WGS84_RADIUS;
+				}
+				if (courses != null)
+				{
+					double a_x = (cosLat0 * a_sinLat) - (sinLat0 * a_cosLat * a_cosLonDelta);
+					double a_y = Math.sin(a_lonDelta) * a_cosLat;
+					courses[i] = toCourse(a_x, a_y);
+				}
+			}
+		}
+	}
+
+	private static final class PairTask extends RangeTask
+	{
+		private final double[] lats1;
+		private final double[] lons1;
+		private final double[] lats2;
+		private final double[] lons2;
+		private final double[] distances;
+		private final double[] courses;
+
+		PairTask(double[] p_lats1, double[] p_lons1, double[] p_lats2,
+				double[] p_lons2, double[] p_distances, double[] p_courses, int p_from,
+				int p_to)
+		{
+			super(p_from, p_to);
+			lats1 = p_lats1;
+			lons1 = p_lons1;
+			lats2 = p_lats2;
+			lons2 = p_lons2;
+			distances = p_distances;
+			courses = p_courses;
+		}
+
+		@Override
+		RangeTask split(int p_from, int p_to)
+		{
+			return new PairTask(lats1, lons1, lats2, lons2, distances, courses, p_from,
+					p_to);
+		}
+
+		@Override
+		void computeRange(int p_from, int p_to)
+		{
+			for (int i = p_from; i < p_to; i++)
+			{
+				if (distances != null)
+				{
+					distances[i] = calcDistanceInMeters(lats1[i], lons1[i], lats2[i], lons2[i]);
+				}
+				if (courses != null)
+				{
+					courses[i] = calcCourse(lats1[i], lons1[i], lats2[i], lons2[i]);
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,36 @@
+package ru.oogis.searadar.api.codec;
+
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolCodecFactory;
+import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolEncoder;
+import ru.oogis.searadar.api.convert.SearadarExchangeConverter;
+
+/**
+ * Фабрика кодеков MINA для NMEA-станций. Декодер и кодировщик не хранят состояния между вызовами
+ * (накопленный хвост хранится в сессии), поэтому их экземпляры общие для всех сессий.
+ */
+public class NmeaCodecFactory implements ProtocolCodecFactory {
+
+    private final ProtocolEncoder encoder;
+    private final ProtocolDecoder decoder;
+
+    public NmeaCodecFactory(SearadarExchangeConverter converter) {
+        this(converter, NmeaProtocolDecoder.DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    public NmeaCodecFactory(SearadarExchangeConverter converter, int maxLineLength) {
+        this.encoder = new NmeaProtocolEncoder();
+        this.decoder = new NmeaProtocolDecoder(converter, maxLineLength);
+    }
+
+    @Override
+    public ProtocolEncoder getEncoder(IoSession session) {
+        return encoder;
+    }
+
+    @Override
+    public ProtocolDecoder getDecoder(IoSession session) {
+        return decoder;
+    }
+}
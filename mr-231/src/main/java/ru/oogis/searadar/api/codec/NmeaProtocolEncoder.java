@@ -0,0 +1,27 @@
+package ru.oogis.searadar.api.codec;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolEncoderAdapter;
+import org.apache.mina.filter.codec.ProtocolEncoderOutput;
+
+/**
+ * Кодировщик исходящих NMEA-предложений: символы записываются как ASCII-байты, строка завершается CR/LF.
+ */
+public class NmeaProtocolEncoder extends ProtocolEncoderAdapter {
+
+    @Override
+    public void encode(IoSession session, Object message, ProtocolEncoderOutput out) throws Exception {
+
+        CharSequence sentence = message instanceof CharSequence ? (CharSequence) message : String.valueOf(message);
+        int length = sentence.length();
+        IoBuffer buffer = IoBuffer.allocate(length + 2, false);
+
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) sentence.charAt(i));
+        }
+        buffer.put((byte) '\r').put((byte) '\n').flip();
+
+        out.write(buffer);
+    }
+}
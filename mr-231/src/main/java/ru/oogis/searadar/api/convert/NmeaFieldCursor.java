@@ -0,0 +1,357 @@
+package ru.oogis.searadar.api.convert;
+
+import ru.oogis.searadar.api.types.InvalidReason;
+
+import java.util.Arrays;
+
+/**
+ * Курсор по полям NMEA-предложения.
+ * <p>
+ * Работает непосредственно поверх {@link CharSequence} без разбиения строки на массив подстрок:
+ * числовые и однобуквенные поля разбираются на месте. Экземпляр переиспользуется вызовом {@link #reset}.
+ * Нулевое поле - форматтер предложения (например, {@code TTM}), далее поля данных до символа {@code '*'}.
+ * <p>
+ * {@link #reset} проходит предложение один раз: на этом же проходе запоминаются границы полей и вычисляется
+ * контрольная сумма, которая сравнивается с суффиксом {@code *hh} ({@link #isChecksumValid()}). Поэтому
+ * проверка и разбор вместе читают каждый символ предложения ровно один раз.
+ * <p>
+ * Ошибки разбора не порождают исключений: обращение к отсутствующему полю или нечисловое значение числового
+ * поля запоминают первую ошибку ({@link #getError()}), а курсор возвращает пустое поле, 0 или {@code NaN}.
+ * Вызывающий проверяет ошибку один раз после разбора предложения.
+ */
+public final class NmeaFieldCursor {
+
+    static final int HEADER_LENGTH = 3;
+    private static final String[] ASCII_STRINGS = new String[128];
+
+    static {
+        for (char c = 0; c < ASCII_STRINGS.length; c++) {
+            ASCII_STRINGS[c] = String.valueOf(c).intern();
+        }
+    }
+
+    private CharSequence sentence;
+    private int sentenceFrom;
+    private int sentenceTo;
+    private int dataStart;
+    private int dataEnd;
+    private int[] delimiters = new int[32];
+    private int delimiterCount;
+    private int checksum;
+    private int expectedChecksum;
+    private int fieldIndex;
+    private int fieldStart;
+    private int fieldEnd;
+    private InvalidReason error;
+    private int errorField;
+
+    /**
+     * Устанавливает курсор на форматтер (нулевое поле) нового предложения.
+     *
+     * @param sentence предложение вида {@code $RATTM,...*hh}
+     * @return этот же курсор
+     */
+    public NmeaFieldCursor reset(CharSequence sentence) {
+        return reset(sentence, 0, sentence.length());
+    }
+
+    /**
+     * Устанавливает курсор на предложение, занимающее часть последовательности, например одну строку
+     * из блока, полученного за одно чтение.
+     *
+     * @param sentence последовательность, содержащая предложение
+     * @param from     индекс первого символа предложения
+     * @param to       индекс, следующий за последним символом предложения
+     * @return этот же курсор
+     */
+    public NmeaFieldCursor reset(CharSequence sentence, int from, int to) {
+        if (!tryReset(sentence, from, to)) {
+            throw new StringIndexOutOfBoundsException(-1);
+        }
+        return this;
+    }
+
+    /**
+     * Как {@link #reset(CharSequence, int, int)}, но без исключения для предложения без символа {@code '*'}:
+     * в этом случае курсор устанавливается на пустое предложение с ошибкой {@link InvalidReason#TRUNCATED}.
+     *
+     * @return {@code false}, если предложение обрезано
+     */
+    public boolean tryReset(CharSequence sentence, int from, int to) {
+        this.error = null;
+        this.errorField = -1;
+        int start = from + HEADER_LENGTH;
+        while (start < to && sentence.charAt(start) <= ' ') start++;
+        int crc = 0;
+        int count = 0;
+        int end = from + 1;
+        for (; end < to; end++) {
+            char c = sentence.charAt(end);
+            if (c == '*') break;
+            crc ^= c;
+            if (c == ',' && end >= start) {
+                if (count == delimiters.length) delimiters = Arrays.copyOf(delimiters, count * 2);
+                delimiters[count++] = end;
+            }
+        }
+        boolean truncated = end >= to;
+        if (truncated) {
+            this.error = InvalidReason.TRUNCATED;
+            start = end = from;
+            count = 0;
+        }
+        this.expectedChecksum = truncated ? -1 : parseHex(sentence, end + 1, to);
+        while (end > start && sentence.charAt(end - 1) <= ' ') end--;
+        this.sentence = sentence;
+        this.sentenceFrom = from;
+        this.sentenceTo = to;
+        this.dataStart = Math.min(start, end);
+        this.dataEnd = end;
+        this.delimiterCount = count;
+        this.checksum = crc & 0xFF;
+        this.fieldIndex = 0;
+        this.fieldStart = dataStart;
+        this.fieldEnd = count > 0 ? delimiters[0] : end;
+        return !truncated;
+    }
+
+    /**
+     * Переходит к следующему полю.
+     *
+     * @return {@code false}, если полей больше нет
+     */
+    public boolean next() {
+        if (fieldIndex >= delimiterCount) {
+            return false;
+        }
+        fieldStart = delimiters[fieldIndex] + 1;
+        fieldIndex++;
+        fieldEnd = fieldIndex < delimiterCount ? delimiters[fieldIndex] : dataEnd;
+        return true;
+    }
+
+    /**
+     * Переходит к полю с указанным номером. Границы полей известны после {@link #reset}, поэтому переход
+     * выполняется за постоянное время в любом направлении.
+     *
+     * @param index номер поля
+     * @return этот же курсор; если такого поля нет, курсор стоит на пустом поле с ошибкой
+     * {@link InvalidReason#TOO_FEW_FIELDS}
+     */
+    public NmeaFieldCursor field(int index) {
+        if (index < 0 || index > delimiterCount) {
+            fail(InvalidReason.TOO_FEW_FIELDS, index);
+            fieldIndex = index;
+            fieldStart = fieldEnd = dataEnd;
+            return this;
+        }
+        fieldIndex = index;
+        fieldStart = index == 0 ? dataStart : delimiters[index - 1] + 1;
+        fieldEnd = index < delimiterCount ? delimiters[index] : dataEnd;
+        return this;
+    }
+
+    /**
+     * @return количество полей, включая форматтер
+     */
+    public int getFieldCount() {
+        return delimiterCount + 1;
+    }
+
+    /**
+     * Проверяет, что в предложении не меньше указанного количества полей, не переходя к ним. Используется
+     * разборщиками, которые не читают поля сразу (см. {@link #index()}).
+     *
+     * @param count требуемое количество полей, включая форматтер
+     * @return {@code false} с ошибкой {@link InvalidReason#TOO_FEW_FIELDS}, если полей меньше
+     */
+    public boolean requireFields(int count) {
+        if (getFieldCount() < count) {
+            fail(InvalidReason.TOO_FEW_FIELDS, count - 1);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return контрольная сумма (XOR символов между {@code '$'} и {@code '*'})
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return контрольная сумма из суффикса {@code *hh} или -1, если суффикс отсутствует или некорректен
+     */
+    public int getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    public boolean isChecksumValid() {
+        return checksum == expectedChecksum;
+    }
+
+    /**
+     * @return первая ошибка разбора текущего предложения или {@code null}
+     */
+    public InvalidReason getError() {
+        return error;
+    }
+
+    /**
+     * @return номер поля, в котором произошла первая ошибка, или -1
+     */
+    public int getErrorField() {
+        return errorField;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    public int getFieldIndex() {
+        return fieldIndex;
+    }
+
+    public int getFieldStart() {
+        return fieldStart;
+    }
+
+    public int getFieldEnd() {
+        return fieldEnd;
+    }
+
+    public boolean isEmpty() {
+        return fieldStart == fieldEnd;
+    }
+
+    /**
+     * Сравнивает текущее поле со строкой без создания подстроки.
+     */
+    public boolean fieldEquals(String value) {
+        int length = fieldEnd - fieldStart;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sentence.charAt(fieldStart + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return текущее поле, упакованное как форматтер для {@link SentenceParserRegistry#find(int)}
+     */
+    public int formatterKey() {
+        return SentenceParserRegistry.key(sentence, fieldStart, fieldEnd);
+    }
+
+    /**
+     * @return символ однобуквенного поля или {@code '\0'}, если поле пустое или длиннее одного символа
+     */
+    public char charValue() {
+        return fieldEnd - fieldStart == 1 ? sentence.charAt(fieldStart) : '\0';
+    }
+
+    /**
+     * @return значение поля в виде строки; однобуквенные ASCII-поля возвращаются из кэша без аллокации
+     */
+    public String stringValue() {
+        return stringValue(sentence, fieldStart, fieldEnd);
+    }
+
+    /**
+     * @return значение поля или 0 с ошибкой {@link InvalidReason#BAD_NUMBER}
+     * @see NmeaNumberParser#tryParseLong
+     */
+    public int intValue() {
+        long result = NmeaNumberParser.tryParseLong(sentence, fieldStart, fieldEnd);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            fail(InvalidReason.BAD_NUMBER, fieldIndex);
+            return 0;
+        }
+        return (int) result;
+    }
+
+    /**
+     * @return значение поля или 0 с ошибкой {@link InvalidReason#BAD_NUMBER}
+     * @see NmeaNumberParser#tryParseLong
+     */
+    public long longValue() {
+        long result = NmeaNumberParser.tryParseLong(sentence, fieldStart, fieldEnd);
+        if (result == NmeaNumberParser.INVALID_LONG) {
+            fail(InvalidReason.BAD_NUMBER, fieldIndex);
+            return 0L;
+        }
+        return result;
+    }
+
+    /**
+     * @return значение поля или {@code NaN} с ошибкой {@link InvalidReason#BAD_NUMBER}
+     * @see NmeaNumberParser#tryParseDouble
+     */
+    public double doubleValue() {
+        double result = NmeaNumberParser.tryParseDouble(sentence, fieldStart, fieldEnd);
+        if (result != result) {
+            fail(InvalidReason.BAD_NUMBER, fieldIndex);
+        }
+        return result;
+    }
+
+    /**
+     * @return индекс границ всех полей текущего предложения с собственной копией предложения
+     */
+    public NmeaFieldIndex index() {
+        int[] starts = new int[delimiterCount + 1];
+        starts[0] = dataStart - sentenceFrom;
+        for (int i = 0; i < delimiterCount; i++) {
+            starts[i + 1] = delimiters[i] + 1 - sentenceFrom;
+        }
+        return new NmeaFieldIndex(sentence.subSequence(sentenceFrom, sentenceTo).toString(), starts,
+                dataEnd - sentenceFrom, checksum, expectedChecksum);
+    }
+
+    @Override
+    public String toString() {
+        return sentence == null ? "" : sentence.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    private void fail(InvalidReason reason, int field) {
+        if (error == null) {
+            error = reason;
+            errorField = field;
+        }
+    }
+
+    static String stringValue(CharSequence sentence, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return "";
+        }
+        if (length == 1) {
+            char c = sentence.charAt(from);
+            if (c < ASCII_STRINGS.length) {
+                return ASCII_STRINGS[c];
+            }
+        }
+        return sentence.subSequence(from, to).toString();
+    }
+
+    private static int parseHex(CharSequence s, int from, int to) {
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        if (from == to || to - from > 2) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            result = result << 4 | digit;
+        }
+        return result;
+    }
+}
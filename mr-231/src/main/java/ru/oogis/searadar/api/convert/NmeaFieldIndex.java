@@ -0,0 +1,129 @@
+package ru.oogis.searadar.api.convert;
+
+import java.io.Serializable;
+
+/**
+ * Границы полей NMEA-предложения, найденные за один проход {@link NmeaFieldCursor}, с разбором значений
+ * по номеру поля.
+ * <p>
+ * В отличие от {@link NmeaFieldCursor} допускает обращение к полям в любом порядке и хранит собственную
+ * копию предложения, поэтому может жить дольше буфера, из которого предложение было прочитано, и сериализуется
+ * вместе с сообщением, которое разбирает поля при обращении к ним.
+ * Нумерация полей та же: нулевое поле - форматтер. Отсутствующее поле читается как пустое.
+ */
+public final class NmeaFieldIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String sentence;
+    private final int[] starts;
+    private final int dataEnd;
+    private final int checksum;
+    private final int expectedChecksum;
+
+    NmeaFieldIndex(String sentence, int[] starts, int dataEnd, int checksum, int expectedChecksum) {
+        this.sentence = sentence;
+        this.starts = starts;
+        this.dataEnd = dataEnd;
+        this.checksum = checksum;
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    /**
+     * @param sentence предложение вида {@code $RATTM,...*hh}
+     */
+    public static NmeaFieldIndex of(CharSequence sentence) {
+        return new NmeaFieldCursor().reset(sentence).index();
+    }
+
+    /**
+     * @return предложение целиком
+     */
+    public String getSentence() {
+        return sentence;
+    }
+
+    /**
+     * @return количество полей, включая форматтер
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * @see NmeaFieldCursor#isChecksumValid()
+     */
+    public boolean isChecksumValid() {
+        return checksum == expectedChecksum;
+    }
+
+    public boolean isEmpty(int index) {
+        return start(index) == end(index);
+    }
+
+    /**
+     * @see NmeaFieldCursor#charValue()
+     */
+    public char charValue(int index) {
+        int start = start(index);
+        return end(index) - start == 1 ? sentence.charAt(start) : '\0';
+    }
+
+    /**
+     * @see NmeaFieldCursor#stringValue()
+     */
+    public String stringValue(int index) {
+        return NmeaFieldCursor.stringValue(sentence, start(index), end(index));
+    }
+
+    public int intValue(int index) {
+        return NmeaNumberParser.parseInt(sentence, start(index), end(index));
+    }
+
+    public long longValue(int index) {
+        return NmeaNumberParser.parseLong(sentence, start(index), end(index));
+    }
+
+    public double doubleValue(int index) {
+        return NmeaNumberParser.parseDouble(sentence, start(index), end(index));
+    }
+
+    /**
+     * @return значение поля или {@link Integer#MIN_VALUE}, если поле не является числом типа int
+     * @see NmeaNumberParser#tryParseLong
+     */
+    public int tryIntValue(int index) {
+        long result = NmeaNumberParser.tryParseLong(sentence, start(index), end(index));
+        return result < Integer.MIN_VALUE || result > Integer.MAX_VALUE ? Integer.MIN_VALUE : (int) result;
+    }
+
+    /**
+     * @return значение поля или {@link NmeaNumberParser#INVALID_LONG}, если поле не является числом
+     * @see NmeaNumberParser#tryParseLong
+     */
+    public long tryLongValue(int index) {
+        return NmeaNumberParser.tryParseLong(sentence, start(index), end(index));
+    }
+
+    /**
+     * @return значение поля или {@code NaN}, если поле не является числом
+     * @see NmeaNumberParser#tryParseDouble
+     */
+    public double tryDoubleValue(int index) {
+        return NmeaNumberParser.tryParseDouble(sentence, start(index), end(index));
+    }
+
+    @Override
+    public String toString() {
+        return sentence;
+    }
+
+    // Отсутствующее поле читается как пустое, как и в NmeaFieldCursor#field
+    private int start(int index) {
+        return index >= 0 && index < starts.length ? starts[index] : dataEnd;
+    }
+
+    private int end(int index) {
+        return index >= 0 && index + 1 < starts.length ? starts[index + 1] - 1 : dataEnd;
+    }
+}
@@ -3,7 +3,9 @@ package ru.oogis.searadar.api.convert;
 import org.apache.camel.Exchange;
 import ru.oogis.hydra.api.ExchangeConverter;
 import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -11,4 +13,33 @@ public interface SearadarExchangeConverter extends ExchangeConverter<SearadarSta
 
     List<SearadarStationMessage> convert(Exchange exchange) throws Exception;
 
+    /**
+     * Конвертирует блок предложений, разделенных символами CR/LF, с одним временем получения на весь блок.
+     *
+     * @param block блок предложений, например результат одного чтения из сокета
+     * @param sink  коллекция, в которую добавляются сообщения; может переиспользоваться вызывающим
+     * @return количество добавленных сообщений
+     */
+    int convert(CharSequence block, Collection<? super SearadarStationMessage> sink);
+
+    /**
+     * Конвертирует блок предложений, записывая цели непосредственно в пакет, если разборщик предложения
+     * это поддерживает ({@link TrackedTargetSentenceParser}); остальные сообщения добавляются в коллекцию.
+     *
+     * @param block   блок предложений
+     * @param targets пакет, в который добавляются цели
+     * @param sink    коллекция, в которую добавляются остальные сообщения
+     * @return количество добавленных строк и сообщений
+     */
+    int convert(CharSequence block, TrackedTargetBatch targets, Collection<? super SearadarStationMessage> sink);
+
+    /**
+     * Конвертирует список предложений с одним временем получения на весь список.
+     *
+     * @param sentences предложения, по одному в элементе
+     * @param sink      коллекция, в которую добавляются сообщения; может переиспользоваться вызывающим
+     * @return количество добавленных сообщений
+     */
+    int convert(List<? extends CharSequence> sentences, Collection<? super SearadarStationMessage> sink);
+
 }
\ No newline at end of file
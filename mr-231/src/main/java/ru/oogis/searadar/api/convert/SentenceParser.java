@@ -0,0 +1,19 @@
+package ru.oogis.searadar.api.convert;
+
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+
+/**
+ * Разборщик одного типа NMEA-предложения, регистрируемый в {@link SentenceParserRegistry}.
+ */
+public interface SentenceParser {
+
+    /**
+     * @param cursor         курсор, установленный на нулевое поле (форматтер) предложения
+     * @param msgRecTime     время получения предложения, мс
+     * @param representation представление создаваемых сообщений
+     * @return сообщение или {@code null}, если предложение не порождает сообщения
+     */
+    SearadarStationMessage parse(NmeaFieldCursor cursor, long msgRecTime, MessageRepresentation representation);
+
+}
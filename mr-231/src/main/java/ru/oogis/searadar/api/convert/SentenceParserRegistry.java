@@ -0,0 +1,100 @@
+package ru.oogis.searadar.api.convert;
+
+/**
+ * Реестр разборщиков предложений, индексированный трехсимвольным форматтером ({@code TTM}, {@code VHW} ...).
+ * <p>
+ * Форматтер упаковывается в int по одному ASCII-символу на байт, поэтому поиск не вычисляет хэш строки
+ * и сводится к одной-двум пробам в таблице с открытой адресацией. Регистрация копирует таблицу, а чтение
+ * идет без блокировок, так что реестр можно дополнять при работающих конвертерах.
+ */
+public final class SentenceParserRegistry {
+
+    /** Ключ, не соответствующий ни одному форматтеру. */
+    public static final int NO_KEY = -1;
+
+    private static final int EMPTY = 0;
+
+    private volatile Table table = new Table(8);
+
+    /**
+     * Регистрирует разборщик; ранее зарегистрированный для того же форматтера заменяется.
+     *
+     * @param formatter трехсимвольный форматтер из ASCII-символов
+     * @return этот же реестр
+     */
+    public synchronized SentenceParserRegistry register(String formatter, SentenceParser parser) {
+        int key = key(formatter, 0, formatter.length());
+        if (key == NO_KEY) {
+            throw new IllegalArgumentException("Sentence formatter must be 3 ASCII characters: " + formatter);
+        }
+        if (parser == null) {
+            throw new IllegalArgumentException("Parser for " + formatter + " is null");
+        }
+        Table current = table;
+        Table result = new Table(current.size + 1 > current.keys.length / 2 ? current.keys.length * 2 : current.keys.length);
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != EMPTY && current.keys[i] != key) result.put(current.keys[i], current.parsers[i]);
+        }
+        result.put(key, parser);
+        table = result;
+        return this;
+    }
+
+    /**
+     * @param key упакованный форматтер, см. {@link #key}
+     * @return разборщик или {@code null}, если тип предложения не зарегистрирован
+     */
+    public SentenceParser find(int key) {
+        Table current = table;
+        int mask = current.keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int candidate = current.keys[i];
+            if (candidate == key) return current.parsers[i];
+            if (candidate == EMPTY) return null;
+        }
+    }
+
+    public SentenceParser find(String formatter) {
+        return find(key(formatter, 0, formatter.length()));
+    }
+
+    /**
+     * Упаковывает трехсимвольный форматтер в int.
+     *
+     * @return ключ или {@link #NO_KEY}, если фрагмент не является трехсимвольным ASCII-форматтером
+     */
+    public static int key(CharSequence s, int from, int to) {
+        if (to - from != 3) return NO_KEY;
+        char c0 = s.charAt(from);
+        char c1 = s.charAt(from + 1);
+        char c2 = s.charAt(from + 2);
+        if (c0 == 0 || c1 == 0 || c2 == 0 || (c0 | c1 | c2) > 0x7F) return NO_KEY;
+        return c0 << 16 | c1 << 8 | c2;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+
+        private final int[] keys;
+        private final SentenceParser[] parsers;
+        private int size;
+
+        private Table(int capacity) {
+            keys = new int[capacity];
+            parsers = new SentenceParser[capacity];
+        }
+
+        private void put(int key, SentenceParser parser) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = key;
+            parsers[i] = parser;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package ru.oogis.searadar.api.geofence;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.track.GeoReferenceStage;
+import ru.oogis.searadar.api.track.GeoTargetBatch;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Отслеживание входа целей в зоны и выхода из них.
+ * <p>
+ * Ограничивающие прямоугольники зон раскладываются по сетке с ячейкой {@code cellSize} градусов; индекс
+ * неизменяем и перестраивается целиком при изменении набора зон. Для каждой цели хранятся последняя
+ * проверенная позиция и зоны, в которых она находится. Цель, позиция которой не изменилась, не проверяется;
+ * для сместившейся цели проверяются только зоны ее ячейки: зона, прямоугольник которой не покрывает ячейку,
+ * не может содержать цель. Зоны, покрывающие больше {@value #LARGE_ZONE_CELLS} ячеек, в сетку не
+ * раскладываются и проверяются для каждой сместившейся цели.
+ * <p>
+ * Как процессор маршрута движок стоит после {@link GeoReferenceStage}: берет цели из заголовка
+ * {@link GeoReferenceStage#GEO_TARGETS} (или из тела - {@link GeoTargetBatch}), выводит из зон потерянные цели
+ * тела ({@link TargetStatus#LOST}) и записывает события в заголовок {@link #GEOFENCE_EVENTS}. Зоны сравниваются
+ * по идентификатору, поэтому замена зоны с тем же идентификатором не порождает событий для целей, оставшихся
+ * внутри, а удаленная зона дает {@link GeofenceEvent.Type#EXIT} при следующем обновлении цели.
+ */
+public class GeofenceEngine implements Processor {
+
+    /**
+     * Заголовок со списком {@link GeofenceEvent} обмена.
+     */
+    public static final String GEOFENCE_EVENTS = "geofence_events";
+
+    static final int LARGE_ZONE_CELLS = 4096;
+
+    private static final GeofenceZone[] NO_ZONES = new GeofenceZone[0];
+
+    private final double cellSize;
+    private final Map<String, GeofenceZone> zones = new LinkedHashMap<>();
+    private ZoneIndex index;
+    private final Map<Integer, TargetState> targets = new HashMap<>();
+    private GeofenceZone[] inside = new GeofenceZone[8];
+    private int[] lost = new int[16];
+    private long[] lostTimes = new long[16];
+
+    public GeofenceEngine() {
+        this(0.05);
+    }
+
+    /**
+     * @param cellSize сторона ячейки сетки в градусах; выбирается порядка размера типичной зоны
+     */
+    public GeofenceEngine(double cellSize) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        index = new ZoneIndex(zones.values(), cellSize, 0);
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Добавляет зону или заменяет зону с тем же идентификатором.
+     */
+    public synchronized void addZone(GeofenceZone zone) {
+        zones.put(zone.getId(), zone);
+        rebuild();
+    }
+
+    /**
+     * Заменяет набор зон.
+     */
+    public synchronized void setZones(Collection<GeofenceZone> newZones) {
+        zones.clear();
+        for (GeofenceZone zone : newZones) {
+            zones.put(zone.getId(), zone);
+        }
+        rebuild();
+    }
+
+    public synchronized boolean removeZone(String id) {
+        if (zones.remove(id) == null) return false;
+        rebuild();
+        return true;
+    }
+
+    public synchronized List<GeofenceZone> getZones() {
+        return Collections.unmodifiableList(new ArrayList<>(zones.values()));
+    }
+
+    /**
+     * @return идентификаторы зон, в которых находится цель
+     */
+    public synchronized List<String> getZoneIds(int targetNumber) {
+        TargetState state = targets.get(targetNumber);
+        if (state == null || state.count == 0) return Collections.emptyList();
+        List<String> result = new ArrayList<>(state.count);
+        for (int i = 0; i < state.count; i++) {
+            result.add(state.zones[i].getId());
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет цели пакета.
+     *
+     * @return события, возникшие при этой проверке; пустой неизменяемый список, если их нет
+     */
+    public synchronized List<GeofenceEvent> evaluate(GeoTargetBatch batch) {
+        return evaluate(batch, 0, null);
+    }
+
+    /**
+     * Выводит цель из всех зон и забывает ее состояние (например, при потере цели).
+     *
+     * @return события выхода из зон; пустой неизменяемый список, если цель не была ни в одной зоне
+     */
+    public synchronized List<GeofenceEvent> remove(int targetNumber, long time) {
+        List<GeofenceEvent> events = remove(targetNumber, time, null);
+        return events == null ? Collections.<GeofenceEvent>emptyList() : events;
+    }
+
+    public synchronized void clear() {
+        targets.clear();
+    }
+
+    /**
+     * Выводит из зон потерянные цели тела обмена, проверяет цели {@link GeoTargetBatch} обмена и записывает
+     * события в заголовок {@link #GEOFENCE_EVENTS}.
+     */
+    @Override
+    public synchronized void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        Object body = in.getBody();
+        List<GeofenceEvent> events = null;
+        int lostCount = collectLost(body);
+        for (int i = 0; i < lostCount; i++) {
+            events = remove(lost[i], lostTimes[i], events);
+        }
+        GeoTargetBatch batch = in.getHeader(GeoReferenceStage.GEO_TARGETS, GeoTargetBatch.class);
+        if (batch == null && body instanceof GeoTargetBatch) batch = (GeoTargetBatch) body;
+        if (batch != null) {
+            List<GeofenceEvent> moved = evaluate(batch, lostCount, lost);
+            if (!moved.isEmpty()) {
+                if (events == null) events = new ArrayList<>();
+                events.addAll(moved);
+            }
+        }
+        if (events != null && !events.isEmpty()) in.setHeader(GEOFENCE_EVENTS, events);
+    }
+
+    private List<GeofenceEvent> evaluate(GeoTargetBatch batch, int skipCount, int[] skip) {
+        ZoneIndex current = index;
+        long[] times = batch.timeColumn();
+        int[] numbers = batch.targetNumberColumn();
+        double[] latitudes = batch.latitudeColumn();
+        double[] longitudes = batch.longitudeColumn();
+        List<GeofenceEvent> events = null;
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            double lat = latitudes[row];
+            double lon = longitudes[row];
+            if (Double.isNaN(lat) || Double.isNaN(lon)) continue;
+            int number = numbers[row];
+            if (contains(skip, skipCount, number)) continue;
+            TargetState state = targets.get(number);
+            if (state == null) {
+                state = new TargetState();
+                targets.put(number, state);
+            } else if (state.latitude == lat && state.longitude == lon && state.version == current.version) {
+                continue;
+            }
+            state.latitude = lat;
+            state.longitude = lon;
+            state.version = current.version;
+            events = update(state, number, times[row], current, events);
+        }
+        return events == null ? Collections.<GeofenceEvent>emptyList() : events;
+    }
+
+    private List<GeofenceEvent> update(TargetState state, int number, long time, ZoneIndex current,
+                                       List<GeofenceEvent> events) {
+        int insideCount = 0;
+        insideCount = test(current.large, 0, current.large.length, state, insideCount);
+        int cell = current.find(cellKey(cell(state.longitude), cell(state.latitude)));
+        if (cell >= 0) {
+            insideCount = test(current.cellZones, current.offsets[cell], current.offsets[cell + 1], state, insideCount);
+        }
+        for (int i = 0; i < state.count; i++) {
+            if (indexOf(inside, insideCount, state.zones[i].getId()) < 0) {
+                events = add(events, GeofenceEvent.Type.EXIT, time, number, state.zones[i]);
+            }
+        }
+        for (int i = 0; i < insideCount; i++) {
+            if (indexOf(state.zones, state.count, inside[i].getId()) < 0) {
+                events = add(events, GeofenceEvent.Type.ENTER, time, number, inside[i]);
+            }
+        }
+        if (state.zones.length < insideCount) state.zones = new GeofenceZone[inside.length];
+        System.arraycopy(inside, 0, state.zones, 0, insideCount);
+        Arrays.fill(state.zones, insideCount, state.zones.length, null);
+        state.count = insideCount;
+        return events;
+    }
+
+    private int test(GeofenceZone[] candidates, int from, int to, TargetState state, int insideCount) {
+        for (int i = from; i < to; i++) {
+            GeofenceZone zone = candidates[i];
+            if (zone.contains(state.latitude, state.longitude)) {
+                if (insideCount == inside.length) inside = Arrays.copyOf(inside, insideCount * 2);
+                inside[insideCount++] = zone;
+            }
+        }
+        return insideCount;
+    }
+
+    private List<GeofenceEvent> remove(int targetNumber, long time, List<GeofenceEvent> events) {
+        TargetState state = targets.remove(targetNumber);
+        if (state != null) {
+            for (int i = 0; i < state.count; i++) {
+                events = add(events, GeofenceEvent.Type.EXIT, time, targetNumber, state.zones[i]);
+            }
+        }
+        return events;
+    }
+
+    private int collectLost(Object body) {
+        int count = 0;
+        if (body instanceof TrackedTargetMessage) {
+            count = addLost((TrackedTargetMessage) body, count);
+        } else if (body instanceof Collection) {
+            for (Object message : (Collection<?>) body) {
+                if (message instanceof TrackedTargetMessage) count = addLost((TrackedTargetMessage) message, count);
+            }
+        } else if (body instanceof TrackedTargetBatch) {
+            TrackedTargetBatch batch = (TrackedTargetBatch) body;
+            byte lostStatus = (byte) TargetStatus.LOST.ordinal();
+            byte[] statuses = batch.statusColumn();
+            int[] numbers = batch.targetNumberColumn();
+            long[] times = batch.msgRecTimeColumn();
+            for (int row = 0, n = batch.size(); row < n; row++) {
+                if (statuses[row] == lostStatus) count = addLost(numbers[row], times[row], count);
+            }
+        }
+        return count;
+    }
+
+    private int addLost(TrackedTargetMessage message, int count) {
+        if (message.getStatus() != TargetStatus.LOST) return count;
+        return addLost(message.getTargetNumberValue(), message.getMsgRecTimeMillis(), count);
+    }
+
+    private int addLost(int number, long time, int count) {
+        if (count == lost.length) {
+            lost = Arrays.copyOf(lost, count * 2);
+            lostTimes = Arrays.copyOf(lostTimes, count * 2);
+        }
+        lost[count] = number;
+        lostTimes[count] = time;
+        return count + 1;
+    }
+
+    private void rebuild() {
+        index = new ZoneIndex(zones.values(), cellSize, index.version + 1);
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cy << 32) | (cx & 0xFFFFFFFFL);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static int indexOf(GeofenceZone[] zones, int count, String id) {
+        for (int i = 0; i < count; i++) {
+            if (zones[i].getId().equals(id)) return i;
+        }
+        return -1;
+    }
+
+    private static List<GeofenceEvent> add(List<GeofenceEvent> events, GeofenceEvent.Type type, long time,
+                                           int number, GeofenceZone zone) {
+        if (events == null) events = new ArrayList<>();
+        events.add(new GeofenceEvent(type, time, number, zone.getId()));
+        return events;
+    }
+
+    /**
+     * Зоны цели: последняя проверенная позиция и зоны, в которых она находится.
+     */
+    private static final class TargetState {
+
+        private double latitude;
+        private double longitude;
+        private int version;
+        private int count;
+        private GeofenceZone[] zones = NO_ZONES;
+    }
+
+    /**
+     * Неизменяемый индекс зон: отсортированные ключи непустых ячеек и зоны каждой ячейки подряд.
+     */
+    private static final class ZoneIndex {
+
+        private final int version;
+        private final long[] keys;
+        private final int[] offsets;
+        private final GeofenceZone[] cellZones;
+        private final GeofenceZone[] large;
+
+        private ZoneIndex(Collection<GeofenceZone> zones, double cellSize, int version) {
+            this.version = version;
+            TreeMap<Long, List<GeofenceZone>> cells = new TreeMap<>();
+            List<GeofenceZone> largeZones = new ArrayList<>();
+            int references = 0;
+            for (GeofenceZone zone : zones) {
+                long minX = (long) Math.floor(zone.getMinLongitude() / cellSize);
+                long maxX = (long) Math.floor(zone.getMaxLongitude() / cellSize);
+                long minY = (long) Math.floor(zone.getMinLatitude() / cellSize);
+                long maxY = (long) Math.floor(zone.getMaxLatitude() / cellSize);
+                if ((maxX - minX + 1) * (maxY - minY + 1) > LARGE_ZONE_CELLS) {
+                    largeZones.add(zone);
+                    continue;
+                }
+                for (long cx = minX; cx <= maxX; cx++) {
+                    for (long cy = minY; cy <= maxY; cy++) {
+                        Long key = cellKey((int) cx, (int) cy);
+                        List<GeofenceZone> cellList = cells.get(key);
+                        if (cellList == null) {
+                            cellList = new ArrayList<>(2);
+                            cells.put(key, cellList);
+                        }
+                        cellList.add(zone);
+                        references++;
+                    }
+                }
+            }
+            keys = new long[cells.size()];
+            offsets = new int[cells.size() + 1];
+            cellZones = new GeofenceZone[references];
+            int cell = 0;
+            int position = 0;
+            for (Map.Entry<Long, List<GeofenceZone>> entry : cells.entrySet()) {
+                keys[cell] = entry.getKey();
+                offsets[cell] = position;
+                for (GeofenceZone zone : entry.getValue()) {
+                    cellZones[position++] = zone;
+                }
+                cell++;
+            }
+            offsets[cell] = position;
+            large = largeZones.toArray(NO_ZONES);
+        }
+
+        private int find(long key) {
+            return Arrays.binarySearch(keys, key);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.oogis.searadar.api.geofence;
+
+import java.io.Serializable;
+
+/**
+ * Событие пересечения границы зоны целью.
+ */
+public class GeofenceEvent implements Serializable {
+
+    public enum Type {
+        /** Цель оказалась внутри зоны. */
+        ENTER,
+        /** Цель вышла из зоны, потеряна или зона удалена. */
+        EXIT
+    }
+
+    private final Type type;
+    private final long time;
+    private final int targetNumber;
+    private final String zoneId;
+
+    public GeofenceEvent(Type type, long time, int targetNumber, String zoneId) {
+        this.type = type;
+        this.time = time;
+        this.targetNumber = targetNumber;
+        this.zoneId = zoneId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return время отметки цели в миллисекундах эпохи
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getTargetNumber() {
+        return targetNumber;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    @Override
+    public String toString() {
+        return "GeofenceEvent{" +
+                "type=" + type +
+                ", time=" + time +
+                ", targetNumber=" + targetNumber +
+                ", zoneId='" + zoneId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package ru.oogis.searadar.api.ingest;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.impl.DefaultComponent;
+import org.apache.mina.filter.codec.ProtocolCodecFactory;
+
+import java.util.Map;
+
+/**
+ * Компонент Camel, принимающий NMEA-поток станций по TCP или UDP через NIO-акцептор MINA:
+ * {@code <имя>:tcp://адрес:порт?ioThreads=4&readBufferSize=2048&directBuffers=false}.
+ * <p>
+ * Экземпляр создается типом станции с ее кодеком и регистрируется в реестре Camel под именем схемы,
+ * поэтому маршрут получает уже разобранные {@link ru.oogis.searadar.api.message.SearadarStationMessage}.
+ *
+ * @see NmeaIngestEndpoint
+ */
+public class NmeaIngestComponent extends DefaultComponent {
+
+    private final ProtocolCodecFactory codecFactory;
+
+    public NmeaIngestComponent(ProtocolCodecFactory codecFactory) {
+        this.codecFactory = codecFactory;
+    }
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        NmeaIngestEndpoint endpoint = new NmeaIngestEndpoint(uri, this, IngestProtocol.parse(remaining), address(remaining));
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+
+    public ProtocolCodecFactory getCodecFactory() {
+        return codecFactory;
+    }
+
+    private static String address(String remaining) {
+        int separator = remaining.indexOf("://");
+        return separator < 0 ? remaining : remaining.substring(separator + 3);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.oogis.searadar.api.ingest;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.impl.DefaultEndpoint;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Точка приема потока станции.
+ * <p>
+ * Параметры:
+ * <ul>
+ * <li>{@code ioThreads} - количество потоков ввода-вывода TCP-акцептора; в них же декодируются предложения
+ * и выполняется маршрут. UDP-акцептор MINA всегда обслуживается одним потоком;</li>
+ * <li>{@code readBufferSize} - начальный размер буфера чтения сессии (для UDP - наибольший размер датаграммы);</li>
+ * <li>{@code maxReadBufferSize} - предел, до которого MINA увеличивает буфер чтения TCP-сессии;</li>
+ * <li>{@code receiveBufferSize} - размер приемного буфера сокета (SO_RCVBUF), 0 - значение системы;</li>
+ * <li>{@code directBuffers} - выделять буферы MINA вне кучи. Распределитель буферов MINA общий для JVM,
+ * поэтому параметр действует на все акцепторы.</li>
+ * </ul>
+ */
+public class NmeaIngestEndpoint extends DefaultEndpoint {
+
+    /**
+     * Заголовок с адресом источника сообщения.
+     */
+    public static final String REMOTE_ADDRESS = "remote_address";
+
+    private final IngestProtocol protocol;
+    private final InetSocketAddress address;
+    private int ioThreads = Runtime.getRuntime().availableProcessors() + 1;
+    private int readBufferSize = 2048;
+    private int maxReadBufferSize = 65536;
+    private int receiveBufferSize;
+    private boolean directBuffers;
+
+    public NmeaIngestEndpoint(String uri, NmeaIngestComponent component, IngestProtocol protocol, String address) {
+        super(uri, component);
+        this.protocol = protocol;
+        this.address = parseAddress(address);
+    }
+
+    @Override
+    public NmeaIngestComponent getComponent() {
+        return (NmeaIngestComponent) super.getComponent();
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        throw new UnsupportedOperationException("Ingest endpoint " + getEndpointUri() + " is consumer only");
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        NmeaIngestConsumer consumer = new NmeaIngestConsumer(this, processor);
+        configureConsumer(consumer);
+        return consumer;
+    }
+
+    @Override
+    public boolean isSingleton() {
+        return true;
+    }
+
+    public IngestProtocol getProtocol() {
+        return protocol;
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        if (ioThreads < 1) throw new IllegalArgumentException("I/O thread count must be positive: " + ioThreads);
+        this.ioThreads = ioThreads;
+    }
+
+    public int getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public void setReadBufferSize(int readBufferSize) {
+        if (readBufferSize < 64) throw new IllegalArgumentException("Read buffer is too small: " + readBufferSize);
+        this.readBufferSize = readBufferSize;
+    }
+
+    public int getMaxReadBufferSize() {
+        return maxReadBufferSize;
+    }
+
+    public void setMaxReadBufferSize(int maxReadBufferSize) {
+        this.maxReadBufferSize = maxReadBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        if (receiveBufferSize < 0) {
+            throw new IllegalArgumentException("Receive buffer size must not be negative: " + receiveBufferSize);
+        }
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    public boolean isDirectBuffers() {
+        return directBuffers;
+    }
+
+    public void setDirectBuffers(boolean directBuffers) {
+        this.directBuffers = directBuffers;
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int slash = address.indexOf('/');
+        if (slash >= 0) address = address.substring(0, slash);
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Port is missing in ingest address " + address);
+        int port;
+        try {
+            port = Integer.parseInt(address.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port in ingest address " + address, e);
+        }
+        String host = address.substring(0, colon);
+        return host.isEmpty() ? new InetSocketAddress(port) : new InetSocketAddress(host, port);
+    }
+}
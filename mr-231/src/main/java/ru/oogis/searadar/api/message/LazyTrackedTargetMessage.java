@@ -0,0 +1,225 @@
+package ru.oogis.searadar.api.message;
+
+import ru.oogis.searadar.api.convert.NmeaFieldIndex;
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+/**
+ * {@link TrackedTargetMessage}, разбирающий поля исходного предложения TTM при первом обращении к ним.
+ * <p>
+ * При создании сохраняются только предложение и границы его полей, поэтому маршруты, которые фильтруют
+ * сообщения по нескольким полям или пересылают предложение дальше ({@link #getSentence()}), не платят
+ * за разбор остальных чисел. Разбор не создает исключений: нечисловое поле читается как {@code NaN}
+ * или {@link Integer#MIN_VALUE} ({@link Long#MIN_VALUE} для времени). Экземпляр не потокобезопасен.
+ */
+public class LazyTrackedTargetMessage extends PrimitiveTrackedTargetMessage {
+
+    private static final int TARGET_NUMBER = 1;
+    private static final int DISTANCE = 2;
+    private static final int BEARING = 3;
+    private static final int SPEED = 5;
+    private static final int COURSE = 6;
+    private static final int IFF_FIELD = 11;
+    private static final int STATUS = 12;
+
+    private final NmeaFieldIndex fields;
+    private final int msgTimeField;
+    private int decoded;
+
+
+    /**
+     * @param fields       поля предложения TTM
+     * @param msgRecTime   время получения, мс
+     * @param msgTimeField номер поля с временем сообщения или -1, если им служит время получения
+     */
+    public LazyTrackedTargetMessage(NmeaFieldIndex fields, long msgRecTime, int msgTimeField) {
+        this.fields = fields;
+        this.msgTimeField = msgTimeField;
+        setMsgRecTime(msgRecTime);
+        setType(TargetType.UNKNOWN);
+        if (msgTimeField < 0) {
+            super.setMsgTime(msgRecTime);
+        }
+    }
+
+    public String getSentence() {
+        return fields.getSentence();
+    }
+
+    @Override
+    public Long getMsgTime() {
+        decodeMsgTime();
+        return super.getMsgTime();
+    }
+
+    @Override
+    public long getMsgTimeValue() {
+        decodeMsgTime();
+        return super.getMsgTimeValue();
+    }
+
+    @Override
+    public void setMsgTime(long msgTime) {
+        if (msgTimeField >= 0) decoded |= 1 << msgTimeField;
+        super.setMsgTime(msgTime);
+    }
+
+    @Override
+    public void setMsgTime(Long msgTime) {
+        if (msgTimeField >= 0) decoded |= 1 << msgTimeField;
+        super.setMsgTime(msgTime);
+    }
+
+    @Override
+    public Integer getTargetNumber() {
+        if (undecoded(TARGET_NUMBER)) setTargetNumber(fields.tryIntValue(TARGET_NUMBER));
+        return super.getTargetNumber();
+    }
+
+    @Override
+    public int getTargetNumberValue() {
+        if (undecoded(TARGET_NUMBER)) setTargetNumber(fields.tryIntValue(TARGET_NUMBER));
+        return super.getTargetNumberValue();
+    }
+
+    @Override
+    public void setTargetNumber(int targetNumber) {
+        decoded |= 1 << TARGET_NUMBER;
+        super.setTargetNumber(targetNumber);
+    }
+
+    @Override
+    public void setTargetNumber(Integer targetNumber) {
+        decoded |= 1 << TARGET_NUMBER;
+        super.setTargetNumber(targetNumber);
+    }
+
+    @Override
+    public Double getDistance() {
+        if (undecoded(DISTANCE)) setDistance(fields.tryDoubleValue(DISTANCE));
+        return super.getDistance();
+    }
+
+    @Override
+    public double getDistanceValue() {
+        if (undecoded(DISTANCE)) setDistance(fields.tryDoubleValue(DISTANCE));
+        return super.getDistanceValue();
+    }
+
+    @Override
+    public void setDistance(double distance) {
+        decoded |= 1 << DISTANCE;
+        super.setDistance(distance);
+    }
+
+    @Override
+    public void setDistance(Double distance) {
+        decoded |= 1 << DISTANCE;
+        super.setDistance(distance);
+    }
+
+    @Override
+    public Double getBearing() {
+        if (undecoded(BEARING)) setBearing(fields.tryDoubleValue(BEARING));
+        return super.getBearing();
+    }
+
+    @Override
+    public double getBearingValue() {
+        if (undecoded(BEARING)) setBearing(fields.tryDoubleValue(BEARING));
+        return super.getBearingValue();
+    }
+
+    @Override
+    public void setBearing(double bearing) {
+        decoded |= 1 << BEARING;
+        super.setBearing(bearing);
+    }
+
+    @Override
+    public void setBearing(Double bearing) {
+        decoded |= 1 << BEARING;
+        super.setBearing(bearing);
+    }
+
+    @Override
+    public Double getSpeed() {
+        if (undecoded(SPEED)) setSpeed(fields.tryDoubleValue(SPEED));
+        return super.getSpeed();
+    }
+
+    @Override
+    public double getSpeedValue() {
+        if (undecoded(SPEED)) setSpeed(fields.tryDoubleValue(SPEED));
+        return super.getSpeedValue();
+    }
+
+    @Override
+    public void setSpeed(double speed) {
+        decoded |= 1 << SPEED;
+        super.setSpeed(speed);
+    }
+
+    @Override
+    public void setSpeed(Double speed) {
+        decoded |= 1 << SPEED;
+        super.setSpeed(speed);
+    }
+
+    @Override
+    public Double getCourse() {
+        if (undecoded(COURSE)) setCourse(fields.tryDoubleValue(COURSE));
+        return super.getCourse();
+    }
+
+    @Override
+    public double getCourseValue() {
+        if (undecoded(COURSE)) setCourse(fields.tryDoubleValue(COURSE));
+        return super.getCourseValue();
+    }
+
+    @Override
+    public void setCourse(double course) {
+        decoded |= 1 << COURSE;
+        super.setCourse(course);
+    }
+
+    @Override
+    public void setCourse(Double course) {
+        decoded |= 1 << COURSE;
+        super.setCourse(course);
+    }
+
+    @Override
+    public IFF getIff() {
+        if (undecoded(IFF_FIELD)) setIff(IFF.fromNmea(fields.charValue(IFF_FIELD)));
+        return super.getIff();
+    }
+
+    @Override
+    public void setIff(IFF iff) {
+        decoded |= 1 << IFF_FIELD;
+        super.setIff(iff);
+    }
+
+    @Override
+    public TargetStatus getStatus() {
+        if (undecoded(STATUS)) setStatus(TargetStatus.fromNmea(fields.charValue(STATUS)));
+        return super.getStatus();
+    }
+
+    @Override
+    public void setStatus(TargetStatus status) {
+        decoded |= 1 << STATUS;
+        super.setStatus(status);
+    }
+
+    private void decodeMsgTime() {
+        if (msgTimeField >= 0 && undecoded(msgTimeField)) setMsgTime(fields.tryLongValue(msgTimeField));
+    }
+
+    private boolean undecoded(int field) {
+        return (decoded & 1 << field) == 0;
+    }
+}
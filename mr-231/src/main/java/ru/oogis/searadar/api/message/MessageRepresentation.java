@@ -0,0 +1,88 @@
+package ru.oogis.searadar.api.message;
+
+/**
+ * Представление сообщений, создаваемых конвертерами станций.
+ */
+public enum MessageRepresentation {
+
+    /**
+     * Сообщения с упакованными полями и {@link java.sql.Timestamp} времени получения.
+     */
+    BOXED {
+        @Override
+        public TrackedTargetMessage newTrackedTargetMessage() {
+            return new TrackedTargetMessage();
+        }
+
+        @Override
+        public WaterSpeedHeadingMessage newWaterSpeedHeadingMessage() {
+            return new WaterSpeedHeadingMessage();
+        }
+
+        @Override
+        public RadarSystemDataMessage newRadarSystemDataMessage() {
+            return new RadarSystemDataMessage();
+        }
+    },
+
+    /**
+     * Сообщения с полями примитивных типов: разбор предложения не упаковывает значения и не создает
+     * {@link java.sql.Timestamp}.
+     */
+    PRIMITIVE {
+        @Override
+        public TrackedTargetMessage newTrackedTargetMessage() {
+            return new PrimitiveTrackedTargetMessage();
+        }
+
+        @Override
+        public WaterSpeedHeadingMessage newWaterSpeedHeadingMessage() {
+            return new PrimitiveWaterSpeedHeadingMessage();
+        }
+
+        @Override
+        public RadarSystemDataMessage newRadarSystemDataMessage() {
+            return new PrimitiveRadarSystemDataMessage();
+        }
+    },
+
+    /**
+     * Сообщения TTM и RSD, разбирающие поля предложения при первом обращении к ним
+     * ({@link LazyTrackedTargetMessage}, {@link LazyRadarSystemDataMessage}). Создаются разборщиками
+     * предложений; фабричные методы этого представления возвращают сообщения {@link #PRIMITIVE}.
+     */
+    LAZY {
+        @Override
+        public TrackedTargetMessage newTrackedTargetMessage() {
+            return new PrimitiveTrackedTargetMessage();
+        }
+
+        @Override
+        public WaterSpeedHeadingMessage newWaterSpeedHeadingMessage() {
+            return new PrimitiveWaterSpeedHeadingMessage();
+        }
+
+        @Override
+        public RadarSystemDataMessage newRadarSystemDataMessage() {
+            return new PrimitiveRadarSystemDataMessage();
+        }
+
+        @Override
+        public boolean isLazy() {
+            return true;
+        }
+    };
+
+    /**
+     * @return {@code true}, если разборщикам следует создавать сообщения с отложенным разбором полей
+     */
+    public boolean isLazy() {
+        return false;
+    }
+
+    public abstract TrackedTargetMessage newTrackedTargetMessage();
+
+    public abstract WaterSpeedHeadingMessage newWaterSpeedHeadingMessage();
+
+    public abstract RadarSystemDataMessage newRadarSystemDataMessage();
+}
@@ -0,0 +1,188 @@
+package ru.oogis.searadar.api.message;
+
+import java.sql.Timestamp;
+
+import static ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage.box;
+import static ru.oogis.searadar.api.message.PrimitiveTrackedTargetMessage.unbox;
+
+/**
+ * {@link RadarSystemDataMessage} с полями примитивных типов, см. {@link PrimitiveTrackedTargetMessage}.
+ */
+public class PrimitiveRadarSystemDataMessage extends RadarSystemDataMessage {
+
+    private long msgRecTimeMillis = Long.MIN_VALUE;
+    private transient Timestamp msgRecTimestamp;
+    private double initialDistance = Double.NaN;
+    private double initialBearing = Double.NaN;
+    private double movingCircleOfDistance = Double.NaN;
+    private double bearing = Double.NaN;
+    private double distanceFromShip = Double.NaN;
+    private double bearing2 = Double.NaN;
+    private double distanceScale = Double.NaN;
+
+
+    @Override
+    public Timestamp getMsgRecTime() {
+        if (msgRecTimestamp == null && msgRecTimeMillis != Long.MIN_VALUE) {
+            msgRecTimestamp = new Timestamp(msgRecTimeMillis);
+        }
+        return msgRecTimestamp;
+    }
+
+    @Override
+    public void setMsgRecTime(Timestamp msgRecTime) {
+        msgRecTimeMillis = msgRecTime == null ? Long.MIN_VALUE : msgRecTime.getTime();
+        msgRecTimestamp = msgRecTime;
+    }
+
+    @Override
+    public void setMsgRecTime(long msgRecTime) {
+        msgRecTimeMillis = msgRecTime;
+        msgRecTimestamp = null;
+    }
+
+    @Override
+    public long getMsgRecTimeMillis() {
+        return msgRecTimeMillis == Long.MIN_VALUE ? 0L : msgRecTimeMillis;
+    }
+
+    @Override
+    public Double getInitialDistance() {
+        return box(initialDistance);
+    }
+
+    @Override
+    public void setInitialDistance(Double initialDistance) {
+        this.initialDistance = unbox(initialDistance);
+    }
+
+    @Override
+    public void setInitialDistance(double initialDistance) {
+        this.initialDistance = initialDistance;
+    }
+
+    @Override
+    public double getInitialDistanceValue() {
+        return initialDistance;
+    }
+
+    @Override
+    public Double getInitialBearing() {
+        return box(initialBearing);
+    }
+
+    @Override
+    public void setInitialBearing(Double initialBearing) {
+        this.initialBearing = unbox(initialBearing);
+    }
+
+    @Override
+    public void setInitialBearing(double initialBearing) {
+        this.initialBearing = initialBearing;
+    }
+
+    @Override
+    public double getInitialBearingValue() {
+        return initialBearing;
+    }
+
+    @Override
+    public Double getMovingCircleOfDistance() {
+        return box(movingCircleOfDistance);
+    }
+
+    @Override
+    public void setMovingCircleOfDistance(Double movingCircleOfDistance) {
+        this.movingCircleOfDistance = unbox(movingCircleOfDistance);
+    }
+
+    @Override
+    public void setMovingCircleOfDistance(double movingCircleOfDistance) {
+        this.movingCircleOfDistance = movingCircleOfDistance;
+    }
+
+    @Override
+    public double getMovingCircleOfDistanceValue() {
+        return movingCircleOfDistance;
+    }
+
+    @Override
+    public Double getBearing() {
+        return box(bearing);
+    }
+
+    @Override
+    public void setBearing(Double bearing) {
+        this.bearing = unbox(bearing);
+    }
+
+    @Override
+    public void setBearing(double bearing) {
+        this.bearing = bearing;
+    }
+
+    @Override
+    public double getBearingValue() {
+        return bearing;
+    }
+
+    @Override
+    public Double getDistanceFromShip() {
+        return box(distanceFromShip);
+    }
+
+    @Override
+    public void setDistanceFromShip(Double distanceFromShip) {
+        this.distanceFromShip = unbox(distanceFromShip);
+    }
+
+    @Override
+    public void setDistanceFromShip(double distanceFromShip) {
+        this.distanceFromShip = distanceFromShip;
+    }
+
+    @Override
+    public double getDistanceFromShipValue() {
+        return distanceFromShip;
+    }
+
+    @Override
+    public Double getBearing2() {
+        return box(bearing2);
+    }
+
+    @Override
+    public void setBearing2(Double bearing2) {
+        this.bearing2 = unbox(bearing2);
+    }
+
+    @Override
+    public void setBearing2(double bearing2) {
+        this.bearing2 = bearing2;
+    }
+
+    @Override
+    public double getBearing2Value() {
+        return bearing2;
+    }
+
+    @Override
+    public Double getDistanceScale() {
+        return box(distanceScale);
+    }
+
+    @Override
+    public void setDistanceScale(Double distanceScale) {
+        this.distanceScale = unbox(distanceScale);
+    }
+
+    @Override
+    public void setDistanceScale(double distanceScale) {
+        this.distanceScale = distanceScale;
+    }
+
+    @Override
+    public double getDistanceScaleValue() {
+        return distanceScale;
+    }
+}
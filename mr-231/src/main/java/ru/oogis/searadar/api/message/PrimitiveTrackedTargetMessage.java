@@ -0,0 +1,218 @@
+package ru.oogis.searadar.api.message;
+
+import ru.oogis.searadar.api.types.IFF;
+import ru.oogis.searadar.api.types.TargetStatus;
+import ru.oogis.searadar.api.types.TargetType;
+
+import java.sql.Timestamp;
+
+/**
+ * {@link TrackedTargetMessage} с полями примитивных типов.
+ * <p>
+ * Значения хранятся как double/int/long, перечисления - как порядковые номера, время получения - в миллисекундах;
+ * {@link Timestamp} создается только при обращении к {@link #getMsgRecTime()}. Незаданные значения хранятся
+ * как {@code NaN} или {@code MIN_VALUE}, поэтому унаследованные getter'ы для них, как и прежде, возвращают
+ * {@code null}. Для чтения без упаковки служат методы {@code getXxxValue()}.
+ */
+public class PrimitiveTrackedTargetMessage extends TrackedTargetMessage {
+
+    private static final TargetType[] TYPES = TargetType.values();
+    private static final TargetStatus[] STATUSES = TargetStatus.values();
+    private static final IFF[] IFFS = IFF.values();
+
+    private long msgRecTimeMillis = Long.MIN_VALUE;
+    private transient Timestamp msgRecTimestamp;
+    private long msgTime = Long.MIN_VALUE;
+    private int targetNumber = Integer.MIN_VALUE;
+    private double distance = Double.NaN;
+    private double bearing = Double.NaN;
+    private double course = Double.NaN;
+    private double speed = Double.NaN;
+    private byte type = -1;
+    private byte status = -1;
+    private byte iff = -1;
+
+
+    @Override
+    public Timestamp getMsgRecTime() {
+        if (msgRecTimestamp == null && msgRecTimeMillis != Long.MIN_VALUE) {
+            msgRecTimestamp = new Timestamp(msgRecTimeMillis);
+        }
+        return msgRecTimestamp;
+    }
+
+    @Override
+    public void setMsgRecTime(Timestamp msgRecTime) {
+        msgRecTimeMillis = msgRecTime == null ? Long.MIN_VALUE : msgRecTime.getTime();
+        msgRecTimestamp = msgRecTime;
+    }
+
+    @Override
+    public void setMsgRecTime(long msgRecTime) {
+        msgRecTimeMillis = msgRecTime;
+        msgRecTimestamp = null;
+    }
+
+    @Override
+    public long getMsgRecTimeMillis() {
+        return msgRecTimeMillis == Long.MIN_VALUE ? 0L : msgRecTimeMillis;
+    }
+
+    @Override
+    public Long getMsgTime() {
+        return msgTime == Long.MIN_VALUE ? null : msgTime;
+    }
+
+    @Override
+    public void setMsgTime(Long msgTime) {
+        this.msgTime = msgTime == null ? Long.MIN_VALUE : msgTime;
+    }
+
+    @Override
+    public void setMsgTime(long msgTime) {
+        this.msgTime = msgTime;
+    }
+
+    @Override
+    public long getMsgTimeValue() {
+        return msgTime;
+    }
+
+    @Override
+    public Integer getTargetNumber() {
+        return targetNumber == Integer.MIN_VALUE ? null : targetNumber;
+    }
+
+    @Override
+    public void setTargetNumber(Integer targetNumber) {
+        this.targetNumber = targetNumber == null ? Integer.MIN_VALUE : targetNumber;
+    }
+
+    @Override
+    public void setTargetNumber(int targetNumber) {
+        this.targetNumber = targetNumber;
+    }
+
+    @Override
+    public int getTargetNumberValue() {
+        return targetNumber;
+    }
+
+    @Override
+    public Double getDistance() {
+        return box(distance);
+    }
+
+    @Override
+    public void setDistance(Double distance) {
+        this.distance = unbox(distance);
+    }
+
+    @Override
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    @Override
+    public double getDistanceValue() {
+        return distance;
+    }
+
+    @Override
+    public Double getBearing() {
+        return box(bearing);
+    }
+
+    @Override
+    public void setBearing(Double bearing) {
+        this.bearing = unbox(bearing);
+    }
+
+    @Override
+    public void setBearing(double bearing) {
+        this.bearing = bearing;
+    }
+
+    @Override
+    public double getBearingValue() {
+        return bearing;
+    }
+
+    @Override
+    public Double getCourse() {
+        return box(course);
+    }
+
+    @Override
+    public void setCourse(Double course) {
+        this.course = unbox(course);
+    }
+
+    @Override
+    public void setCourse(double course) {
+        this.course = course;
+    }
+
+    @Override
+    public double getCourseValue() {
+        return course;
+    }
+
+    @Override
+    public Double getSpeed() {
+        return box(speed);
+    }
+
+    @Override
+    public void setSpeed(Double speed) {
+        this.speed = unbox(speed);
+    }
+
+    @Override
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    @Override
+    public double getSpeedValue() {
+        return speed;
+    }
+
+    @Override
+    public TargetType getType() {
+        return type < 0 ? null : TYPES[type];
+    }
+
+    @Override
+    public void setType(TargetType type) {
+        this.type = type == null ? -1 : (byte) type.ordinal();
+    }
+
+    @Override
+    public TargetStatus getStatus() {
+        return status < 0 ? null : STATUSES[status];
+    }
+
+    @Override
+    public void setStatus(TargetStatus status) {
+        this.status = status == null ? -1 : (byte) status.ordinal();
+    }
+
+    @Override
+    public IFF getIff() {
+        return iff < 0 ? null : IFFS[iff];
+    }
+
+    @Override
+    public void setIff(IFF iff) {
+        this.iff = iff == null ? -1 : (byte) iff.ordinal();
+    }
+
+    static Double box(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    static double unbox(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
@@ -44,6 +44,19 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.msgTime = msgTime;
     }
 
+    public void setMsgTime(long msgTime) {
+        setMsgTime(Long.valueOf(msgTime));
+    }
+
+    /**
+     * @return время сообщения без упаковки или {@link Long#MIN_VALUE}, если время не задано;
+     * аналогичные методы {@code getXxxValue()} возвращают {@code MIN_VALUE} или {@code NaN}
+     */
+    public long getMsgTimeValue() {
+        Long value = getMsgTime();
+        return value == null ? Long.MIN_VALUE : value;
+    }
+
     public Integer getTargetNumber() {
         return targetNumber;
     }
@@ -52,6 +65,15 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.targetNumber = targetNumber;
     }
 
+    public void setTargetNumber(int targetNumber) {
+        setTargetNumber(Integer.valueOf(targetNumber));
+    }
+
+    public int getTargetNumberValue() {
+        Integer value = getTargetNumber();
+        return value == null ? Integer.MIN_VALUE : value;
+    }
+
     public Double getDistance() {
         return distance;
     }
@@ -60,6 +82,15 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.distance = distance;
     }
 
+    public void setDistance(double distance) {
+        setDistance(Double.valueOf(distance));
+    }
+
+    public double getDistanceValue() {
+        Double value = getDistance();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getBearing() {
         return bearing;
     }
@@ -68,6 +99,15 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.bearing = bearing;
     }
 
+    public void setBearing(double bearing) {
+        setBearing(Double.valueOf(bearing));
+    }
+
+    public double getBearingValue() {
+        Double value = getBearing();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getCourse() {
         return course;
     }
@@ -76,6 +116,15 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.course = course;
     }
 
+    public void setCourse(double course) {
+        setCourse(Double.valueOf(course));
+    }
+
+    public double getCourseValue() {
+        Double value = getCourse();
+        return value == null ? Double.NaN : value;
+    }
+
     public Double getSpeed() {
         return speed;
     }
@@ -84,6 +133,15 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         this.speed = speed;
     }
 
+    public void setSpeed(double speed) {
+        setSpeed(Double.valueOf(speed));
+    }
+
+    public double getSpeedValue() {
+        Double value = getSpeed();
+        return value == null ? Double.NaN : value;
+    }
+
     public TargetType getType() {
         return type;
     }
@@ -113,14 +171,14 @@ public class TrackedTargetMessage extends SearadarStationMessage {
         return "TrackedTargetMessage{" +
                 "msgRecTime=" + getMsgRecTime() +
                 ", msgTime=" + getMsgTime() +
-                ", targetNumber=" + targetNumber +
-                ", distance=" + distance +
-                ", bearing=" + bearing +
-                ", course=" + course +
-                ", speed=" + speed +
-                ", type=" + type +
-                ", status=" + status +
-                ", iff=" + iff +
+                ", targetNumber=" + getTargetNumber() +
+                ", distance=" + getDistance() +
+                ", bearing=" + getBearing() +
+                ", course=" + getCourse() +
+                ", speed=" + getSpeed() +
+                ", type=" + getType() +
+                ", status=" + getStatus() +
+                ", iff=" + getIff() +
                 '}';
     }
 }
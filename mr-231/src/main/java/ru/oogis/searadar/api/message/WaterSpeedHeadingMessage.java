@@ -36,6 +36,15 @@ public class WaterSpeedHeadingMessage extends SearadarStationMessage{
         this.course = course;
     }
 
+    public void setCourse(double course) {
+        setCourse(Double.valueOf(course));
+    }
+
+    public double getCourseValue() {
+        Double value = getCourse();
+        return value == null ? Double.NaN : value;
+    }
+
     public String getCourseAttr() {
         return courseAttr;
     }
@@ -52,6 +61,15 @@ public class WaterSpeedHeadingMessage extends SearadarStationMessage{
         this.speed = speed;
     }
 
+    public void setSpeed(double speed) {
+        setSpeed(Double.valueOf(speed));
+    }
+
+    public double getSpeedValue() {
+        Double value = getSpeed();
+        return value == null ? Double.NaN : value;
+    }
+
     public String getSpeedUnit() {
         return speedUnit;
     }
@@ -64,10 +82,10 @@ public class WaterSpeedHeadingMessage extends SearadarStationMessage{
     public String toString() {
         return "WaterSpeedHeadingMessage{" +
                 "msgRecTime=" + getMsgRecTime() +
-                ", course=" + course +
-                ", courseAttr=" + courseAttr +
-                ", speed=" + speed +
-                ", speedUnit=" + speedUnit +
+                ", course=" + getCourse() +
+                ", courseAttr=" + getCourseAttr() +
+                ", speed=" + getSpeed() +
+                ", speedUnit=" + getSpeedUnit() +
                 '}';
     }
 }
@@ -0,0 +1,467 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Расчет кратчайшего сближения (CPA) и времени до него (TCPA) для всех целей обзора.
+ * <p>
+ * Каждый обзор оценивается целиком: для каждой цели - сближение со своим судном, для пар целей, находящихся
+ * не дальше {@code pairRange} друг от друга, - сближение между ними. Пары отбираются по равномерной сетке
+ * с ячейкой {@code pairRange}, поэтому проверяются только цели соседних ячеек, а не все пары. При количестве
+ * целей от {@value #PARALLEL_THRESHOLD} обзор делится на части, считаемые в общем пуле fork-join.
+ * <p>
+ * Позиции строятся по дистанции и пеленгу TTM на плоскости со своим судном в начале; дистанции - в милях,
+ * скорости - в узлах, TCPA - в минутах. Опасным считается сближение с {@code CPA <= cpaLimit} и
+ * {@code 0 <= TCPA <= tcpaLimit}. События {@link CollisionAlarm} выдаются при переходе: первое нарушение -
+ * {@link CollisionAlarm.State#RAISED}, его окончание или потеря цели - {@link CollisionAlarm.State#CLEARED}.
+ * Потерянные цели ({@link TargetStatus#LOST}) не оцениваются. Экземпляр обслуживает одну станцию; методы,
+ * кроме {@link #process(Exchange)}, не потокобезопасны.
+ */
+public class CollisionRiskEngine implements Processor {
+
+    /**
+     * Заголовок со списком {@link CollisionAlarm} обмена.
+     */
+    public static final String COLLISION_ALARMS = "collision_alarms";
+
+    static final int PARALLEL_THRESHOLD = 512;
+    private static final int PARALLEL_CHUNK = 128;
+
+    private double cpaLimit = 1.0;
+    private double tcpaLimit = 12.0;
+    private double pairRange = 3.0;
+    private boolean relativeBearing;
+    private boolean relativeMotion;
+    private final OwnShipMotion ownMotion = new OwnShipMotion();
+
+    // Состояние последнего обзора: строки пакета без потерянных целей
+    private int count;
+    private int rows;
+    private int[] row = new int[0];
+    private int[] number = new int[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] cpa = new double[0];
+    private double[] tcpa = new double[0];
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private int[] next = new int[0];
+    private int[] heads = new int[0];
+    private int cellMask;
+    private final PairHits hits = new PairHits();
+    private final ConcurrentLinkedQueue<PairHits> parallelHits = new ConcurrentLinkedQueue<>();
+
+    private Map<Long, CollisionAlarm> active = new HashMap<>();
+
+    public double getCpaLimit() {
+        return cpaLimit;
+    }
+
+    /**
+     * @param cpaLimit опасная дистанция кратчайшего сближения в милях
+     */
+    public void setCpaLimit(double cpaLimit) {
+        this.cpaLimit = cpaLimit;
+    }
+
+    public double getTcpaLimit() {
+        return tcpaLimit;
+    }
+
+    /**
+     * @param tcpaLimit наибольшее время до кратчайшего сближения в минутах, при котором оно считается опасным
+     */
+    public void setTcpaLimit(double tcpaLimit) {
+        this.tcpaLimit = tcpaLimit;
+    }
+
+    public double getPairRange() {
+        return pairRange;
+    }
+
+    /**
+     * @param pairRange наибольшее расстояние в милях между целями, для которых оценивается сближение друг с другом;
+     *                  0 - пары не оцениваются
+     */
+    public void setPairRange(double pairRange) {
+        if (pairRange < 0 || Double.isNaN(pairRange)) {
+            throw new IllegalArgumentException("Pair range must not be negative: " + pairRange);
+        }
+        this.pairRange = pairRange;
+    }
+
+    public boolean isRelativeBearing() {
+        return relativeBearing;
+    }
+
+    /**
+     * @param relativeBearing пеленг TTM отсчитывается от курса своего судна
+     */
+    public void setRelativeBearing(boolean relativeBearing) {
+        this.relativeBearing = relativeBearing;
+    }
+
+    public boolean isRelativeMotion() {
+        return relativeMotion;
+    }
+
+    /**
+     * @param relativeMotion скорость и курс TTM - движение относительно своего судна
+     */
+    public void setRelativeMotion(boolean relativeMotion) {
+        this.relativeMotion = relativeMotion;
+    }
+
+    /**
+     * @param heading истинный курс своего судна в градусах
+     * @param speed   скорость своего судна в узлах
+     */
+    public void setOwnShipMotion(double heading, double speed) {
+        ownMotion.heading = heading;
+        ownMotion.speed = speed;
+    }
+
+    /**
+     * Обновляет курс и скорость своего судна по VHW; сообщения других типов пропускаются.
+     */
+    public boolean accept(SearadarStationMessage message) {
+        return ownMotion.accept(message);
+    }
+
+    /**
+     * Оценивает все цели обзора.
+     *
+     * @return события, возникшие на этом обзоре; пустой неизменяемый список, если их нет
+     */
+    public List<CollisionAlarm> evaluate(TrackedTargetBatch sweep) {
+        load(sweep);
+        hits.clear();
+        parallelHits.clear();
+        if (pairRange > 0) buildGrid();
+        if (count >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new SweepTask(0, count));
+        } else {
+            compute(0, count, hits);
+        }
+        long time = sweep.isEmpty() ? 0L : sweep.getMsgRecTime(0);
+        return alarms(time);
+    }
+
+    /**
+     * @return количество оцененных целей последнего обзора
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getTargetNumber(int index) {
+        return number[checkIndex(index)];
+    }
+
+    /**
+     * @return строка пакета последнего обзора, соответствующая цели
+     */
+    public int getRow(int index) {
+        return row[checkIndex(index)];
+    }
+
+    /**
+     * @return CPA цели относительно своего судна в милях
+     */
+    public double getCpa(int index) {
+        return cpa[checkIndex(index)];
+    }
+
+    /**
+     * @return TCPA цели относительно своего судна в минутах; отрицательное значение - цель удаляется
+     */
+    public double getTcpa(int index) {
+        return tcpa[checkIndex(index)];
+    }
+
+    /**
+     * @return текущие опасные сближения
+     */
+    public Collection<CollisionAlarm> getActiveAlarms() {
+        return Collections.unmodifiableCollection(active.values());
+    }
+
+    /**
+     * Обновляет курс и скорость судна по VHW тела обмена, оценивает цели тела и записывает события
+     * в заголовок {@link #COLLISION_ALARMS}. Тело - {@link TrackedTargetBatch} или коллекция сообщений обзора.
+     */
+    @Override
+    public synchronized void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        Object body = in.getBody();
+        TrackedTargetBatch sweep;
+        if (body instanceof TrackedTargetBatch) {
+            sweep = (TrackedTargetBatch) body;
+        } else if (body instanceof Collection) {
+            sweep = new TrackedTargetBatch();
+            for (Object message : (Collection<?>) body) {
+                if (message instanceof TrackedTargetMessage) {
+                    sweep.add((TrackedTargetMessage) message);
+                } else if (message instanceof SearadarStationMessage) {
+                    accept((SearadarStationMessage) message);
+                }
+            }
+        } else {
+            return;
+        }
+        List<CollisionAlarm> alarms = evaluate(sweep);
+        if (!alarms.isEmpty()) in.setHeader(COLLISION_ALARMS, alarms);
+    }
+
+    private void load(TrackedTargetBatch sweep) {
+        rows = sweep.size();
+        ensureCapacity(rows);
+        int[] numbers = sweep.targetNumberColumn();
+        double[] distances = sweep.distanceColumn();
+        double[] bearings = sweep.bearingColumn();
+        double[] speeds = sweep.speedColumn();
+        double[] courses = sweep.courseColumn();
+        byte[] statuses = sweep.statusColumn();
+        byte lost = (byte) TargetStatus.LOST.ordinal();
+        double ownEast = ownEast();
+        double ownNorth = ownNorth();
+        double bearingOffset = relativeBearing ? ownMotion.heading : 0.0;
+        count = 0;
+        for (int r = 0; r < rows; r++) {
+            if (statuses[r] == lost) continue;
+            int i = count++;
+            row[i] = r;
+            number[i] = numbers[r];
+            double bearing = Math.toRadians(bearings[r] + bearingOffset);
+            x[i] = distances[r] * Math.sin(bearing);
+            y[i] = distances[r] * Math.cos(bearing);
+            double course = Math.toRadians(courses[r]);
+            // Хранится истинная скорость цели: пары целей сравниваются в одной системе отсчета
+            vx[i] = speeds[r] * Math.sin(course) + (relativeMotion ? ownEast : 0.0);
+            vy[i] = speeds[r] * Math.cos(course) + (relativeMotion ? ownNorth : 0.0);
+        }
+    }
+
+    // Судно без данных о скорости или курсе считается неподвижным
+    private double ownEast() {
+        double east = ownMotion.east();
+        return Double.isNaN(east) ? 0.0 : east;
+    }
+
+    private double ownNorth() {
+        double north = ownMotion.north();
+        return Double.isNaN(north) ? 0.0 : north;
+    }
+
+        private void buildGrid() {
+        int buckets = Integer.highestOneBit(Math.max(16, count * 2) - 1) << 1;
+        if (heads.length < buckets) heads = new int[buckets];
+        cellMask = buckets - 1;
+        Arrays.fill(heads, 0, buckets, -1);
+        for (int i = 0; i < count; i++) {
+            cellX[i] = (int) Math.floor(x[i] / pairRange);
+            cellY[i] = (int) Math.floor(y[i] / pairRange);
+            int bucket = bucket(cellX[i], cellY[i]);
+            next[i] = heads[bucket];
+            heads[bucket] = i;
+        }
+    }
+
+    private void compute(int from, int to, PairHits sink) {
+        double ownEast = ownEast();
+        double ownNorth = ownNorth();
+        double range2 = pairRange * pairRange;
+        for (int i = from; i < to; i++) {
+            closestApproach(x[i], y[i], vx[i] - ownEast, vy[i] - ownNorth, i);
+            if (pairRange <= 0 || Double.isNaN(x[i]) || Double.isNaN(y[i])) continue;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int cx = cellX[i] + dx;
+                    int cy = cellY[i] + dy;
+                    for (int j = heads[bucket(cx, cy)]; j >= 0; j = next[j]) {
+                        // Ячейки с общим индексом хеша пропускаются, иначе пара найдется дважды
+                        if (j <= i || cellX[j] != cx || cellY[j] != cy) continue;
+                        double px = x[j] - x[i];
+                        double py = y[j] - y[i];
+                        if (px * px + py * py > range2) continue;
+                        double rvx = vx[j] - vx[i];
+                        double rvy = vy[j] - vy[i];
+                        double v2 = rvx * rvx + rvy * rvy;
+                        double t = v2 > 0 ? -(px * rvx + py * rvy) / v2 : 0.0;
+                        double ex = px + rvx * t;
+                        double ey = py + rvy * t;
+                        double pairCpa = Math.sqrt(ex * ex + ey * ey);
+                        double pairTcpa = t * 60.0;
+                        if (isDangerous(pairCpa, pairTcpa)) sink.add(i, j, pairCpa, pairTcpa);
+                    }
+                }
+            }
+        }
+    }
+
+    private void closestApproach(double px, double py, double rvx, double rvy, int i) {
+        double v2 = rvx * rvx + rvy * rvy;
+        double t = v2 > 0 ? -(px * rvx + py * rvy) / v2 : 0.0;
+        double ex = px + rvx * t;
+        double ey = py + rvy * t;
+        cpa[i] = Math.sqrt(ex * ex + ey * ey);
+        tcpa[i] = t * 60.0;
+    }
+
+    private boolean isDangerous(double cpaValue, double tcpaValue) {
+        return cpaValue <= cpaLimit && tcpaValue >= 0 && tcpaValue <= tcpaLimit;
+    }
+
+    private List<CollisionAlarm> alarms(long time) {
+        Map<Long, CollisionAlarm> current = null;
+        for (int i = 0; i < count; i++) {
+            if (isDangerous(cpa[i], tcpa[i])) {
+                current = put(current, time, number[i], CollisionAlarm.OWN_SHIP, cpa[i], tcpa[i]);
+            }
+        }
+        current = putPairs(current, time, hits);
+        for (PairHits part : parallelHits) {
+            current = putPairs(current, time, part);
+        }
+        if (current == null && active.isEmpty()) return Collections.emptyList();
+        if (current == null) current = new HashMap<>();
+
+        List<CollisionAlarm> result = new ArrayList<>();
+        for (Map.Entry<Long, CollisionAlarm> entry : current.entrySet()) {
+            if (!active.containsKey(entry.getKey())) result.add(entry.getValue());
+        }
+        for (Iterator<Map.Entry<Long, CollisionAlarm>> it = active.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, CollisionAlarm> entry = it.next();
+            if (current.containsKey(entry.getKey())) continue;
+            CollisionAlarm raised = entry.getValue();
+            result.add(new CollisionAlarm(CollisionAlarm.State.CLEARED, time, raised.getTargetNumber(),
+                    raised.getOtherTargetNumber(), raised.getCpa(), raised.getTcpa()));
+        }
+        // Действующим остается первое событие сближения: его CPA и TCPA - на момент обнаружения
+        for (Map.Entry<Long, CollisionAlarm> entry : current.entrySet()) {
+            CollisionAlarm raised = active.get(entry.getKey());
+            if (raised != null) entry.setValue(raised);
+        }
+        active = current;
+        return result.isEmpty() ? Collections.<CollisionAlarm>emptyList() : result;
+    }
+
+    private Map<Long, CollisionAlarm> putPairs(Map<Long, CollisionAlarm> current, long time, PairHits part) {
+        for (int k = 0; k < part.size; k++) {
+            int first = number[part.first[k]];
+            int second = number[part.second[k]];
+            current = put(current, time, Math.min(first, second), Math.max(first, second), part.cpa[k], part.tcpa[k]);
+        }
+        return current;
+    }
+
+    private static Map<Long, CollisionAlarm> put(Map<Long, CollisionAlarm> current, long time, int target, int other,
+                                                 double cpaValue, double tcpaValue) {
+        if (current == null) current = new HashMap<>();
+        long key = ((long) other << 32) | (target & 0xFFFFFFFFL);
+        current.put(key, new CollisionAlarm(CollisionAlarm.State.RAISED, time, target, other, cpaValue, tcpaValue));
+        return current;
+    }
+
+    private int bucket(int cx, int cy) {
+        int hash = cx * 0x9E3779B9 + cy * 0x85EBCA6B;
+        return (hash ^ (hash >>> 16)) & cellMask;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= number.length) return;
+        int size = Math.max(capacity, number.length * 2);
+        row = new int[size];
+        number = new int[size];
+        x = new double[size];
+        y = new double[size];
+        vx = new double[size];
+        vy = new double[size];
+        cpa = new double[size];
+        tcpa = new double[size];
+        cellX = new int[size];
+        cellY = new int[size];
+        next = new int[size];
+    }
+
+    /**
+     * Найденные опасные пары целей (индексы последнего обзора).
+     */
+    private static final class PairHits {
+
+        private int size;
+        private int[] first = new int[16];
+        private int[] second = new int[16];
+        private double[] cpa = new double[16];
+        private double[] tcpa = new double[16];
+
+        void add(int i, int j, double cpaValue, double tcpaValue) {
+            if (size == first.length) {
+                int capacity = size * 2;
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+                cpa = Arrays.copyOf(cpa, capacity);
+                tcpa = Arrays.copyOf(tcpa, capacity);
+            }
+            first[size] = i;
+            second[size] = j;
+            cpa[size] = cpaValue;
+            tcpa[size] = tcpaValue;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    private final class SweepTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+
+        SweepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                PairHits part = new PairHits();
+                CollisionRiskEngine.this.compute(from, to, part);
+                if (part.size > 0) parallelHits.add(part);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(from, middle), new SweepTask(middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ru.oogis.searadar.api.track;
+
+import java.util.Arrays;
+
+/**
+ * Цели обзора в абсолютных координатах: широта, долгота, истинные курс и скорость по столбцам примитивов.
+ * <p>
+ * Заполняется {@link GeoReferenceStage}. Массивы, возвращаемые методами {@code xxxColumn()}, - внутренние:
+ * в них действительны первые {@link #size()} элементов, и они заменяются при росте пакета. Значения, которые
+ * нельзя вычислить (например, до получения позиции своего судна), равны {@code NaN}. Экземпляр не потокобезопасен.
+ */
+public class GeoTargetBatch {
+
+    private int size;
+    private long[] time;
+    private int[] targetNumber;
+    private double[] latitude;
+    private double[] longitude;
+    private double[] course;
+    private double[] speed;
+
+    public GeoTargetBatch() {
+        this(64);
+    }
+
+    public GeoTargetBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        time = new long[capacity];
+        targetNumber = new int[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        course = new double[capacity];
+        speed = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Очищает пакет, сохраняя выделенные массивы.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return время получения в миллисекундах эпохи
+     */
+    public long getTime(int row) {
+        return time[checkRow(row)];
+    }
+
+    public int getTargetNumber(int row) {
+        return targetNumber[checkRow(row)];
+    }
+
+    public double getLatitude(int row) {
+        return latitude[checkRow(row)];
+    }
+
+    public double getLongitude(int row) {
+        return longitude[checkRow(row)];
+    }
+
+    /**
+     * @return истинный курс в градусах
+     */
+    public double getCourse(int row) {
+        return course[checkRow(row)];
+    }
+
+    /**
+     * @return истинная скорость в узлах
+     */
+    public double getSpeed(int row) {
+        return speed[checkRow(row)];
+    }
+
+    public long[] timeColumn() {
+        return time;
+    }
+
+    public int[] targetNumberColumn() {
+        return targetNumber;
+    }
+
+    public double[] latitudeColumn() {
+        return latitude;
+    }
+
+    public double[] longitudeColumn() {
+        return longitude;
+    }
+
+    public double[] courseColumn() {
+        return course;
+    }
+
+    public double[] speedColumn() {
+        return speed;
+    }
+
+    /**
+     * Добавляет строку.
+     *
+     * @return номер добавленной строки
+     */
+    public int add(long time, int targetNumber, double latitude, double longitude, double course, double speed) {
+        int row = extend(1);
+        this.time[row] = time;
+        this.targetNumber[row] = targetNumber;
+        this.latitude[row] = latitude;
+        this.longitude[row] = longitude;
+        this.course[row] = course;
+        this.speed[row] = speed;
+        return row;
+    }
+
+    /**
+     * Увеличивает размер пакета на {@code count} строк; значения новых строк заполняет вызывающий.
+     *
+     * @return номер первой добавленной строки
+     */
+    int extend(int count) {
+        int first = size;
+        int required = size + count;
+        if (required > time.length) {
+            grow(Math.max(required, time.length * 2));
+        }
+        size = required;
+        return first;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+
+    private void grow(int capacity) {
+        time = Arrays.copyOf(time, capacity);
+        targetNumber = Arrays.copyOf(targetNumber, capacity);
+        latitude = Arrays.copyOf(latitude, capacity);
+        longitude = Arrays.copyOf(longitude, capacity);
+        course = Arrays.copyOf(course, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.hydra.api.InteractionManager;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Текущая картина целей всех станций: последнее состояние каждой цели по станции и номеру цели.
+ * <p>
+ * Таблица заполняется из потока конвертера: как процессор маршрута она принимает тело обмена -
+ * {@link TrackedTargetMessage}, {@link TrackedTargetBatch} или коллекцию сообщений, а станцию берет
+ * из заголовка {@link InteractionManager#CHANNEL_ID}. Сообщения других типов пропускаются.
+ *
+ * @see StationTargets
+ */
+public class LiveTargetTable implements Processor {
+
+    /**
+     * Станция для обменов без заголовка канала.
+     */
+    public static final String DEFAULT_STATION = "";
+
+    private final ConcurrentMap<String, StationTargets> stations = new ConcurrentHashMap<>();
+
+    /**
+     * @return цели станции; таблица станции создается при первом обращении
+     */
+    public StationTargets station(String station) {
+        StationTargets result = stations.get(station);
+        if (result == null) {
+            result = stations.computeIfAbsent(station, StationTargets::new);
+        }
+        return result;
+    }
+
+    /**
+     * @return цели станции или {@code null}, если о ней еще не было сообщений
+     */
+    public StationTargets findStation(String station) {
+        return stations.get(station);
+    }
+
+    public Set<String> getStations() {
+        return Collections.unmodifiableSet(stations.keySet());
+    }
+
+    /**
+     * @return {@code true}, если сообщение - цель с номером и ее состояние записано
+     */
+    public boolean update(String station, SearadarStationMessage message) {
+        return message instanceof TrackedTargetMessage && station(station).update((TrackedTargetMessage) message);
+    }
+
+    /**
+     * @return количество записанных целей
+     */
+    public int update(String station, TrackedTargetBatch batch) {
+        return batch.isEmpty() ? 0 : station(station).update(batch);
+    }
+
+    /**
+     * @return количество записанных целей
+     */
+    public int update(String station, Collection<?> messages) {
+        StationTargets targets = null;
+        int updated = 0;
+        for (Object message : messages) {
+            if (message instanceof TrackedTargetMessage) {
+                if (targets == null) targets = station(station);
+                if (targets.update((TrackedTargetMessage) message)) updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Заменяет содержимое пакета снимком целей станции.
+     *
+     * @return количество целей в снимке
+     */
+    public int snapshot(String station, TrackedTargetBatch into) {
+        StationTargets targets = stations.get(station);
+        if (targets == null) {
+            into.clear();
+            return 0;
+        }
+        return targets.snapshot(into);
+    }
+
+    /**
+     * Удаляет у всех станций потерянные цели, последнее сообщение о которых получено раньше заданного момента.
+     *
+     * @return количество удаленных целей
+     */
+    public int removeLost(long receivedBefore) {
+        int removed = 0;
+        for (StationTargets targets : stations.values()) {
+            removed += targets.removeLost(receivedBefore);
+        }
+        return removed;
+    }
+
+    public void removeStation(String station) {
+        stations.remove(station);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        String station = in.getHeader(InteractionManager.CHANNEL_ID, DEFAULT_STATION, String.class);
+        Object body = in.getBody();
+        if (body instanceof SearadarStationMessage) {
+            update(station, (SearadarStationMessage) body);
+        } else if (body instanceof TrackedTargetBatch) {
+            update(station, (TrackedTargetBatch) body);
+        } else if (body instanceof Collection) {
+            update(station, (Collection<?>) body);
+        }
+    }
+}
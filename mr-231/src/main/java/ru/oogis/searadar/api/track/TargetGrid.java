@@ -0,0 +1,396 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Пространственный индекс целей одной станции на равномерной сетке.
+ * <p>
+ * Цели проецируются по дистанции и пеленгу TTM на плоскость со своим судном в начале (x - на восток,
+ * y - на север, в милях) и раскладываются по квадратным ячейкам со стороной {@code cellSize}. Ячейки хешируются
+ * в таблицу корзин, а цели корзины связаны двусвязным списком по слотам, поэтому перемещение цели в другую
+ * ячейку и ее удаление выполняются за O(1) без перестроения индекса. Потерянная цель
+ * ({@link TargetStatus#LOST}) и цель без дистанции или пеленга удаляются из индекса.
+ * <p>
+ * Запросы просматривают только ячейки, пересекающие область запроса: выборка в радиусе
+ * ({@link #range}), по сектору пеленгов от своего судна ({@link #sector}) и k ближайших целей ({@link #nearest}),
+ * где сетка обходится кольцами от ячейки точки запроса. Если область запроса покрывает больше ячеек, чем корзин
+ * в таблице, перебираются все цели. Обновления и запросы можно выполнять из разных потоков.
+ */
+public class TargetGrid implements Processor {
+
+    private static final byte LOST = (byte) TargetStatus.LOST.ordinal();
+
+    private final double cellSize;
+    private final StampedLock lock = new StampedLock();
+
+    private final TargetSlots targets = new TargetSlots();
+    private double[] x;
+    private double[] y;
+    private double[] bearing;
+    private int[] cellX;
+    private int[] cellY;
+    private int[] next;
+    private int[] prev;
+    private int[] heads;
+
+    public TargetGrid() {
+        this(1.0);
+    }
+
+    /**
+     * @param cellSize сторона ячейки в милях; выбирается порядка типичного радиуса запроса
+     */
+    public TargetGrid(double cellSize) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        allocate(8);
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return targets.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean contains(int targetNumber) {
+        long stamp = lock.readLock();
+        try {
+            return targets.find(targetNumber) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Перемещает цель по сообщению; потерянная цель удаляется, сообщение без номера цели пропускается.
+     *
+     * @return {@code true}, если индекс изменен
+     */
+    public boolean update(TrackedTargetMessage message) {
+        long stamp = lock.writeLock();
+        try {
+            return put(message.getTargetNumberValue(), message.getDistanceValue(), message.getBearingValue(),
+                    message.getStatus() == TargetStatus.LOST);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Перемещает все цели пакета под одной блокировкой.
+     *
+     * @return количество измененных целей
+     */
+    public int update(TrackedTargetBatch batch) {
+        int[] numbers = batch.targetNumberColumn();
+        double[] distances = batch.distanceColumn();
+        double[] bearings = batch.bearingColumn();
+        byte[] statuses = batch.statusColumn();
+        int updated = 0;
+        long stamp = lock.writeLock();
+        try {
+            for (int row = 0, n = batch.size(); row < n; row++) {
+                if (put(numbers[row], distances[row], bearings[row], statuses[row] == LOST)) updated++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return updated;
+    }
+
+    public boolean remove(int targetNumber) {
+        long stamp = lock.writeLock();
+        try {
+            return delete(targetNumber);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            targets.clear();
+            Arrays.fill(heads, -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Заменяет содержимое {@code out} целями не дальше {@code radius} от точки; порядок целей не определен.
+     *
+     * @param x      смещение точки от своего судна на восток в милях
+     * @param y      смещение точки от своего судна на север в милях
+     * @param radius радиус в милях
+     * @return количество найденных целей
+     */
+    public int range(double x, double y, double radius, TargetHits out) {
+        checkRadius(radius);
+        out.clear();
+        long stamp = lock.readLock();
+        try {
+            collect(x, y, radius, 0.0, -1.0, out);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return out.size();
+    }
+
+    /**
+     * Заменяет содержимое {@code out} целями в секторе пеленгов от своего судна: по часовой стрелке от
+     * {@code fromBearing} до {@code toBearing} (сектор 0-360 - полный круг) и не дальше {@code maxDistance}.
+     * Расстояния результата - дистанции от своего судна; порядок целей не определен.
+     *
+     * @return количество найденных целей
+     */
+    public int sector(double fromBearing, double toBearing, double maxDistance, TargetHits out) {
+        checkRadius(maxDistance);
+        double width = toBearing - fromBearing;
+        if (width < 0) width += 360.0;
+        out.clear();
+        long stamp = lock.readLock();
+        try {
+            collect(0.0, 0.0, maxDistance, fromBearing, width, out);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return out.size();
+    }
+
+    /**
+     * Заменяет содержимое {@code out} не более чем {@code k} ближайшими к точке целями по возрастанию расстояния.
+     *
+     * @return количество найденных целей
+     */
+    public int nearest(double x, double y, int k, TargetHits out) {
+        if (k < 0) throw new IllegalArgumentException("Negative count: " + k);
+        out.clear();
+        long stamp = lock.readLock();
+        try {
+            if (k == 0 || targets.size() == 0) return 0;
+            int wanted = Math.min(k, targets.size());
+            int qx = cell(x);
+            int qy = cell(y);
+            for (int ring = 0; ; ring++) {
+                // Кольцо обходит (2r+1)^2 - (2r-1)^2 ячеек; дальше перебор всех целей дешевле
+                long side = 2L * ring + 1;
+                if (side * side > heads.length) {
+                    out.clear();
+                    for (int slot = 0, top = targets.top(); slot < top; slot++) {
+                        int number = targets.numberAt(slot);
+                        if (number != TargetSlots.NO_TARGET) {
+                            out.insert(number, Math.hypot(this.x[slot] - x, this.y[slot] - y), k);
+                        }
+                    }
+                    break;
+                }
+                visitRing(qx, qy, ring, x, y, k, out);
+                // Непросмотренные ячейки лежат не ближе ring * cellSize от точки запроса
+                if (out.size() == wanted && out.distanceColumn()[wanted - 1] <= ring * cellSize) break;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return out.size();
+    }
+
+    /**
+     * Перемещает цели тела обмена: {@link TrackedTargetMessage}, {@link TrackedTargetBatch} или коллекции
+     * сообщений. Сообщения других типов пропускаются.
+     */
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Object body = exchange.getIn().getBody();
+        if (body instanceof TrackedTargetMessage) {
+            update((TrackedTargetMessage) body);
+        } else if (body instanceof TrackedTargetBatch) {
+            update((TrackedTargetBatch) body);
+        } else if (body instanceof Collection) {
+            for (Object message : (Collection<?>) body) {
+                if (message instanceof TrackedTargetMessage) update((TrackedTargetMessage) message);
+            }
+        }
+    }
+
+    private boolean put(int targetNumber, double distance, double targetBearing, boolean lost) {
+        if (targetNumber == TargetSlots.NO_TARGET) return false;
+        if (lost || Double.isNaN(distance) || Double.isNaN(targetBearing)) return delete(targetNumber);
+        double radians = Math.toRadians(targetBearing);
+        double px = distance * Math.sin(radians);
+        double py = distance * Math.cos(radians);
+        int cx = cell(px);
+        int cy = cell(py);
+        int slot = targets.find(targetNumber);
+        if (slot >= 0) {
+            if (cellX[slot] != cx || cellY[slot] != cy) {
+                unlink(slot);
+                cellX[slot] = cx;
+                cellY[slot] = cy;
+                link(slot);
+            }
+        } else {
+            slot = targets.add(targetNumber);
+            if (slot == x.length) {
+                grow(slot * 2, slot);
+            }
+            cellX[slot] = cx;
+            cellY[slot] = cy;
+            link(slot);
+        }
+        x[slot] = px;
+        y[slot] = py;
+        double normalized = targetBearing % 360.0;
+        bearing[slot] = normalized < 0 ? normalized + 360.0 : normalized;
+        return true;
+    }
+
+    private boolean delete(int targetNumber) {
+        int slot = targets.remove(targetNumber);
+        if (slot < 0) return false;
+        unlink(slot);
+        return true;
+    }
+
+    private void collect(double qx, double qy, double radius, double fromBearing, double width, TargetHits out) {
+        double radius2 = radius * radius;
+        long minX = (long) Math.floor((qx - radius) / cellSize);
+        long maxX = (long) Math.floor((qx + radius) / cellSize);
+        long minY = (long) Math.floor((qy - radius) / cellSize);
+        long maxY = (long) Math.floor((qy + radius) / cellSize);
+        if ((maxX - minX + 1.0) * (maxY - minY + 1.0) > heads.length) {
+            for (int slot = 0, top = targets.top(); slot < top; slot++) {
+                if (targets.numberAt(slot) == TargetSlots.NO_TARGET) continue;
+                test(slot, qx, qy, radius2, fromBearing, width, out);
+            }
+            return;
+        }
+        for (long cx = minX; cx <= maxX; cx++) {
+            for (long cy = minY; cy <= maxY; cy++) {
+                for (int slot = heads[bucket((int) cx, (int) cy)]; slot >= 0; slot = next[slot]) {
+                    // В корзине могут лежать цели других ячеек с тем же хешем
+                    if (cellX[slot] == cx && cellY[slot] == cy) test(slot, qx, qy, radius2, fromBearing, width, out);
+                }
+            }
+        }
+    }
+
+    private void test(int slot, double qx, double qy, double radius2, double fromBearing, double width,
+                      TargetHits out) {
+        double dx = x[slot] - qx;
+        double dy = y[slot] - qy;
+        double distance2 = dx * dx + dy * dy;
+        if (distance2 > radius2) return;
+        if (width >= 0) {
+            double offset = (bearing[slot] - fromBearing) % 360.0;
+            if (offset < 0) offset += 360.0;
+            if (offset > width) return;
+        }
+        out.add(targets.numberAt(slot), Math.sqrt(distance2));
+    }
+
+    private void visitRing(int qx, int qy, int ring, double x, double y, int k, TargetHits out) {
+        if (ring == 0) {
+            visitCell(qx, qy, x, y, k, out);
+            return;
+        }
+        for (int d = -ring; d <= ring; d++) {
+            visitCell(qx + d, qy - ring, x, y, k, out);
+            visitCell(qx + d, qy + ring, x, y, k, out);
+        }
+        for (int d = -ring + 1; d < ring; d++) {
+            visitCell(qx - ring, qy + d, x, y, k, out);
+            visitCell(qx + ring, qy + d, x, y, k, out);
+        }
+    }
+
+    private void visitCell(int cx, int cy, double x, double y, int k, TargetHits out) {
+        for (int slot = heads[bucket(cx, cy)]; slot >= 0; slot = next[slot]) {
+            if (cellX[slot] == cx && cellY[slot] == cy) {
+                out.insert(targets.numberAt(slot), Math.hypot(this.x[slot] - x, this.y[slot] - y), k);
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int bucket(int cx, int cy) {
+        int hash = cx * 0x9E3779B9 + cy * 0x85EBCA6B;
+        return (hash ^ (hash >>> 16)) & (heads.length - 1);
+    }
+
+    private void link(int slot) {
+        int bucket = bucket(cellX[slot], cellY[slot]);
+        int head = heads[bucket];
+        next[slot] = head;
+        prev[slot] = -1;
+        if (head >= 0) prev[head] = slot;
+        heads[bucket] = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[bucket(cellX[slot], cellY[slot])] = after;
+        }
+        if (after >= 0) prev[after] = before;
+    }
+
+    /**
+     * Увеличивает массивы слотов и перестраивает корзины; слот {@code pending} связывает вызывающий.
+     */
+    private void grow(int capacity, int pending) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        bearing = Arrays.copyOf(bearing, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        heads = new int[capacity * 2];
+        Arrays.fill(heads, -1);
+        for (int slot = 0, top = targets.top(); slot < top; slot++) {
+            if (slot != pending && targets.numberAt(slot) != TargetSlots.NO_TARGET) link(slot);
+        }
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        bearing = new double[capacity];
+        cellX = new int[capacity];
+        cellY = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        heads = new int[capacity * 2];
+        Arrays.fill(heads, -1);
+    }
+
+    private static void checkRadius(double radius) {
+        if (!(radius >= 0) || Double.isInfinite(radius)) {
+            throw new IllegalArgumentException("Radius must be finite and not negative: " + radius);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.oogis.searadar.api.track;
+
+import java.util.Arrays;
+
+/**
+ * Результат запроса к {@link TargetGrid}: номера целей и расстояния до точки запроса в милях.
+ * <p>
+ * Повторно используемый экземпляр не создает объектов при запросе: массивы заменяются только при росте.
+ * Экземпляр не потокобезопасен.
+ */
+public class TargetHits {
+
+    private int size;
+    private int[] targetNumber;
+    private double[] distance;
+
+    public TargetHits() {
+        this(16);
+    }
+
+    public TargetHits(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        targetNumber = new int[capacity];
+        distance = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int getTargetNumber(int index) {
+        return targetNumber[checkIndex(index)];
+    }
+
+    /**
+     * @return расстояние от точки запроса до цели в милях
+     */
+    public double getDistance(int index) {
+        return distance[checkIndex(index)];
+    }
+
+    public int[] targetNumberColumn() {
+        return targetNumber;
+    }
+
+    public double[] distanceColumn() {
+        return distance;
+    }
+
+    void add(int number, double value) {
+        if (size == targetNumber.length) {
+            grow(size * 2);
+        }
+        targetNumber[size] = number;
+        distance[size] = value;
+        size++;
+    }
+
+    /**
+     * Вставляет цель с сохранением порядка по возрастанию расстояния, оставляя не больше {@code limit} ближайших.
+     */
+    void insert(int number, double value, int limit) {
+        if (size == limit && value >= distance[size - 1]) return;
+        if (size < limit) {
+            if (size == targetNumber.length) {
+                grow(Math.min(limit, size * 2));
+            }
+            size++;
+        }
+        int index = size - 1;
+        for (; index > 0 && distance[index - 1] > value; index--) {
+            targetNumber[index] = targetNumber[index - 1];
+            distance[index] = distance[index - 1];
+        }
+        targetNumber[index] = number;
+        distance[index] = value;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return index;
+    }
+
+    private void grow(int capacity) {
+        targetNumber = Arrays.copyOf(targetNumber, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+    }
+}
@@ -0,0 +1,325 @@
+package ru.oogis.searadar.api.track;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import ru.oogis.hydra.util.GeoHelper;
+import ru.oogis.hydra.util.TargetMovementElementsCalculator;
+import ru.oogis.searadar.api.types.TargetStatus;
+
+import java.util.Arrays;
+
+/**
+ * Сглаживание элементов движения целей фильтром Калмана с моделью постоянной скорости.
+ * <p>
+ * В отличие от {@link TargetMovementElementsCalculator}, считающего скорость и курс по двум позициям, фильтр
+ * накапливает состояние цели: позицию и скорость на локальной плоскости (метры от опорной точки цели) и
+ * ковариацию ошибки. Каждая отметка обрабатывается за O(1) без обращения к истории; состояние хранится в массивах
+ * примитивов по слоту цели. Оси x и y фильтруются независимо с одинаковыми шумами и моментами отметок, поэтому
+ * ковариация у них общая - три числа на цель.
+ * <p>
+ * Шум измерения ({@code measurementNoise}, СКО позиции в метрах) и шум процесса ({@code accelerationNoise},
+ * СКО ускорения в м/с²) задают сглаживание: чем меньше шум процесса относительно шума измерения, тем
+ * сильнее сглаживание и тем медленнее реакция на маневр. Опорная точка переносится в оценку позиции, когда
+ * цель уходит от нее дальше {@value #REANCHOR_DISTANCE} м, чтобы ошибка плоского приближения оставалась малой.
+ * <p>
+ * Как процессор маршрута фильтр стоит после {@link GeoReferenceStage}: берет отметки из заголовка
+ * {@link GeoReferenceStage#GEO_TARGETS} и забывает потерянные цели тела ({@link TargetStatus#LOST}).
+ * Методы синхронизированы: запросы можно выполнять из другого потока.
+ */
+public class TargetMotionFilter implements Processor {
+
+    static final double REANCHOR_DISTANCE = 20000.0;
+    // Скорость новой цели неизвестна: СКО 20 м/с (около 39 узлов)
+    private static final double INITIAL_SPEED_VARIANCE = 400.0;
+
+    private final TargetSlots targets = new TargetSlots();
+    private final double measurementVariance;
+    private final double accelerationVariance;
+    private final LostTargets lost = new LostTargets();
+
+    private long[] time;
+    private double[] anchorLatitude;
+    private double[] anchorLongitude;
+    private double[] metersPerDegreeLongitude;
+    private double[] x;
+    private double[] y;
+    private double[] vx;
+    private double[] vy;
+    private double[] p11;
+    private double[] p12;
+    private double[] p22;
+    private int[] updates;
+
+    public TargetMotionFilter() {
+        this(30.0, 0.05);
+    }
+
+    /**
+     * @param measurementNoise  СКО позиции отметки в метрах
+     * @param accelerationNoise СКО ускорения цели в м/с²
+     */
+    public TargetMotionFilter(double measurementNoise, double accelerationNoise) {
+        if (!(measurementNoise > 0) || !(accelerationNoise >= 0)) {
+            throw new IllegalArgumentException("Invalid noise: " + measurementNoise + ", " + accelerationNoise);
+        }
+        measurementVariance = measurementNoise * measurementNoise;
+        accelerationVariance = accelerationNoise * accelerationNoise;
+        allocate(8);
+    }
+
+    public synchronized int size() {
+        return targets.size();
+    }
+
+    public synchronized boolean contains(int targetNumber) {
+        return targets.find(targetNumber) >= 0;
+    }
+
+    /**
+     * @return количество отметок, учтенных в состоянии цели; 0, если цели нет
+     */
+    public synchronized int getUpdateCount(int targetNumber) {
+        int slot = targets.find(targetNumber);
+        return slot < 0 ? 0 : updates[slot];
+    }
+
+    /**
+     * Учитывает отметку цели. Отметка без координат и отметка старше последней учтенной пропускаются.
+     *
+     * @param time время отметки в миллисекундах эпохи
+     * @return {@code true}, если состояние цели обновлено
+     */
+    public synchronized boolean update(int targetNumber, long time, double latitude, double longitude) {
+        return put(targetNumber, time, latitude, longitude);
+    }
+
+    /**
+     * Учитывает все отметки пакета.
+     *
+     * @return количество учтенных отметок
+     */
+    public synchronized int update(GeoTargetBatch batch) {
+        long[] times = batch.timeColumn();
+        int[] numbers = batch.targetNumberColumn();
+        double[] latitudes = batch.latitudeColumn();
+        double[] longitudes = batch.longitudeColumn();
+        int updated = 0;
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            if (put(numbers[row], times[row], latitudes[row], longitudes[row])) updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Добавляет в {@code into} состояние цели, экстраполированное на заданный момент.
+     *
+     * @return {@code false}, если цели нет
+     */
+    public synchronized boolean get(int targetNumber, long time, GeoTargetBatch into) {
+        int slot = targets.find(targetNumber);
+        if (slot < 0) return false;
+        int row = into.extend(1);
+        write(slot, time, into, row);
+        return true;
+    }
+
+    /**
+     * Заменяет содержимое пакета состоянием всех целей, экстраполированным на заданный момент.
+     *
+     * @return количество целей
+     */
+    public synchronized int snapshot(long time, GeoTargetBatch into) {
+        into.clear();
+        int first = into.extend(targets.size());
+        int row = first;
+        for (int slot = 0, top = targets.top(); slot < top; slot++) {
+            if (targets.numberAt(slot) != TargetSlots.NO_TARGET) write(slot, time, into, row++);
+        }
+        return row - first;
+    }
+
+    public synchronized boolean remove(int targetNumber) {
+        return targets.remove(targetNumber) >= 0;
+    }
+
+    /**
+     * Удаляет цели, последняя отметка которых старше заданного момента.
+     *
+     * @return количество удаленных целей
+     */
+    public synchronized int removeStale(long updatedBefore) {
+        int removed = 0;
+        for (int slot = 0, top = targets.top(); slot < top; slot++) {
+            int number = targets.numberAt(slot);
+            if (number != TargetSlots.NO_TARGET && time[slot] < updatedBefore) {
+                targets.remove(number);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        targets.clear();
+    }
+
+    /**
+     * Забывает потерянные цели тела обмена и учитывает отметки заголовка {@link GeoReferenceStage#GEO_TARGETS}
+     * (или тела - {@link GeoTargetBatch}).
+     */
+    @Override
+    public synchronized void process(Exchange exchange) throws Exception {
+        Message in = exchange.getIn();
+        Object body = in.getBody();
+        for (int i = 0, n = lost.collect(body); i < n; i++) {
+            targets.remove(lost.get(i));
+        }
+        GeoTargetBatch batch = in.getHeader(GeoReferenceStage.GEO_TARGETS, GeoTargetBatch.class);
+        if (batch == null && body instanceof GeoTargetBatch) batch = (GeoTargetBatch) body;
+        if (batch == null) return;
+        long[] times = batch.timeColumn();
+        int[] numbers = batch.targetNumberColumn();
+        double[] latitudes = batch.latitudeColumn();
+        double[] longitudes = batch.longitudeColumn();
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            // Отметка потерянной цели не должна заводить цель заново
+            if (!lost.contains(numbers[row])) put(numbers[row], times[row], latitudes[row], longitudes[row]);
+        }
+    }
+
+    private boolean put(int targetNumber, long when, double latitude, double longitude) {
+        if (targetNumber == TargetSlots.NO_TARGET || Double.isNaN(latitude) || Double.isNaN(longitude)) return false;
+        int slot = targets.find(targetNumber);
+        if (slot < 0) {
+            slot = targets.add(targetNumber);
+            if (slot == time.length) {
+                grow(slot * 2);
+            }
+            anchor(slot, latitude, longitude);
+            time[slot] = when;
+            x[slot] = 0.0;
+            y[slot] = 0.0;
+            vx[slot] = 0.0;
+            vy[slot] = 0.0;
+            p11[slot] = measurementVariance;
+            p12[slot] = 0.0;
+            p22[slot] = INITIAL_SPEED_VARIANCE;
+            updates[slot] = 1;
+            return true;
+        }
+        if (when < time[slot]) return false;
+        double dt = (when - time[slot]) / 1000.0;
+        double zx = east(slot, longitude);
+        double zy = north(slot, latitude);
+
+        // Прогноз: x' = x + v dt, P' = F P F^T + Q для белого шума ускорения
+        double a11 = p11[slot];
+        double a12 = p12[slot];
+        double a22 = p22[slot];
+        double dt2 = dt * dt;
+        double q = accelerationVariance;
+        a11 += 2 * dt * a12 + dt2 * a22 + dt2 * dt2 / 4 * q;
+        a12 += dt * a22 + dt2 * dt / 2 * q;
+        a22 += dt2 * q;
+        double px = x[slot] + vx[slot] * dt;
+        double py = y[slot] + vy[slot] * dt;
+
+        // Коррекция по измеренной позиции
+        double s = a11 + measurementVariance;
+        double k1 = a11 / s;
+        double k2 = a12 / s;
+        double ex = zx - px;
+        double ey = zy - py;
+        x[slot] = px + k1 * ex;
+        y[slot] = py + k1 * ey;
+        vx[slot] += k2 * ex;
+        vy[slot] += k2 * ey;
+        p11[slot] = (1 - k1) * a11;
+        p12[slot] = (1 - k1) * a12;
+        p22[slot] = a22 - k2 * a12;
+        time[slot] = when;
+        updates[slot]++;
+
+        if (Math.abs(x[slot]) > REANCHOR_DISTANCE || Math.abs(y[slot]) > REANCHOR_DISTANCE) {
+            double lat = latitude(slot, y[slot]);
+            double lon = longitude(slot, x[slot]);
+            anchor(slot, lat, lon);
+            x[slot] = 0.0;
+            y[slot] = 0.0;
+        }
+        return true;
+    }
+
+    private void write(int slot, long when, GeoTargetBatch into, int row) {
+        double dt = (when - time[slot]) / 1000.0;
+        double east = vx[slot];
+        double north = vy[slot];
+        into.timeColumn()[row] = when;
+        into.targetNumberColumn()[row] = targets.numberAt(slot);
+        into.latitudeColumn()[row] = latitude(slot, y[slot] + north * dt);
+        into.longitudeColumn()[row] = longitude(slot, x[slot] + east * dt);
+        double course = Math.toDegrees(Math.atan2(east, north));
+        into.courseColumn()[row] = course < 0 ? course + 360.0 : course;
+        into.speedColumn()[row] = Math.sqrt(east * east + north * north) / GeoHelper.KNOT_PMS;
+    }
+
+    private void anchor(int slot, double latitude, double longitude) {
+        anchorLatitude[slot] = latitude;
+        anchorLongitude[slot] = longitude;
+        metersPerDegreeLongitude[slot] = Math.toRadians(GeoHelper.WGS84_RADIUS) * Math.cos(Math.toRadians(latitude));
+    }
+
+    private double east(int slot, double longitude) {
+        double delta = longitude - anchorLongitude[slot];
+        // Переход через антимеридиан
+        if (delta > 180) delta -= 360;
+        else if (delta < -180) delta += 360;
+        return delta * metersPerDegreeLongitude[slot];
+    }
+
+    private double north(int slot, double latitude) {
+        return Math.toRadians(latitude - anchorLatitude[slot]) * GeoHelper.WGS84_RADIUS;
+    }
+
+    private double latitude(int slot, double north) {
+        return anchorLatitude[slot] + Math.toDegrees(north / GeoHelper.WGS84_RADIUS);
+    }
+
+    private double longitude(int slot, double east) {
+        double lon = anchorLongitude[slot] + east / metersPerDegreeLongitude[slot];
+        if (lon >= 180) lon -= 360;
+        else if (lon < -180) lon += 360;
+        return lon;
+    }
+
+    private void grow(int capacity) {
+        time = Arrays.copyOf(time, capacity);
+        anchorLatitude = Arrays.copyOf(anchorLatitude, capacity);
+        anchorLongitude = Arrays.copyOf(anchorLongitude, capacity);
+        metersPerDegreeLongitude = Arrays.copyOf(metersPerDegreeLongitude, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        p11 = Arrays.copyOf(p11, capacity);
+        p12 = Arrays.copyOf(p12, capacity);
+        p22 = Arrays.copyOf(p22, capacity);
+        updates = Arrays.copyOf(updates, capacity);
+    }
+
+    private void allocate(int capacity) {
+        time = new long[capacity];
+        anchorLatitude = new double[capacity];
+        anchorLongitude = new double[capacity];
+        metersPerDegreeLongitude = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        p11 = new double[capacity];
+        p12 = new double[capacity];
+        p22 = new double[capacity];
+        updates = new int[capacity];
+    }
+}
@@ -0,0 +1,146 @@
+package ru.oogis.searadar.api.track;
+
+import java.util.Arrays;
+
+/**
+ * Отображение номера цели в плотный номер слота для хранения состояния целей в массивах примитивов.
+ * <p>
+ * Номера целей - открытая адресация с удалением сдвигом; освобожденные слоты используются повторно, поэтому
+ * слоты занимают диапазон {@code [0, top())} с пропусками не больше числа удаленных целей. Экземпляр
+ * не потокобезопасен.
+ */
+final class TargetSlots {
+
+    static final int NO_TARGET = Integer.MIN_VALUE;
+
+    private int size;
+    private int[] keys;
+    private int[] values;
+
+    private int top;
+    private int free = -1;
+    private int[] numbers;
+    private int[] nextFree;
+
+    TargetSlots() {
+        keys = new int[16];
+        Arrays.fill(keys, NO_TARGET);
+        values = new int[16];
+        numbers = new int[8];
+        nextFree = new int[8];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return граница занятых слотов: все слоты целей меньше нее
+     */
+    int top() {
+        return top;
+    }
+
+    /**
+     * @return номер цели слота или {@link #NO_TARGET}, если слот свободен
+     */
+    int numberAt(int slot) {
+        return numbers[slot];
+    }
+
+    /**
+     * @return слот цели или -1
+     */
+    int find(int targetNumber) {
+        int index = index(targetNumber);
+        return index >= 0 ? values[index] : -1;
+    }
+
+    /**
+     * Выделяет слот цели, которой еще нет в отображении.
+     */
+    int add(int targetNumber) {
+        int slot;
+        if (free >= 0) {
+            slot = free;
+            free = nextFree[slot];
+        } else {
+            if (top == numbers.length) {
+                numbers = Arrays.copyOf(numbers, top * 2);
+                nextFree = Arrays.copyOf(nextFree, top * 2);
+            }
+            slot = top++;
+        }
+        numbers[slot] = targetNumber;
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        int index = -1 - index(targetNumber);
+        keys[index] = targetNumber;
+        values[index] = slot;
+        size++;
+        return slot;
+    }
+
+    /**
+     * @return освобожденный слот цели или -1, если цели нет
+     */
+    int remove(int targetNumber) {
+        int index = index(targetNumber);
+        if (index < 0) return -1;
+        int slot = values[index];
+        numbers[slot] = NO_TARGET;
+        nextFree[slot] = free;
+        free = slot;
+        int mask = keys.length - 1;
+        int gap = index;
+        for (int probe = (gap + 1) & mask; keys[probe] != NO_TARGET; probe = (probe + 1) & mask) {
+            int home = home(keys[probe], mask);
+            // Запись переносится в пропуск, если ее исходный слот не лежит в циклическом интервале (gap, probe]
+            boolean reachable = gap <= probe ? home > gap && home <= probe : home > gap || home <= probe;
+            if (!reachable) {
+                keys[gap] = keys[probe];
+                values[gap] = values[probe];
+                gap = probe;
+            }
+        }
+        keys[gap] = NO_TARGET;
+        size--;
+        return slot;
+    }
+
+    void clear() {
+        Arrays.fill(keys, NO_TARGET);
+        size = 0;
+        top = 0;
+        free = -1;
+    }
+
+    private int index(int targetNumber) {
+        int mask = keys.length - 1;
+        for (int index = home(targetNumber, mask); ; index = (index + 1) & mask) {
+            int key = keys[index];
+            if (key == targetNumber) return index;
+            if (key == NO_TARGET) return -1 - index;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        Arrays.fill(keys, NO_TARGET);
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == NO_TARGET) continue;
+            int index = -1 - index(oldKeys[i]);
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private static int home(int targetNumber, int mask) {
+        int hash = targetNumber * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
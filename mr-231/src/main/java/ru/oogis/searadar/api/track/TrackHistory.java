@@ -0,0 +1,230 @@
+package ru.oogis.searadar.api.track;
+
+import ru.oogis.searadar.api.message.TrackedTargetBatch;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * История трасс целей станции: последние {@code pointsPerTarget} отметок каждой цели в кольцевых буферах вне кучи.
+ * <p>
+ * Вся история занимает один прямой {@link ByteBuffer}: номер цели - индекс кольца фиксированного размера, поэтому
+ * тысячи трасс не создают объектов в куче и не нагружают сборщик мусора. Кольцо начинается заголовком - количеством
+ * добавленных отметок (8 байт), за ним следуют отметки по {@value #POINT_BYTES} байт: время получения, дистанция,
+ * пеленг, скорость и курс. Номер цели должен быть в диапазоне {@code [0, maxTargets)}: номер цели TTM - от 0 до 99,
+ * у некоторых станций - до 999.
+ * <p>
+ * Добавление и чтение не создают объектов; чтение выполняется в переиспользуемый {@link TrackPoints}.
+ */
+public class TrackHistory {
+
+    static final int POINT_BYTES = 40;
+    private static final int HEADER_BYTES = 8;
+    private static final int TIME = 0;
+    private static final int DISTANCE = 8;
+    private static final int BEARING = 16;
+    private static final int SPEED = 24;
+    private static final int COURSE = 32;
+
+    private final int maxTargets;
+    private final int pointsPerTarget;
+    private final int ringBytes;
+    private final ByteBuffer buffer;
+    private final StampedLock lock = new StampedLock();
+
+    public TrackHistory(int maxTargets, int pointsPerTarget) {
+        if (maxTargets < 1 || pointsPerTarget < 1) {
+            throw new IllegalArgumentException("Track history size must be positive: " + maxTargets + " x " + pointsPerTarget);
+        }
+        long ringBytes = HEADER_BYTES + (long) pointsPerTarget * POINT_BYTES;
+        if (ringBytes * maxTargets > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Track history is too large: " + maxTargets + " x " + pointsPerTarget);
+        }
+        this.maxTargets = maxTargets;
+        this.pointsPerTarget = pointsPerTarget;
+        this.ringBytes = (int) ringBytes;
+        // Прямой буфер заполнен нулями, то есть все кольца пусты
+        this.buffer = ByteBuffer.allocateDirect(this.ringBytes * maxTargets).order(ByteOrder.nativeOrder());
+    }
+
+    public int getMaxTargets() {
+        return maxTargets;
+    }
+
+    public int getPointsPerTarget() {
+        return pointsPerTarget;
+    }
+
+    /**
+     * @return размер памяти вне кучи, занятой историей, в байтах
+     */
+    public int getMemorySize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Добавляет отметку цели по TTM; время отметки - время получения сообщения.
+     *
+     * @return {@code false}, если номер цели не задан или вне диапазона истории
+     */
+    public boolean append(TrackedTargetMessage message) {
+        return append(message.getTargetNumberValue(), message.getMsgRecTimeMillis(), message.getDistanceValue(),
+                message.getBearingValue(), message.getSpeedValue(), message.getCourseValue());
+    }
+
+    /**
+     * Добавляет отметки всех целей пакета.
+     *
+     * @return количество добавленных отметок
+     */
+    public int append(TrackedTargetBatch batch) {
+        int[] targetNumbers = batch.targetNumberColumn();
+        long[] times = batch.msgRecTimeColumn();
+        double[] distances = batch.distanceColumn();
+        double[] bearings = batch.bearingColumn();
+        double[] speeds = batch.speedColumn();
+        double[] courses = batch.courseColumn();
+        int appended = 0;
+        long stamp = lock.writeLock();
+        try {
+            for (int row = 0, n = batch.size(); row < n; row++) {
+                if (put(targetNumbers[row], times[row], distances[row], bearings[row], speeds[row], courses[row])) {
+                    appended++;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return appended;
+    }
+
+    /**
+     * @return {@code false}, если номер цели вне диапазона истории
+     */
+    public boolean append(int targetNumber, long time, double distance, double bearing, double speed, double course) {
+        long stamp = lock.writeLock();
+        try {
+            return put(targetNumber, time, distance, bearing, speed, course);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return количество отметок цели в истории
+     */
+    public int size(int targetNumber) {
+        if (!contains(targetNumber)) return 0;
+        long stamp = lock.readLock();
+        try {
+            return (int) Math.min(buffer.getLong(ring(targetNumber)), pointsPerTarget);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Заменяет содержимое {@code into} последними отметками цели.
+     *
+     * @param count наибольшее количество отметок
+     * @return количество прочитанных отметок
+     */
+    public int readLatest(int targetNumber, int count, TrackPoints into) {
+        into.clear();
+        if (!contains(targetNumber) || count <= 0) return 0;
+        long stamp = lock.readLock();
+        try {
+            int base = ring(targetNumber);
+            long appended = buffer.getLong(base);
+            int available = (int) Math.min(appended, pointsPerTarget);
+            int n = Math.min(count, available);
+            into.ensureCapacity(n);
+            for (long i = appended - n; i < appended; i++) {
+                copy(point(base, i), into);
+            }
+            return n;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Заменяет содержимое {@code into} отметками цели со временем в интервале {@code [fromTime, toTime]}.
+     *
+     * @return количество прочитанных отметок
+     */
+    public int read(int targetNumber, long fromTime, long toTime, TrackPoints into) {
+        into.clear();
+        if (!contains(targetNumber)) return 0;
+        long stamp = lock.readLock();
+        try {
+            int base = ring(targetNumber);
+            long appended = buffer.getLong(base);
+            for (long i = Math.max(0, appended - pointsPerTarget); i < appended; i++) {
+                int point = point(base, i);
+                long time = buffer.getLong(point + TIME);
+                if (time >= fromTime && time <= toTime) copy(point, into);
+            }
+            return into.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Удаляет трассу цели, например после ее потери.
+     */
+    public void clear(int targetNumber) {
+        if (!contains(targetNumber)) return;
+        long stamp = lock.writeLock();
+        try {
+            buffer.putLong(ring(targetNumber), 0L);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            for (int targetNumber = 0; targetNumber < maxTargets; targetNumber++) {
+                buffer.putLong(ring(targetNumber), 0L);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean put(int targetNumber, long time, double distance, double bearing, double speed, double course) {
+        if (!contains(targetNumber)) return false;
+        int base = ring(targetNumber);
+        long appended = buffer.getLong(base);
+        int point = point(base, appended);
+        buffer.putLong(point + TIME, time);
+        buffer.putDouble(point + DISTANCE, distance);
+        buffer.putDouble(point + BEARING, bearing);
+        buffer.putDouble(point + SPEED, speed);
+        buffer.putDouble(point + COURSE, course);
+        buffer.putLong(base, appended + 1);
+        return true;
+    }
+
+    private void copy(int point, TrackPoints into) {
+        into.add(buffer.getLong(point + TIME), buffer.getDouble(point + DISTANCE), buffer.getDouble(point + BEARING),
+                buffer.getDouble(point + SPEED), buffer.getDouble(point + COURSE));
+    }
+
+    private boolean contains(int targetNumber) {
+        return targetNumber >= 0 && targetNumber < maxTargets;
+    }
+
+    private int ring(int targetNumber) {
+        return targetNumber * ringBytes;
+    }
+
+    private int point(int base, long index) {
+        return base + HEADER_BYTES + (int) (index % pointsPerTarget) * POINT_BYTES;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.oogis.searadar.api.types;
+
+/**
+ * Причина, по которой предложение не удалось преобразовать в сообщение.
+ */
+public enum InvalidReason {
+    /** Нет символа '*' - предложение обрезано */
+    TRUNCATED("No checksum delimiter"),
+    /** Контрольная сумма не совпадает с суффиксом *hh */
+    BAD_CHECKSUM("Wrong checksum"),
+    /** В предложении меньше полей, чем требует его тип */
+    TOO_FEW_FIELDS("Too few fields"),
+    /** Числовое поле не является числом */
+    BAD_NUMBER("Wrong number format"),
+    /** Форматтер предложения не распознан */
+    UNKNOWN_TYPE("Unknown sentence type"),
+    /** Значение поля вне допустимого набора */
+    INVALID_VALUE("Wrong field value");
+
+    private final String description;
+
+    InvalidReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
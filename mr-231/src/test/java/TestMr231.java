@@ -0,0 +1,77 @@
+import org.example.searadar.mr231.convert.Mr231Converter;
+import org.example.searadar.mr231.station.Mr231StationType;
+import org.junit.jupiter.api.Test;
+import ru.oogis.searadar.api.message.LazyRadarSystemDataMessage;
+import ru.oogis.searadar.api.message.LazyTrackedTargetMessage;
+import ru.oogis.searadar.api.message.MessageRepresentation;
+import ru.oogis.searadar.api.message.SearadarStationMessage;
+import ru.oogis.searadar.api.message.TrackedTargetMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestMr231 {
+
+    /**
+     * Проверяет сериализацию сообщений с отложенным разбором, в том числе с еще не разобранными полями.
+     */
+    @Test
+    void TestLazySerialization() throws Exception {
+        // Setup
+        Mr231Converter lazy = new Mr231StationType().createConverter(MessageRepresentation.LAZY);
+        String ttm = "$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        String rsd = "$RARSD,36.5,331.4,8.4,320.6,,,,,11.6,185.3,96.0,N,N,S*33";
+        SearadarStationMessage lazyTtm = lazy.convert(ttm).get(0);
+        SearadarStationMessage lazyRsd = lazy.convert(rsd).get(0);
+
+        // Execution
+        SearadarStationMessage restoredTtm = roundTrip(lazyTtm);
+        SearadarStationMessage restoredRsd = roundTrip(lazyRsd);
+
+        // Assertion
+        assertTrue(restoredTtm instanceof LazyTrackedTargetMessage);
+        assertTrue(restoredRsd instanceof LazyRadarSystemDataMessage);
+        assertEquals(ttm, ((LazyTrackedTargetMessage) restoredTtm).getSentence());
+        assertEquals(lazyTtm.toString(), restoredTtm.toString());
+        assertEquals(lazyRsd.toString(), restoredRsd.toString());
+        assertEquals(Integer.valueOf(66), ((LazyTrackedTargetMessage) restoredTtm).getTargetNumber());
+    }
+
+    /**
+     * Проверяет, что предложение с начальными пробелами одинаково разбирается из строки и из блока.
+     */
+    @Test
+    void TestLeadingWhitespace() {
+        // Setup
+        Mr231Converter converter = new Mr231StationType().createConverter();
+        String ttm = "  \t$RATTM,66,28.71,341.1,T,57.6,024.5,T,0.4,4.1,N,b,L,,457362,А*42";
+        List<SearadarStationMessage> block = new ArrayList<>();
+
+        // Execution
+        List<SearadarStationMessage> single = converter.convert(ttm);
+        converter.convert((CharSequence) ttm, block);
+
+        // Assertion
+        assertTrue(single.get(0) instanceof TrackedTargetMessage);
+        assertEquals(Integer.valueOf(66), ((TrackedTargetMessage) single.get(0)).getTargetNumber());
+        assertEquals(block.get(0).toString().replaceAll("msg(Rec)?Time=[^,]*", ""),
+                single.get(0).toString().replaceAll("msg(Rec)?Time=[^,]*", ""));
+    }
+
+    private static SearadarStationMessage roundTrip(SearadarStationMessage message) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (SearadarStationMessage) in.readObject();
+        }
+    }
+}
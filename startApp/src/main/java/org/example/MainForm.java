@@ -5,7 +5,9 @@ import org.example.dao.TTMMessageDAO;
 import org.example.model.MessageFormat;
 import org.example.model.TTMMessage;
 import org.example.searadar.mr231.convert.Mr231Converter;
+import org.example.searadar.mr231.station.Mr231StationType;
 import org.example.searadar.mr231_3.convert.Mr231_3Converter;
+import org.example.searadar.mr231_3.station.Mr231_3StationType;
 import ru.oogis.searadar.api.message.SearadarStationMessage;
 
 import javax.swing.*;
@@ -30,6 +32,8 @@ public class MainForm extends JFrame {
     private JTable messagesTable;
     private JList<String> decryptionList;
     private DefaultListModel<String> decryptionListModel;
+    private final Mr231Converter mr231Converter = new Mr231StationType().createConverter();
+    private final Mr231_3Converter mr231_3Converter = new Mr231_3StationType().createConverter();
 
     /**
      * Конструктор главной формы.
@@ -191,11 +195,9 @@ public class MainForm extends JFrame {
         List<SearadarStationMessage> convertedMessages;
 
         if (formatId == 1) {
-            Mr231Converter converter = new Mr231Converter();
-            convertedMessages = converter.convert(encryptedMessage);
+            convertedMessages = mr231Converter.convert(encryptedMessage);
         } else if (formatId == 2) {
-            Mr231_3Converter converter = new Mr231_3Converter();
-            convertedMessages = converter.convert(encryptedMessage);
+            convertedMessages = mr231_3Converter.convert(encryptedMessage);
         } else {
             return "Неоднозначный формат";
         }